@@ -0,0 +1,236 @@
+package romanemperorsscraper.run;
+
+import romanemperorsscraper.scraping.ExportSerializer;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.ScrapeSession;
+import romanemperorsscraper.scraping.dynasties.DynastiesCrawler;
+import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.people.InfoboxFieldRegistry;
+import romanemperorsscraper.scraping.people.PersonPageData;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class used to scrape dynasties without any
+ * Swing frame (e.g. on a server, on a schedule) and
+ * write them into an export file with the same format
+ * the UI's ExportButton produces.
+ *
+ * @see RomanEmperorsScraper
+ * @see ExportSerializer
+ *
+ * @author Matteo Collica
+ */
+public class HeadlessScraper {
+    /*
+     * PREVENT INSTANTIATION WITH A PRIVATE CONSTRUCTOR
+     */
+
+    private HeadlessScraper() {
+        throw new java.lang.UnsupportedOperationException(
+            "As a utility class, this class must not be instantiated"
+        );
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Scrape some dynasties (or all of them) and write them into an export file,
+     * printing a timing summary at the end. Dynasties which can't be scraped are
+     * reported and left out of the export file.
+     *
+     * @param dynastyPageUrls the Wikipedia page URLs of the dynasties to be scraped (all of them if empty)
+     * @param exportFilePath the path of the export file to be written (a default name is used if null)
+     *
+     * @return the exit status of the headless execution: 0 if every dynasty
+     *         was scraped and exported successfully, 1 otherwise
+     */
+    public static int run(List<String> dynastyPageUrls, String exportFilePath) {
+        long startNanos = System.nanoTime();
+
+        if(exportFilePath == null) {
+            exportFilePath = ExportSerializer.getDefaultExportFileName();
+        }
+
+        PageSource pageSource;
+
+        try {
+            if(RomanEmperorsScraper.isSeleniumEnabled()) {
+                OsUtils.initializeOs();
+            }
+
+            pageSource = OsUtils.getPageSource();
+        } catch(UnsupportedOsException | NoSupportedBrowsersException ex) {
+            System.out.println(ex.getMessage());
+
+            return 1;
+        }
+
+        /*
+         * (Dynasty name : scraping time in milliseconds) entries,
+         * or (Dynasty name : -1) for the dynasties that failed
+         */
+
+        TreeMap<String, Long> dynastiesTimings = new TreeMap<>();
+
+        ScrapeSession scrapeSession = new ScrapeSession();
+
+        boolean failed = false;
+
+        try {
+            HashMap<String, String> dynastiesToBeScraped = getDynastiesToBeScraped(pageSource, dynastyPageUrls);
+
+            if(dynastiesToBeScraped.size() < Math.max(1, dynastyPageUrls.size())) {
+                failed = true;
+            }
+
+            /*
+             * Dynasties share many people, so they're all scraped at the same
+             * time against the same PageSource: each person's page is fetched
+             * at most once, by whichever dynasty's crawl reaches it first
+             */
+
+            System.out.println("Scraping " + dynastiesToBeScraped.size() + " dynasties: " + dynastiesToBeScraped.values());
+
+            for(DynastiesCrawler.DynastyCrawlResult result : new DynastiesCrawler(scrapeSession, pageSource).crawl(dynastiesToBeScraped).values()) {
+                String dynastyName = result.getDynastyName();
+
+                if(result.hasSucceeded()) {
+                    dynastiesTimings.put(dynastyName, result.getMillis());
+                } else {
+                    System.out.println("Unable to scrape the " + dynastyName + ": " + result.getFailure().getMessage());
+
+                    if(RomanEmperorsScraper.isDebugEnabled()) {
+                        result.getFailure().printStackTrace();
+                    }
+
+                    dynastiesTimings.put(dynastyName, -1L);
+
+                    failed = true;
+                }
+            }
+        } catch(RuntimeException ex) {
+            System.out.println("Unable to scrape the list of dynasties: " + ex.getMessage());
+
+            return 1;
+        } finally {
+            pageSource.close();
+        }
+
+        long scrapingMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        Map<String, Dynasty> scrapedDynasties = scrapeSession.getStoredDynasties();
+        Map<String, PersonPageData> scrapedPeople = scrapeSession.getUrlPersonPageDataMatches();
+
+        if(!scrapedDynasties.isEmpty()) {
+            try {
+                ExportSerializer.writeExportFile(exportFilePath, scrapedDynasties, scrapedPeople);
+
+                System.out.println("Data of " + scrapedPeople.size() + " people from "
+                        + scrapedDynasties.size() + " dynasties exported to '" + exportFilePath + "'");
+            } catch(IOException ex) {
+                System.out.println("Unable to write the export file '" + exportFilePath + "': " + ex.getMessage());
+
+                failed = true;
+            }
+        }
+
+        printTimingSummary(scrapeSession, dynastiesTimings, scrapingMillis, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+
+        return failed ? 1 : 0;
+    }
+
+    /**
+     * Get the dynasties to be scraped, with their names, from the roman emperors page
+     *
+     * @param pageSource the PageSource to be used to scrape the list of dynasties
+     * @param dynastyPageUrls the Wikipedia page URLs of the requested dynasties (all of them if empty)
+     *
+     * @return an HashMap of (dynasty Wikipedia page URL : dynasty english name) entries,
+     *         without the requested dynasties that could not be found
+     */
+    private static HashMap<String, String> getDynastiesToBeScraped(PageSource pageSource, List<String> dynastyPageUrls) {
+        HashMap<String, String> dynasties = Dynasty.getDynasties(pageSource);
+
+        if(dynastyPageUrls.isEmpty()) {
+            return dynasties;
+        }
+
+        HashMap<String, String> dynastiesToBeScraped = new HashMap<>();
+
+        for(String dynastyPageUrl : dynastyPageUrls) {
+            boolean found = false;
+
+            for(Map.Entry<String, String> entry : dynasties.entrySet()) {
+                if(Dynasty.dynastyPageUrlEquals(entry.getKey(), dynastyPageUrl)) {
+                    dynastiesToBeScraped.put(entry.getKey(), entry.getValue());
+
+                    found = true;
+                }
+            }
+
+            if(!found) {
+                System.out.println("Unknown dynasty '" + dynastyPageUrl + "', known ones are: " + dynasties.keySet());
+            }
+        }
+
+        return dynastiesToBeScraped;
+    }
+
+    /**
+     * Print how long each dynasty (and the whole execution) took
+     *
+     * @param scrapeSession the ScrapeSession the dynasties have been scraped into
+     * @param dynastiesTimings an HashMap of (dynasty name : scraping time in milliseconds, -1 if failed) entries
+     * @param scrapingMillis the time spent scraping, in milliseconds
+     * @param totalMillis the total time of the execution (export included), in milliseconds
+     */
+    private static void printTimingSummary(ScrapeSession scrapeSession, TreeMap<String, Long> dynastiesTimings, long scrapingMillis, long totalMillis) {
+        Map<String, Map<String, String>> dynastiesPeopleList = scrapeSession.getDynastiesPeopleList();
+
+        System.out.println();
+        System.out.println("*----------------------------------------------------------------------------");
+        System.out.println("Timing summary (" + RomanEmperorsScraper.getWorkers() + " fetch workers)");
+        System.out.println();
+
+        for(Map.Entry<String, Long> entry : dynastiesTimings.entrySet()) {
+            String dynastyName = entry.getKey();
+            long dynastyMillis = entry.getValue();
+
+            if(dynastyMillis < 0) {
+                System.out.println(String.format("- %-30s FAILED", dynastyName));
+
+                continue;
+            }
+
+            int peopleCount = 0;
+
+            for(Dynasty dynasty : scrapeSession.getStoredDynasties().values()) {
+                if(dynasty.getName().equals(dynastyName) && dynastiesPeopleList.containsKey(dynasty.getWikipediaPageUrl())) {
+                    peopleCount = dynastiesPeopleList.get(dynasty.getWikipediaPageUrl()).size();
+                }
+            }
+
+            System.out.println(String.format("- %-30s %8d ms  %4d people", dynastyName, dynastyMillis, peopleCount));
+        }
+
+        System.out.println();
+        System.out.println("Summary table fields:");
+
+        for(InfoboxFieldRegistry.Field field : PersonPageData.getFieldExtractors().getFields()) {
+            System.out.println(String.format("- %-30s %8d lines  %6d ms", field.getName(), field.getHits(),
+                    TimeUnit.NANOSECONDS.toMillis(field.getNanos())));
+        }
+
+        System.out.println();
+        System.out.println(String.format("Scraping: %d ms, total: %d ms", scrapingMillis, totalMillis));
+        System.out.println("*----------------------------------------------------------------------------");
+    }
+}
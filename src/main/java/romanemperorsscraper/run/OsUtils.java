@@ -1,12 +1,23 @@
 package romanemperorsscraper.run;
 
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.ie.InternetExplorerDriver;
 import org.openqa.selenium.safari.SafariDriver;
+import romanemperorsscraper.scraping.HttpPageSource;
+import romanemperorsscraper.scraping.PageCache;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.SeleniumPageSource;
 
 import java.io.File;
 import java.io.IOException;
@@ -14,12 +25,17 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 
 /**
  * Utility class providing methods that should exhibit
  * a different behavior depending on the Operating System
  * the program is running in, like setting and getting a
- * WebDriver session for scraping or the OS detection itself.
+ * PageSource or WebDriver session for scraping or the OS
+ * detection itself.
  *
  * @see UnsupportedOsException
  * @see NoSupportedBrowsersException
@@ -55,6 +71,23 @@ public class OsUtils {
         IE
     }
 
+    /*
+     * Scraping only needs pages' DOM text and links, so unless a full
+     * browser was asked for through the command line, browsers are
+     * started headless and without loading these kinds of resources
+     */
+
+    private static final List<String> BLOCKED_URL_PATTERNS = Arrays.asList(
+            /* MediaWiki serves stylesheets and fonts through its ResourceLoader */
+            "*load.php*only=styles*",
+            "*.css", "*.css?*",
+            "*.woff", "*.woff2", "*.ttf", "*.otf",
+            /* Images and media are served by Wikimedia's upload servers */
+            "*upload.wikimedia.org*",
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.svg", "*.webp",
+            "*.mp3", "*.mp4", "*.ogg", "*.ogv", "*.oga", "*.webm"
+    );
+
     /*
      * PREVENT INSTANTIATION WITH A PRIVATE CONSTRUCTOR
      */
@@ -70,16 +103,51 @@ public class OsUtils {
      */
 
     /**
-     * Create and get a new WebDriver instance based on the user's first supported
+     * Create and get a new PageSource to be used to scrape pages: a browserless
+     * HTTP one (backed by the program's page cache, unless disabled through the
+     * command line) by default or, if the Selenium backend was chosen through
+     * the command line, one based on the program's pool of WebDriver sessions
+     * (which is warmed up with a first session if it's still empty).
+     *
+     * @return the newly created PageSource instance.
+     * @throws NoSupportedBrowsersException if the Selenium backend was chosen and no
+     * supported browser is installed or functioning with Selenium in the user's
+     * operating system.
+     */
+    public static PageSource getPageSource() throws NoSupportedBrowsersException {
+        if(RomanEmperorsScraper.isSeleniumEnabled()) {
+            WebDriverPool webDriverPool = WebDriverPool.getInstance();
+
+            /*
+             * Make sure a browser is working before returning,
+             * as the pool only starts sessions when needed
+             */
+
+            webDriverPool.release(webDriverPool.checkout());
+
+            return new SeleniumPageSource(webDriverPool);
+        }
+
+        PageCache pageCache = RomanEmperorsScraper.isCacheEnabled() ? PageCache.getInstance() : null;
+
+        return new HttpPageSource(pageCache, RomanEmperorsScraper.isOfflineEnabled());
+    }
+
+    /**
+     * Create and get a new WebDriver instance (prefer reusing one through
+     * the WebDriverPool) based on the user's first supported
      * browser found, with a Firefox {@literal >} Chrome {@literal >} Edge {@literal >} (Safari / IE) priority;<br>
      * <br>
-     * Set the drivers' path if they're needed and were not already set.
+     * Set the drivers' path if they're needed and were not already set.<br>
+     * <br>
+     * Synchronized as the WebDriverPool may ask for more sessions at once
+     * while the supported browser is still being detected.
      *
      * @return the newly created WebDriver instance.
      * @throws NoSupportedBrowsersException if no supported browser is installed
      * or functioning with Selenium in the user's operating system.
      */
-    public static WebDriver getWebDriver() throws NoSupportedBrowsersException {
+    public static synchronized WebDriver getWebDriver() throws NoSupportedBrowsersException {
         WebDriver webDriver;
 
         String messageInitialPart = "Detected ";
@@ -106,7 +174,7 @@ public class OsUtils {
             try {
                 setWebDriverSystemPath(SupportedBrowser.FIREFOX);
 
-                webDriver = new FirefoxDriver();
+                webDriver = createFirefoxDriver();
 
                 BROWSER = SupportedBrowser.FIREFOX;
 
@@ -115,7 +183,7 @@ public class OsUtils {
                 try {
                     setWebDriverSystemPath(SupportedBrowser.CHROME);
 
-                    webDriver = new ChromeDriver();
+                    webDriver = createChromeDriver();
 
                     BROWSER = SupportedBrowser.CHROME;
 
@@ -124,7 +192,7 @@ public class OsUtils {
                     try {
                         setWebDriverSystemPath(SupportedBrowser.EDGE);
 
-                        webDriver = new EdgeDriver();
+                        webDriver = createEdgeDriver();
 
                         BROWSER = SupportedBrowser.EDGE;
 
@@ -164,12 +232,12 @@ public class OsUtils {
             try {
                 switch(BROWSER) {
                     case FIREFOX:
-                        webDriver = new FirefoxDriver();
+                        webDriver = createFirefoxDriver();
 
                         break;
 
                     case CHROME:
-                        webDriver = new ChromeDriver();
+                        webDriver = createChromeDriver();
                         break;
 
                     case SAFARI:
@@ -177,7 +245,7 @@ public class OsUtils {
                         break;
 
                     case EDGE:
-                        webDriver = new EdgeDriver();
+                        webDriver = createEdgeDriver();
                         break;
 
                     case IE:
@@ -198,6 +266,110 @@ public class OsUtils {
         return webDriver;
     }
 
+    /**
+     * @return a new FirefoxDriver, headless and not loading images, media
+     * and fonts unless a full browser was asked for through the command line
+     */
+    private static WebDriver createFirefoxDriver() {
+        FirefoxOptions firefoxOptions = new FirefoxOptions();
+
+        if(!RomanEmperorsScraper.isFullBrowserEnabled()) {
+            firefoxOptions.setHeadless(true);
+            firefoxOptions.setPageLoadStrategy(PageLoadStrategy.EAGER);
+
+            /*
+             * Firefox has no preference to block stylesheets, which is why they're
+             * still loaded (without a window, they don't cost much rendering time)
+             */
+
+            firefoxOptions.addPreference("permissions.default.image", 2);
+            firefoxOptions.addPreference("browser.display.use_document_fonts", 0);
+            firefoxOptions.addPreference("media.autoplay.default", 5);
+            firefoxOptions.addPreference("media.preload.default", 0);
+            firefoxOptions.addPreference("media.preload.auto", 0);
+        }
+
+        return new FirefoxDriver(firefoxOptions);
+    }
+
+    /**
+     * @return a new ChromeDriver, headless and not loading images, media,
+     * fonts and stylesheets unless a full browser was asked for through the
+     * command line
+     */
+    private static WebDriver createChromeDriver() {
+        ChromeOptions chromeOptions = new ChromeOptions();
+
+        if(RomanEmperorsScraper.isFullBrowserEnabled()) {
+            return new ChromeDriver(chromeOptions);
+        }
+
+        setChromiumScrapingOptions(chromeOptions);
+
+        return blockChromiumResources(new ChromeDriver(chromeOptions));
+    }
+
+    /**
+     * @return a new EdgeDriver, headless and not loading images, media,
+     * fonts and stylesheets unless a full browser was asked for through the
+     * command line
+     */
+    private static WebDriver createEdgeDriver() {
+        EdgeOptions edgeOptions = new EdgeOptions();
+
+        if(RomanEmperorsScraper.isFullBrowserEnabled()) {
+            return new EdgeDriver(edgeOptions);
+        }
+
+        setChromiumScrapingOptions(edgeOptions);
+
+        return blockChromiumResources(new EdgeDriver(edgeOptions));
+    }
+
+    /**
+     * Set up a Chromium-based browser (Chrome or Edge) to be started headless,
+     * with an eager page load strategy and without loading images
+     *
+     * @param chromiumOptions the browser's options
+     */
+    private static void setChromiumScrapingOptions(ChromiumOptions<?> chromiumOptions) {
+        chromiumOptions.setHeadless(true);
+        chromiumOptions.setPageLoadStrategy(PageLoadStrategy.EAGER);
+
+        HashMap<String, Object> preferences = new HashMap<>();
+
+        preferences.put("profile.managed_default_content_settings.images", 2);
+
+        chromiumOptions.setExperimentalOption("prefs", preferences);
+    }
+
+    /**
+     * Block the requests for stylesheets, fonts, images and media of
+     * a Chromium-based browser (Chrome or Edge) through DevTools
+     *
+     * @param chromiumDriver the browser's WebDriver session
+     *
+     * @return the same WebDriver session
+     */
+    private static WebDriver blockChromiumResources(ChromiumDriver chromiumDriver) {
+        try {
+            chromiumDriver.executeCdpCommand("Network.enable", Collections.emptyMap());
+            chromiumDriver.executeCdpCommand("Network.setBlockedURLs",
+                    Collections.singletonMap("urls", BLOCKED_URL_PATTERNS));
+        } catch(WebDriverException ex) {
+            /*
+             * Not being able to block resources only makes
+             * pages load slower, so we just go on without it
+             */
+
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Unable to block page resources: " + ex.getMessage());
+            }
+        }
+
+        return chromiumDriver;
+    }
+
     /**
      * Given a browser, set the corresponding driver path System Property
      * (required by Selenium to get the WebDriver's instances working)
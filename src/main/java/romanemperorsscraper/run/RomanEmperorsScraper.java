@@ -8,6 +8,7 @@ import javax.imageio.ImageIO;
 import javax.swing.JOptionPane;
 import java.awt.Image;
 import java.io.IOException;
+import java.util.ArrayList;
 
 /**
  * RomanEmperorsScraper's goal is the creation of family trees relating to
@@ -26,6 +27,16 @@ public class RomanEmperorsScraper {
 
     private static boolean debugEnabled = false;
 
+    private static boolean seleniumEnabled = false;
+
+    private static boolean fullBrowserEnabled = false;
+
+    private static int workers = 4;
+
+    private static boolean cacheEnabled = true;
+
+    private static boolean offlineEnabled = false;
+
     /**
      * The main method begins the project's execution by detecting the
      * Operating System, setting up a custom Look and Feel for Swing and
@@ -42,16 +53,89 @@ public class RomanEmperorsScraper {
          *   To be used to get some additional debug
          *   information during the program's execution
          *
+         * > --selenium || -s
+         *   To scrape pages through a browser (with Selenium)
+         *   instead of the default browserless HTTP client
+         *
+         * > --full-browser || -f
+         *   To scrape through Selenium with a visible browser
+         *   loading every page resource (images, stylesheets,
+         *   fonts, [...]) instead of a headless one which only
+         *   loads what's needed to read pages' text and links
+         *
+         * > --workers <n> || -w <n>
+         *   To set how many pages can be fetched at the same
+         *   time while scraping a dynasty (4 by default)
+         *
+         * > --offline || -o
+         *   To only scrape pages already stored in the page
+         *   cache, without making any request to Wikipedia
+         *
+         * > --no-cache || -n
+         *   To always download pages instead of storing them
+         *   in (and reusing them from) the page cache
+         *
+         * > --scrape-all || -a
+         *   To scrape all the dynasties without any frame
+         *   (headless mode) and write them into an export file
+         *
+         * > --dynasty <url>
+         *   To scrape just the dynasty whose Wikipedia page URL
+         *   is given in headless mode (can be repeated)
+         *
+         * > --out <file>
+         *   To set the path of the export file written in
+         *   headless mode (export_<date>_<time>.json by default),
+         *   it requires --scrape-all or --dynasty to be given too
+         *
          * > -t
          *   To start just the tests instead of the program
          */
 
+        boolean headlessEnabled = false;
+        ArrayList<String> headlessDynastyPageUrls = new ArrayList<>();
+        String headlessExportFilePath = null;
+
         if(args.length > 0) {
-            for(String cliArg : args) {
+            for(int i = 0; i < args.length; i++) {
+                String cliArg = args[i];
+
                 if(cliArg.equals("--debug") || cliArg.equals("-d") || cliArg.equals("--verbose") || cliArg.equals("-v")) {
                     System.out.println("Debug/verbose mode enabled");
 
                     debugEnabled = true;
+                } else if (cliArg.equals("--selenium") || cliArg.equals("-s")) {
+                    System.out.println("Selenium scraping backend enabled");
+
+                    seleniumEnabled = true;
+                } else if (cliArg.equals("--full-browser") || cliArg.equals("-f")) {
+                    System.out.println("Full (visible) browser enabled");
+
+                    fullBrowserEnabled = true;
+                } else if ((cliArg.equals("--workers") || cliArg.equals("-w")) && i + 1 < args.length) {
+                    try {
+                        workers = Math.max(1, Integer.parseInt(args[++i]));
+
+                        System.out.println("Fetch workers set to " + workers);
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid number of fetch workers: " + args[i]);
+                    }
+                } else if (cliArg.equals("--offline") || cliArg.equals("-o")) {
+                    System.out.println("Offline mode enabled, pages will only be read from the cache");
+
+                    offlineEnabled = true;
+                } else if (cliArg.equals("--no-cache") || cliArg.equals("-n")) {
+                    System.out.println("Page cache disabled");
+
+                    cacheEnabled = false;
+                } else if (cliArg.equals("--scrape-all") || cliArg.equals("-a")) {
+                    headlessEnabled = true;
+                } else if (cliArg.equals("--dynasty") && i + 1 < args.length) {
+                    headlessEnabled = true;
+
+                    headlessDynastyPageUrls.add(args[++i]);
+                } else if (cliArg.equals("--out") && i + 1 < args.length) {
+                    headlessExportFilePath = args[++i];
                 } else if (cliArg.equals("--test") || cliArg.equals("-t")) {
                     try {
                         Tester.main(null);
@@ -64,6 +148,26 @@ public class RomanEmperorsScraper {
             }
         }
 
+        /*
+         * The export file is only written in headless mode, so an
+         * output path given without it would be silently ignored
+         */
+
+        if(headlessExportFilePath != null && !headlessEnabled) {
+            System.out.println("--out can only be used in headless mode, along with --scrape-all (-a) or --dynasty <url>");
+
+            System.exit(2);
+        }
+
+        /*
+         * In headless mode dynasties are scraped and exported
+         * without creating any frame, then the program exits
+         */
+
+        if(headlessEnabled) {
+            System.exit(HeadlessScraper.run(headlessDynastyPageUrls, headlessExportFilePath));
+        }
+
         /*
          * Our program was tested working on the following Operating Systems:
          * - Windows (10 / 11)
@@ -140,4 +244,44 @@ public class RomanEmperorsScraper {
     public static boolean isDebugEnabled() {
         return debugEnabled;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return true if pages should be scraped through a Selenium WebDriver
+     *         session, false if through the browserless HTTP client
+     */
+    public static boolean isSeleniumEnabled() {
+        return seleniumEnabled;
+    }
+
+    /**
+     * @return true if Selenium should use a visible browser loading every page
+     *         resource, false if a headless one only loading what's needed
+     */
+    public static boolean isFullBrowserEnabled() {
+        return fullBrowserEnabled;
+    }
+
+    /**
+     * @return the maximum number of pages to be fetched at the same time while
+     *         scraping a dynasty (actually capped by the scraping backend)
+     */
+    public static int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return true if pages downloaded through the HTTP client should be
+     *         stored in (and reused from) the page cache, false otherwise
+     */
+    public static boolean isCacheEnabled() {
+        return cacheEnabled || offlineEnabled;
+    }
+
+    /**
+     * @return true if pages should only be read from the page cache,
+     *         without making any request, false otherwise
+     */
+    public static boolean isOfflineEnabled() {
+        return offlineEnabled;
+    }
+}
@@ -0,0 +1,273 @@
+package romanemperorsscraper.run;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class keeping a pool of warm WebDriver sessions, so that a browser
+ * doesn't have to be started (which takes several seconds) each time
+ * pages have to be scraped through Selenium.
+ *
+ * Sessions are checked out and returned: a returned session is kept
+ * idle until it's checked out again, it stays unused for too long or
+ * the program exits, in which cases its browser is quit.
+ *
+ * @see OsUtils#getWebDriver()
+ * @see romanemperorsscraper.scraping.SeleniumPageSource
+ *
+ * @author Matteo Collica
+ */
+public class WebDriverPool {
+    /*
+     * ATTRIBUTES
+     */
+
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final long EVICTION_PERIOD_SECONDS = 30;
+
+    private static WebDriverPool instance;
+
+    private final int maxSize;
+
+    /* One permit for each session which may still be checked out */
+    private final Semaphore checkoutPermits;
+
+    /* Returned sessions, the most recently returned first */
+    private final ArrayDeque<IdleWebDriver> idleWebDrivers = new ArrayDeque<>();
+
+    private final ScheduledExecutorService evictionExecutor;
+
+    private boolean shutDown = false;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a WebDriverPool and start evicting its idle sessions
+     *
+     * @param maxSize the maximum number of sessions which can be open at the same time
+     */
+    public WebDriverPool(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.checkoutPermits = new Semaphore(this.maxSize, true);
+
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webdriver-pool-eviction");
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdleWebDrivers,
+                EVICTION_PERIOD_SECONDS, EVICTION_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Construct the program's WebDriverPool or get the already constructed one,
+     * whose sessions will all be quit when the program exits
+     *
+     * @return the program's WebDriverPool instance
+     */
+    public static synchronized WebDriverPool getInstance() {
+        if(instance == null) {
+            instance = new WebDriverPool(RomanEmperorsScraper.getWorkers());
+
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::shutdown, "webdriver-pool-shutdown"));
+        }
+
+        return instance;
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Check a WebDriver session out of the pool, waiting if the maximum number
+     * of sessions is already checked out. A warm session is reused if there is
+     * a healthy one, otherwise a new one is created.
+     *
+     * @return the checked out WebDriver session, to be returned through release()
+     * @throws NoSupportedBrowsersException if a new session had to be created but
+     * no supported browser is installed or functioning with Selenium
+     */
+    public WebDriver checkout() throws NoSupportedBrowsersException {
+        checkoutPermits.acquireUninterruptibly();
+
+        try {
+            WebDriver webDriver;
+
+            while((webDriver = pollIdleWebDriver()) != null) {
+                if(isHealthy(webDriver)) {
+                    return webDriver;
+                }
+
+                quit(webDriver);
+            }
+
+            return OsUtils.getWebDriver();
+        } catch(NoSupportedBrowsersException | RuntimeException ex) {
+            checkoutPermits.release();
+
+            throw ex;
+        }
+    }
+
+    /**
+     * Return a checked out WebDriver session to the pool, so that it can be reused
+     *
+     * @param webDriver the WebDriver session obtained through checkout()
+     */
+    public void release(WebDriver webDriver) {
+        boolean kept = false;
+
+        synchronized(idleWebDrivers) {
+            if(!shutDown) {
+                idleWebDrivers.push(new IdleWebDriver(webDriver));
+
+                kept = true;
+            }
+        }
+
+        if(!kept) {
+            quit(webDriver);
+        }
+
+        checkoutPermits.release();
+    }
+
+    /**
+     * Return a checked out WebDriver session which can't be used anymore,
+     * so that its browser is quit instead of being kept in the pool
+     *
+     * @param webDriver the WebDriver session obtained through checkout()
+     */
+    public void invalidate(WebDriver webDriver) {
+        quit(webDriver);
+
+        checkoutPermits.release();
+    }
+
+    /**
+     * Quit all the idle sessions and the ones still checked out as soon as they're
+     * returned. Called on exit, the pool shouldn't be used after this call.
+     */
+    public void shutdown() {
+        ArrayDeque<IdleWebDriver> webDriversToQuit;
+
+        synchronized(idleWebDrivers) {
+            shutDown = true;
+
+            webDriversToQuit = new ArrayDeque<>(idleWebDrivers);
+
+            idleWebDrivers.clear();
+        }
+
+        evictionExecutor.shutdownNow();
+
+        for(IdleWebDriver idleWebDriver : webDriversToQuit) {
+            quit(idleWebDriver.webDriver);
+        }
+    }
+
+    /**
+     * @return the maximum number of sessions which can be open at the same time
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the most recently returned idle session, null if there is none
+     */
+    private WebDriver pollIdleWebDriver() {
+        synchronized(idleWebDrivers) {
+            IdleWebDriver idleWebDriver = idleWebDrivers.poll();
+
+            return idleWebDriver != null ? idleWebDriver.webDriver : null;
+        }
+    }
+
+    /**
+     * Quit the sessions which have been idle for longer than IDLE_TIMEOUT_MILLIS
+     */
+    private void evictIdleWebDrivers() {
+        long now = System.currentTimeMillis();
+
+        ArrayDeque<WebDriver> webDriversToQuit = new ArrayDeque<>();
+
+        synchronized(idleWebDrivers) {
+            Iterator<IdleWebDriver> iterator = idleWebDrivers.iterator();
+
+            while(iterator.hasNext()) {
+                IdleWebDriver idleWebDriver = iterator.next();
+
+                if(now - idleWebDriver.idleSince > IDLE_TIMEOUT_MILLIS) {
+                    webDriversToQuit.add(idleWebDriver.webDriver);
+
+                    iterator.remove();
+                }
+            }
+        }
+
+        for(WebDriver webDriver : webDriversToQuit) {
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Quitting an idle WebDriver session");
+            }
+
+            quit(webDriver);
+        }
+    }
+
+    /**
+     * Check if a WebDriver session is still usable (e.g. its browser
+     * wasn't closed by the user and didn't crash)
+     *
+     * @param webDriver the WebDriver session to be checked
+     *
+     * @return true if the session responds, false otherwise
+     */
+    private static boolean isHealthy(WebDriver webDriver) {
+        try {
+            webDriver.getWindowHandle();
+
+            return true;
+        } catch(WebDriverException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Quit a WebDriver session ignoring any error (e.g. if its browser is already closed)
+     *
+     * @param webDriver the WebDriver session to be quit
+     */
+    private static void quit(WebDriver webDriver) {
+        try {
+            webDriver.quit();
+        } catch(WebDriverException ignored) {}
+    }
+
+    /**
+     * Class representing a session kept in the pool and the moment it was returned
+     */
+    private static class IdleWebDriver {
+        private final WebDriver webDriver;
+
+        private final long idleSince = System.currentTimeMillis();
+
+        private IdleWebDriver(WebDriver webDriver) {
+            this.webDriver = webDriver;
+        }
+    }
+}
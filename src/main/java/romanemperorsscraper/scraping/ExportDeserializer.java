@@ -0,0 +1,577 @@
+package romanemperorsscraper.scraping;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.dynasties.DynastySerializer;
+import romanemperorsscraper.scraping.people.PersonPageData;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Utility class providing methods to read export files (the ones written
+ * by ExportSerializer) without parsing them whole first: the file is
+ * tokenized incrementally, through json-simple's streaming ContentHandler
+ * interface, and each person is handed to a pool of decoder threads as
+ * soon as it's been read, so that people are turned into PersonPageData
+ * objects on all the cores while the rest of the file is still being read.
+ *
+ * Only the people waiting to be decoded (a bounded number of them) and
+ * the dynasties, which are a few, are kept as JSONObjects.
+ *
+ * Binary snapshots (see SnapshotWriter) are recognized by their first
+ * bytes and are mapped in memory instead, their records being decoded
+ * straight into PersonPageData and Dynasty objects.
+ *
+ * @see ExportSerializer
+ * @see romanemperorsscraper.ui.choice.ImportButton
+ *
+ * @author Matteo Collica
+ */
+public class ExportDeserializer {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* People are handed to the decoder threads in batches of this size */
+    private static final int PEOPLE_PER_BATCH = 64;
+
+    /* How many batches can wait to be decoded per decoder thread, before the reading waits for them */
+    private static final int PENDING_BATCHES_PER_DECODER = 4;
+
+    private static final AtomicInteger decoderThreadsCount = new AtomicInteger();
+
+    /*
+     * PREVENT INSTANTIATION WITH A PRIVATE CONSTRUCTOR
+     */
+
+    private ExportDeserializer() {
+        throw new java.lang.UnsupportedOperationException(
+            "As a utility class, this class must not be instantiated"
+        );
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Read an export file (compressed with gzip or not), decoding its
+     * people in parallel while it's being read, or a snapshot file
+     *
+     * @param exportFilePath the path of the export file to be read
+     * @param progressListener the listener to be notified of the reading's progress (may be null)
+     *
+     * @return the export's people and (still to be restored) dynasties
+     *
+     * @throws IOException if the export file could not be read or one of its people could not be decoded
+     *                     (an InterruptedIOException if the reading thread has been interrupted)
+     * @throws ParseException if the export file is not a valid JSON file
+     */
+    public static ImportedData readExportFile(String exportFilePath, ProgressListener progressListener) throws IOException, ParseException {
+        if (SnapshotReader.isSnapshotFile(exportFilePath)) {
+            return readSnapshotFile(exportFilePath, progressListener);
+        }
+
+        long fileSize = new File(exportFilePath).length();
+
+        CountingInputStream countingInputStream = new CountingInputStream(new FileInputStream(exportFilePath));
+
+        int decodersCount = Runtime.getRuntime().availableProcessors();
+
+        ExecutorService decoders = Executors.newFixedThreadPool(decodersCount, runnable -> {
+            Thread thread = new Thread(runnable, "export-decoder-" + decoderThreadsCount.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        ExportContentHandler exportContentHandler = new ExportContentHandler(decoders, decodersCount * PENDING_BATCHES_PER_DECODER,
+                () -> {
+                    if (progressListener != null) {
+                        progressListener.progressChanged(countingInputStream.getReadBytes(), fileSize);
+                    }
+                });
+
+        try (Reader reader = ExportSerializer.openExportStream(countingInputStream)) {
+            new JSONParser().parse(reader, exportContentHandler);
+
+            exportContentHandler.submitPendingPeople();
+        } finally {
+            decoders.shutdown();
+        }
+
+        try {
+            decoders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            decoders.shutdownNow();
+
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while decoding the export's people");
+        }
+
+        exportContentHandler.throwDecodingFailure();
+
+        if (progressListener != null) {
+            progressListener.progressChanged(fileSize, fileSize);
+        }
+
+        return new ImportedData(
+                exportContentHandler.hasPeople ? exportContentHandler.people : null,
+                exportContentHandler.serializedDynasties,
+                null
+        );
+    }
+
+    /**
+     * Map a snapshot file in memory and restore its people, its
+     * dynasties being restored once the people have been stored
+     *
+     * @param snapshotFilePath the path of the snapshot file to be read
+     * @param progressListener the listener to be notified of the reading's progress (may be null)
+     *
+     * @return the snapshot's people and (still to be restored) dynasties
+     *
+     * @throws IOException if the snapshot file could not be read or is corrupted
+     */
+    private static ImportedData readSnapshotFile(String snapshotFilePath, ProgressListener progressListener) throws IOException {
+        SnapshotReader snapshotReader = SnapshotReader.open(snapshotFilePath);
+
+        int peopleCount = snapshotReader.getRecordsCount(SnapshotWriter.PEOPLE_SECTION);
+
+        HashMap<String, PersonPageData> people = new HashMap<>(peopleCount * 4 / 3 + 1);
+
+        /* Each record begins with its person's URL, the one its number stands for in the other records */
+
+        String[] recordUrls = new String[peopleCount];
+
+        try {
+            for (int record = 0; record < peopleCount; record++) {
+                snapshotReader.seekRecord(SnapshotWriter.PEOPLE_SECTION, record);
+
+                recordUrls[record] = snapshotReader.readString();
+            }
+
+            for (int record = 0; record < peopleCount; record++) {
+                snapshotReader.seekRecord(SnapshotWriter.PEOPLE_SECTION, record);
+
+                String url = snapshotReader.readString();
+
+                people.put(url, new PersonPageData(url, snapshotReader, recordUrls));
+
+                if (record % PEOPLE_PER_BATCH == 0) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        snapshotReader.close();
+
+                        throw new InterruptedIOException("Interrupted while reading the snapshot's people");
+                    }
+
+                    if (progressListener != null) {
+                        progressListener.progressChanged(snapshotReader.getPosition(), snapshotReader.getSize());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            snapshotReader.close();
+
+            throw new IOException("Corrupted snapshot file: " + e, e);
+        }
+
+        if (progressListener != null) {
+            progressListener.progressChanged(snapshotReader.getSize(), snapshotReader.getSize());
+        }
+
+        return new ImportedData(people, null, snapshotReader);
+    }
+
+    /**
+     * Interface used to be notified of an export file's reading progress
+     */
+    public interface ProgressListener {
+        /**
+         * Notify the reading's progress, called on the reading thread
+         *
+         * @param readBytes the number of (possibly compressed) bytes of the file read so far
+         * @param fileSize the file's size, in bytes
+         */
+        void progressChanged(long readBytes, long fileSize);
+    }
+
+    /**
+     * Class used to hold an export file's content, which has to be closed
+     * once its dynasties have been restored (a snapshot file stays mapped
+     * in memory until then)
+     */
+    public static class ImportedData implements Closeable {
+        private final Map<String, PersonPageData> people;
+
+        private final JSONObject serializedDynasties;
+
+        private final SnapshotReader snapshotReader;
+
+        private ImportedData(Map<String, PersonPageData> people, JSONObject serializedDynasties, SnapshotReader snapshotReader) {
+            this.people = people;
+            this.serializedDynasties = serializedDynasties;
+            this.snapshotReader = snapshotReader;
+        }
+
+        /**
+         * @return the map of (person Wikipedia page URL : PersonPageData object)
+         *         entries, null if the file doesn't have a "people" object
+         */
+        public Map<String, PersonPageData> getPeople() {
+            return people;
+        }
+
+        /**
+         * @return true if the file has dynasties to be restored (even if
+         *         none), false if it doesn't have a "dynasties" object
+         */
+        public boolean hasDynasties() {
+            return serializedDynasties != null || snapshotReader != null;
+        }
+
+        /**
+         * Restore the file's dynasties, once its people have been stored
+         * in the ScrapeSession (the dynasties' founders are taken from there)
+         *
+         * @param scrapeSession the ScrapeSession the people have been stored into
+         *
+         * @return the restored dynasties by their Wikipedia page URL (see DynastySerializer)
+         *
+         * @throws IOException if the file is a corrupted snapshot file
+         */
+        public HashMap<String, Dynasty> restoreDynasties(ScrapeSession scrapeSession) throws IOException {
+            if (snapshotReader == null) {
+                return DynastySerializer.deserializeDynastiesHashMap(scrapeSession, serializedDynasties);
+            }
+
+            try {
+                return DynastySerializer.readDynastiesHashMap(scrapeSession, snapshotReader);
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupted snapshot file: " + e, e);
+            }
+        }
+
+        /**
+         * Release the export file (the dynasties can't be restored anymore)
+         */
+        @Override
+        public void close() {
+            if (snapshotReader != null) {
+                snapshotReader.close();
+            }
+        }
+    }
+
+    /**
+     * Class used to handle the parser's events: the "dynasties" object is
+     * built whole, while the "people" object's entries are built one at a
+     * time and handed to the decoder threads (other root entries are skipped)
+     */
+    private static class ExportContentHandler implements ContentHandler {
+        private final ExecutorService decoders;
+
+        private final Semaphore pendingBatches;
+
+        private final Runnable progressAction;
+
+        /* The people decoded so far, by their Wikipedia page URL */
+        private final ConcurrentHashMap<String, PersonPageData> people = new ConcurrentHashMap<>();
+
+        private final AtomicReference<RuntimeException> decodingFailure = new AtomicReference<>();
+
+        private boolean hasPeople = false;
+
+        private JSONObject serializedDynasties;
+
+        /* The root entry being read ("people", "dynasties" [...]), null outside of them */
+        private String section;
+
+        /* How many objects and arrays are open, the root object included */
+        private int depth = 0;
+
+        /* The objects and arrays being built, and the names of their values being built */
+        private final ArrayDeque<Object> containers = new ArrayDeque<>();
+        private final ArrayDeque<String> names = new ArrayDeque<>();
+
+        private String personUrl;
+
+        private ArrayList<String> batchUrls = new ArrayList<>(PEOPLE_PER_BATCH);
+        private ArrayList<JSONObject> batchPeople = new ArrayList<>(PEOPLE_PER_BATCH);
+
+        private ExportContentHandler(ExecutorService decoders, int maxPendingBatches, Runnable progressAction) {
+            this.decoders = decoders;
+            this.pendingBatches = new Semaphore(maxPendingBatches);
+            this.progressAction = progressAction;
+        }
+
+        /**
+         * @return true if a value starting at the current depth is to be built
+         */
+        private boolean isBuilding() {
+            return ("dynasties".equals(section) && depth >= 2) || (isReadingPeople() && depth >= 3);
+        }
+
+        /**
+         * @return true if the "people" object is being read
+         */
+        private boolean isReadingPeople() {
+            return "people".equals(section) && hasPeople;
+        }
+
+        @Override
+        public void startJSON() {}
+
+        @Override
+        public void endJSON() {}
+
+        @Override
+        public boolean startObject() {
+            depth++;
+
+            if (isBuilding()) {
+                containers.push(new JSONObject());
+            } else if (depth == 2 && "people".equals(section) && !hasPeople) {
+                hasPeople = true;
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean endObject() throws IOException {
+            return endContainer();
+        }
+
+        @Override
+        public boolean startArray() {
+            depth++;
+
+            if (isBuilding()) {
+                containers.push(new JSONArray());
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean endArray() throws IOException {
+            return endContainer();
+        }
+
+        @Override
+        public boolean startObjectEntry(String name) {
+            if (depth == 1) {
+                section = name;
+            } else if (depth == 2 && isReadingPeople()) {
+                personUrl = name;
+            } else if (!containers.isEmpty()) {
+                names.push(name);
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean endObjectEntry() {
+            if (depth == 1) {
+                section = null;
+            } else if (!containers.isEmpty() && containers.peek() instanceof JSONObject) {
+                names.pop();
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object value) throws IOException {
+            if (!containers.isEmpty()) {
+                addValue(value);
+            } else if (depth == 2 && isReadingPeople()) {
+                throw new IOException("The person " + personUrl + " is not a JSON object");
+            }
+
+            return true;
+        }
+
+        private boolean endContainer() throws IOException {
+            boolean built = isBuilding();
+
+            depth--;
+
+            if (!built) {
+                return true;
+            }
+
+            Object container = containers.pop();
+
+            if (!containers.isEmpty()) {
+                addValue(container);
+            } else if ("dynasties".equals(section)) {
+                serializedDynasties = container instanceof JSONObject ? (JSONObject) container : null;
+            } else if (container instanceof JSONObject) {
+                addPerson(personUrl, (JSONObject) container);
+            } else {
+                throw new IOException("The person " + personUrl + " is not a JSON object");
+            }
+
+            /* Decoding stops at the first person which could not be decoded */
+
+            return decodingFailure.get() == null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void addValue(Object value) {
+            Object container = containers.peek();
+
+            if (container instanceof JSONObject) {
+                ((JSONObject) container).put(names.peek(), value);
+            } else {
+                ((JSONArray) container).add(value);
+            }
+        }
+
+        private void addPerson(String url, JSONObject serializedPersonPageData) throws IOException {
+            batchUrls.add(url);
+            batchPeople.add(serializedPersonPageData);
+
+            if (batchUrls.size() == PEOPLE_PER_BATCH) {
+                submitPendingPeople();
+            }
+        }
+
+        /**
+         * Hand the people read since the last batch to the decoder threads, waiting for
+         * a free slot if too many batches are already waiting to be decoded
+         */
+        private void submitPendingPeople() throws IOException {
+            if (batchUrls.isEmpty()) {
+                return;
+            }
+
+            ArrayList<String> urls = batchUrls;
+            ArrayList<JSONObject> serializedPeople = batchPeople;
+
+            batchUrls = new ArrayList<>(PEOPLE_PER_BATCH);
+            batchPeople = new ArrayList<>(PEOPLE_PER_BATCH);
+
+            try {
+                pendingBatches.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Interrupted while reading the export's people");
+            }
+
+            decoders.execute(() -> {
+                try {
+                    for (int i = 0; i < urls.size() && decodingFailure.get() == null; i++) {
+                        if (RomanEmperorsScraper.isDebugEnabled()) {
+                            System.out.println("De-serialization in progress for " + urls.get(i));
+                        }
+
+                        try {
+                            people.put(urls.get(i), new PersonPageData(urls.get(i), serializedPeople.get(i)));
+                        } catch (RuntimeException e) {
+                            decodingFailure.compareAndSet(null, new IllegalArgumentException("The person " + urls.get(i) + " could not be decoded", e));
+                        }
+                    }
+                } finally {
+                    pendingBatches.release();
+                }
+            });
+
+            progressAction.run();
+        }
+
+        private void throwDecodingFailure() throws IOException {
+            RuntimeException failure = decodingFailure.get();
+
+            if (failure != null) {
+                throw new IOException(failure.getMessage(), failure.getCause());
+            }
+        }
+    }
+
+    /**
+     * Class used to count the bytes read from a stream, to report the reading's progress
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private volatile long readBytes = 0;
+
+        private CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            throwIfInterrupted();
+
+            int readByte = super.read();
+
+            if (readByte != -1) {
+                readBytes++;
+            }
+
+            return readByte;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            throwIfInterrupted();
+
+            int readCount = super.read(buffer, offset, length);
+
+            if (readCount > 0) {
+                readBytes += readCount;
+            }
+
+            return readCount;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skippedCount = super.skip(count);
+
+            readBytes += skippedCount;
+
+            return skippedCount;
+        }
+
+        private long getReadBytes() {
+            return readBytes;
+        }
+
+        /* Reading a file can't be interrupted, so an interrupted import stops at the next read */
+        private void throwIfInterrupted() throws InterruptedIOException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted while reading the export file");
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package romanemperorsscraper.scraping;
+
+import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.dynasties.DynastySerializer;
+import romanemperorsscraper.scraping.people.PersonPageData;
+import romanemperorsscraper.scraping.people.PersonPageDataSerializer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utility class providing methods to serialize
+ * scraped dynasties and people into an export
+ * file, shared by the UI's ExportButton and the
+ * headless scraper so that both produce the same
+ * format (the one ImportButton reads).
+ *
+ * Besides JSON, exports can be written as binary
+ * snapshots, which are smaller and faster to load.
+ *
+ * @see DynastySerializer
+ * @see PersonPageDataSerializer
+ * @see romanemperorsscraper.ui.choice.ExportButton
+ * @see romanemperorsscraper.run.HeadlessScraper
+ *
+ * @author Matteo Collica
+ */
+public class ExportSerializer {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* Export files whose name ends with this extension are compressed */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    /* Export files whose name ends with this extension are binary snapshots (see SnapshotWriter) */
+    public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /*
+     * PREVENT INSTANTIATION WITH A PRIVATE CONSTRUCTOR
+     */
+
+    private ExportSerializer() {
+        throw new java.lang.UnsupportedOperationException(
+            "As a utility class, this class must not be instantiated"
+        );
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Write the serialized form of an export: dynasties' Dynasty objects and
+     * people' PersonPageData objects are serialized inside two different
+     * children JSON Objects (which keys are "dynasties" and "people").
+     *
+     * Each dynasty and person is written as soon as it's serialized, so the
+     * memory needed doesn't grow with the number of people exported.
+     *
+     * @param jsonStreamWriter the JsonStreamWriter the export is written into
+     * @param unserializedDynasties a map of (dynasty Wikipedia page URL : Dynasty object) entries
+     * @param unserializedPeople a map of (person Wikipedia page URL : PersonPageData object) entries
+     *
+     * @throws IOException if the export could not be written
+     */
+    public static void writeExport(JsonStreamWriter jsonStreamWriter, Map<String, Dynasty> unserializedDynasties, Map<String, PersonPageData> unserializedPeople) throws IOException {
+        jsonStreamWriter.beginObject();
+
+        jsonStreamWriter.name("dynasties");
+
+        DynastySerializer.writeDynastiesHashMap(unserializedDynasties, jsonStreamWriter);
+
+        jsonStreamWriter.name("people");
+
+        PersonPageDataSerializer.writePersonPageDataHashMap(unserializedPeople, jsonStreamWriter);
+
+        jsonStreamWriter.endObject();
+    }
+
+    /**
+     * Write the binary form of an export: people' PersonPageData objects
+     * and dynasties' Dynasty objects are written as the records of the
+     * snapshot's two sections (people first, as they're restored first)
+     *
+     * @param snapshotWriter the SnapshotWriter the export is written into (which is then finished)
+     * @param unserializedDynasties a map of (dynasty Wikipedia page URL : Dynasty object) entries
+     * @param unserializedPeople a map of (person Wikipedia page URL : PersonPageData object) entries
+     *
+     * @throws IOException if the export could not be written
+     */
+    public static void writeSnapshot(SnapshotWriter snapshotWriter, Map<String, Dynasty> unserializedDynasties, Map<String, PersonPageData> unserializedPeople) throws IOException {
+        PersonPageDataSerializer.writePersonPageDataHashMap(unserializedPeople, snapshotWriter);
+
+        DynastySerializer.writeDynastiesHashMap(unserializedDynasties, snapshotWriter);
+
+        snapshotWriter.finish();
+    }
+
+    /**
+     * Serialize an export and write it into a file (in UTF-8), compressing
+     * it on the fly with gzip if the file's name ends with '.gz', or write
+     * it as a binary snapshot if the file's name ends with '.snapshot'
+     *
+     * @param exportFilePath the path of the export file to be written
+     * @param unserializedDynasties a map of (dynasty Wikipedia page URL : Dynasty object) entries
+     * @param unserializedPeople a map of (person Wikipedia page URL : PersonPageData object) entries
+     *
+     * @throws IOException if the export file could not be written
+     */
+    public static void writeExportFile(String exportFilePath, Map<String, Dynasty> unserializedDynasties, Map<String, PersonPageData> unserializedPeople) throws IOException {
+        if (exportFilePath.endsWith(SNAPSHOT_EXTENSION)) {
+            try (SnapshotWriter snapshotWriter = new SnapshotWriter(exportFilePath)) {
+                writeSnapshot(snapshotWriter, unserializedDynasties, unserializedPeople);
+            }
+
+            return;
+        }
+
+        OutputStream outputStream = new FileOutputStream(exportFilePath);
+
+        try {
+            if (exportFilePath.endsWith(GZIP_EXTENSION)) {
+                outputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            outputStream.close();
+
+            throw e;
+        }
+
+        try (JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            writeExport(jsonStreamWriter, unserializedDynasties, unserializedPeople);
+        }
+    }
+
+    /**
+     * Open an export file to be read (e.g. by a JSONParser), decompressing
+     * it on the fly if it's been compressed with gzip (whatever its name)
+     *
+     * @param exportFilePath the path of the export file to be read
+     *
+     * @return a buffered Reader of the export file's (decompressed) UTF-8 text
+     *
+     * @throws IOException if the export file could not be opened
+     */
+    public static Reader openExportFile(String exportFilePath) throws IOException {
+        return openExportStream(new FileInputStream(exportFilePath));
+    }
+
+    /**
+     * Open an export's stream to be read, decompressing it on the fly if it's been compressed with gzip
+     *
+     * @param exportInputStream the stream of the export file's bytes (closed along with the returned Reader)
+     *
+     * @return a buffered Reader of the export's (decompressed) UTF-8 text
+     *
+     * @throws IOException if the export's stream could not be read
+     */
+    static Reader openExportStream(InputStream exportInputStream) throws IOException {
+        InputStream inputStream = new BufferedInputStream(exportInputStream, BUFFER_SIZE);
+
+        try {
+            /* Gzip streams start with the 0x1f 0x8b magic number */
+
+            inputStream.mark(2);
+
+            boolean compressed = inputStream.read() == 0x1f && inputStream.read() == 0x8b;
+
+            inputStream.reset();
+
+            if (compressed) {
+                inputStream = new GZIPInputStream(inputStream, BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            inputStream.close();
+
+            throw e;
+        }
+
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Get a suggested name for an export file based on the current
+     * date and time, e.g. 'export_2022-05-22_21-15-17.json'
+     *
+     * @return the suggested export file name
+     */
+    public static String getDefaultExportFileName() {
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+
+        return "export_" + formatter.format(new Date()) + ".json";
+    }
+}
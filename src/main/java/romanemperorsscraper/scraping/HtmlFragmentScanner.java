@@ -0,0 +1,619 @@
+package romanemperorsscraper.scraping;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Class used to pick single elements out of a page's raw HTML without
+ * parsing the whole page: it tokenizes the HTML as it is read, only
+ * keeping track of the tags' names and classes, and copies the source
+ * of the elements with the requested classes (e.g. a "sinottico"
+ * summary table) so that just them can then be parsed into a DOM.
+ *
+ * Reading stops as soon as a requested element is closed, so callers
+ * which have found everything they need can stop reading the page
+ * before its end.
+ *
+ * The tokenizer doesn't apply all the HTML error recovery rules, it
+ * expects end tags to close the last open element with the same name
+ * (which is how Wikipedia's HTML is written).
+ *
+ * @see romanemperorsscraper.scraping.people.InfoboxSnapshot
+ *
+ * @author Matteo Collica
+ */
+public class HtmlFragmentScanner {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /*
+     * Elements which never have any content nor an end tag
+     */
+
+    private static final HashSet<String> VOID_TAGS = new HashSet<>(Arrays.asList(
+            "area", "base", "br", "col", "embed", "hr", "img", "input",
+            "link", "meta", "param", "source", "track", "wbr"
+    ));
+
+    /*
+     * Elements whose content is text up to their end tag,
+     * even if it looks like markup (e.g. "if (a <b) {}")
+     */
+
+    private static final HashSet<String> RAW_TEXT_TAGS = new HashSet<>(Arrays.asList(
+            "iframe", "noembed", "noframes", "script", "style", "textarea", "title", "xmp"
+    ));
+
+    /*
+     * ATTRIBUTES
+     */
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferPosition = 0;
+    private int bufferLength = 0;
+
+    /*
+     * The StringBuilder the characters being read are copied to (null if
+     * they aren't), with the buffer position they still have to be copied from
+     */
+
+    private StringBuilder sink;
+    private int sinkFrom;
+
+    /* The source of the start tag being read, while no element is being copied */
+    private final StringBuilder startTagSource = new StringBuilder();
+
+    /*
+     * The name of the last tag read, with the class attribute
+     * and whether it ends with "/>" if it's a start tag
+     */
+
+    private final StringBuilder tagName = new StringBuilder();
+    private String tagClass;
+    private boolean selfClosing;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct an HtmlFragmentScanner reading a page's HTML
+     *
+     * @param reader the Reader of the page's HTML (it isn't closed by the scanner)
+     */
+    public HtmlFragmentScanner(Reader reader) {
+        this.reader = reader;
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Read the page up to the end of the next element having one of the given
+     * classes, not considering the elements contained in the previous ones
+     *
+     * @param classNames the classes of the elements to be searched for
+     *
+     * @return the found element's Fragment, null if the end of the page has been reached
+     * @throws IOException if the page could not be read
+     */
+    public Fragment nextElementByClassNames(Collection<String> classNames) throws IOException {
+        int character;
+
+        while ((character = read()) != -1) {
+            if (character != '<') {
+                continue;
+            }
+
+            /*
+             * Keep the source of the tag, in case it's the start
+             * tag of one of the elements we're searching for
+             */
+
+            startTagSource.setLength(0);
+            startTagSource.append('<');
+            startSink(startTagSource, bufferPosition);
+
+            if (!readStartTag()) {
+                stopSink();
+
+                continue;
+            }
+
+            stopSink();
+
+            String matchedClassName = getMatchedClassName(tagClass, classNames);
+
+            if (matchedClassName != null) {
+                return readFragment(matchedClassName, classNames);
+            }
+
+            if (RAW_TEXT_TAGS.contains(tagName.toString())) {
+                skipRawText();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Read the element whose start tag has just been read up to its end tag
+     *
+     * @param matchedClassName the requested class the element has
+     * @param classNames the requested classes
+     *
+     * @return the element's Fragment
+     */
+    private Fragment readFragment(String matchedClassName, Collection<String> classNames) throws IOException {
+        StringBuilder source = new StringBuilder(startTagSource);
+
+        LinkedHashSet<String> containedClassNames = new LinkedHashSet<>();
+        addMatchedClassNames(tagClass, classNames, containedClassNames);
+
+        if (selfClosing || VOID_TAGS.contains(tagName.toString())) {
+            return new Fragment(matchedClassName, source.toString(), containedClassNames);
+        }
+
+        startSink(source, bufferPosition);
+
+        /* The end tag of a raw text element is consumed while skipping its content */
+
+        if (RAW_TEXT_TAGS.contains(tagName.toString())) {
+            skipRawText();
+            stopSink();
+
+            return new Fragment(matchedClassName, source.toString(), containedClassNames);
+        }
+
+        ArrayList<String> openElements = new ArrayList<>();
+        openElements.add(tagName.toString());
+
+        int character;
+
+        while (!openElements.isEmpty() && (character = read()) != -1) {
+            if (character != '<') {
+                continue;
+            }
+
+            int next = peek();
+
+            if (next == '/') {
+                read();
+                readTagName();
+                skipTagRest();
+
+                /*
+                 * An end tag closes the last open element with its name,
+                 * and all the ones opened after it (like </table> does
+                 * with any unclosed 'td' and 'tr' element)
+                 */
+
+                int openElementIndex = openElements.lastIndexOf(tagName.toString());
+
+                if (openElementIndex != -1) {
+                    openElements.subList(openElementIndex, openElements.size()).clear();
+                }
+            } else if (readStartTag()) {
+                addMatchedClassNames(tagClass, classNames, containedClassNames);
+
+                String name = tagName.toString();
+
+                if (RAW_TEXT_TAGS.contains(name)) {
+                    skipRawText();
+                } else if (!selfClosing && !VOID_TAGS.contains(name)) {
+                    openElements.add(name);
+                }
+            }
+        }
+
+        stopSink();
+
+        return new Fragment(matchedClassName, source.toString(), containedClassNames);
+    }
+
+    /**
+     * Read a tag after its '<' character: a start tag (setting its name and
+     * class), or any other markup (end tags, comments [...]) which is skipped
+     *
+     * @return true if a start tag has been read, false otherwise
+     */
+    private boolean readStartTag() throws IOException {
+        int next = peek();
+
+        if (next == '!') {
+            read();
+            skipDeclaration();
+
+            return false;
+        }
+
+        if (next == '/' || next == '?') {
+            skipTagRest();
+
+            return false;
+        }
+
+        if (!isAsciiLetter(next)) {
+            return false;
+        }
+
+        readTagName();
+        readAttributes();
+
+        return true;
+    }
+
+    /**
+     * Read a tag's name (in lower case) into tagName
+     */
+    private void readTagName() throws IOException {
+        tagName.setLength(0);
+
+        int next;
+
+        while ((next = peek()) != -1 && !isWhitespace(next) && next != '/' && next != '>') {
+            tagName.append(Character.toLowerCase((char) read()));
+        }
+    }
+
+    /**
+     * Read the attributes of a start tag up to its end, keeping its
+     * class attribute in tagClass (null if it has none)
+     */
+    private void readAttributes() throws IOException {
+        tagClass = null;
+        selfClosing = false;
+
+        StringBuilder attributeName = new StringBuilder();
+
+        int character;
+
+        while ((character = read()) != -1) {
+            if (character == '>') {
+                return;
+            }
+
+            if (isWhitespace(character)) {
+                continue;
+            }
+
+            if (character == '/') {
+                selfClosing = peek() == '>';
+
+                continue;
+            }
+
+            attributeName.setLength(0);
+            attributeName.append((char) character);
+
+            int next;
+
+            while ((next = peek()) != -1 && !isWhitespace(next) && next != '=' && next != '>' && next != '/') {
+                attributeName.append((char) read());
+            }
+
+            while ((next = peek()) != -1 && isWhitespace(next)) {
+                read();
+            }
+
+            if (next != '=') {
+                continue;
+            }
+
+            read();
+
+            while ((next = peek()) != -1 && isWhitespace(next)) {
+                read();
+            }
+
+            String value = readAttributeValue();
+
+            /* Like in browsers, only the first class attribute counts */
+
+            if (tagClass == null && attributeName.length() == 5 && attributeName.toString().equalsIgnoreCase("class")) {
+                tagClass = value;
+            }
+        }
+    }
+
+    /**
+     * Read an attribute's value, quoted or not
+     *
+     * @return the attribute's value
+     */
+    private String readAttributeValue() throws IOException {
+        StringBuilder value = new StringBuilder();
+
+        int quote = peek();
+
+        if (quote == '"' || quote == '\'') {
+            read();
+
+            int character;
+
+            while ((character = read()) != -1 && character != quote) {
+                value.append((char) character);
+            }
+        } else {
+            int next;
+
+            while ((next = peek()) != -1 && !isWhitespace(next) && next != '>') {
+                value.append((char) read());
+            }
+        }
+
+        return value.toString();
+    }
+
+    /**
+     * Skip a declaration after its "<!" characters: a comment
+     * (up to its "-->") or anything else (up to its '>')
+     */
+    private void skipDeclaration() throws IOException {
+        if (peek() != '-') {
+            skipTagRest();
+
+            return;
+        }
+
+        read();
+
+        if (peek() != '-') {
+            skipTagRest();
+
+            return;
+        }
+
+        read();
+
+        int dashes = 0;
+        int character;
+
+        while ((character = read()) != -1) {
+            if (character == '>' && dashes >= 2) {
+                return;
+            }
+
+            dashes = character == '-' ? dashes + 1 : 0;
+        }
+    }
+
+    /**
+     * Skip the rest of a tag, up to its '>'
+     */
+    private void skipTagRest() throws IOException {
+        int character;
+
+        while ((character = read()) != -1 && character != '>') {
+            // skip
+        }
+    }
+
+    /**
+     * Skip the content of the raw text element whose start tag has just
+     * been read (whose name is in tagName), up to the end of its end tag
+     */
+    private void skipRawText() throws IOException {
+        String name = tagName.toString();
+
+        int character;
+
+        while ((character = read()) != -1) {
+            if (character == '<' && peek() == '/' && endTagFollows(name)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Check if the characters after "<" are "/" followed by the given tag name, and
+     * if so consume them (leaving the rest of the end tag to be read)
+     *
+     * @param name the tag name, in lower case
+     *
+     * @return true if the end tag follows, false otherwise
+     */
+    private boolean endTagFollows(String name) throws IOException {
+        read();
+
+        for (int i = 0; i < name.length(); i++) {
+            int next = peek();
+
+            if (next == -1 || Character.toLowerCase((char) next) != name.charAt(i)) {
+                return false;
+            }
+
+            read();
+        }
+
+        int next = peek();
+
+        if (next == -1 || isWhitespace(next) || next == '>' || next == '/') {
+            skipTagRest();
+
+            tagName.setLength(0);
+            tagName.append(name);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /*
+     * CHARACTERS READING
+     */
+
+    /**
+     * @return the next character of the page, -1 if its end has been reached
+     */
+    private int read() throws IOException {
+        if (bufferPosition == bufferLength && !fillBuffer()) {
+            return -1;
+        }
+
+        return buffer[bufferPosition++];
+    }
+
+    /**
+     * @return the next character of the page without consuming it, -1 if its end has been reached
+     */
+    private int peek() throws IOException {
+        if (bufferPosition == bufferLength && !fillBuffer()) {
+            return -1;
+        }
+
+        return buffer[bufferPosition];
+    }
+
+    /**
+     * Read the next characters of the page into the buffer, copying
+     * the ones still in it to the sink first (if there is one)
+     *
+     * @return false if the end of the page has been reached, true otherwise
+     */
+    private boolean fillBuffer() throws IOException {
+        if (sink != null) {
+            sink.append(buffer, sinkFrom, bufferLength - sinkFrom);
+            sinkFrom = 0;
+        }
+
+        bufferPosition = 0;
+        bufferLength = 0;
+
+        int readCharacters;
+
+        do {
+            readCharacters = reader.read(buffer, 0, buffer.length);
+        } while (readCharacters == 0);
+
+        if (readCharacters == -1) {
+            return false;
+        }
+
+        bufferLength = readCharacters;
+
+        return true;
+    }
+
+    /**
+     * Start copying the characters being read to a StringBuilder
+     *
+     * @param stringBuilder the StringBuilder to copy the characters to
+     * @param fromPosition the buffer position to start copying from
+     */
+    private void startSink(StringBuilder stringBuilder, int fromPosition) {
+        sink = stringBuilder;
+        sinkFrom = fromPosition;
+    }
+
+    /**
+     * Stop copying the characters being read, after copying the ones read so far
+     */
+    private void stopSink() {
+        sink.append(buffer, sinkFrom, bufferPosition - sinkFrom);
+        sink = null;
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * @param classAttribute a class attribute's value (may be null)
+     * @param classNames the requested classes
+     *
+     * @return the first class of the attribute which has been requested, null if there is none
+     */
+    private static String getMatchedClassName(String classAttribute, Collection<String> classNames) {
+        if (classAttribute == null) {
+            return null;
+        }
+
+        for (String className : classAttribute.split("[ \t\n\f\r]+")) {
+            if (classNames.contains(className)) {
+                return className;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Add to a Set the classes of an attribute which have been requested
+     */
+    private static void addMatchedClassNames(String classAttribute, Collection<String> classNames, Set<String> matchedClassNames) {
+        if (classAttribute == null) {
+            return;
+        }
+
+        for (String className : classAttribute.split("[ \t\n\f\r]+")) {
+            if (classNames.contains(className)) {
+                matchedClassNames.add(className);
+            }
+        }
+    }
+
+    private static boolean isWhitespace(int character) {
+        return character == ' ' || character == '\t' || character == '\n' || character == '\r' || character == '\f';
+    }
+
+    private static boolean isAsciiLetter(int character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    /**
+     * Class representing an element picked out of a page
+     */
+    public static class Fragment {
+        private final String className;
+        private final String html;
+        private final Set<String> containedClassNames;
+
+        /**
+         * @param className the requested class the element has
+         * @param html the element's source
+         * @param containedClassNames the requested classes the element (or any of its descendants) has
+         */
+        private Fragment(String className, String html, Set<String> containedClassNames) {
+            this.className = className;
+            this.html = html;
+            this.containedClassNames = containedClassNames;
+        }
+
+        /**
+         * @return the requested class the element has
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return the element's source, from its start tag to its end tag
+         */
+        public String getHtml() {
+            return html;
+        }
+
+        /**
+         * @param className one of the requested classes
+         *
+         * @return true if the element (or any of its descendants) has the given class, false otherwise
+         */
+        public boolean containsClassName(String className) {
+            return containedClassNames.contains(className);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package romanemperorsscraper.scraping;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import romanemperorsscraper.run.RomanEmperorsScraper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Browserless PageSource which downloads pages through a plain
+ * HTTP client and parses their HTML in-process with jsoup, so
+ * that neither a browser nor a WebDriver session is needed.
+ *
+ * If a PageCache is given, pages are served from it while fresh
+ * and revalidated with conditional requests once they're stale,
+ * so that unchanged pages are never downloaded twice.
+ *
+ * @see PageSource
+ * @see JsoupPageDocument
+ * @see PageCache
+ *
+ * @author Matteo Collica
+ */
+public class HttpPageSource implements PageSource {
+    /*
+     * ATTRIBUTES
+     */
+
+    /*
+     * Wikimedia's User-Agent policy asks clients to identify
+     * themselves, generic Java user agents may get throttled
+     */
+
+    private static final String USER_AGENT = "RomanEmperorsScraper/1.0 (https://github.com/matypist/RomanEmperorsScraper)";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10000;
+    private static final int READ_TIMEOUT_MILLIS    = 30000;
+
+    /*
+     * Each request uses its own connection, so pages can be fetched
+     * from more threads at once; we still cap how many of them run
+     * in parallel not to overload Wikipedia's servers
+     */
+
+    private static final int MAX_CONCURRENT_REQUESTS = 8;
+
+    /*
+     * The cap is shared by every HttpPageSource instance, so that
+     * it still holds when more dynasties are scraped at the same time
+     */
+
+    private static final Semaphore requestPermits = new Semaphore(MAX_CONCURRENT_REQUESTS, true);
+
+    /* The cache pages are stored in, null if they're always downloaded */
+    private final PageCache pageCache;
+
+    /* true if pages are only served from the cache, without any request */
+    private final boolean offline;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct an HttpPageSource which always downloads pages
+     */
+    public HttpPageSource() {
+        this(null, false);
+    }
+
+    /**
+     * Construct an HttpPageSource which stores the downloaded pages in a cache
+     *
+     * @param pageCache the cache pages are stored in, null if they should always be downloaded
+     * @param offline true if pages should only be served from the cache, without any request
+     */
+    public HttpPageSource(PageCache pageCache, boolean offline) {
+        this.pageCache = pageCache;
+        this.offline = offline && pageCache != null;
+    }
+
+    /*
+     * METHODS
+     */
+
+    @Override
+    public PageDocument getPage(String url) {
+        return readPage(url, HttpPageSource::parsePage);
+    }
+
+    @Override
+    public boolean canReadPages() {
+        return true;
+    }
+
+    @Override
+    public <T> T readPage(String url, PageReader<T> pageReader) {
+        PageCache.CachedPage cachedPage = pageCache != null ? pageCache.get(url) : null;
+
+        if(cachedPage != null && (offline || pageCache.isFresh(cachedPage))) {
+            return readCachedPage(url, cachedPage, pageReader);
+        }
+
+        if(offline) {
+            throw new PageFetchException(url, "page not available in the offline cache");
+        }
+
+        if(RomanEmperorsScraper.isDebugEnabled()) {
+            System.out.println((cachedPage != null ? "Revalidating " : "Fetching ") + url);
+        }
+
+        try {
+            requestPermits.acquire();
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new PageFetchException(url, "interrupted while waiting for a free connection");
+        }
+
+        HttpURLConnection connection = null;
+
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            connection.setInstanceFollowRedirects(true);
+            connection.setRequestProperty("User-Agent", USER_AGENT);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+
+            if(cachedPage != null) {
+                if(cachedPage.getEtag() != null) {
+                    connection.setRequestProperty("If-None-Match", cachedPage.getEtag());
+                }
+
+                if(cachedPage.getLastModified() != null) {
+                    connection.setRequestProperty("If-Modified-Since", cachedPage.getLastModified());
+                }
+            }
+
+            int statusCode = connection.getResponseCode();
+
+            if(statusCode == HttpURLConnection.HTTP_NOT_MODIFIED && cachedPage != null) {
+                pageCache.markRevalidated(cachedPage);
+
+                return readCachedPage(url, cachedPage, pageReader);
+            }
+
+            if(statusCode != HttpURLConnection.HTTP_OK) {
+                throw new PageFetchException(url, "unexpected HTTP status code " + statusCode);
+            }
+
+            /*
+             * Relative links in the page have to be resolved against
+             * the URL we've been redirected to (if any)
+             */
+
+            String pageUrl = connection.getURL().toString();
+            String charset = getCharset(connection.getContentType());
+
+            InputStream inputStream = connection.getInputStream();
+
+            if("gzip".equalsIgnoreCase(connection.getContentEncoding())) {
+                inputStream = new GZIPInputStream(inputStream);
+            }
+
+            try {
+                if(pageCache != null) {
+                    /*
+                     * The body is read while it's streamed to the cache, so it's never
+                     * held twice in memory and the reader doesn't wait for the whole
+                     * download: once the reader is done, the rest of the body is still
+                     * downloaded to keep the cached page complete
+                     */
+
+                    PageCache.PageWriter pageWriter = pageCache.write(url, pageUrl, connection.getHeaderField("ETag"),
+                            connection.getHeaderField("Last-Modified"), charset, inputStream);
+
+                    try {
+                        T page = pageReader.read(pageWriter, charset, pageUrl);
+
+                        finishCaching(url, pageWriter);
+
+                        return page;
+                    } finally {
+                        pageWriter.abort();
+                    }
+                }
+
+                return pageReader.read(inputStream, charset, pageUrl);
+            } finally {
+                inputStream.close();
+            }
+        } catch(IOException ex) {
+            /*
+             * A stale page is still better than no page at all
+             * (e.g. if we're offline or Wikipedia is unreachable)
+             */
+
+            if(cachedPage != null) {
+                if(RomanEmperorsScraper.isDebugEnabled()) {
+                    System.out.println("Unable to revalidate " + url + ", using the cached page: " + ex.getMessage());
+                }
+
+                return readCachedPage(url, cachedPage, pageReader);
+            }
+
+            throw new PageFetchException(url, ex);
+        } finally {
+            if(connection != null) {
+                connection.disconnect();
+            }
+
+            requestPermits.release();
+        }
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return MAX_CONCURRENT_REQUESTS;
+    }
+
+    /**
+     * No connections are kept open between two
+     * requests, so there is nothing to release
+     */
+    @Override
+    public void close() {}
+
+    /**
+     * Store a page whose body has already been read: failing to do so only
+     * means that the page will have to be downloaded again next time
+     *
+     * @param url the page's requested URL
+     * @param pageWriter the PageWriter the page's body has been read through
+     */
+    private static void finishCaching(String url, PageCache.PageWriter pageWriter) {
+        try {
+            pageWriter.finish();
+        } catch(IOException ex) {
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Unable to cache " + url + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Read a page stored in the cache
+     *
+     * @param url the page's requested URL
+     * @param cachedPage the stored page
+     * @param pageReader the PageReader reading the page's body
+     * @param <T> the type of the value read from the page
+     *
+     * @return the value returned by the PageReader
+     */
+    private static <T> T readCachedPage(String url, PageCache.CachedPage cachedPage, PageReader<T> pageReader) {
+        if(RomanEmperorsScraper.isDebugEnabled()) {
+            System.out.println("Using the cached page for " + url);
+        }
+
+        try (InputStream inputStream = Files.newInputStream(cachedPage.getBodyFile())) {
+            return pageReader.read(inputStream, cachedPage.getCharset(), cachedPage.getPageUrl());
+        } catch(IOException ex) {
+            throw new PageFetchException(url, ex);
+        }
+    }
+
+    /**
+     * Parse a page's whole body with jsoup
+     *
+     * @param body the page's body
+     * @param charset the page's charset, null to let jsoup detect it
+     * @param pageUrl the page's actual URL (after any redirect)
+     *
+     * @return the page's document
+     * @throws IOException if the page's body could not be read
+     */
+    private static PageDocument parsePage(InputStream body, String charset, String pageUrl) throws IOException {
+        Document document = Jsoup.parse(body, charset, pageUrl);
+
+        return new JsoupPageDocument(document, pageUrl);
+    }
+
+    /**
+     * Given the value of a Content-Type header, return its charset
+     *
+     * @param contentType the Content-Type header value (e.g. 'text/html; charset=UTF-8')
+     *
+     * @return the charset's name, null (to let jsoup detect it) if not specified
+     */
+    private static String getCharset(String contentType) {
+        if(contentType != null) {
+            for(String parameter : contentType.split(";")) {
+                parameter = parameter.trim();
+
+                if(parameter.toLowerCase().startsWith("charset=")) {
+                    return parameter.substring("charset=".length()).replace("\"", "");
+                }
+            }
+        }
+
+        return null;
+    }
+}
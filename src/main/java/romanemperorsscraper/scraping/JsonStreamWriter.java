@@ -0,0 +1,228 @@
+package romanemperorsscraper.scraping;
+
+import org.json.simple.JSONValue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Class used to write JSON straight to a Writer, one name or value at a time,
+ * so that large exports are written while they're being serialized, without
+ * building their whole JSONObject tree (nor its string) in memory first.
+ *
+ * Commas are added automatically, while it's up to the caller to open and
+ * close objects and arrays in the right order and to give each object's
+ * value a name, e.g.:
+ *
+ *   jsonStreamWriter.beginObject().name("fullName").value("Augusto").endObject();
+ *
+ * Strings are escaped as json-simple does, so that the files it
+ * writes can be read back through its JSONParser.
+ *
+ * @see ExportSerializer
+ *
+ * @author Matteo Collica
+ */
+public class JsonStreamWriter implements Closeable {
+    /*
+     * ATTRIBUTES
+     */
+
+    private final Writer writer;
+
+    /* Whether each open object or array (the outermost first) already has some content */
+    private boolean[] nonEmptyScopes = new boolean[8];
+
+    private int openScopes = 0;
+
+    /* Whether a name has just been written, so that the following value must not be preceded by a comma */
+    private boolean afterName = false;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a JsonStreamWriter writing into the given Writer (which should be buffered)
+     *
+     * @param writer the Writer the JSON text is written into
+     */
+    public JsonStreamWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter beginObject() throws IOException {
+        return beginScope('{');
+    }
+
+    /**
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter endObject() throws IOException {
+        return endScope('}');
+    }
+
+    /**
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter beginArray() throws IOException {
+        return beginScope('[');
+    }
+
+    /**
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter endArray() throws IOException {
+        return endScope(']');
+    }
+
+    /**
+     * Write the name of the current object's next value
+     *
+     * @param name the value's name (a null one is written as "null", as json-simple does)
+     *
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter name(String name) throws IOException {
+        beforeValue();
+
+        writeString(String.valueOf(name));
+        writer.write(':');
+
+        afterName = true;
+
+        return this;
+    }
+
+    /**
+     * @param value a string value (may be null)
+     *
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter value(String value) throws IOException {
+        beforeValue();
+
+        if (value == null) {
+            writer.write("null");
+        } else {
+            writeString(value);
+        }
+
+        return this;
+    }
+
+    /**
+     * @param value an integer value
+     *
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+
+        writer.write(Long.toString(value));
+
+        return this;
+    }
+
+    /**
+     * @param value a boolean value
+     *
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+
+        writer.write(value ? "true" : "false");
+
+        return this;
+    }
+
+    /**
+     * Write a null value
+     *
+     * @return this JsonStreamWriter, to chain more calls
+     */
+    public JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+
+        writer.write("null");
+
+        return this;
+    }
+
+    /**
+     * Flush the underlying Writer
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Close the underlying Writer
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private JsonStreamWriter beginScope(char openingBracket) throws IOException {
+        beforeValue();
+
+        writer.write(openingBracket);
+
+        if (openScopes == nonEmptyScopes.length) {
+            nonEmptyScopes = Arrays.copyOf(nonEmptyScopes, openScopes * 2);
+        }
+
+        nonEmptyScopes[openScopes++] = false;
+
+        return this;
+    }
+
+    private JsonStreamWriter endScope(char closingBracket) throws IOException {
+        if (openScopes == 0) {
+            throw new IllegalStateException("No object or array is open");
+        }
+
+        openScopes--;
+
+        writer.write(closingBracket);
+
+        return this;
+    }
+
+    /**
+     * Write the comma separating a value (or name) from the previous
+     * one in the same object or array, if any
+     */
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+
+            return;
+        }
+
+        if (openScopes > 0) {
+            if (nonEmptyScopes[openScopes - 1]) {
+                writer.write(',');
+            }
+
+            nonEmptyScopes[openScopes - 1] = true;
+        }
+    }
+
+    private void writeString(String string) throws IOException {
+        writer.write('"');
+        writer.write(JSONValue.escape(string));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,39 @@
+package romanemperorsscraper.scraping;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * Class wrapping a jsoup Document (a page parsed in-process
+ * from its HTML) to represent it as a PageDocument.
+ *
+ * @see HttpPageSource
+ * @see JsoupPageElement
+ *
+ * @author Matteo Collica
+ */
+public class JsoupPageDocument extends JsoupPageElement implements PageDocument {
+    private final String url;
+
+    /**
+     * Construct a JsoupPageDocument by wrapping a jsoup Document
+     *
+     * @param document the parsed jsoup Document
+     * @param url the URL the page was fetched from
+     */
+    public JsoupPageDocument(Document document, String url) {
+        super(document);
+
+        this.url = url;
+    }
+
+    @Override
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * The parsed page is held in memory, so there is nothing to release
+     */
+    @Override
+    public void close() {}
+}
@@ -0,0 +1,247 @@
+package romanemperorsscraper.scraping;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Class wrapping a jsoup Element (parsed in-process from the
+ * page's HTML) to represent it as a PageElement.
+ *
+ * @see HttpPageSource
+ * @see JsoupPageDocument
+ *
+ * @author Matteo Collica
+ */
+public class JsoupPageElement implements PageElement {
+    private final Element element;
+
+    /*
+     * Elements whose content is rendered on its own lines by a
+     * browser, used to compute the innerText of an element
+     */
+
+    private static final HashSet<String> BLOCK_TAGS = new HashSet<>(Arrays.asList(
+            "address", "article", "aside", "blockquote", "caption", "center", "dd", "div",
+            "dl", "dt", "figcaption", "figure", "footer", "form", "h1", "h2", "h3", "h4",
+            "h5", "h6", "header", "hr", "li", "main", "nav", "ol", "p", "pre", "section",
+            "table", "tbody", "tfoot", "thead", "tr", "ul"
+    ));
+
+    /*
+     * Elements whose content is never rendered by a browser
+     */
+
+    private static final HashSet<String> HIDDEN_TAGS = new HashSet<>(Arrays.asList(
+            "head", "noscript", "script", "style", "template"
+    ));
+
+    /**
+     * Construct a JsoupPageElement by wrapping a jsoup Element
+     *
+     * @param element the jsoup Element to be wrapped
+     */
+    public JsoupPageElement(Element element) {
+        this.element = element;
+    }
+
+    @Override
+    public PageElement findElementByTagName(String tagName) {
+        return firstDescendant(element.getElementsByTag(tagName));
+    }
+
+    @Override
+    public PageElement findElementByClassName(String className) {
+        return firstDescendant(element.getElementsByClass(className));
+    }
+
+    @Override
+    public List<PageElement> findElementsByTagName(String tagName) {
+        return descendants(element.getElementsByTag(tagName));
+    }
+
+    @Override
+    public List<PageElement> findElementsByClassName(String className) {
+        return descendants(element.getElementsByClass(className));
+    }
+
+    @Override
+    public String getText() {
+        return getInnerText().replace('\u00a0', ' ').trim();
+    }
+
+    @Override
+    public String getInnerText() {
+        StringBuilder renderedText = new StringBuilder();
+
+        /*
+         * Walk the element's subtree the way a browser would render it:
+         * whitespace inside text is collapsed, <br> and block elements
+         * start a new line while hidden elements are skipped entirely
+         */
+
+        NodeTraversor.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                if(node instanceof TextNode) {
+                    appendCollapsedWhitespace(((TextNode) node).getWholeText(), renderedText);
+                } else if(node instanceof Element) {
+                    Element currentElement = (Element) node;
+                    String tagName = currentElement.normalName();
+
+                    if(HIDDEN_TAGS.contains(tagName) || isHiddenByStyle(currentElement)) {
+                        return FilterResult.SKIP_ENTIRELY;
+                    }
+
+                    if(tagName.equals("br") || BLOCK_TAGS.contains(tagName)) {
+                        renderedText.append('\n');
+                    }
+                }
+
+                return FilterResult.CONTINUE;
+            }
+
+            @Override
+            public FilterResult tail(Node node, int depth) {
+                if(node instanceof Element) {
+                    String tagName = ((Element) node).normalName();
+
+                    if(BLOCK_TAGS.contains(tagName)) {
+                        renderedText.append('\n');
+                    } else if(tagName.equals("td") || tagName.equals("th")) {
+                        renderedText.append(' ');
+                    }
+                }
+
+                return FilterResult.CONTINUE;
+            }
+        }, element);
+
+        /*
+         * Trim every line and drop the empty ones, so that there is exactly one
+         * '\n' between two consecutive lines of text (non-breaking spaces are
+         * kept as they are, just like the DOM's innerText does)
+         */
+
+        StringBuilder innerText = new StringBuilder();
+
+        for(String line : renderedText.toString().split("\n")) {
+            line = line.trim();
+
+            if(!line.isEmpty()) {
+                if(innerText.length() != 0) {
+                    innerText.append('\n');
+                }
+
+                innerText.append(line);
+            }
+        }
+
+        return innerText.toString();
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        if(!element.hasAttr(name)) {
+            return null;
+        }
+
+        /*
+         * Like a browser does, return links and image sources as absolute
+         * URLs (e.g. '/wiki/Augusto' => 'https://it.wikipedia.org/wiki/Augusto')
+         */
+
+        if(name.equals("href") || name.equals("src")) {
+            String absoluteUrl = element.absUrl(name);
+
+            if(!absoluteUrl.isEmpty()) {
+                return absoluteUrl;
+            }
+        }
+
+        return element.attr(name);
+    }
+
+    /**
+     * @return the wrapped jsoup Element
+     */
+    public Element getElement() {
+        return element;
+    }
+
+    /**
+     * Given the result of a jsoup search, return its first element
+     * which isn't the wrapped element itself (jsoup also includes the
+     * element a search starts from, while Selenium doesn't)
+     *
+     * @param foundElements the result of a jsoup search
+     *
+     * @return the first descendant element found, null if there is none
+     */
+    private PageElement firstDescendant(Elements foundElements) {
+        for(Element foundElement : foundElements) {
+            if(foundElement != element) {
+                return new JsoupPageElement(foundElement);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param foundElements the result of a jsoup search
+     *
+     * @return all the found elements except the wrapped element itself
+     */
+    private List<PageElement> descendants(Elements foundElements) {
+        List<PageElement> pageElements = new ArrayList<>(foundElements.size());
+
+        for(Element foundElement : foundElements) {
+            if(foundElement != element) {
+                pageElements.add(new JsoupPageElement(foundElement));
+            }
+        }
+
+        return pageElements;
+    }
+
+    /**
+     * Append a text to a StringBuilder replacing each sequence of whitespace
+     * characters (except non-breaking spaces) with a single space character
+     *
+     * @param text the text to be appended
+     * @param stringBuilder the StringBuilder to append the text to
+     */
+    private static void appendCollapsedWhitespace(String text, StringBuilder stringBuilder) {
+        for(int i = 0; i < text.length(); i++) {
+            char currentChar = text.charAt(i);
+
+            if(currentChar == ' ' || currentChar == '\t' || currentChar == '\n' || currentChar == '\r' || currentChar == '\f') {
+                int length = stringBuilder.length();
+
+                if(length == 0 || stringBuilder.charAt(length - 1) != ' ') {
+                    stringBuilder.append(' ');
+                }
+            } else {
+                stringBuilder.append(currentChar);
+            }
+        }
+    }
+
+    /**
+     * @param element the element to be checked
+     *
+     * @return true if the element's inline style hides it, false otherwise
+     */
+    private static boolean isHiddenByStyle(Element element) {
+        return element.hasAttr("style") && element.attr("style").replace(" ", "").toLowerCase().contains("display:none");
+    }
+}
@@ -0,0 +1,49 @@
+package romanemperorsscraper.scraping;
+
+/**
+ * Class representing an anchor ('a' element) of a page,
+ * copied locally with its text and absolute URL.
+ *
+ * @see romanemperorsscraper.scraping.people.InfoboxSnapshot
+ * @see romanemperorsscraper.scraping.dynasties.DynastyPageSnapshot
+ *
+ * @author Matteo Collica
+ */
+public class PageAnchor {
+    private final String text;
+    private final String href;
+
+    /**
+     * @param text the anchor's text
+     * @param href the anchor's absolute URL (null if it has no 'href' attribute)
+     */
+    public PageAnchor(String text, String href) {
+        this.text = text;
+        this.href = href;
+    }
+
+    /**
+     * Copy an anchor element's text and absolute URL
+     *
+     * @param anchorElement the anchor element
+     *
+     * @return the anchor as a PageAnchor
+     */
+    public static PageAnchor of(PageElement anchorElement) {
+        return new PageAnchor(anchorElement.getText(), anchorElement.getAttribute("href"));
+    }
+
+    /**
+     * @return the anchor's text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the anchor's absolute URL, null if it has no 'href' attribute
+     */
+    public String getHref() {
+        return href;
+    }
+}
@@ -0,0 +1,667 @@
+package romanemperorsscraper.scraping;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import romanemperorsscraper.run.RomanEmperorsScraper;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class representing a persistent, on-disk cache of fetched pages,
+ * so that pages already scraped in a previous execution don't have
+ * to be downloaded again.
+ *
+ * Each page is stored under the SHA-256 hash of its canonical URL
+ * as two files: its body ('.html') and its metadata ('.json'), like
+ * the ETag and Last-Modified headers needed to revalidate it with a
+ * conditional request once it's older than the time to live.
+ *
+ * The cache's total size is capped: when it's exceeded, the least
+ * recently used pages are evicted.
+ *
+ * @see HttpPageSource
+ *
+ * @author Matteo Collica
+ */
+public class PageCache {
+    /*
+     * ATTRIBUTES
+     */
+
+    private static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".romanemperorsscraper", "cache");
+
+    private static final long DEFAULT_MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+    /* Wikipedia pages rarely change, there's no need to revalidate them more than weekly */
+    private static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    /* When the cache gets too big, we evict pages until it's back to this fraction of its maximum size */
+    private static final double EVICTION_TARGET_RATIO = 0.9;
+
+    private static final String BODY_FILE_EXTENSION = ".html";
+    private static final String METADATA_FILE_EXTENSION = ".json";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    /*
+     * Temporary files older than this are left over by a process which died
+     * while storing a page, younger ones may still be in use by another one
+     */
+    private static final long STALE_TEMPORARY_FILE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static PageCache instance;
+
+    private final Path directory;
+
+    private final long maxSizeBytes;
+
+    private final long timeToLiveMillis;
+
+    /* Total size of the stored page bodies, only accessed while holding the instance's lock */
+    private long sizeBytes;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a PageCache storing pages in a directory (created if needed)
+     *
+     * @param directory the directory pages are stored in
+     * @param maxSizeBytes the maximum total size of the stored pages
+     * @param timeToLiveMillis how long a stored page is used without being revalidated
+     *
+     * @throws IOException if the directory could not be created or read
+     */
+    public PageCache(Path directory, long maxSizeBytes, long timeToLiveMillis) throws IOException {
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+        this.timeToLiveMillis = timeToLiveMillis;
+
+        Files.createDirectories(directory);
+
+        deleteStaleTemporaryFiles();
+
+        for(Path bodyFile : listBodyFiles()) {
+            sizeBytes += Files.size(bodyFile);
+        }
+    }
+
+    /**
+     * Construct the program's PageCache (in the user's home directory)
+     * or get the already constructed one
+     *
+     * @return the program's PageCache instance, null if it couldn't be created
+     */
+    public static synchronized PageCache getInstance() {
+        if(instance == null) {
+            try {
+                instance = new PageCache(DEFAULT_DIRECTORY, DEFAULT_MAX_SIZE_BYTES, DEFAULT_TIME_TO_LIVE_MILLIS);
+            } catch(IOException ex) {
+                System.out.println("Unable to use the page cache in " + DEFAULT_DIRECTORY + ": " + ex.getMessage());
+            }
+        }
+
+        return instance;
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Get a stored page, marking it as recently used
+     *
+     * @param url the page's URL
+     *
+     * @return the stored page, null if it isn't in the cache
+     */
+    public CachedPage get(String url) {
+        String key = getKey(url);
+
+        Path metadataFile = directory.resolve(key + METADATA_FILE_EXTENSION);
+        Path bodyFile = directory.resolve(key + BODY_FILE_EXTENSION);
+
+        if(!Files.exists(metadataFile)) {
+            return null;
+        }
+
+        try (Reader reader = Files.newBufferedReader(metadataFile, StandardCharsets.UTF_8)) {
+            JSONObject metadata = (JSONObject) new JSONParser().parse(reader);
+
+            Files.setLastModifiedTime(bodyFile, FileTime.fromMillis(System.currentTimeMillis()));
+
+            return new CachedPage(metadata, bodyFile);
+        } catch(IOException | ParseException | ClassCastException ex) {
+            /*
+             * A page being evicted or partially written
+             * by another thread is just a cache miss
+             */
+
+            return null;
+        }
+    }
+
+    /**
+     * Start storing a page, replacing any previous version of it: its body
+     * is streamed to disk while it's read through the returned PageWriter,
+     * so that it can be parsed as it's being downloaded, and the page is
+     * stored once PageWriter.finish has copied the rest of it
+     *
+     * @param url the page's requested URL
+     * @param pageUrl the page's actual URL (after any redirect)
+     * @param etag the page's ETag header (may be null)
+     * @param lastModified the page's Last-Modified header (may be null)
+     * @param charset the page's charset (null if it has to be detected)
+     * @param body the page's body
+     *
+     * @return the PageWriter the page's body has to be read through
+     * @throws IOException if the page could not be stored
+     */
+    public PageWriter write(String url, String pageUrl, String etag, String lastModified, String charset, InputStream body) throws IOException {
+        return new PageWriter(url, pageUrl, etag, lastModified, charset, body);
+    }
+
+    /**
+     * Mark a stored page as just fetched (e.g. after the server confirmed
+     * it wasn't modified), so that it isn't revalidated for another TTL
+     *
+     * @param cachedPage the stored page
+     */
+    @SuppressWarnings("unchecked")
+    public void markRevalidated(CachedPage cachedPage) {
+        JSONObject metadata = new JSONObject();
+
+        metadata.put("url", cachedPage.getUrl());
+        metadata.put("pageUrl", cachedPage.getPageUrl());
+        metadata.put("etag", cachedPage.getEtag());
+        metadata.put("lastModified", cachedPage.getLastModified());
+        metadata.put("charset", cachedPage.getCharset());
+        metadata.put("fetchedAt", System.currentTimeMillis());
+
+        try {
+            writeMetadata(getKey(cachedPage.getUrl()), metadata);
+        } catch(IOException ex) {
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Unable to update the cached page " + cachedPage.getUrl() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param cachedPage a stored page
+     *
+     * @return true if the page can be used without revalidating it, false otherwise
+     */
+    public boolean isFresh(CachedPage cachedPage) {
+        return System.currentTimeMillis() - cachedPage.getFetchedAt() < timeToLiveMillis;
+    }
+
+    /**
+     * Get the canonical form of a page's URL, which is the one pages are
+     * stored by: without any location within the page (e.g. '#Biografia')
+     * and with a lowercase scheme and host
+     *
+     * @param url the page's URL
+     *
+     * @return the page's canonical URL
+     */
+    public static String canonicalizeUrl(String url) {
+        int indexOfHashTag = url.indexOf('#');
+
+        if(indexOfHashTag != -1) {
+            url = url.substring(0, indexOfHashTag);
+        }
+
+        int indexOfPath = url.indexOf('/', url.indexOf("://") + 3);
+
+        if(indexOfPath == -1) {
+            return url.toLowerCase();
+        }
+
+        return url.substring(0, indexOfPath).toLowerCase() + url.substring(indexOfPath);
+    }
+
+    /**
+     * @param url a page's URL
+     *
+     * @return the SHA-256 hash of the page's canonical URL, in hexadecimal form
+     */
+    private static String getKey(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonicalizeUrl(url).getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder key = new StringBuilder(hash.length * 2);
+
+            for(byte hashByte : hash) {
+                key.append(String.format("%02x", hashByte));
+            }
+
+            return key.toString();
+        } catch(NoSuchAlgorithmException ex) {
+            /* Every Java platform is required to support SHA-256 */
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Atomically write a page's metadata file
+     *
+     * @param key the page's key
+     * @param metadata the page's metadata
+     *
+     * @throws IOException if the metadata file could not be written
+     */
+    private void writeMetadata(String key, JSONObject metadata) throws IOException {
+        Path temporaryMetadataFile = Files.createTempFile(directory, key, TEMPORARY_FILE_EXTENSION);
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporaryMetadataFile, StandardCharsets.UTF_8)) {
+                metadata.writeJSONString(writer);
+            }
+
+            moveAtomically(temporaryMetadataFile, directory.resolve(key + METADATA_FILE_EXTENSION));
+        } finally {
+            Files.deleteIfExists(temporaryMetadataFile);
+        }
+    }
+
+    /**
+     * Evict the least recently used pages if the cache exceeds its maximum size
+     */
+    private synchronized void evictIfNeeded() {
+        if(sizeBytes <= maxSizeBytes) {
+            return;
+        }
+
+        long targetSizeBytes = (long) (maxSizeBytes * EVICTION_TARGET_RATIO);
+
+        try {
+            ArrayList<Path> bodyFiles = listBodyFiles();
+
+            /*
+             * Pages' body files are touched each time they're used,
+             * so the oldest modified ones are the least recently used
+             */
+
+            bodyFiles.sort(Comparator.comparingLong(PageCache::getLastModifiedMillis));
+
+            for(Path bodyFile : bodyFiles) {
+                if(sizeBytes <= targetSizeBytes) {
+                    break;
+                }
+
+                String fileName = bodyFile.getFileName().toString();
+                String key = fileName.substring(0, fileName.length() - BODY_FILE_EXTENSION.length());
+
+                long bodySizeBytes = Files.size(bodyFile);
+
+                Files.deleteIfExists(directory.resolve(key + METADATA_FILE_EXTENSION));
+                Files.deleteIfExists(bodyFile);
+
+                sizeBytes -= bodySizeBytes;
+
+                if(RomanEmperorsScraper.isDebugEnabled()) {
+                    System.out.println("Evicted the cached page " + key);
+                }
+            }
+        } catch(IOException ex) {
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Unable to evict pages from the cache: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delete the temporary files left over by pages whose storing has been
+     * interrupted (e.g. because the process died before moving them in place),
+     * which would otherwise take up space without being counted in the cache's size
+     *
+     * @throws IOException if the cache's directory could not be read
+     */
+    private void deleteStaleTemporaryFiles() throws IOException {
+        long staleBeforeMillis = System.currentTimeMillis() - STALE_TEMPORARY_FILE_MILLIS;
+
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, "*" + TEMPORARY_FILE_EXTENSION)) {
+            for(Path temporaryFile : directoryStream) {
+                if(getLastModifiedMillis(temporaryFile) < staleBeforeMillis) {
+                    try {
+                        Files.deleteIfExists(temporaryFile);
+                    } catch(IOException ex) {
+                        if(RomanEmperorsScraper.isDebugEnabled()) {
+                            System.out.println("Unable to delete " + temporaryFile + ": " + ex.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the body files of all the stored pages
+     *
+     * @throws IOException if the cache's directory could not be read
+     */
+    private ArrayList<Path> listBodyFiles() throws IOException {
+        ArrayList<Path> bodyFiles = new ArrayList<>();
+
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, "*" + BODY_FILE_EXTENSION)) {
+            for(Path bodyFile : directoryStream) {
+                bodyFiles.add(bodyFile);
+            }
+        }
+
+        return bodyFiles;
+    }
+
+    /**
+     * @param file a file
+     *
+     * @return the file's last modified time, 0 if it can't be read
+     */
+    private static long getLastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch(IOException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Move a file replacing the target, atomically if the file system supports it
+     *
+     * @param source the file to be moved
+     * @param target the destination path
+     *
+     * @throws IOException if the file could not be moved
+     */
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch(AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Class representing a page being stored in the cache, whose body is
+     * copied to a temporary file as it's read: the page becomes visible to
+     * other threads only once it's finished, and is discarded if it's aborted
+     */
+    public class PageWriter extends FilterInputStream {
+        private final String url;
+        private final String pageUrl;
+        private final String etag;
+        private final String lastModified;
+        private final String charset;
+
+        private final String key;
+
+        private final Path temporaryBodyFile;
+
+        private final OutputStream bodyOutputStream;
+
+        private long bodySizeBytes = 0;
+
+        private boolean finished = false;
+
+        private PageWriter(String url, String pageUrl, String etag, String lastModified, String charset, InputStream body) throws IOException {
+            super(body);
+
+            this.url = url;
+            this.pageUrl = pageUrl;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.charset = charset;
+
+            this.key = getKey(url);
+
+            this.temporaryBodyFile = Files.createTempFile(directory, key, TEMPORARY_FILE_EXTENSION);
+
+            try {
+                this.bodyOutputStream = new BufferedOutputStream(Files.newOutputStream(temporaryBodyFile), BUFFER_SIZE);
+            } catch(IOException ex) {
+                Files.deleteIfExists(temporaryBodyFile);
+
+                throw ex;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int readByte = in.read();
+
+            if(readByte != -1) {
+                bodyOutputStream.write(readByte);
+                bodySizeBytes++;
+            }
+
+            return readByte;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int readBytes = in.read(buffer, offset, length);
+
+            if(readBytes > 0) {
+                bodyOutputStream.write(buffer, offset, readBytes);
+                bodySizeBytes += readBytes;
+            }
+
+            return readBytes;
+        }
+
+        @Override
+        public long skip(long bytes) throws IOException {
+            /* Skipped bytes have to be stored as well */
+
+            byte[] buffer = new byte[(int) Math.min(bytes, BUFFER_SIZE)];
+
+            long skippedBytes = 0;
+
+            while(skippedBytes < bytes) {
+                int readBytes = read(buffer, 0, (int) Math.min(buffer.length, bytes - skippedBytes));
+
+                if(readBytes == -1) {
+                    break;
+                }
+
+                skippedBytes += readBytes;
+            }
+
+            return skippedBytes;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {}
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        /**
+         * The page's body is left open, as the rest of it still has to be
+         * copied by finish (the caller closes it once the page is stored)
+         */
+        @Override
+        public void close() {}
+
+        /**
+         * Copy the rest of the page's body (the part that hasn't been read yet)
+         * and store the page, replacing any previous version of it
+         *
+         * @return the stored page
+         * @throws IOException if the page could not be stored
+         */
+        @SuppressWarnings("unchecked")
+        public CachedPage finish() throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+
+            while(read(buffer, 0, buffer.length) != -1) {
+                /* Copied to the temporary body file by read */
+            }
+
+            bodyOutputStream.close();
+
+            /*
+             * The temporary file is moved in place first, as it's the
+             * metadata file which makes a page visible to other threads
+             *
+             * (while holding the lock the cache's size is updated with,
+             * so that the replaced body's size is subtracted just once
+             * even if more threads store the same page at the same time)
+             */
+
+            Path bodyFile = directory.resolve(key + BODY_FILE_EXTENSION);
+
+            synchronized(PageCache.this) {
+                long previousBodySizeBytes = Files.exists(bodyFile) ? Files.size(bodyFile) : 0;
+
+                moveAtomically(temporaryBodyFile, bodyFile);
+
+                finished = true;
+
+                sizeBytes += bodySizeBytes - previousBodySizeBytes;
+            }
+
+            JSONObject metadata = new JSONObject();
+
+            metadata.put("url", canonicalizeUrl(url));
+            metadata.put("pageUrl", pageUrl);
+            metadata.put("etag", etag);
+            metadata.put("lastModified", lastModified);
+            metadata.put("charset", charset);
+            metadata.put("fetchedAt", System.currentTimeMillis());
+
+            writeMetadata(key, metadata);
+
+            evictIfNeeded();
+
+            return new CachedPage(metadata, bodyFile);
+        }
+
+        /**
+         * Discard the page if it hasn't been stored (it does nothing otherwise)
+         */
+        public void abort() {
+            if(finished) {
+                return;
+            }
+
+            try {
+                bodyOutputStream.close();
+            } catch(IOException ignored) {}
+
+            try {
+                Files.deleteIfExists(temporaryBodyFile);
+            } catch(IOException ex) {
+                if(RomanEmperorsScraper.isDebugEnabled()) {
+                    System.out.println("Unable to delete " + temporaryBodyFile + ": " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Class representing a page stored in the cache
+     */
+    public static class CachedPage {
+        private final String url;
+        private final String pageUrl;
+        private final String etag;
+        private final String lastModified;
+        private final String charset;
+        private final long fetchedAt;
+        private final Path bodyFile;
+
+        /**
+         * @param metadata the page's metadata
+         * @param bodyFile the file containing the page's body
+         */
+        private CachedPage(JSONObject metadata, Path bodyFile) {
+            this.url = (String) metadata.get("url");
+            this.pageUrl = (String) metadata.get("pageUrl");
+            this.etag = (String) metadata.get("etag");
+            this.lastModified = (String) metadata.get("lastModified");
+            this.charset = (String) metadata.get("charset");
+            this.fetchedAt = ((Number) metadata.get("fetchedAt")).longValue();
+            this.bodyFile = bodyFile;
+        }
+
+        /**
+         * @return the page's canonical URL
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * @return the page's actual URL (after any redirect)
+         */
+        public String getPageUrl() {
+            return pageUrl;
+        }
+
+        /**
+         * @return the page's ETag header, null if the server didn't send one
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * @return the page's Last-Modified header, null if the server didn't send one
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return the page's charset, null if it has to be detected
+         */
+        public String getCharset() {
+            return charset;
+        }
+
+        /**
+         * @return when the page was last fetched or revalidated, in milliseconds since the epoch
+         */
+        public long getFetchedAt() {
+            return fetchedAt;
+        }
+
+        /**
+         * @return the file containing the page's body
+         */
+        public Path getBodyFile() {
+            return bodyFile;
+        }
+    }
+}
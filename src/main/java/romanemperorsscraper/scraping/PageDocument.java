@@ -0,0 +1,23 @@
+package romanemperorsscraper.scraping;
+
+/**
+ * Interface representing a page fetched by a PageSource,
+ * whose root element can be used to search its content.
+ *
+ * @see PageSource
+ * @see PageElement
+ *
+ * @author Matteo Collica
+ */
+public interface PageDocument extends PageElement, AutoCloseable {
+    /**
+     * @return the URL the page was fetched from (after any redirect)
+     */
+    String getUrl();
+
+    /**
+     * Release the page, after which its elements must no longer be used
+     */
+    @Override
+    void close();
+}
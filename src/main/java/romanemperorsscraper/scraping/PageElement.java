@@ -0,0 +1,61 @@
+package romanemperorsscraper.scraping;
+
+import java.util.List;
+
+/**
+ * Interface representing a single HTML element of a fetched page,
+ * exposing only the lookups and the properties needed for scraping.
+ *
+ * @see PageDocument
+ *
+ * @author Matteo Collica
+ */
+public interface PageElement {
+    /**
+     * @param tagName the tag name to search for (e.g. 'a', 'th', 'h3')
+     *
+     * @return the first descendant element with the given tag name, null if there is none
+     */
+    PageElement findElementByTagName(String tagName);
+
+    /**
+     * @param className the class name to search for (e.g. 'sinottico')
+     *
+     * @return the first descendant element with the given class name, null if there is none
+     */
+    PageElement findElementByClassName(String className);
+
+    /**
+     * @param tagName the tag name to search for (e.g. 'a', 'th', 'h3')
+     *
+     * @return all the descendant elements with the given tag name, in document order
+     */
+    List<PageElement> findElementsByTagName(String tagName);
+
+    /**
+     * @param className the class name to search for (e.g. 'vedi-anche')
+     *
+     * @return all the descendant elements with the given class name, in document order
+     */
+    List<PageElement> findElementsByClassName(String className);
+
+    /**
+     * @return the element's visible text, with non-breaking spaces
+     *         normalized to simple spaces and no surrounding whitespace
+     */
+    String getText();
+
+    /**
+     * @return the element's rendered text with one line per
+     *         block or line break, like the DOM's 'innerText'
+     */
+    String getInnerText();
+
+    /**
+     * @param name the attribute's name (e.g. 'href', 'src', 'class')
+     *
+     * @return the attribute's value (URLs are resolved against the
+     *         page URL), null if the element doesn't have it
+     */
+    String getAttribute(String name);
+}
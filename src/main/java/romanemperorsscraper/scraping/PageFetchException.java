@@ -0,0 +1,20 @@
+package romanemperorsscraper.scraping;
+
+/**
+ * This class encapsulates an error condition that occurred
+ * while a PageSource was trying to fetch a page (e.g. due
+ * to a network error or an unexpected HTTP status code).
+ *
+ * @see PageSource
+ *
+ * @author Matteo Collica
+ */
+public class PageFetchException extends RuntimeException {
+    public PageFetchException(String url, String reason) {
+        super("Unable to fetch the page '" + url + "': " + reason);
+    }
+
+    public PageFetchException(String url, Throwable cause) {
+        super("Unable to fetch the page '" + url + "': " + cause.getMessage(), cause);
+    }
+}
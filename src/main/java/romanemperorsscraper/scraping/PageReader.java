@@ -0,0 +1,31 @@
+package romanemperorsscraper.scraping;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Functional interface representing a consumer of a page's raw
+ * HTML, used by callers which only need a small part of a page
+ * and can stop reading its body as soon as they've found it.
+ *
+ * @param <T> the type of the value read from the page
+ *
+ * @see PageSource#readPage(String, PageReader)
+ *
+ * @author Matteo Collica
+ */
+@FunctionalInterface
+public interface PageReader<T> {
+    /**
+     * Read a value from a page's body, which is closed by the caller
+     * (so the body doesn't need to be read until its end)
+     *
+     * @param body the page's raw body
+     * @param charset the page's charset, null if it has to be detected
+     * @param pageUrl the page's actual URL (after any redirect)
+     *
+     * @return the value read from the page
+     * @throws IOException if the page's body could not be read
+     */
+    T read(InputStream body, String charset, String pageUrl) throws IOException;
+}
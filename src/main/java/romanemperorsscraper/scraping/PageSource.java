@@ -0,0 +1,62 @@
+package romanemperorsscraper.scraping;
+
+/**
+ * Interface representing a backend able to fetch Wikipedia
+ * pages and give access to their content as PageDocument(s),
+ * independently of how they are actually retrieved (through
+ * a plain HTTP client or a Selenium WebDriver session).
+ *
+ * @see PageDocument
+ * @see HttpPageSource
+ * @see SeleniumPageSource
+ * @see romanemperorsscraper.run.OsUtils
+ *
+ * @author Matteo Collica
+ */
+public interface PageSource {
+    /**
+     * Fetch a page and return its content
+     *
+     * @param url the URL of the page to be fetched
+     *
+     * @return the fetched page's PageDocument
+     * @throws PageFetchException if the page could not be fetched
+     */
+    PageDocument getPage(String url);
+
+    /**
+     * @return true if this PageSource can hand out the raw HTML
+     *         of pages through readPage, false otherwise
+     */
+    default boolean canReadPages() {
+        return false;
+    }
+
+    /**
+     * Fetch a page and hand its raw HTML to a PageReader, without parsing it
+     *
+     * @param url the URL of the page to be fetched
+     * @param pageReader the PageReader reading the page's body
+     * @param <T> the type of the value read from the page
+     *
+     * @return the value returned by the PageReader
+     * @throws PageFetchException if the page could not be fetched or read
+     * @throws UnsupportedOperationException if this PageSource can't read pages (see canReadPages)
+     */
+    default <T> T readPage(String url, PageReader<T> pageReader) {
+        throw new UnsupportedOperationException("This PageSource can't hand out the raw HTML of pages");
+    }
+
+    /**
+     * @return the maximum number of pages this PageSource can fetch at the
+     *         same time from different threads (1 if it isn't thread-safe)
+     */
+    default int getMaxConcurrency() {
+        return 1;
+    }
+
+    /**
+     * Release any resource held by this PageSource (e.g. a browser session)
+     */
+    void close();
+}
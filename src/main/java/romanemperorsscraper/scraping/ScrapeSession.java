@@ -0,0 +1,407 @@
+package romanemperorsscraper.scraping;
+
+import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.people.Person;
+import romanemperorsscraper.scraping.people.PersonNameUrl;
+import romanemperorsscraper.scraping.people.PersonPageData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Class used to hold everything scraped (or imported) so far: people's
+ * PersonPageData and Person objects, dynasties' members and Dynasty objects.
+ *
+ * A session is shared by all the dynasties scraped into it, also at the
+ * same time from different threads: all of its state is kept in concurrent
+ * maps, and a person's page requested by more threads at once is only
+ * loaded by the first one of them while the others wait for its result,
+ * so that the same URL is never fetched twice.
+ *
+ * The windows of the application share the same session, the one
+ * returned by getApplicationSession, while e.g. the headless mode
+ * scrapes into a session of its own.
+ *
+ * @see Dynasty
+ * @see PersonPageData
+ * @see Person
+ *
+ * @author Matteo Collica
+ */
+public class ScrapeSession {
+    /*
+     * ATTRIBUTES
+     */
+
+    /* (person Wikipedia page URL : PersonPageData object) entries */
+    private final ConcurrentHashMap<String, PersonPageData> urlPersonPageDataMatches = new ConcurrentHashMap<>();
+
+    /* Loads of PersonPageData objects currently in progress, by Wikipedia page URL */
+    private final ConcurrentHashMap<String, CompletableFuture<PersonPageData>> personPageDataLoads = new ConcurrentHashMap<>();
+
+    /*
+     * (dynasty Wikipedia page URL : (name-birthdate : person Wikipedia page URL)) entries,
+     * used to list the people of each dynasty
+     */
+
+    private final ConcurrentHashMap<String, Map<String, String>> dynastiesPeopleList = new ConcurrentHashMap<>();
+
+    /* (dynasty Wikipedia page URL : Dynasty object) entries */
+    private final ConcurrentHashMap<String, Dynasty> storedDynasties = new ConcurrentHashMap<>();
+
+    /* (person Wikipedia page URL : Person object) entries */
+    private final ConcurrentHashMap<String, Person> storedPersonObjects = new ConcurrentHashMap<>();
+
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    private static final ScrapeSession applicationSession = new ScrapeSession();
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * @return the session shared by the windows of the application
+     */
+    public static ScrapeSession getApplicationSession() {
+        return applicationSession;
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Construct a PersonPageData object or return it if it was already constructed,
+     * then register it as a member of the given dynasty (if eligible)
+     *
+     * @param pageSource the Page Source instance to be used to scrape data
+     * @param personNameUrl PersonNameUrl object of the person
+     * @param dynastyPageUrl the dynasty's Wikipedia page url
+     *
+     * @return the constructed PersonPageData object
+     */
+    public PersonPageData getPersonPageData(PageSource pageSource, PersonNameUrl personNameUrl, String dynastyPageUrl) {
+        PersonPageData personPageData;
+
+        if(personNameUrl.getUrl() != null) {
+            personPageData = loadPersonPageData(pageSource, personNameUrl, dynastyPageUrl);
+        } else {
+            personPageData = new PersonPageData(pageSource, personNameUrl, dynastyPageUrl);
+        }
+
+        registerDynastyMember(personPageData, personNameUrl.getFullName(), dynastyPageUrl);
+
+        return personPageData;
+    }
+
+    /**
+     * Return the PersonPageData object of a person having a Wikipedia page,
+     * constructing and storing it if it wasn't already constructed.
+     *
+     * Only the first thread requesting a page loads it, while the others wait
+     * for its result: if the loading thread gets interrupted (i.e. its crawl
+     * is cancelled) one of the waiting threads takes its place instead.
+     *
+     * @param pageSource the Page Source instance to be used to scrape data
+     * @param personNameUrl PersonNameUrl object of the person (having a Wikipedia page URL)
+     * @param dynastyPageUrl the dynasty's Wikipedia page url
+     *
+     * @return the constructed PersonPageData object
+     *
+     * @throws CancellationException if the current thread gets interrupted while waiting
+     */
+    public PersonPageData loadPersonPageData(PageSource pageSource, PersonNameUrl personNameUrl, String dynastyPageUrl) {
+        String url = personNameUrl.getUrl();
+
+        while(true) {
+            PersonPageData personPageData = urlPersonPageDataMatches.get(url);
+
+            if(personPageData != null) {
+                return personPageData;
+            }
+
+            CompletableFuture<PersonPageData> newLoad = new CompletableFuture<>();
+            CompletableFuture<PersonPageData> personPageDataLoad = personPageDataLoads.putIfAbsent(url, newLoad);
+
+            if(personPageDataLoad == null) {
+                return runLoad(newLoad, pageSource, personNameUrl, dynastyPageUrl);
+            }
+
+            try {
+                return personPageDataLoad.get();
+            } catch(CancellationException ex) {
+                /* The loading thread has been interrupted, try again */
+
+                if(Thread.currentThread().isInterrupted()) {
+                    throw ex;
+                }
+            } catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+
+                throw new CancellationException("Interrupted while waiting for " + url);
+            } catch(ExecutionException ex) {
+                if(ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Load a PersonPageData object on behalf of every thread requesting it
+     *
+     * @param personPageDataLoad the load to be completed, already registered by URL
+     * @param pageSource the Page Source instance to be used to scrape data
+     * @param personNameUrl PersonNameUrl object of the person (having a Wikipedia page URL)
+     * @param dynastyPageUrl the dynasty's Wikipedia page url
+     *
+     * @return the constructed PersonPageData object
+     */
+    private PersonPageData runLoad(CompletableFuture<PersonPageData> personPageDataLoad, PageSource pageSource,
+                                   PersonNameUrl personNameUrl, String dynastyPageUrl) {
+        String url = personNameUrl.getUrl();
+
+        try {
+            /*
+             * Another thread may have completed its own load of the
+             * same page between our lookup and our registration
+             */
+
+            PersonPageData personPageData = urlPersonPageDataMatches.get(url);
+
+            if(personPageData == null) {
+                personPageData = new PersonPageData(pageSource, personNameUrl, dynastyPageUrl);
+
+                urlPersonPageDataMatches.put(url, personPageData);
+            }
+
+            personPageDataLoad.complete(personPageData);
+
+            return personPageData;
+        } catch(RuntimeException | Error ex) {
+            if(Thread.currentThread().isInterrupted()) {
+                personPageDataLoad.cancel(false);
+            } else {
+                personPageDataLoad.completeExceptionally(ex);
+            }
+
+            throw ex;
+        } finally {
+            personPageDataLoads.remove(url, personPageDataLoad);
+        }
+    }
+
+    /**
+     * Store a PersonPageData object constructed outside the session (e.g. while
+     * probing a dynasty founder's candidates), unless one has already been
+     * stored for the same Wikipedia page
+     *
+     * @param personPageData the PersonPageData object to be stored
+     *
+     * @return the PersonPageData object stored for the person's Wikipedia page
+     */
+    public PersonPageData storePersonPageData(PersonPageData personPageData) {
+        PersonPageData storedPersonPageData = urlPersonPageDataMatches.putIfAbsent(personPageData.getPersonNameUrl().getUrl(), personPageData);
+
+        return storedPersonPageData != null ? storedPersonPageData : personPageData;
+    }
+
+    /**
+     * @param url a person's Wikipedia page URL
+     *
+     * @return true if the person's PersonPageData object was already constructed, false otherwise
+     */
+    public boolean hasPersonPageData(String url) {
+        return urlPersonPageDataMatches.containsKey(url);
+    }
+
+    /**
+     * Return an already created PersonPageData object (registering it as a member
+     * of the given dynasty, since this is only used for dynasty founders) or null
+     *
+     * @param personPageUrl the person's Wikipedia page URL
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     *
+     * @return PersonPageData object relative to the given URL
+     */
+    public PersonPageData getCachedPersonPageData(String personPageUrl, String dynastyPageUrl) {
+        PersonPageData personPageData = personPageUrl != null ? urlPersonPageDataMatches.get(personPageUrl) : null;
+
+        if(personPageData != null) {
+            addToDynastiesPeopleList(personPageData, personPageData.getPersonNameUrl().getFullName(), dynastyPageUrl);
+        }
+
+        return personPageData;
+    }
+
+    /**
+     * Add a person to a dynasty's people list, but only if:
+     * - The person has a Wikipedia page;
+     * - The person doesn't have a Dynasty
+     *   OR the person has a dynasty, and it is equal
+     *      to the one identified by the dynastyPageUrl.
+     *
+     * @param personPageData the person's PersonPageData object
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     */
+    public void registerDynastyMember(PersonPageData personPageData, String dynastyPageUrl) {
+        registerDynastyMember(personPageData, personPageData.getPersonNameUrl().getFullName(), dynastyPageUrl);
+    }
+
+    /**
+     * Add a person to a dynasty's people list under the name the dynasty
+     * refers to him/her with, which may differ from the one his/her
+     * PersonPageData object is named with (his/her page's title)
+     *
+     * @param personPageData the person's PersonPageData object
+     * @param fullName the person's full name within the dynasty
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     */
+    public void registerDynastyMember(PersonPageData personPageData, String fullName, String dynastyPageUrl) {
+        if(personPageData.getPersonNameUrl().getUrl() != null
+                && (personPageData.getPersonDynastyPageUrl() == null
+                        || Dynasty.dynastyPageUrlEquals(dynastyPageUrl, personPageData.getPersonDynastyPageUrl()))) {
+            addToDynastiesPeopleList(personPageData, fullName, dynastyPageUrl);
+        }
+    }
+
+    /**
+     * Add a person to a dynasty's people list
+     *
+     * @param personPageData the person's PersonPageData object
+     * @param fullName the person's full name within the dynasty
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     */
+    private void addToDynastiesPeopleList(PersonPageData personPageData, String fullName, String dynastyPageUrl) {
+        String key;
+
+        /*
+         * The ID will consist of the person's full name
+         * concatenated with their date of birth (when it
+         * is available) to prevent homonyms
+         */
+
+        if(personPageData.getBirthDate() != null) {
+            key = fullName+" ("+ personPageData.getBirthDate()+")";
+        } else {
+            key = fullName;
+        }
+
+        dynastiesPeopleList.computeIfAbsent(dynastyPageUrl, url -> new ConcurrentHashMap<>())
+                .put(key, personPageData.getPersonNameUrl().getUrl());
+    }
+
+    /**
+     * Replace all the stored PersonPageData objects with the given ones
+     * (e.g. when importing data from JSON files)
+     *
+     * @param urlPersonPageDataMatches the new (Wikipedia page URL : PersonPageData) entries
+     */
+    public void setUrlPersonPageDataMatches(Map<String, PersonPageData> urlPersonPageDataMatches) {
+        this.urlPersonPageDataMatches.clear();
+        this.urlPersonPageDataMatches.putAll(urlPersonPageDataMatches);
+    }
+
+    /**
+     * @return the (Wikipedia page URL : PersonPageData) entries of the session
+     */
+    public Map<String, PersonPageData> getUrlPersonPageDataMatches() {
+        return urlPersonPageDataMatches;
+    }
+
+    /**
+     * @return a map having as key the dynasties' Wikipedia page URLs and as
+     * value another map containing the dynasty people with the name-birthdate
+     * as key and the Wikipedia page URL as value
+     */
+    public Map<String, Map<String, String>> getDynastiesPeopleList() {
+        return dynastiesPeopleList;
+    }
+
+    /**
+     * Put a new Dynasty in the stored dynasties by its Wikipedia page URL
+     *
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     * @param dynasty the dynasty's Dynasty object
+     */
+    public void storeDynasty(String dynastyPageUrl, Dynasty dynasty) {
+        storedDynasties.put(dynastyPageUrl, dynasty);
+    }
+
+    /**
+     * Given a dynasty's Wikipedia page URL, return the corresponding Dynasty object
+     *
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     * @return the dynasty's Dynasty object, null if it isn't stored
+     */
+    public Dynasty getStoredDynastyByUrl(String dynastyPageUrl) {
+        return storedDynasties.get(dynastyPageUrl);
+    }
+
+    /**
+     * Replace all the stored dynasties with the given ones
+     * (e.g. when importing data from JSON files)
+     *
+     * @param storedDynasties the dynasties to be stored by their Wikipedia page url
+     */
+    public void setStoredDynasties(Map<String, Dynasty> storedDynasties) {
+        this.storedDynasties.clear();
+        this.storedDynasties.putAll(storedDynasties);
+    }
+
+    /**
+     * @return the stored dynasties by their Wikipedia page URL
+     */
+    public Map<String, Dynasty> getStoredDynasties() {
+        return storedDynasties;
+    }
+
+    /**
+     * @return All the stored dynasties' names in a dashed list form, in
+     * chronological order of foundation (dynasties without a foundation
+     * date last), e.g.:<br>
+     * - Dinastia giulio-claudia<br>
+     * - Dinastia costantiniana<br>
+     * [...]
+     */
+    public StringBuilder getStoredDynastiesNames() {
+        StringBuilder dynastiesNames = new StringBuilder();
+
+        List<Dynasty> dynasties = new ArrayList<>(storedDynasties.values());
+        dynasties.sort(Comparator.comparing(Dynasty::getFoundationRomanDate, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        for (Dynasty dynasty : dynasties) {
+            dynastiesNames.append("- ").append(dynasty.getName()).append("\n");
+        }
+
+        return dynastiesNames;
+    }
+
+    /**
+     * Put a new Person object in the stored ones by its Wikipedia page URL
+     *
+     * @param url the person's Wikipedia page URL
+     * @param person the person's Person object
+     */
+    public void storePersonObject(String url, Person person) {
+        storedPersonObjects.put(url, person);
+    }
+
+    /**
+     * @return the already constructed Person objects by their Wikipedia page URL
+     */
+    public Map<String, Person> getStoredPersonObjects() {
+        return storedPersonObjects;
+    }
+}
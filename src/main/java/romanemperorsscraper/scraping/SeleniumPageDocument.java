@@ -0,0 +1,65 @@
+package romanemperorsscraper.scraping;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import romanemperorsscraper.run.WebDriverPool;
+
+/**
+ * Class representing the page currently loaded by a
+ * Selenium WebDriver session as a PageDocument.
+ *
+ * Being tied to the browser's state, a SeleniumPageDocument
+ * (and its elements) can only be used until it is closed, which
+ * returns its WebDriver session to the pool it was checked out of.
+ *
+ * @see SeleniumPageSource
+ * @see SeleniumPageElement
+ *
+ * @author Matteo Collica
+ */
+public class SeleniumPageDocument extends SeleniumPageElement implements PageDocument {
+    private final WebDriver webDriver;
+
+    private final WebDriverPool webDriverPool;
+
+    private boolean closed = false;
+
+    /**
+     * Construct a SeleniumPageDocument from a WebDriver
+     * which has already been loaded with the page
+     *
+     * @param webDriver the WebDriver session the page is loaded in
+     * @param webDriverPool the pool the WebDriver session was checked out of
+     */
+    public SeleniumPageDocument(WebDriver webDriver, WebDriverPool webDriverPool) {
+        super(webDriver.findElement(By.tagName("html")));
+
+        this.webDriver = webDriver;
+        this.webDriverPool = webDriverPool;
+    }
+
+    @Override
+    public String getUrl() {
+        return webDriver.getCurrentUrl();
+    }
+
+    /**
+     * Return the WebDriver session to the pool, so that
+     * it can be reused to load another page
+     */
+    @Override
+    public void close() {
+        if(!closed) {
+            closed = true;
+
+            webDriverPool.release(webDriver);
+        }
+    }
+
+    /**
+     * @return the WebDriver session the page is loaded in
+     */
+    public WebDriver getWebDriver() {
+        return webDriver;
+    }
+}
@@ -0,0 +1,101 @@
+package romanemperorsscraper.scraping;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class wrapping a Selenium WebElement to represent it as a PageElement.
+ *
+ * @see SeleniumPageSource
+ * @see SeleniumPageDocument
+ *
+ * @author Matteo Collica
+ */
+public class SeleniumPageElement implements PageElement {
+    private final WebElement webElement;
+
+    /**
+     * Construct a SeleniumPageElement by wrapping a Selenium WebElement
+     *
+     * @param webElement the WebElement to be wrapped
+     */
+    public SeleniumPageElement(WebElement webElement) {
+        this.webElement = webElement;
+    }
+
+    @Override
+    public PageElement findElementByTagName(String tagName) {
+        return first(webElement.findElements(By.tagName(tagName)));
+    }
+
+    @Override
+    public PageElement findElementByClassName(String className) {
+        return first(webElement.findElements(By.className(className)));
+    }
+
+    @Override
+    public List<PageElement> findElementsByTagName(String tagName) {
+        return wrap(webElement.findElements(By.tagName(tagName)));
+    }
+
+    @Override
+    public List<PageElement> findElementsByClassName(String className) {
+        return wrap(webElement.findElements(By.className(className)));
+    }
+
+    @Override
+    public String getText() {
+        return webElement.getText();
+    }
+
+    @Override
+    public String getInnerText() {
+        return webElement.getAttribute("innerText");
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return webElement.getAttribute(name);
+    }
+
+    /**
+     * @return the wrapped Selenium WebElement
+     */
+    public WebElement getWebElement() {
+        return webElement;
+    }
+
+    /**
+     * We search through findElements instead of findElement because
+     * the latter throws a NoSuchElementException when nothing is found
+     *
+     * @param webElements the result of a Selenium search
+     *
+     * @return the first WebElement found as a PageElement, null if there is none
+     */
+    private static PageElement first(List<WebElement> webElements) {
+        if(webElements.isEmpty()) {
+            return null;
+        }
+
+        return new SeleniumPageElement(webElements.get(0));
+    }
+
+    /**
+     * @param webElements the result of a Selenium search
+     *
+     * @return the WebElements found as PageElements
+     */
+    private static List<PageElement> wrap(List<WebElement> webElements) {
+        List<PageElement> pageElements = new ArrayList<>(webElements.size());
+
+        for(WebElement webElement : webElements) {
+            pageElements.add(new SeleniumPageElement(webElement));
+        }
+
+        return pageElements;
+    }
+}
@@ -0,0 +1,71 @@
+package romanemperorsscraper.scraping;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import romanemperorsscraper.run.NoSupportedBrowsersException;
+import romanemperorsscraper.run.WebDriverPool;
+
+/**
+ * Fallback PageSource which loads pages in a real browser
+ * through Selenium WebDriver sessions, checked out of a
+ * WebDriverPool for each page and returned to it when the
+ * page's document is closed.
+ *
+ * @see PageSource
+ * @see SeleniumPageDocument
+ * @see WebDriverPool
+ *
+ * @author Matteo Collica
+ */
+public class SeleniumPageSource implements PageSource {
+    private final WebDriverPool webDriverPool;
+
+    /**
+     * Construct a SeleniumPageSource from a pool of WebDriver sessions
+     *
+     * @param webDriverPool the pool of WebDriver sessions to be used to load pages
+     */
+    public SeleniumPageSource(WebDriverPool webDriverPool) {
+        this.webDriverPool = webDriverPool;
+    }
+
+    /**
+     * Load a page in a WebDriver session checked out of the pool, which
+     * is only returned to it when the page's document is closed
+     */
+    @Override
+    public PageDocument getPage(String url) {
+        WebDriver webDriver;
+
+        try {
+            webDriver = webDriverPool.checkout();
+        } catch(NoSupportedBrowsersException ex) {
+            throw new PageFetchException(url, ex);
+        }
+
+        try {
+            webDriver.get(url);
+
+            return new SeleniumPageDocument(webDriver, webDriverPool);
+        } catch(WebDriverException ex) {
+            webDriverPool.release(webDriver);
+
+            throw new PageFetchException(url, ex);
+        }
+    }
+
+    /**
+     * Each WebDriver session of the pool can load a different page at the same time
+     */
+    @Override
+    public int getMaxConcurrency() {
+        return webDriverPool.getMaxSize();
+    }
+
+    /**
+     * The WebDriver sessions belong to the pool, which
+     * keeps them warm to be reused, nothing to release here
+     */
+    @Override
+    public void close() {}
+}
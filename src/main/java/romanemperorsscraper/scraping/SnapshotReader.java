@@ -0,0 +1,307 @@
+package romanemperorsscraper.scraping;
+
+import romanemperorsscraper.run.RomanEmperorsScraper;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class used to read the snapshot files written by SnapshotWriter, which
+ * are mapped in memory instead of being read: the operating system loads
+ * their pages as they're accessed, and no copy of the file is made.
+ *
+ * Records are reached through their section's index (see seekRecord), and
+ * each string of the string table is decoded once, the first time it's
+ * read, so that all the records referring to it share the same String.
+ *
+ * The snapshot's content is trusted as far as its header: a corrupted
+ * record makes the reading methods throw an unchecked exception (e.g.
+ * an IndexOutOfBoundsException).
+ *
+ * The file stays mapped (and, on Windows, locked) until the reader is
+ * closed, so it has to be closed as soon as the snapshot has been read.
+ *
+ * @see SnapshotWriter
+ * @see ExportDeserializer
+ *
+ * @author Matteo Collica
+ */
+public class SnapshotReader implements Closeable {
+    /*
+     * ATTRIBUTES
+     */
+
+    private final ByteBuffer buffer;
+
+    /* A view of the same memory, used to decode strings without moving the buffer's position */
+    private final ByteBuffer stringsBuffer;
+
+    private final String[] strings;
+
+    private final int stringsIndexOffset;
+
+    private final int stringsDataOffset;
+
+    private final int[] recordsCounts = new int[SnapshotWriter.SECTIONS_COUNT];
+
+    private final int[] indexOffsets = new int[SnapshotWriter.SECTIONS_COUNT];
+
+    /* Reused to decode the strings' bytes */
+    private byte[] stringBytes = new byte[256];
+
+    private boolean closed = false;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    private SnapshotReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        this.stringsBuffer = buffer.duplicate();
+
+        if (buffer.capacity() < SnapshotWriter.HEADER_SIZE || buffer.getInt(0) != SnapshotWriter.MAGIC_NUMBER) {
+            throw new IOException("Not a snapshot file");
+        }
+
+        if (buffer.getInt(4) != SnapshotWriter.FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version: " + buffer.getInt(4));
+        }
+
+        int stringsCount = buffer.getInt(8);
+
+        this.stringsIndexOffset = buffer.getInt(12);
+        this.stringsDataOffset  = buffer.getInt(16);
+
+        checkBounds(stringsIndexOffset, stringsCount + 1L);
+
+        this.strings = new String[stringsCount];
+
+        for (int section = 0; section < SnapshotWriter.SECTIONS_COUNT; section++) {
+            recordsCounts[section] = buffer.getInt(20 + section * 8);
+            indexOffsets[section]  = buffer.getInt(24 + section * 8);
+
+            checkBounds(indexOffsets[section], recordsCounts[section]);
+        }
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Map a snapshot file in memory to be read
+     *
+     * @param snapshotFilePath the path of the snapshot file to be read
+     *
+     * @return the SnapshotReader of the file
+     *
+     * @throws IOException if the file could not be mapped or isn't a (supported) snapshot file
+     */
+    public static SnapshotReader open(String snapshotFilePath) throws IOException {
+        /* The mapping stays valid once the channel has been closed */
+
+        try (FileChannel fileChannel = FileChannel.open(Paths.get(snapshotFilePath), StandardOpenOption.READ)) {
+            if (fileChannel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The snapshot is too large to be read (over 2 GB)");
+            }
+
+            return new SnapshotReader(fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()));
+        }
+    }
+
+    /**
+     * @param filePath the path of a file
+     *
+     * @return true if the file begins like a snapshot file, false otherwise
+     *
+     * @throws IOException if the file could not be read
+     */
+    public static boolean isSnapshotFile(String filePath) throws IOException {
+        try (DataInputStream dataInputStream = new DataInputStream(new FileInputStream(filePath))) {
+            return dataInputStream.readInt() == SnapshotWriter.MAGIC_NUMBER;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * @param section the section's number (e.g. SnapshotWriter.PEOPLE_SECTION)
+     *
+     * @return the number of records in the section
+     */
+    public int getRecordsCount(int section) {
+        return recordsCounts[section];
+    }
+
+    /**
+     * Move to the beginning of a record, to be read through the other methods
+     *
+     * @param section the section's number (e.g. SnapshotWriter.PEOPLE_SECTION)
+     * @param record the record's number in the section
+     */
+    public void seekRecord(int section, int record) {
+        if (closed) {
+            throw new IllegalStateException("The snapshot has been closed");
+        }
+
+        if (record < 0 || record >= recordsCounts[section]) {
+            throw new IndexOutOfBoundsException("Record " + record + " of section " + section);
+        }
+
+        buffer.position(buffer.getInt(indexOffsets[section] + record * 4));
+    }
+
+    /**
+     * @return the offset (in the file) of the next byte to be read
+     */
+    public int getPosition() {
+        return buffer.position();
+    }
+
+    /**
+     * @return the size of the file, in bytes
+     */
+    public int getSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return the non-negative integer written by SnapshotWriter.writeVarint
+     */
+    public int readVarint() {
+        int value = readUnsignedVarint();
+
+        if (value < 0) {
+            throw new IllegalStateException("Negative varint at " + buffer.position());
+        }
+
+        return value;
+    }
+
+    /**
+     * @return the integer written by SnapshotWriter.writeSignedVarint
+     */
+    public int readSignedVarint() {
+        int value = readUnsignedVarint();
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * @return the string written by SnapshotWriter.writeString (may be null)
+     */
+    public String readString() {
+        int stringNumber = readVarint() - 1;
+
+        if (stringNumber == -1) {
+            return null;
+        }
+
+        String string = strings[stringNumber];
+
+        if (string == null) {
+            int stringOffset = buffer.getInt(stringsIndexOffset + stringNumber * 4);
+            int stringLength = buffer.getInt(stringsIndexOffset + stringNumber * 4 + 4) - stringOffset;
+
+            if (stringLength > stringBytes.length) {
+                stringBytes = new byte[Math.max(stringLength, stringBytes.length * 2)];
+            }
+
+            stringsBuffer.position(stringsDataOffset + stringOffset);
+            stringsBuffer.get(stringBytes, 0, stringLength);
+
+            string = strings[stringNumber] = new String(stringBytes, 0, stringLength, StandardCharsets.UTF_8);
+        }
+
+        return string;
+    }
+
+    /**
+     * Unmap the snapshot file, which can then be overwritten or deleted:
+     * the reader (and any record it's positioned at) can't be read anymore
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        unmap(buffer);
+    }
+
+    private int readUnsignedVarint() {
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+
+            value |= (b & 0x7F) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalStateException("Malformed varint at " + buffer.position());
+    }
+
+    /**
+     * Release a mapped buffer's memory (and the file mapped in it) straight
+     * away instead of when it gets garbage collected, through the JDK's
+     * internal API (sun.misc.Unsafe.invokeCleaner since Java 9, the buffer's
+     * cleaner before): if neither is accessible, it's left to the collector
+     */
+    private static void unmap(ByteBuffer mappedBuffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+
+            try {
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+
+                theUnsafe.setAccessible(true);
+
+                invokeCleaner.invoke(theUnsafe.get(null), mappedBuffer);
+            } catch (NoSuchMethodException e) {
+                Method cleanerMethod = mappedBuffer.getClass().getMethod("cleaner");
+
+                cleanerMethod.setAccessible(true);
+
+                Object cleaner = cleanerMethod.invoke(mappedBuffer);
+
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            if (RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Unable to unmap the snapshot file: " + e);
+            }
+        }
+    }
+
+    /**
+     * Check that an array of ints at the given offset lies within the file
+     */
+    private void checkBounds(int offset, long intsCount) throws IOException {
+        if (offset < SnapshotWriter.HEADER_SIZE || intsCount < 0 || offset + intsCount * 4 > buffer.capacity()) {
+            throw new IOException("Corrupted snapshot file");
+        }
+    }
+}
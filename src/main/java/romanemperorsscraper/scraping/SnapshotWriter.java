@@ -0,0 +1,315 @@
+package romanemperorsscraper.scraping;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Class used to write binary snapshot files, a compact alternative to
+ * the JSON export files which can be loaded by mapping them in memory
+ * (see SnapshotReader).
+ *
+ * A snapshot file is made of:
+ * - a fixed size header (see HEADER_SIZE), holding the offsets of everything else;
+ * - the records of each section (people first, then dynasties), one after the other;
+ * - an index for each section, with the offset of each of its records;
+ * - a string table, where every distinct string (URLs, names, dates...) is
+ *   written just once, followed by the index of its strings' offsets.
+ *
+ * Records are written as varints (7 bits per byte, least significant bits
+ * first), strings included: they're written as their number in the string
+ * table plus one, 0 standing for null. The header is written last, so a
+ * file whose writing has been interrupted isn't recognized as a snapshot.
+ *
+ * @see SnapshotReader
+ * @see ExportSerializer
+ *
+ * @author Matteo Collica
+ */
+public class SnapshotWriter implements Closeable {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* The sections of a snapshot, in the order they're written */
+    public static final int PEOPLE_SECTION    = 0;
+    public static final int DYNASTIES_SECTION = 1;
+
+    static final int SECTIONS_COUNT = 2;
+
+    /* 'RESS', at the beginning of every snapshot file */
+    static final int MAGIC_NUMBER = 0x52455353;
+
+    static final int FORMAT_VERSION = 2;
+
+    /*
+     * Header: magic number, format version, strings count, strings index
+     * offset, strings data offset and, for each section, its records
+     * count and index offset (all of them big-endian ints)
+     */
+
+    static final int HEADER_SIZE = 4 * (5 + 2 * SECTIONS_COUNT);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /*
+     * ATTRIBUTES
+     */
+
+    private final FileChannel fileChannel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /* The number of bytes already moved from the buffer to the file */
+    private long flushedBytes;
+
+    /* (string : number in the string table) entries */
+    private final HashMap<String, Integer> stringNumbers = new HashMap<>();
+
+    private final ArrayList<String> strings = new ArrayList<>();
+
+    private final int[][] recordOffsets = new int[SECTIONS_COUNT][16];
+
+    private final int[] recordsCounts = new int[SECTIONS_COUNT];
+
+    private int currentSection = -1;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a SnapshotWriter writing a new snapshot file (or overwriting it)
+     *
+     * @param snapshotFilePath the path of the snapshot file to be written
+     *
+     * @throws IOException if the snapshot file could not be opened
+     */
+    public SnapshotWriter(String snapshotFilePath) throws IOException {
+        this.fileChannel = FileChannel.open(Paths.get(snapshotFilePath),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        /* The header is left blank until the snapshot is finished */
+
+        this.flushedBytes = HEADER_SIZE;
+        fileChannel.position(HEADER_SIZE);
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Start writing the records of a section, sections have to be started in order
+     *
+     * @param section the section's number (e.g. PEOPLE_SECTION)
+     */
+    public void beginSection(int section) {
+        if (section <= currentSection || section >= SECTIONS_COUNT) {
+            throw new IllegalStateException("Section " + section + " cannot be started after section " + currentSection);
+        }
+
+        currentSection = section;
+    }
+
+    /**
+     * Start writing a new record of the current section
+     *
+     * @throws IOException if the snapshot file has grown too large to be mapped in memory
+     */
+    public void beginRecord() throws IOException {
+        if (currentSection == -1) {
+            throw new IllegalStateException("No section has been started");
+        }
+
+        int[] offsets = recordOffsets[currentSection];
+        int recordsCount = recordsCounts[currentSection];
+
+        if (recordsCount == offsets.length) {
+            offsets = recordOffsets[currentSection] = Arrays.copyOf(offsets, recordsCount * 2);
+        }
+
+        offsets[recordsCount] = getOffset();
+        recordsCounts[currentSection]++;
+    }
+
+    /**
+     * @param value a non-negative integer, written in as few bytes as possible
+     */
+    public void writeVarint(int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative varint: " + value);
+        }
+
+        writeUnsignedVarint(value);
+    }
+
+    /**
+     * @param value an integer, written (zigzag encoded) in as few bytes as its absolute value needs
+     */
+    public void writeSignedVarint(int value) throws IOException {
+        writeUnsignedVarint((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * @param string a string (may be null), added to the string table if it's not already there
+     */
+    public void writeString(String string) throws IOException {
+        if (string == null) {
+            writeVarint(0);
+
+            return;
+        }
+
+        Integer stringNumber = stringNumbers.get(string);
+
+        if (stringNumber == null) {
+            stringNumber = strings.size();
+
+            stringNumbers.put(string, stringNumber);
+            strings.add(string);
+        }
+
+        writeVarint(stringNumber + 1);
+    }
+
+    /**
+     * Write the sections' indexes, the string table and the header,
+     * completing the snapshot file (which is then closed)
+     *
+     * @throws IOException if the snapshot file could not be written
+     */
+    public void finish() throws IOException {
+        int[] indexOffsets = new int[SECTIONS_COUNT];
+
+        for (int section = 0; section < SECTIONS_COUNT; section++) {
+            indexOffsets[section] = getOffset();
+
+            for (int record = 0; record < recordsCounts[section]; record++) {
+                writeInt(recordOffsets[section][record]);
+            }
+        }
+
+        /* Each string's offset is relative to the first string's one */
+
+        int stringsDataOffset = getOffset();
+
+        int[] stringOffsets = new int[strings.size() + 1];
+
+        for (int i = 0; i < strings.size(); i++) {
+            byte[] stringBytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+
+            stringOffsets[i] = getOffset() - stringsDataOffset;
+
+            for (int written = 0; written < stringBytes.length; ) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+
+                int length = Math.min(buffer.remaining(), stringBytes.length - written);
+
+                buffer.put(stringBytes, written, length);
+                written += length;
+            }
+        }
+
+        stringOffsets[strings.size()] = getOffset() - stringsDataOffset;
+
+        int stringsIndexOffset = getOffset();
+
+        for (int stringOffset : stringOffsets) {
+            writeInt(stringOffset);
+        }
+
+        /* The file's end must be mappable as well */
+
+        getOffset();
+
+        flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        header.putInt(MAGIC_NUMBER).putInt(FORMAT_VERSION)
+                .putInt(strings.size()).putInt(stringsIndexOffset).putInt(stringsDataOffset);
+
+        for (int section = 0; section < SECTIONS_COUNT; section++) {
+            header.putInt(recordsCounts[section]).putInt(indexOffsets[section]);
+        }
+
+        header.flip();
+
+        while (header.hasRemaining()) {
+            fileChannel.write(header, HEADER_SIZE - header.remaining());
+        }
+
+        fileChannel.force(false);
+
+        close();
+    }
+
+    /**
+     * Close the snapshot file, which is left incomplete if it hasn't been finished
+     */
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    /**
+     * Write the 32 bits of an integer as an unsigned varint (which may then take up to 5 bytes)
+     */
+    private void writeUnsignedVarint(int value) throws IOException {
+        ensureRemaining(5);
+
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    private void writeInt(int value) throws IOException {
+        ensureRemaining(4);
+
+        buffer.putInt(value);
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            flushedBytes += fileChannel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * @return the offset in the file the next byte will be written at
+     *
+     * @throws IOException if the file has grown beyond what can be mapped in memory
+     */
+    private int getOffset() throws IOException {
+        long offset = flushedBytes + buffer.position();
+
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("The snapshot is too large to be written (over 2 GB)");
+        }
+
+        return (int) offset;
+    }
+}
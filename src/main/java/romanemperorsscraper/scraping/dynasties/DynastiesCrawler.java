@@ -0,0 +1,206 @@
+package romanemperorsscraper.scraping.dynasties;
+
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.ScrapeSession;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class used to scrape more dynasties at the same time.
+ *
+ * Each dynasty's tree is built by its own thread (with its own
+ * PersonCrawler) but all of them share the same PageSource and
+ * ScrapeSession: since dynasties share many people, a person's
+ * page is fetched at most once across all of them, and a full
+ * refresh takes about as long as the largest dynasty rather
+ * than the sum of all of them.
+ *
+ * @see Dynasty
+ * @see ScrapeSession
+ * @see romanemperorsscraper.scraping.people.PersonCrawler
+ *
+ * @author Matteo Collica
+ */
+public class DynastiesCrawler {
+    /*
+     * ATTRIBUTES
+     */
+
+    private final ScrapeSession scrapeSession;
+
+    private final PageSource pageSource;
+
+    private static final AtomicInteger crawlerThreadsCount = new AtomicInteger();
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a DynastiesCrawler
+     *
+     * @param scrapeSession the ScrapeSession shared by all the dynasties' crawls
+     * @param pageSource the Page Source instance shared by all the dynasties' crawls
+     */
+    public DynastiesCrawler(ScrapeSession scrapeSession, PageSource pageSource) {
+        this.scrapeSession = scrapeSession;
+        this.pageSource = pageSource;
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Scrape the given dynasties (and build their trees) at the same time, storing
+     * the ones scraped successfully in the ScrapeSession
+     *
+     * @param dynasties an HashMap of (dynasty Wikipedia page URL : dynasty english name) entries
+     *
+     * @return a (dynasty Wikipedia page URL : DynastyCrawlResult) map, in the same order as the given one
+     *
+     * @throws CancellationException if the current thread gets interrupted while waiting for the crawls
+     */
+    public LinkedHashMap<String, DynastyCrawlResult> crawl(Map<String, String> dynasties) {
+        LinkedHashMap<String, DynastyCrawlResult> results = new LinkedHashMap<>();
+
+        if(dynasties.isEmpty()) {
+            return results;
+        }
+
+        ExecutorService crawlerThreads = Executors.newFixedThreadPool(dynasties.size(), runnable -> {
+            Thread thread = new Thread(runnable, "dynasties-crawler-" + crawlerThreadsCount.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        try {
+            List<Future<DynastyCrawlResult>> crawls = new ArrayList<>();
+
+            for(Map.Entry<String, String> entry : dynasties.entrySet()) {
+                String dynastyPageUrl = entry.getKey();
+                String dynastyName    = entry.getValue();
+
+                crawls.add(crawlerThreads.submit(() -> crawlDynasty(dynastyPageUrl, dynastyName)));
+            }
+
+            int i = 0;
+
+            for(String dynastyPageUrl : dynasties.keySet()) {
+                try {
+                    results.put(dynastyPageUrl, crawls.get(i++).get());
+                } catch(ExecutionException ex) {
+                    /* crawlDynasty reports every failure in its result, this is an Error */
+
+                    throw new IllegalStateException(ex.getCause());
+                }
+            }
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new CancellationException("Interrupted while waiting for the dynasties' crawls");
+        } finally {
+            crawlerThreads.shutdownNow();
+        }
+
+        return results;
+    }
+
+    /**
+     * Scrape a single dynasty and build its tree
+     *
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     * @param dynastyName the dynasty's english name
+     *
+     * @return the DynastyCrawlResult of the dynasty
+     */
+    private DynastyCrawlResult crawlDynasty(String dynastyPageUrl, String dynastyName) {
+        if(RomanEmperorsScraper.isDebugEnabled()) {
+            System.out.println("Scraping the " + dynastyName + " (" + dynastyPageUrl + ")");
+        }
+
+        long startNanos = System.nanoTime();
+
+        try {
+            Dynasty dynasty = new Dynasty(scrapeSession, dynastyPageUrl, dynastyName, pageSource, true);
+
+            return new DynastyCrawlResult(dynastyName, dynasty, null, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch(RuntimeException ex) {
+            return new DynastyCrawlResult(dynastyName, null, ex, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Class used to represent the outcome of a dynasty's crawl
+     */
+    public static class DynastyCrawlResult {
+        private final String dynastyName;
+
+        private final Dynasty dynasty;
+
+        private final RuntimeException failure;
+
+        private final long millis;
+
+        /**
+         * @param dynastyName the dynasty's english name
+         * @param dynasty the scraped Dynasty object (null if the crawl failed)
+         * @param failure the exception the crawl failed with (null if it succeeded)
+         * @param millis how long the crawl took, in milliseconds
+         */
+        private DynastyCrawlResult(String dynastyName, Dynasty dynasty, RuntimeException failure, long millis) {
+            this.dynastyName = dynastyName;
+            this.dynasty = dynasty;
+            this.failure = failure;
+            this.millis = millis;
+        }
+
+        /**
+         * @return the dynasty's english name
+         */
+        public String getDynastyName() {
+            return dynastyName;
+        }
+
+        /**
+         * @return the scraped Dynasty object, null if the crawl failed
+         */
+        public Dynasty getDynasty() {
+            return dynasty;
+        }
+
+        /**
+         * @return the exception the crawl failed with, null if it succeeded
+         */
+        public RuntimeException getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return true if the dynasty has been scraped successfully, false otherwise
+         */
+        public boolean hasSucceeded() {
+            return failure == null;
+        }
+
+        /**
+         * @return how long the crawl took, in milliseconds
+         */
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
@@ -1,19 +1,20 @@
 package romanemperorsscraper.scraping.dynasties;
 
 import org.json.simple.JSONObject;
-import org.openqa.selenium.By;
-import org.openqa.selenium.NoSuchElementException;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
+import romanemperorsscraper.scraping.PageAnchor;
+import romanemperorsscraper.scraping.PageDocument;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.ScrapeSession;
+import romanemperorsscraper.scraping.SnapshotReader;
+import romanemperorsscraper.scraping.people.PersonCrawler;
 import romanemperorsscraper.scraping.people.PersonNameUrl;
 import romanemperorsscraper.scraping.people.PersonPageData;
 import romanemperorsscraper.scraping.people.PersonPageDataSerializer;
+import romanemperorsscraper.scraping.people.RomanDate;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.concurrent.CancellationException;
 import java.util.regex.Pattern;
 
 /**
@@ -37,18 +38,36 @@ public class Dynasty {
 
     private final String name;
 
-    private final String foundationDate;
+    private final RomanDate foundationDate;
+
+    private final RomanDate depositionDate;
 
-    private final String depositionDate;
 
     private final PersonPageData founderPageData;
 
     private DynastyTree dynastyTree;
 
-    private static HashMap<String, Dynasty> storedDynasties = new HashMap<>();
+    private final ScrapeSession scrapeSession;
 
     private static HashMap<String, String> dynastyNameTranslations = new HashMap<>();
 
+    /*
+     * To ensure an emperor's headline format is 'Name (Reign Period)'
+     * we have to be as generic as possible to include some different
+     * cases:
+     * - Augusto (27 a.C.-14 d.C.)
+     * - Vespasiano (69-79)
+     * - Tiberio (14-37 d.C.)
+     * - Geta (211)
+     *
+     * So we check if the text starts with something, then has a space
+     * and an opening bracket after it, inside there is at least one
+     * number followed by anything, and finally it ends with a closing
+     * bracket. As generic as that.
+     */
+
+    private static final Pattern EMPEROR_HEADLINE_PATTERN = Pattern.compile("^.* \\([0-9]+.*\\)$", Pattern.CASE_INSENSITIVE);
+
     static {
         dynastyNameTranslations.put("costantiniana", "Constantinian");
         dynastyNameTranslations.put("flavia", "Flavian");
@@ -63,25 +82,36 @@ public class Dynasty {
      */
 
     /**
-     * Given a Web Driver and a dynasty's Wikipedia page URL,
+     * Given a Page Source and a dynasty's Wikipedia page URL,
      * scrape its data and/to construct a Dynasty object
      *
+     * @param scrapeSession the ScrapeSession the dynasty (and its people) should be stored in
      * @param dynastyPageUrl the dynasty's Wikipedia page URL
      * @param dynastyName the dynasty's name
-     * @param webDriver the Web Driver instance to be used to scrape data
+     * @param pageSource the Page Source instance to be used to scrape data
      * @param makeDynastyTree whether the dynasty tree should be created or not
      */
-    public Dynasty(String dynastyPageUrl, String dynastyName, WebDriver webDriver, boolean makeDynastyTree) {
+    public Dynasty(ScrapeSession scrapeSession, String dynastyPageUrl, String dynastyName, PageSource pageSource, boolean makeDynastyTree) {
+        this.scrapeSession = scrapeSession;
         this.wikipediaPageUrl = dynastyPageUrl;
         this.name    = dynastyName;
 
-        webDriver.get(dynastyPageUrl);
+        /*
+         * Everything we need from the dynasty's page is copied locally at
+         * once, so that filtering it doesn't cost any further round trip
+         */
+
+        DynastyPageSnapshot dynastyPageSnapshot;
+
+        try (PageDocument dynastyPageDocument = pageSource.getPage(dynastyPageUrl)) {
+            dynastyPageSnapshot = DynastyPageSnapshot.create(dynastyPageDocument);
+        }
 
         /*
          * Retrieve the Wikipedia page's title from the first heading
          */
 
-        this.pageTitle = webDriver.findElement(By.tagName("h1")).getText();
+        this.pageTitle = dynastyPageSnapshot.getTitle();
 
         /*
          * RETRIEVE NAMES AND REIGN PERIODS OF THE DYNASTY'S EMPERORS
@@ -93,7 +123,7 @@ public class Dynasty {
          * e.g. "Augusto (27 a.C.-14 d.C.)", "Nerone (54-68 d.C.)", [...]
          */
 
-        ArrayList<String> emperorsNameAndReignPeriod = retrieveEmperorsNamesAndReignPeriods(webDriver);
+        ArrayList<String> emperorsNameAndReignPeriod = retrieveEmperorsNamesAndReignPeriods(dynastyPageSnapshot);
 
         /*
          * COMPUTE AND SET THE DYNASTY'S FOUNDING YEAR
@@ -102,19 +132,22 @@ public class Dynasty {
         String firstEmperorNameAndReignPeriod = emperorsNameAndReignPeriod.get(0);
 
         /*
-         * Get the reign period of the first emperor
-         * e.g. "Augusto (27 a.C.-14 d.C.)" => "27 a.C.-14 d.C.)"
+         * Get the reign period of the first emperor, without the closing round bracket
+         * e.g. "Augusto (27 a.C.-14 d.C.)" => "27 a.C.-14 d.C."
          */
 
-        String firstEmperorReignPeriod = firstEmperorNameAndReignPeriod.split("\\(")[1];
+        String firstEmperorReignPeriod = firstEmperorNameAndReignPeriod.split("\\(")[1].replace(")", "");
 
         /*
          * Use the beginning date of the first emperor's
-         * reign period as the dynasty's deposition date
-         * e.g. "27 a.C.-14 d.C.)" => "27 a.C."
+         * reign period as the dynasty's foundation date
+         * e.g. "27 a.C.-14 d.C." => "27 a.C."
+         *
+         * (which is before Christ even when only the ending
+         * date says so, e.g. "44-27 a.C." => "44" a.C.)
          */
 
-        this.foundationDate = firstEmperorReignPeriod.split("-")[0];
+        this.foundationDate = RomanDate.parsePeriod(firstEmperorReignPeriod)[0];
 
         /*
          * COMPUTE AND SET THE DYNASTY'S YEAR OF DEPOSITION
@@ -136,17 +169,14 @@ public class Dynasty {
          * Use the ending date of the last emperor's
          * reign period as the dynasty's deposition date
          * e.g. "54-68 d.C." => "68 d.C."
+         *
+         * (or its only date if the reign lasted less than
+         * a year, e.g. "211" => "211")
          */
 
-        String depositionDate = lastEmperorReignPeriod.split("-")[1];
+        RomanDate[] lastEmperorReign = RomanDate.parsePeriod(lastEmperorReignPeriod);
 
-        /* But first add 'd.C.' if it is missing */
-
-        if(!depositionDate.contains("a.C.") && !depositionDate.contains("d.C.")) {
-            depositionDate = depositionDate + " d.C.";
-        }
-
-        this.depositionDate = depositionDate;
+        this.depositionDate = lastEmperorReign[1] != null ? lastEmperorReign[1] : lastEmperorReign[0];
 
         /*
          * Initiate the scraping of all the dynasty's descendants with their data
@@ -163,9 +193,9 @@ public class Dynasty {
              * Dynasty's Wikipedia page
              */
 
-            founderPageData = PersonPageData.getPersonPageData(
-                    webDriver,
-                    new PersonNameUrl(
+            founderPageData = scrapeSession.getPersonPageData(
+                    pageSource,
+                    PersonNameUrl.of(
                             "Costanzo Cloro",
                             "https://it.wikipedia.org/wiki/Costanzo_Cloro"
                     ),
@@ -180,9 +210,9 @@ public class Dynasty {
              * retrieve him/her as the dynasty's founder just by scraping)
              */
 
-            founderPageData = PersonPageData.getPersonPageData(
-                    webDriver,
-                    new PersonNameUrl(
+            founderPageData = scrapeSession.getPersonPageData(
+                    pageSource,
+                    PersonNameUrl.of(
                             "Valeriano",
                             "https://it.wikipedia.org/wiki/Valeriano"
                     ),
@@ -195,49 +225,106 @@ public class Dynasty {
              * through the dedicated retrieveFounderNameUrl method
              */
 
-            founderPageData = PersonPageData.getPersonPageData(
-                    webDriver,
-                    this.retrieveFounderNameUrl(webDriver),
+            founderPageData = scrapeSession.getPersonPageData(
+                    pageSource,
+                    retrieveFounderNameUrl(scrapeSession, pageSource, dynastyPageSnapshot, this.wikipediaPageUrl),
                     this.wikipediaPageUrl
             );
         }
 
         if(makeDynastyTree) {
-            createDynastyTree(webDriver);
+            createDynastyTree(pageSource);
 
-            storeDynasty(wikipediaPageUrl, this);
+            scrapeSession.storeDynasty(wikipediaPageUrl, this);
         }
     }
 
     /**
      * Restore (and construct) a Dynasty from a JSONObject (its serialized form)
      *
+     * @param scrapeSession the ScrapeSession the dynasty's people have already been restored into
      * @param wikipediaPageUrl the Wikipedia page URL of the dynasty
      * @param serializedDynasty the dynasty's serialized object
      */
-    public Dynasty(String wikipediaPageUrl, JSONObject serializedDynasty) {
+    public Dynasty(ScrapeSession scrapeSession, String wikipediaPageUrl, JSONObject serializedDynasty) {
+        this.scrapeSession = scrapeSession;
         this.wikipediaPageUrl = wikipediaPageUrl;
 
         this.pageTitle = PersonPageDataSerializer.parseJsonString(serializedDynasty.get("pageTitle"));
         this.name      = PersonPageDataSerializer.parseJsonString(serializedDynasty.get("name"));
 
-        this.foundationDate = PersonPageDataSerializer.parseJsonString(serializedDynasty.get("foundationDate"));
-        this.depositionDate = PersonPageDataSerializer.parseJsonString(serializedDynasty.get("depositionDate"));
+        this.foundationDate = PersonPageDataSerializer.deserializeRomanDate(serializedDynasty, "foundationDate");
+        this.depositionDate = PersonPageDataSerializer.deserializeRomanDate(serializedDynasty, "depositionDate");
 
         String founderPageUrl = PersonPageDataSerializer.parseJsonString(serializedDynasty.get("founderPageUrl"));
-        this.founderPageData  = PersonPageData.getCachedPersonPageData(founderPageUrl, wikipediaPageUrl);
+        this.founderPageData  = scrapeSession.getCachedPersonPageData(founderPageUrl, wikipediaPageUrl);
+
+        /*
+         * Exports may also hold a snapshot of the dynasty's tree: if so, it's
+         * loaded straight away, otherwise the tree will be rebuilt from the
+         * restored people when it's first shown (see createDynastyTree)
+         */
+
+        JSONObject serializedTree = (JSONObject) serializedDynasty.get("tree");
+
+        if(serializedTree != null) {
+            this.dynastyTree = DynastyTreeSerializer.deserializeDynastyTree(this, serializedTree);
+        }
+
+        scrapeSession.storeDynasty(wikipediaPageUrl, this);
+    }
+
+    /**
+     * Restore a Dynasty object from its record in a snapshot file
+     *
+     * @param scrapeSession the ScrapeSession the dynasty's people have already been restored into
+     * @param wikipediaPageUrl the dynasty's Wikipedia page URL
+     * @param snapshotReader the SnapshotReader positioned right after the record's URL
+     */
+    public Dynasty(ScrapeSession scrapeSession, String wikipediaPageUrl, SnapshotReader snapshotReader) {
+        this.scrapeSession = scrapeSession;
+        this.wikipediaPageUrl = wikipediaPageUrl;
+
+        this.pageTitle = snapshotReader.readString();
+        this.name      = snapshotReader.readString();
+
+        this.foundationDate = PersonPageDataSerializer.readRomanDate(snapshotReader);
+        this.depositionDate = PersonPageDataSerializer.readRomanDate(snapshotReader);
+
+        String founderPageUrl = snapshotReader.readString();
+        this.founderPageData  = scrapeSession.getCachedPersonPageData(founderPageUrl, wikipediaPageUrl);
+
+        if(snapshotReader.readVarint() == 1) {
+            this.dynastyTree = DynastyTreeSerializer.readDynastyTree(this, snapshotReader);
+        }
 
-        storeDynasty(wikipediaPageUrl, this);
+        scrapeSession.storeDynasty(wikipediaPageUrl, this);
     }
 
     /**
-     * Given a Web Driver, create (and set as field) the dynasty's DynastyTree object
+     * Given a Page Source, create (and set as field) the dynasty's DynastyTree object
      *
-     * @param webDriver the Web Driver instance to be used to scrape data
+     * @param pageSource the Page Source instance to be used to scrape data
      */
 
-    public void createDynastyTree(WebDriver webDriver) {
-        this.dynastyTree = new DynastyTree(webDriver, founderPageData, this);
+    public void createDynastyTree(PageSource pageSource) {
+        this.dynastyTree = new DynastyTree(pageSource, founderPageData, this);
+    }
+
+    /**
+     * Given a Page Source and an empty DynastyTree object of the dynasty (whose graph
+     * may already be displayed), build it and set it as field once it's complete
+     *
+     * @param pageSource the Page Source instance to be used to scrape data
+     * @param dynastyTree the dynasty's still empty DynastyTree object
+     * @param progressListener the listener to be notified of the crawl's progress (may be null)
+     *
+     * @throws java.util.concurrent.CancellationException if the building thread gets interrupted
+     */
+    public void createDynastyTree(PageSource pageSource, DynastyTree dynastyTree, PersonCrawler.ProgressListener progressListener) {
+        dynastyTree.build(pageSource, founderPageData, progressListener);
+
+        this.dynastyTree = dynastyTree;
     }
 
     /*
@@ -250,17 +337,21 @@ public class Dynasty {
      * names from Italian to English language and return them in form
      * of an HashMap using the dynasties' Wikipedia page URL as key
      *
-     * @param webDriver the WebDriver to be used to get the roman emperors page
-     *                  content and then search for dynasty names and URLs
+     * @param pageSource the PageSource to be used to get the roman emperors page
+     *                   content and then search for dynasty names and URLs
      * @return an HashMap of (dynasty Wikipedia page URL : dynasty english name) entries
      */
-    public static HashMap<String, String> getDynasties(WebDriver webDriver) {
+    public static HashMap<String, String> getDynasties(PageSource pageSource) {
         /*
          * Navigate to the Wikipedia page containing the
          * list of roman emperors and get its content
          */
 
-        webDriver.get("https://it.wikipedia.org/wiki/Imperatori_romani");
+        DynastyPageSnapshot emperorsPageSnapshot;
+
+        try (PageDocument emperorsPageDocument = pageSource.getPage("https://it.wikipedia.org/wiki/Imperatori_romani")) {
+            emperorsPageSnapshot = DynastyPageSnapshot.create(emperorsPageDocument);
+        }
 
         /*
          * Get the name and the Wikipedia page URL for each dynasty and put
@@ -269,15 +360,13 @@ public class Dynasty {
 
         HashMap<String, String> dynasties = new HashMap<>();
 
-        List<WebElement> anchorElements = webDriver.findElements(By.tagName("a"));
-
         String dynastyName;
 
-        for(WebElement anchorElement : anchorElements) {
-            dynastyName = anchorElement.getText();
-            
-            if(dynastyName.startsWith("Dinastia")){
-                String dynastyPageUrl = anchorElement.getAttribute("href");
+        for(PageAnchor anchor : emperorsPageSnapshot.getAnchors()) {
+            dynastyName = anchor.getText();
+
+            if(dynastyName.startsWith("Dinastia") && anchor.getHref() != null){
+                String dynastyPageUrl = anchor.getHref();
 
                 /* Translate the Dynasty name from Italian to English language */
 
@@ -314,60 +403,6 @@ public class Dynasty {
         return dynasties;
     }
 
-    /**
-     * @return All the stored dynasties' names in a dashed list form, e.g.:<br>
-     * - Dinastia costantiniana<br>
-     * - Dinastia giulio-claudia<br>
-     * [...]
-     */
-    public static StringBuilder getStoredDynastiesNames() {
-        StringBuilder dynastiesNames = new StringBuilder();
-
-        for (Map.Entry<String, Dynasty> set : storedDynasties.entrySet()) {
-            Dynasty dynasty = set.getValue();
-
-            dynastiesNames.append("- ").append(dynasty.getName()).append("\n");
-        }
-
-        return dynastiesNames;
-    }
-
-    /**
-     * @param storedDynasties the HashMap containing the dynasties to
-     *                        be stored by their Wikipedia page url
-     */
-    public static void setStoredDynasties(HashMap<String, Dynasty> storedDynasties) {
-        Dynasty.storedDynasties = storedDynasties;
-    }
-
-    /**
-     * @return the HashMap containing the stored
-     *         dynasties by their Wikipedia page URL
-     */
-    public static HashMap<String, Dynasty> getStoredDynasties() {
-        return storedDynasties;
-    }
-
-    /**
-     * Put a new Dynasty in the stored dynasties HashMap by its Wikipedia page URL
-     * 
-     * @param dynastyPageUrl the dynasty's Wikipedia page URL
-     * @param dynasty the dynasty's Dynasty object
-     */
-    public static void storeDynasty(String dynastyPageUrl, Dynasty dynasty) {
-        storedDynasties.put(dynastyPageUrl, dynasty);
-    }
-
-    /**
-     * Given a dynasty's Wikipedia page URL, return the corresponding Dynasty object
-     *
-     * @param dynastyPageUrl the dynasty's Wikipedia page URL
-     * @return the dynasty's Dynasty object
-     */
-    public static Dynasty getStoredDynastyByUrl(String dynastyPageUrl) {
-        return storedDynasties.getOrDefault(dynastyPageUrl, null);
-    }
-
     /**
      * Check if a given URL points to the same dynasty's Wikipedia page whose URL
      * is given - this is preferable over a simple .equalsIgnoreCase() between
@@ -412,81 +447,103 @@ public class Dynasty {
     }
 
     /**
-     * Given a driver loaded with a dynasty's Wikipedia page,
-     * retrieve the dynasty founder's name and Wikipedia page URL
-     * by iterating through elements of class 'vedi-anche' and
-     * picking the first link whose page is an emperor's one
+     * Given a dynasty's Wikipedia page, retrieve the dynasty
+     * founder's name and Wikipedia page URL by iterating through
+     * elements of class 'vedi-anche' and picking the first link
+     * whose page is an emperor's one
+     *
+     * The candidates' pages are probed at the same time (as many as the
+     * PageSource can fetch at once), but the first emperor's page in
+     * document order is still the one picked: once it's known, the probes
+     * of the following candidates are cancelled. A candidate whose page
+     * can't be fetched is skipped. Only the founder's page is stored in
+     * the ScrapeSession, so that it's never fetched again while building
+     * the dynasty's tree (see FounderProber).
      *
-     * @param webDriver the Web Driver instance to be used to scrape data
+     * @param scrapeSession the ScrapeSession the founder's page is stored in
+     * @param pageSource the Page Source instance to be used to scrape data
+     * @param dynastyPageSnapshot the snapshot of the dynasty's Wikipedia page
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
      * @return the dynasty founder's PersonNameUrl object
+     *
+     * @throws CancellationException if the current thread gets interrupted while waiting for the probes
      */
-    public static PersonNameUrl retrieveFounderNameUrl(WebDriver webDriver) {
+    public static PersonNameUrl retrieveFounderNameUrl(ScrapeSession scrapeSession, PageSource pageSource,
+                                                       DynastyPageSnapshot dynastyPageSnapshot, String dynastyPageUrl) {
         /*
          * We get elements of class "vedi-anche" because they have this content:
          * "Lo stesso argomento in dettaglio: <links>."
          * And they're the only place where we can get the emperors' page links
          */
 
-        List<WebElement> vediAncheElements = webDriver.findElements(By.className("vedi-anche"));
+        ArrayList<PersonNameUrl> candidates = new ArrayList<>();
 
-        List<WebElement> anchorElements;
-        WebElement anchorElement, summaryTable;
-        String name, url, summaryTableText;
+        for(ArrayList<PageAnchor> seeAlsoAnchors : dynastyPageSnapshot.getSeeAlsoBlocks()) {
+            if(seeAlsoAnchors.size() == 1) {
+                PageAnchor anchor = seeAlsoAnchors.get(0);
 
-        /*
-         * We iterate over these elements until we get the right one
-         * (the one with the Wikipedia page URL of an emperor at least),
-         * it should also be the founder because in the wikipedia dynasties'
-         * pages the emperors are always put in chronological order
-         */
+                String anchorText = anchor.getText();
 
-        for(WebElement seeAlsoElement : vediAncheElements) {
-            anchorElements = seeAlsoElement.findElements(By.tagName("a"));
+                if(!anchorText.startsWith("Albero") && !anchorText.startsWith("Età") && anchor.getHref() != null) {
+                    candidates.add(PersonNameUrl.of(anchorText, anchor.getHref()));
+                }
+            }
+        }
 
-            if(anchorElements.size() == 1) {
-                anchorElement = anchorElements.get(0);
+        if(candidates.isEmpty()) {
+            return null;
+        }
 
-                if(!anchorElement.getText().startsWith("Albero") && !anchorElement.getText().startsWith("Età")) {
-                    name = anchorElement.getText();
-                    url  = anchorElement.getAttribute("href");
+        /*
+         * To check if a Wikipedia page URL is the one of an emperor
+         * we check if its page contains a "sinottico" HTML element,
+         * which is the one containing the summary table, and if in
+         * its summary table it is written somewhere that it is an
+         * emperor or a dictator
+         */
 
-                    webDriver.get(url);
+        FounderProber founderProber = new FounderProber(scrapeSession, pageSource, dynastyPageUrl, candidates);
 
-                    /*
-                     * To check if a Wikipedia page URL is the one of an emperor
-                     * we first check if it contains a "sinottico" HTML element,
-                     * which is the one containing the summary table, then we check
-                     * if in its summary table it is written somewhere that it
-                     * is an emperor or a dictator through two dedicated methods
-                     */
+        try {
+            /*
+             * We iterate over these candidates until we get the right one
+             * (the one with the Wikipedia page URL of an emperor at least),
+             * it should also be the founder because in the wikipedia dynasties'
+             * pages the emperors are always put in chronological order
+             */
 
-                    try {
-                        summaryTable = webDriver.findElement(By.className("sinottico"));
+            /*
+             * The pages probed up to the founder's one had to be fetched in any
+             * case, so they're stored for the crawl to find them, while the
+             * ones of the candidates following the founder are dropped
+             */
 
-                        summaryTableText = summaryTable.getText();
+            for(int i = 0; i < candidates.size(); i++) {
+                boolean founderFound = founderProber.isEmperorOrDictator(i);
 
-                        if (PersonPageData.textImpliesDictatorRole(summaryTableText) ||
-                                PersonPageData.textImpliesEmperorRole(summaryTableText)) {
+                founderProber.store(i);
 
-                            return new PersonNameUrl(name, url);
-                        }
-                    } catch(NoSuchElementException ignored) {}
+                if(founderFound) {
+                    return candidates.get(i);
                 }
             }
+        } finally {
+            /* Cancel the probes of the candidates following the founder */
+
+            founderProber.stop();
         }
 
         return null;
     }
 
     /**
-     * Given a driver loaded with a dynasty's Wikipedia page,
-     * get all the emperors' names and reign periods from the
-     * eligible h3 HTML elements
+     * Given a dynasty's Wikipedia page, get all the emperors' names
+     * and reign periods from the eligible h3 HTML elements
      *
-     * @param webDriver the Web Driver instance to be used to scrape data
+     * @param dynastyPageSnapshot the snapshot of the dynasty's Wikipedia page
      * @return an array containing strings in 'Name (Reign Period)' format
      */
-    public static ArrayList<String> retrieveEmperorsNamesAndReignPeriods(WebDriver webDriver) {
+    public static ArrayList<String> retrieveEmperorsNamesAndReignPeriods(DynastyPageSnapshot dynastyPageSnapshot) {
         /*
          * This method was tested working for the following dynasties:
          * - https://it.wikipedia.org/wiki/Dinastia_costantiniana - Constantinian Dynasty
@@ -496,13 +553,9 @@ public class Dynasty {
          * - https://it.wikipedia.org/wiki/Imperatori_adottivi - Nerva–Antonine Dynasty
          */
 
-        List<WebElement> headerElements = webDriver.findElements(By.tagName("h3"));
-
         ArrayList<String> arrayOfEmperorsNamesAndReignPeriods = new ArrayList<>();
 
-        List<WebElement> spanElements;
-
-        for(WebElement headerElement : headerElements) {
+        for(DynastyPageSnapshot.Heading headerElement : dynastyPageSnapshot.getHeadings()) {
             /*
              * To be eligible an H3 element shouldn't start with "Albero"
              * (a similar H3 element is present in each dynasty page),
@@ -513,33 +566,12 @@ public class Dynasty {
              */
 
             if(!headerElement.getText().startsWith("Albero")) {
-                spanElements = headerElement.findElements(By.tagName("span"));
-
-                for (WebElement spanElement : spanElements) {
+                for (DynastyPageSnapshot.Span spanElement : headerElement.getSpans()) {
                     if (!spanElement.getText().isEmpty()) {
-                        if (spanElement.getAttribute("class").equals("mw-headline")) {
+                        if ("mw-headline".equals(spanElement.getClassName())) {
                             String headerTitle = spanElement.getText();
 
-                            /*
-                             * To ensure the format is 'Name (Reign Period)'
-                             * we have to be as generic as possible to include
-                             * some different cases:
-                             * - Augusto (27 a.C.-14 d.C.)
-                             * - Vespasiano (69-79)
-                             * - Tiberio (14-37 d.C.)
-                             * - Geta (211)
-                             *
-                             * So we check if the text starts with something,
-                             * then has a space and an opening bracket after
-                             * it, inside there is at least one number followed
-                             * by anything, and finally it ends with a closing
-                             * bracket. As generic as that.
-                             */
-
-                            Pattern pattern = Pattern.compile("^.* \\([0-9]+.*\\)$", Pattern.CASE_INSENSITIVE);
-                            Matcher matcher = pattern.matcher(headerTitle);
-
-                            if (matcher.find()) {
+                            if (EMPEROR_HEADLINE_PATTERN.matcher(headerTitle).find()) {
                                 arrayOfEmperorsNamesAndReignPeriods.add(headerTitle);
 
                                 break;
@@ -599,17 +631,38 @@ public class Dynasty {
         return dynastyTree;
     }
 
+    /**
+     * @return the ScrapeSession the dynasty is stored in
+     */
+    public ScrapeSession getScrapeSession() {
+        return scrapeSession;
+    }
+
     /**
      * @return the dynasty's foundation date in String format (e.g. '27 a.C.')
      */
     public String getFoundationDate() {
-        return foundationDate;
+        return RomanDate.getText(foundationDate);
     }
 
     /**
      * @return the dynasty's deposition date in String format (e.g. '68 d.C.')
      */
     public String getDepositionDate() {
+        return RomanDate.getText(depositionDate);
+    }
+
+    /**
+     * @return the dynasty's foundation date as a RomanDate
+     */
+    public RomanDate getFoundationRomanDate() {
+        return foundationDate;
+    }
+
+    /**
+     * @return the dynasty's deposition date as a RomanDate
+     */
+    public RomanDate getDepositionRomanDate() {
         return depositionDate;
     }
 
@@ -0,0 +1,319 @@
+package romanemperorsscraper.scraping.dynasties;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.PageAnchor;
+import romanemperorsscraper.scraping.PageDocument;
+import romanemperorsscraper.scraping.PageElement;
+import romanemperorsscraper.scraping.SeleniumPageDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class representing a local, read-only copy of everything Dynasty
+ * needs from a dynasty's (or the roman emperors') Wikipedia page:
+ * the first heading, all the anchors, the h3 headings with their
+ * spans and the anchors of each 'vedi-anche' block.
+ *
+ * Once taken, filtering the snapshot costs no more round trips
+ * to the page's backend (which are expensive when the page
+ * is loaded in a browser through a WebDriver session).
+ *
+ * @see Dynasty
+ *
+ * @author Matteo Collica
+ */
+public class DynastyPageSnapshot {
+    /*
+     * ATTRIBUTES
+     */
+
+    private final String title;
+
+    private final ArrayList<PageAnchor> anchors;
+
+    private final ArrayList<Heading> headings;
+
+    private final ArrayList<ArrayList<PageAnchor>> seeAlsoBlocks;
+
+    /*
+     * Script returning, in a single WebDriver call, the same values which
+     * would otherwise be read element by element. Texts mimic WebDriver's
+     * getText(): non-breaking spaces become spaces, they are trimmed and
+     * they are empty for elements which aren't rendered.
+     *
+     * The result has this compact form:
+     * [title, [[anchorText, anchorHref], ...], [[headingText, [[spanText, spanClass], ...]], ...], [[[anchorText, anchorHref], ...], ...]]
+     */
+
+    private static final String SNAPSHOT_SCRIPT =
+            "function text(e) { return e.getClientRects().length ? e.innerText.replace(/\\u00a0/g, ' ').trim() : ''; }" +
+            "function anchors(root) {" +
+            "  var result = [];" +
+            "  root.querySelectorAll('a').forEach(function (a) { result.push([text(a), a.hasAttribute('href') ? a.href : null]); });" +
+            "  return result;" +
+            "}" +
+            "var title = document.querySelector('h1');" +
+            "var headings = [];" +
+            "document.querySelectorAll('h3').forEach(function (heading) {" +
+            "  var spans = [];" +
+            "  heading.querySelectorAll('span').forEach(function (span) { spans.push([text(span), span.getAttribute('class')]); });" +
+            "  headings.push([text(heading), spans]);" +
+            "});" +
+            "var seeAlsoBlocks = [];" +
+            "document.querySelectorAll('.vedi-anche').forEach(function (block) { seeAlsoBlocks.push(anchors(block)); });" +
+            "return [title ? text(title) : null, anchors(document), headings, seeAlsoBlocks];";
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a DynastyPageSnapshot from already extracted values
+     *
+     * @param title the text of the page's first h1 heading (null if there is none)
+     * @param anchors all the page's anchors
+     * @param headings all the page's h3 headings
+     * @param seeAlsoBlocks the anchors of each 'vedi-anche' block
+     */
+    public DynastyPageSnapshot(String title, ArrayList<PageAnchor> anchors, ArrayList<Heading> headings,
+                               ArrayList<ArrayList<PageAnchor>> seeAlsoBlocks) {
+        this.title = title;
+        this.anchors = anchors;
+        this.headings = headings;
+        this.seeAlsoBlocks = seeAlsoBlocks;
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Take a snapshot of a Wikipedia page: through a single script
+     * execution if the page is loaded in a browser, by walking its
+     * elements otherwise (or if the script fails for any reason)
+     *
+     * @param pageDocument the Wikipedia page
+     *
+     * @return the page's DynastyPageSnapshot
+     */
+    public static DynastyPageSnapshot create(PageDocument pageDocument) {
+        if(pageDocument instanceof SeleniumPageDocument) {
+            try {
+                return createByScript((SeleniumPageDocument) pageDocument);
+            } catch(WebDriverException | ClassCastException ex) {
+                if(RomanEmperorsScraper.isDebugEnabled()) {
+                    System.out.println("Falling back to element by element extraction for "
+                            + pageDocument.getUrl() + ": " + ex.getMessage());
+                }
+            }
+        }
+
+        return createByElements(pageDocument);
+    }
+
+    /**
+     * Take a snapshot of a page loaded in a browser with a single script execution
+     *
+     * @param pageDocument the Wikipedia page loaded in a browser
+     *
+     * @return the page's DynastyPageSnapshot
+     */
+    private static DynastyPageSnapshot createByScript(SeleniumPageDocument pageDocument) {
+        JavascriptExecutor javascriptExecutor = (JavascriptExecutor) pageDocument.getWebDriver();
+
+        List<?> result = (List<?>) javascriptExecutor.executeScript(SNAPSHOT_SCRIPT);
+
+        String title = (String) result.get(0);
+
+        ArrayList<PageAnchor> anchors = deserializeAnchors((List<?>) result.get(1));
+
+        List<?> serializedHeadings = (List<?>) result.get(2);
+        ArrayList<Heading> headings = new ArrayList<>(serializedHeadings.size());
+
+        for(Object serializedHeadingObject : serializedHeadings) {
+            List<?> serializedHeading = (List<?>) serializedHeadingObject;
+            List<?> serializedSpans = (List<?>) serializedHeading.get(1);
+
+            ArrayList<Span> spans = new ArrayList<>(serializedSpans.size());
+
+            for(Object serializedSpanObject : serializedSpans) {
+                List<?> serializedSpan = (List<?>) serializedSpanObject;
+
+                spans.add(new Span((String) serializedSpan.get(0), (String) serializedSpan.get(1)));
+            }
+
+            headings.add(new Heading((String) serializedHeading.get(0), spans));
+        }
+
+        List<?> serializedSeeAlsoBlocks = (List<?>) result.get(3);
+        ArrayList<ArrayList<PageAnchor>> seeAlsoBlocks = new ArrayList<>(serializedSeeAlsoBlocks.size());
+
+        for(Object serializedSeeAlsoBlock : serializedSeeAlsoBlocks) {
+            seeAlsoBlocks.add(deserializeAnchors((List<?>) serializedSeeAlsoBlock));
+        }
+
+        return new DynastyPageSnapshot(title, anchors, headings, seeAlsoBlocks);
+    }
+
+    /**
+     * @param serializedAnchors a list of [anchorText, anchorHref] lists returned by the snapshot script
+     *
+     * @return the anchors as PageAnchor objects
+     */
+    private static ArrayList<PageAnchor> deserializeAnchors(List<?> serializedAnchors) {
+        ArrayList<PageAnchor> anchors = new ArrayList<>(serializedAnchors.size());
+
+        for(Object serializedAnchorObject : serializedAnchors) {
+            List<?> serializedAnchor = (List<?>) serializedAnchorObject;
+
+            anchors.add(new PageAnchor((String) serializedAnchor.get(0), (String) serializedAnchor.get(1)));
+        }
+
+        return anchors;
+    }
+
+    /**
+     * Take a snapshot of a page by walking its elements one by one
+     *
+     * @param pageDocument the Wikipedia page
+     *
+     * @return the page's DynastyPageSnapshot
+     */
+    private static DynastyPageSnapshot createByElements(PageDocument pageDocument) {
+        PageElement titleElement = pageDocument.findElementByTagName("h1");
+
+        String title = titleElement != null ? titleElement.getText() : null;
+
+        ArrayList<Heading> headings = new ArrayList<>();
+
+        for(PageElement headingElement : pageDocument.findElementsByTagName("h3")) {
+            ArrayList<Span> spans = new ArrayList<>();
+
+            for(PageElement spanElement : headingElement.findElementsByTagName("span")) {
+                spans.add(new Span(spanElement.getText(), spanElement.getAttribute("class")));
+            }
+
+            headings.add(new Heading(headingElement.getText(), spans));
+        }
+
+        ArrayList<ArrayList<PageAnchor>> seeAlsoBlocks = new ArrayList<>();
+
+        for(PageElement seeAlsoElement : pageDocument.findElementsByClassName("vedi-anche")) {
+            seeAlsoBlocks.add(copyAnchors(seeAlsoElement));
+        }
+
+        return new DynastyPageSnapshot(title, copyAnchors(pageDocument), headings, seeAlsoBlocks);
+    }
+
+    /**
+     * @param rootElement the element to search anchors in
+     *
+     * @return all the anchors contained in the element as PageAnchor objects
+     */
+    private static ArrayList<PageAnchor> copyAnchors(PageElement rootElement) {
+        ArrayList<PageAnchor> anchors = new ArrayList<>();
+
+        for(PageElement anchorElement : rootElement.findElementsByTagName("a")) {
+            anchors.add(PageAnchor.of(anchorElement));
+        }
+
+        return anchors;
+    }
+
+    /*
+     * GETTERS
+     */
+
+    /**
+     * @return the text of the page's first h1 heading, null if there is none
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return all the page's anchors, in document order
+     */
+    public ArrayList<PageAnchor> getAnchors() {
+        return anchors;
+    }
+
+    /**
+     * @return all the page's h3 headings, in document order
+     */
+    public ArrayList<Heading> getHeadings() {
+        return headings;
+    }
+
+    /**
+     * @return the anchors of each 'vedi-anche' block, in document order
+     */
+    public ArrayList<ArrayList<PageAnchor>> getSeeAlsoBlocks() {
+        return seeAlsoBlocks;
+    }
+
+    /**
+     * Class representing an h3 heading with its text and spans
+     */
+    public static class Heading {
+        private final String text;
+        private final ArrayList<Span> spans;
+
+        /**
+         * @param text the heading's text
+         * @param spans the spans contained in the heading
+         */
+        public Heading(String text, ArrayList<Span> spans) {
+            this.text = text;
+            this.spans = spans;
+        }
+
+        /**
+         * @return the heading's text
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the spans contained in the heading, in document order
+         */
+        public ArrayList<Span> getSpans() {
+            return spans;
+        }
+    }
+
+    /**
+     * Class representing a span with its text and 'class' attribute
+     */
+    public static class Span {
+        private final String text;
+        private final String className;
+
+        /**
+         * @param text the span's text
+         * @param className the span's 'class' attribute value (null if it has none)
+         */
+        public Span(String text, String className) {
+            this.text = text;
+            this.className = className;
+        }
+
+        /**
+         * @return the span's text
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the span's 'class' attribute value, null if it has none
+         */
+        public String getClassName() {
+            return className;
+        }
+    }
+}
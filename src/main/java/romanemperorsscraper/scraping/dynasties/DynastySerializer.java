@@ -2,7 +2,13 @@ package romanemperorsscraper.scraping.dynasties;
 
 import org.json.simple.JSONObject;
 import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.JsonStreamWriter;
+import romanemperorsscraper.scraping.ScrapeSession;
+import romanemperorsscraper.scraping.SnapshotReader;
+import romanemperorsscraper.scraping.SnapshotWriter;
+import romanemperorsscraper.scraping.people.PersonPageDataSerializer;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -31,13 +37,14 @@ public class DynastySerializer {
      */
 
     /**
-     * Create and return a serialized form of a given Dynasty object
+     * Write the serialized form of a given Dynasty object
      *
      * @param dynasty the Dynasty object to be serialized
+     * @param jsonStreamWriter the JsonStreamWriter the Dynasty object is written into, as a JSON object
      *
-     * @return the Dynasty object serialized as a JSONObject
+     * @throws IOException if the serialized form could not be written
      */
-    public static JSONObject serializeDynasty(Dynasty dynasty) {
+    public static void writeDynasty(Dynasty dynasty, JsonStreamWriter jsonStreamWriter) throws IOException {
         /*
          * The following is an example of the serialized form this method produces:
          * {
@@ -45,38 +52,79 @@ public class DynastySerializer {
          *      "name": "Constantinian Dynasty",
          *      "founderPageUrl": "https://it.wikipedia.org/wiki/Costanzo_Cloro",
          *      "foundationDate": "293",
-         *      "depositionDate": "363 d.C."
+         *      "foundationDateKey": 243776,
+         *      "depositionDate": "363 d.C.",
+         *      "depositionDateKey": 302016,
+         *      "tree": { [...] }
          * }
+         *
+         * where "tree" is the snapshot of the dynasty's tree (see DynastyTreeSerializer),
+         * only present if the tree has been built
          */
 
-        JSONObject values = new JSONObject();
+        jsonStreamWriter.beginObject();
+
+        jsonStreamWriter.name("pageTitle").value(dynasty.getPageTitle());
 
-        values.put("pageTitle", dynasty.getPageTitle());
+        jsonStreamWriter.name("name").value(dynasty.getName());
 
-        values.put("name", dynasty.getName());
+        PersonPageDataSerializer.writeRomanDate("foundationDate", dynasty.getFoundationRomanDate(), jsonStreamWriter);
+        PersonPageDataSerializer.writeRomanDate("depositionDate", dynasty.getDepositionRomanDate(), jsonStreamWriter);
 
-        values.put("foundationDate", dynasty.getFoundationDate());
-        values.put("depositionDate", dynasty.getDepositionDate());
+        jsonStreamWriter.name("founderPageUrl").value(dynasty.getFounderPageData().getPersonNameUrl().getUrl());
 
-        values.put("founderPageUrl", dynasty.getFounderPageData().getPersonNameUrl().getUrl());
+        if(dynasty.getDynastyTree() != null) {
+            jsonStreamWriter.name("tree");
+
+            DynastyTreeSerializer.writeDynastyTree(dynasty.getDynastyTree(), jsonStreamWriter);
+        }
 
-        return values;
+        jsonStreamWriter.endObject();
     }
 
     /**
-     * Given an HashMap containing dynasties' data by URL, serialize it in a
-     * single JSONObject and then return it
+     * Write the binary form of a given Dynasty object, in the same
+     * order as its serialized form's fields (see writeDynasty), followed
+     * by 1 and its tree's binary form if the tree has been built, 0 otherwise
      *
-     * @param unserializedDynasties the HashMap of dynasties to be serialized
-     * @return a JSONObject containing the dynasties' serialized data,
-     *         where the key for each dynasty is its Wikipedia page URL
+     * @param dynasty the Dynasty object to be serialized
+     * @param snapshotWriter the SnapshotWriter the Dynasty object is written into
+     *
+     * @throws IOException if the binary form could not be written
      */
-    public static JSONObject serializeDynastiesHashMap(HashMap<String, Dynasty> unserializedDynasties) {
-        JSONObject serializedHashMap = new JSONObject();
+    public static void writeDynasty(Dynasty dynasty, SnapshotWriter snapshotWriter) throws IOException {
+        snapshotWriter.writeString(dynasty.getPageTitle());
+
+        snapshotWriter.writeString(dynasty.getName());
+
+        PersonPageDataSerializer.writeRomanDate(dynasty.getFoundationRomanDate(), snapshotWriter);
+        PersonPageDataSerializer.writeRomanDate(dynasty.getDepositionRomanDate(), snapshotWriter);
+
+        snapshotWriter.writeString(dynasty.getFounderPageData().getPersonNameUrl().getUrl());
+
+        if(dynasty.getDynastyTree() != null) {
+            snapshotWriter.writeVarint(1);
+
+            DynastyTreeSerializer.writeDynastyTree(dynasty.getDynastyTree(), snapshotWriter);
+        } else {
+            snapshotWriter.writeVarint(0);
+        }
+    }
 
+    /**
+     * Given an HashMap containing dynasties' data by URL, write them one
+     * at a time in a single JSON object, where the key for each dynasty
+     * is its Wikipedia page URL
+     *
+     * @param unserializedDynasties the HashMap of dynasties to be serialized
+     * @param jsonStreamWriter the JsonStreamWriter the dynasties are written into
+     *
+     * @throws IOException if the serialized dynasties could not be written
+     */
+    public static void writeDynastiesHashMap(Map<String, Dynasty> unserializedDynasties, JsonStreamWriter jsonStreamWriter) throws IOException {
         /*
-         * We iterate over all the dynasties in the given HashMap and put
-         * them in a JSONObject using their Wikipedia page URL as key and
+         * We iterate over all the dynasties in the given HashMap and write
+         * them in a JSON object using their Wikipedia page URL as key and
          * their serialized data as value
          *
          * The result will be something like this:
@@ -95,8 +143,7 @@ public class DynastySerializer {
          *   }
          */
 
-        Dynasty unserializedDynasty;
-        JSONObject serializedDynasty;
+        jsonStreamWriter.beginObject();
 
         for (Map.Entry<String, Dynasty> set : unserializedDynasties.entrySet()) {
             String dynastyPageUrl = set.getKey();
@@ -110,15 +157,41 @@ public class DynastySerializer {
                     System.out.println("\nSerialization in progress for " + dynastyPageUrl + "\n");
                 }
 
-                unserializedDynasty = set.getValue();
-
-                serializedDynasty = DynastySerializer.serializeDynasty(unserializedDynasty);
+                jsonStreamWriter.name(dynastyPageUrl);
 
-                serializedHashMap.put(dynastyPageUrl, serializedDynasty);
+                DynastySerializer.writeDynasty(set.getValue(), jsonStreamWriter);
             }
         }
 
-        return serializedHashMap;
+        jsonStreamWriter.endObject();
+    }
+
+    /**
+     * Given an HashMap containing dynasties' data by URL, write them as
+     * the records of a snapshot's dynasties section, each of them
+     * beginning with the dynasty's Wikipedia page URL
+     *
+     * @param unserializedDynasties the HashMap of dynasties to be written
+     * @param snapshotWriter the SnapshotWriter the dynasties are written into
+     *
+     * @throws IOException if the dynasties could not be written
+     */
+    public static void writeDynastiesHashMap(Map<String, Dynasty> unserializedDynasties, SnapshotWriter snapshotWriter) throws IOException {
+        snapshotWriter.beginSection(SnapshotWriter.DYNASTIES_SECTION);
+
+        for (Map.Entry<String, Dynasty> set : unserializedDynasties.entrySet()) {
+            String dynastyPageUrl = set.getKey();
+
+            /* The graph legend dynasty is skipped, as in the JSON export */
+
+            if(!dynastyPageUrl.startsWith("fakeurl://")) {
+                snapshotWriter.beginRecord();
+
+                snapshotWriter.writeString(dynastyPageUrl);
+
+                DynastySerializer.writeDynasty(set.getValue(), snapshotWriter);
+            }
+        }
     }
 
     /**
@@ -127,10 +200,11 @@ public class DynastySerializer {
      * the corresponding Dynasty objects and, once the deserialization is completed,
      * return the original HashMap
      *
+     * @param scrapeSession the ScrapeSession the dynasties' people have already been restored into
      * @param serializedHashMap the JSONObject containing the serialized HashMap data
      * @return the reconstructed dynasties HashMap
      */
-    public static HashMap<String, Dynasty> deserializeDynastiesHashMap(JSONObject serializedHashMap) {
+    public static HashMap<String, Dynasty> deserializeDynastiesHashMap(ScrapeSession scrapeSession, JSONObject serializedHashMap) {
         HashMap<String, Dynasty> deserializedHashMap = new HashMap<>();
 
         /*
@@ -156,7 +230,7 @@ public class DynastySerializer {
                 System.out.println("\nDe-serialization in progress for " + dynastyPageUrl + "\n");
             }
 
-            deserializedHashMap.put(dynastyPageUrl, new Dynasty(dynastyPageUrl, (JSONObject) serializedHashMap.get(dynastyPageUrl)));
+            deserializedHashMap.put(dynastyPageUrl, new Dynasty(scrapeSession, dynastyPageUrl, (JSONObject) serializedHashMap.get(dynastyPageUrl)));
         }
 
         /*
@@ -166,4 +240,30 @@ public class DynastySerializer {
 
         return deserializedHashMap;
     }
+
+    /**
+     * Given a SnapshotReader of a snapshot file, reconstruct the Dynasty
+     * objects of its dynasties section and return them in an HashMap
+     *
+     * @param scrapeSession the ScrapeSession the dynasties' people have already been restored into
+     * @param snapshotReader the SnapshotReader of the snapshot file
+     * @return the reconstructed dynasties HashMap
+     */
+    public static HashMap<String, Dynasty> readDynastiesHashMap(ScrapeSession scrapeSession, SnapshotReader snapshotReader) {
+        HashMap<String, Dynasty> restoredHashMap = new HashMap<>();
+
+        for (int record = 0; record < snapshotReader.getRecordsCount(SnapshotWriter.DYNASTIES_SECTION); record++) {
+            snapshotReader.seekRecord(SnapshotWriter.DYNASTIES_SECTION, record);
+
+            String dynastyPageUrl = snapshotReader.readString();
+
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("\nDe-serialization in progress for " + dynastyPageUrl + "\n");
+            }
+
+            restoredHashMap.put(dynastyPageUrl, new Dynasty(scrapeSession, dynastyPageUrl, snapshotReader));
+        }
+
+        return restoredHashMap;
+    }
 }
@@ -1,16 +1,24 @@
 package romanemperorsscraper.scraping.dynasties;
 
-import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
-import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.SingleGraph;
-import org.openqa.selenium.WebDriver;
 import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.ScrapeSession;
 import romanemperorsscraper.scraping.people.Person;
+import romanemperorsscraper.scraping.people.PersonCrawler;
 import romanemperorsscraper.scraping.people.PersonNameUrl;
 import romanemperorsscraper.scraping.people.PersonPageData;
+import romanemperorsscraper.scraping.people.PersonTable;
 
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class used to create and represent
@@ -24,66 +32,265 @@ import java.util.HashSet;
  * @author Sara Lazzaroni
  */
 public class DynastyTree {
-    private final Graph graph;
+    private static final AtomicInteger layoutThreadsCount = new AtomicInteger();
 
-    private HashSet<String> graphNodeIds;
+    /* Layouts are computed in background, one tree at a time per processor */
+    private static final ExecutorService layoutThreads = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+        Thread thread = new Thread(runnable, "tree-layout-" + layoutThreadsCount.incrementAndGet());
+
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /* The tree's graph, the GraphStream one is only created when requested */
+    private final GenealogyGraph genealogyGraph = new GenealogyGraph();
+
+    private Graph graph;
+
+    /* The last layout requested for the tree's graph (see layOut) */
+    private CompletableFuture<GenealogyLayout> layout;
+
+    /*
+     * IDs of the people already visited while building this tree and the
+     * Person objects created for them (indexed by ID): they belong to the
+     * tree, so that more dynasties can be built at the same time without
+     * clobbering each other
+     */
+
+    private final BitSet visitedIds = new BitSet();
+    private Person[] personObjects = new Person[0];
 
     private final Dynasty dynasty;
 
-    private final Person founderNode;
+    private Person founderNode;
 
     public enum KinshipDegree {
-        MOTHER,
-        FATHER,
-        ADOPTIVEFATHER,
-        SPOUSE,
-        CHILDREN,
-        ADOPTEDCHILDREN,
-        SUCCESSOR
+        MOTHER("mother"),
+        FATHER("father"),
+        ADOPTIVEFATHER("adoptivefather"),
+        SPOUSE("spouse"),
+        CHILDREN("children"),
+        ADOPTEDCHILDREN("adoptedchildren"),
+        SUCCESSOR("successor");
+
+        private final String styleClass;
+
+        KinshipDegree(String styleClass) {
+            this.styleClass = styleClass;
+        }
+
+        /**
+         * @return the style class (in the GraphStream stylesheet) of the edges standing for this kinship degree
+         */
+        public String getStyleClass() {
+            return styleClass;
+        }
+
+        /**
+         * @param styleClass a style class in the GraphStream stylesheet
+         *
+         * @return the kinship degree whose edges have the given style class, null if none
+         */
+        public static KinshipDegree fromStyleClass(String styleClass) {
+            for(KinshipDegree kinshipDegree : values()) {
+                if(kinshipDegree.styleClass.equals(styleClass)) {
+                    return kinshipDegree;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Construct the still empty graph of a dynasty, to be built through build()
+     *
+     * @param dynasty Dynasty object contain the principal information about the dynasty than we create
+     */
+    public DynastyTree(Dynasty dynasty) {
+        this.dynasty = dynasty;
     }
 
     /**
      * Construct the graph of the dynasty starting from the Founder
      *
-     * @param webDriver the Web Driver instance to be used to scrape data
+     * @param pageSource the Page Source instance to be used to scrape data
      * @param founderPageData PersonPageData object which represent the founder of the dynasty
      * @param dynasty Dynasty object contain the principal information about the dynasty than we create
      */
-    public DynastyTree(WebDriver webDriver, PersonPageData founderPageData, Dynasty dynasty) {
-        this.dynasty = dynasty;
+    public DynastyTree(PageSource pageSource, PersonPageData founderPageData, Dynasty dynasty) {
+        this(dynasty);
 
-        this.graphNodeIds = new HashSet<>();
+        build(pageSource, founderPageData, null);
+    }
+
+    /**
+     * Build the graph of the dynasty starting from the Founder. Nodes and edges
+     * are added as people are scraped, so the graph can be displayed (through a
+     * viewer in another thread) while it's still being built, placed next to
+     * their relatives: once the graph is complete, its final layout is computed
+     * in background (see layOut).
+     *
+     * @param pageSource the Page Source instance to be used to scrape data
+     * @param founderPageData PersonPageData object which represent the founder of the dynasty
+     * @param progressListener the listener to be notified of the crawl's progress (may be null)
+     *
+     * @throws java.util.concurrent.CancellationException if the building thread gets interrupted
+     */
+    public void build(PageSource pageSource, PersonPageData founderPageData, PersonCrawler.ProgressListener progressListener) {
+        addPersonToGraph(founderPageData.getPersonNameUrl());
 
         /*
-         * We use a SingleGraph because a maximum of one
-         * edge between two nodes it's enough
+         * Relatives' pages are fetched concurrently by the crawler's workers,
+         * while the tree is assembled here by the Person recursive constructor
          */
 
-        this.graph = new SingleGraph(dynasty.getWikipediaPageUrl());
+        PersonCrawler personCrawler = new PersonCrawler(dynasty.getScrapeSession(), pageSource, dynasty.getWikipediaPageUrl(), RomanEmperorsScraper.getWorkers());
+
+        personCrawler.setProgressListener(progressListener);
 
         /*
-         * Here we set the location of the CSS stylesheet
-         * which will be used to style nodes and edges
-         * in our graph
+         * The graph's changes are shown in batches, each time the tree
+         * assembly has to wait for a page (and when it's over), so that
+         * views update once per batch instead of once per change
          */
 
-        graph.setAttribute("ui.stylesheet", "url("+ DynastyTree.class.getResource("/resources/graphstream/gs-stylesheet.css") + ")");
+        personCrawler.setBeforeWaitingAction(genealogyGraph::flushBatch);
 
-        addPersonToGraph(founderPageData.getPersonNameUrl());
-        this.founderNode = new Person(webDriver, founderPageData, this);
+        genealogyGraph.startBatch();
 
-        /*
-         * VisitedUrls is an HashMap we use to keep track of already visited URLs and not visit them more than once
-         * during the scraping, but since some people of the Dynasty we are actually scraping could've been previously
-         * visited too (while exploring the successors) we empty it to be able to visit them again
-         */
+        try {
+            personCrawler.crawlFrom(founderPageData);
 
-        Person.resetVisitedUrls();
+            this.founderNode = new Person(personCrawler, founderPageData, this);
+        } finally {
+            genealogyGraph.endBatch();
+
+            personCrawler.close();
+        }
 
         if(RomanEmperorsScraper.isDebugEnabled()) {
-            for(String nodeId : graphNodeIds) {
-                Node node = graph.getNode(nodeId);
-                System.out.println(nodeId + " : " + node.getAttribute("x") + " : " + node.getAttribute("y"));
+            for(int node = 0; node < genealogyGraph.getNodesCount(); node++) {
+                if(!genealogyGraph.isRemoved(node)) {
+                    String nodeId = genealogyGraph.getPersonUrl(node);
+                    System.out.println(nodeId + " : " + genealogyGraph.getX(node) + " : " + genealogyGraph.getY(node));
+                }
+            }
+        }
+
+        layOut();
+    }
+
+    /**
+     * Create the Person objects of the people whose nodes have been restored from
+     * an export (see DynastyTreeSerializer), registering them as the dynasty's
+     * members under their nodes' labels as building the tree would do: each
+     * person's successors are the ones his/her successor connections point to.
+     *
+     * People whose PersonPageData object is not in the ScrapeSession are skipped.
+     */
+    void restorePeople() {
+        ScrapeSession scrapeSession = getScrapeSession();
+        String dynastyPageUrl = dynasty.getWikipediaPageUrl();
+
+        for(int node = 0; node < genealogyGraph.getNodesCount(); node++) {
+            if(genealogyGraph.isRemoved(node)) {
+                continue;
+            }
+
+            PersonPageData personPageData = scrapeSession.getUrlPersonPageDataMatches().get(genealogyGraph.getPersonUrl(node));
+
+            if(personPageData != null) {
+                scrapeSession.registerDynastyMember(personPageData, genealogyGraph.getLabel(node), dynastyPageUrl);
+
+                new Person(personPageData, this);
+            }
+        }
+
+        for(int edge = 0; edge < genealogyGraph.getEdgesCount(); edge++) {
+            if(genealogyGraph.isEdgeRemoved(edge) || genealogyGraph.getEdgeKinshipDegree(edge) != KinshipDegree.SUCCESSOR) {
+                continue;
+            }
+
+            Person predecessor = getPersonObject(genealogyGraph.getPersonId(genealogyGraph.getEdgeSource(edge)));
+            Person successor   = getPersonObject(genealogyGraph.getPersonId(genealogyGraph.getEdgeTarget(edge)));
+
+            if(predecessor != null && successor != null) {
+                predecessor.addSuccessor(successor);
+            }
+        }
+
+        PersonPageData founderPageData = dynasty.getFounderPageData();
+
+        if(founderPageData != null) {
+            this.founderNode = getPersonObject(founderPageData.getPersonNameUrl().getId());
+        }
+    }
+
+    /**
+     * Lay the tree's graph out by generations (see GenealogyLayout) on a background
+     * thread, then move its nodes to their new positions in a single batch.
+     *
+     * The layout is cached: it's only computed again if nodes or edges have
+     * been added or removed since the last one has been requested.
+     *
+     * @return a future completed with the applied layout
+     */
+    public synchronized CompletableFuture<GenealogyLayout> layOut() {
+        if(layout != null && !layout.isCompletedExceptionally() &&
+                (!layout.isDone() || layout.join().getStructureVersion() == genealogyGraph.getStructureVersion())) {
+            return layout;
+        }
+
+        layout = CompletableFuture.supplyAsync(() -> {
+            long startNanos = System.nanoTime();
+
+            GenealogyLayout genealogyLayout = GenealogyLayout.compute(genealogyGraph);
+
+            /* If the graph has changed in the meantime, the next request will lay it out again */
+
+            boolean applied = genealogyGraph.setPositions(genealogyLayout);
+
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Layout of " + dynasty.getName() + " (" + genealogyLayout.getNodesCount() + " nodes) " +
+                        (applied ? "applied" : "out of date") + " after " + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+            }
+
+            return genealogyLayout;
+        }, layoutThreads);
+
+        return layout;
+    }
+
+    /**
+     * Wait for the layout requested last (if any) to be computed and applied,
+     * so that the tree's nodes are in their final positions
+     *
+     * @throws java.util.concurrent.CancellationException if the waiting thread gets interrupted
+     */
+    public void awaitLayout() {
+        CompletableFuture<GenealogyLayout> lastLayout;
+
+        synchronized(this) {
+            lastLayout = layout;
+        }
+
+        if(lastLayout == null) {
+            return;
+        }
+
+        try {
+            lastLayout.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new CancellationException("Interrupted while waiting for the tree's layout");
+        } catch (ExecutionException e) {
+            /* The nodes are just left where they were */
+
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                e.printStackTrace();
             }
         }
     }
@@ -95,23 +302,25 @@ public class DynastyTree {
      */
     public void addPersonToGraph(PersonNameUrl personNameUrl) {
         String label = personNameUrl.getFullName();
-        String id    = personNameUrl.getUrl();
+        int personId = personNameUrl.getId();
 
         /*
          * Here we add the node but not the connection
          * with other nodes
          */
-        if (!graphNodeIds.contains(id)) {
-            GraphStreamUtils.addNodeToGraph(id, label, graph);
-
-            graphNodeIds.add(id);
+        if (genealogyGraph.getNode(personId) == GenealogyGraph.NO_NODE) {
+            genealogyGraph.addNode(personId, label);
         }
     }
 
     /**
      * This method creates the connection between two nodes, represented by
      * a PersonPageData (the first) and a PersonNameUrl (the second one)
-     * object, taking in account the relationship between them
+     * object, taking in account the relationship between them.
+     *
+     * The second node is placed next to the first one, so that the tree can
+     * be followed while it's being built: these positions are provisional,
+     * they're replaced by the layout computed once the tree is complete.
      *
      * @param firstPersonPageData PersonPageData object of the person that defines the relationship
      * @param secondPersonNameUrl PersonPageData object of the second person
@@ -128,25 +337,21 @@ public class DynastyTree {
          * We can only add a connection between two nodes if they both have a URL to be used as an ID
          */
         if(firstPersonNameUrl.getUrl() != null && secondPersonNameUrl.getUrl() != null) {
-            Node firstNode  = graph.getNode(firstPersonNameUrl.getUrl());
-            Node secondNode = graph.getNode(secondPersonNameUrl.getUrl());
+            int firstNode  = genealogyGraph.getNode(firstPersonNameUrl.getId());
+            int secondNode = genealogyGraph.getNode(secondPersonNameUrl.getId());
 
             /*
              * If the second person is already connected to the first one, we don't add a new connection
              */
 
-            if(GraphStreamUtils.areConnected(firstNode, secondNode)) {
+            if(genealogyGraph.areConnected(firstNode, secondNode)) {
                 return false;
             }
 
-            int firstNodeX = (int) firstNode.getAttribute("x");
-            int firstNodeY = (int) firstNode.getAttribute("y");
-
-            int secondNodeX = (int) firstNode.getAttribute("x");
-            int secondNodeY = (int) firstNode.getAttribute("y");
+            int firstNodeX = genealogyGraph.getX(firstNode);
+            int firstNodeY = genealogyGraph.getY(firstNode);
 
-            String customStyle = "";
-            String customClass = "";
+            int secondNodeY = genealogyGraph.getY(firstNode);
 
             /*
              * Since we place the nodes on x = 0 and y = 0 on creation we then modify their position
@@ -155,199 +360,179 @@ public class DynastyTree {
             switch(kinshipDegree) {
                 case MOTHER:
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -(madre di)-> " + firstNode.getAttribute("ui.label"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -(madre di)-> " + genealogyGraph.getLabel(firstNode));
                     }
 
-                    secondNode.setAttribute("x", firstNodeX + (offsetX * 2));
+                    genealogyGraph.setX(secondNode, firstNodeX + (offsetX * 2));
 
                     /*
                      * We place the son node under the mother's node by one graph unit
                      */
-                    if(firstNode.getAttribute("x").equals(0) && firstNode.getAttribute("y").equals(0)) {
-                        firstNode.setAttribute("y", secondNodeY - 1);
+                    if(genealogyGraph.getX(firstNode) == 0 && genealogyGraph.getY(firstNode) == 0) {
+                        genealogyGraph.setY(firstNode, secondNodeY - 1);
 
                         if(RomanEmperorsScraper.isDebugEnabled()) {
-                            System.out.println(firstNode.getAttribute("ui.label") + " -> x : " + firstNode.getAttribute("x") + " y : " + firstNode.getAttribute("y"));
+                            System.out.println(genealogyGraph.getLabel(firstNode) + " -> x : " + genealogyGraph.getX(firstNode) + " y : " + genealogyGraph.getY(firstNode));
                         }
                     } else {
-                        secondNode.setAttribute("y", firstNodeY + 1);
+                        genealogyGraph.setY(secondNode, firstNodeY + 1);
                     }
 
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -> x : " + secondNode.getAttribute("x") + " y : " + secondNode.getAttribute("y"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -> x : " + genealogyGraph.getX(secondNode) + " y : " + genealogyGraph.getY(secondNode));
                     }
 
-                    customClass = "mother";
-
                     break;
 
                 case FATHER:
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -(padre di)-> " + firstNode.getAttribute("ui.label"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -(padre di)-> " + genealogyGraph.getLabel(firstNode));
                     }
 
-                    if (secondNode.getAttribute("x").equals(0) && secondNode.getAttribute("y").equals(0)) {
+                    if (genealogyGraph.getX(secondNode) == 0 && genealogyGraph.getY(secondNode) == 0) {
                         /*
                          * If the first person has a mother, we place the father node
                          * on the right side of the mother node
                          */
                         if (firstPersonPageData.getMotherNameUrl() != null && firstPersonPageData.getMotherNameUrl().getUrl() != null) {
-                            secondNode.setAttribute("x", firstNodeX + 2 + (offsetX * 2));
+                            genealogyGraph.setX(secondNode, firstNodeX + 2 + (offsetX * 2));
                         } else {
-                            secondNode.setAttribute("x", firstNodeX + (offsetX * 2));
+                            genealogyGraph.setX(secondNode, firstNodeX + (offsetX * 2));
                         }
 
                         /*
                          * We place the son node under the father's node by one graph unit
                          */
-                        if (firstNode.getAttribute("x").equals(0) && firstNode.getAttribute("y").equals(0)) {
-                            firstNode.setAttribute("y", secondNodeY - 1);
+                        if (genealogyGraph.getX(firstNode) == 0 && genealogyGraph.getY(firstNode) == 0) {
+                            genealogyGraph.setY(firstNode, secondNodeY - 1);
 
                             if(RomanEmperorsScraper.isDebugEnabled()) {
-                                System.out.println(firstNode.getAttribute("ui.label") + " -> x : " + firstNode.getAttribute("x") + " y : " + firstNode.getAttribute("y"));
+                                System.out.println(genealogyGraph.getLabel(firstNode) + " -> x : " + genealogyGraph.getX(firstNode) + " y : " + genealogyGraph.getY(firstNode));
                             }
                         } else {
-                            secondNode.setAttribute("y", firstNodeY + 1);
+                            genealogyGraph.setY(secondNode, firstNodeY + 1);
                         }
 
                         if(RomanEmperorsScraper.isDebugEnabled()) {
-                            System.out.println(secondNode.getAttribute("ui.label") + " -> x : " + secondNode.getAttribute("x") + " y : " + secondNode.getAttribute("y"));
+                            System.out.println(genealogyGraph.getLabel(secondNode) + " -> x : " + genealogyGraph.getX(secondNode) + " y : " + genealogyGraph.getY(secondNode));
                         }
                     }
 
-                    customClass = "father";
-
                     break;
 
                 case ADOPTIVEFATHER:
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -(padre adottivo di)-> " + firstNode.getAttribute("ui.label"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -(padre adottivo di)-> " + genealogyGraph.getLabel(firstNode));
                     }
 
-                    if(secondNode.getAttribute("x").equals(0) && secondNode.getAttribute("y").equals(0)) {
+                    if(genealogyGraph.getX(secondNode) == 0 && genealogyGraph.getY(secondNode) == 0) {
                         /*
                          * The distance between parents is determined by the x-coordinate, the first in order from
                          * left to right will be the father or the mother, the second can also be the adoptive father,
                          * the third will be the adoptive father if the first node has both a father and a mother
                          */
                         if (firstPersonPageData.getFatherNameUrl() != null && firstPersonPageData.getMotherNameUrl() != null && firstPersonPageData.getMotherNameUrl().getUrl() != null) {
-                            secondNode.setAttribute("x", firstNodeX + 5 + (offsetX * 2));
+                            genealogyGraph.setX(secondNode, firstNodeX + 5 + (offsetX * 2));
                         } else {
-                            secondNode.setAttribute("x", firstNodeX + 2 + (offsetX * 2));
+                            genealogyGraph.setX(secondNode, firstNodeX + 2 + (offsetX * 2));
                         }
 
                         /*
                          * We place the son node under the adoptive father's node by one graph unit
                          */
-                        if(firstNode.getAttribute("x").equals(0) && firstNode.getAttribute("y").equals(0)) {
-                            firstNode.setAttribute("y", secondNodeY - 1);
+                        if(genealogyGraph.getX(firstNode) == 0 && genealogyGraph.getY(firstNode) == 0) {
+                            genealogyGraph.setY(firstNode, secondNodeY - 1);
 
                             if(RomanEmperorsScraper.isDebugEnabled()) {
-                                System.out.println(firstNode.getAttribute("ui.label") + " -> x : " + firstNode.getAttribute("x") + " y : " + firstNode.getAttribute("y"));
+                                System.out.println(genealogyGraph.getLabel(firstNode) + " -> x : " + genealogyGraph.getX(firstNode) + " y : " + genealogyGraph.getY(firstNode));
                             }
                         } else {
-                            secondNode.setAttribute("y", firstNodeY + 1);
+                            genealogyGraph.setY(secondNode, firstNodeY + 1);
                         }
 
                         if(RomanEmperorsScraper.isDebugEnabled()) {
-                            System.out.println(secondNode.getAttribute("ui.label") + " -> x : " + secondNode.getAttribute("x") + " y : " + secondNode.getAttribute("y"));
+                            System.out.println(genealogyGraph.getLabel(secondNode) + " -> x : " + genealogyGraph.getX(secondNode) + " y : " + genealogyGraph.getY(secondNode));
                         }
                     }
 
-                    customClass = "adoptivefather";
-
                     break;
 
                 case SUCCESSOR:
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -(successore di)-> " + firstNode.getAttribute("ui.label"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -(successore di)-> " + genealogyGraph.getLabel(firstNode));
                     }
 
                     /*
                      * We place the successor node under the predecessor node by four graph unit
                      */
-                    secondNode.setAttribute("x", firstNodeX + (offsetX * 5));
-                    secondNode.setAttribute("y", firstNodeY - 4);
+                    genealogyGraph.setX(secondNode, firstNodeX + (offsetX * 5));
+                    genealogyGraph.setY(secondNode, firstNodeY - 4);
 
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -> x : " + secondNode.getAttribute("x") + " y : " + secondNode.getAttribute("y"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -> x : " + genealogyGraph.getX(secondNode) + " y : " + genealogyGraph.getY(secondNode));
                     }
 
-                    customClass = "successor";
-
                     break;
 
                 case SPOUSE:
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -(coniuge di)-> " + firstNode.getAttribute("ui.label"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -(coniuge di)-> " + genealogyGraph.getLabel(firstNode));
                     }
 
                     /*
                      * Each spouse is placed offsetY higher than the previous one
                      * and shifted 2 graph units to the left of the first node
                      */
-                    secondNode.setAttribute("x", firstNodeX - 2);
-                    secondNode.setAttribute("y", firstNodeY + offsetY);
+                    genealogyGraph.setX(secondNode, firstNodeX - 2);
+                    genealogyGraph.setY(secondNode, firstNodeY + offsetY);
 
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -> x : " + secondNode.getAttribute("x") + " y : " + secondNode.getAttribute("y"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -> x : " + genealogyGraph.getX(secondNode) + " y : " + genealogyGraph.getY(secondNode));
                     }
 
-                    customClass = "spouse";
-
                     break;
 
                 case CHILDREN:
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -(figlio/a di)-> " + firstNode.getAttribute("ui.label"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -(figlio/a di)-> " + genealogyGraph.getLabel(firstNode));
                     }
 
                     /*
                      * Each child is placed at least 1 graph unit lower than the father
                      * and shifted twice offsetX graph units to the right of the first node
                      */
-                    secondNode.setAttribute("x", firstNodeX + (offsetX * 2));
-                    secondNode.setAttribute("y", firstNodeY - (offsetY + 1));
+                    genealogyGraph.setX(secondNode, firstNodeX + (offsetX * 2));
+                    genealogyGraph.setY(secondNode, firstNodeY - (offsetY + 1));
 
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -> x : " + secondNode.getAttribute("x") + " y : " + secondNode.getAttribute("y"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -> x : " + genealogyGraph.getX(secondNode) + " y : " + genealogyGraph.getY(secondNode));
                     }
 
-                    customClass = "children";
-
                     break;
 
                 case ADOPTEDCHILDREN:
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -(figlio/a adottivo/a di)-> " + firstNode.getAttribute("ui.label"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -(figlio/a adottivo/a di)-> " + genealogyGraph.getLabel(firstNode));
                     }
 
                     /*
                      * Each adoptive child is placed offsetY+1 lower than the previous one
                      * and shifted twice offsetX graph units to the right of the first node
                      */
-                    secondNode.setAttribute("x", firstNodeX + (offsetX * 2));
-                    secondNode.setAttribute("y", firstNodeY - (offsetY + 1));
+                    genealogyGraph.setX(secondNode, firstNodeX + (offsetX * 2));
+                    genealogyGraph.setY(secondNode, firstNodeY - (offsetY + 1));
 
                     if(RomanEmperorsScraper.isDebugEnabled()) {
-                        System.out.println(secondNode.getAttribute("ui.label") + " -> x : " + secondNode.getAttribute("x") + " y : " + secondNode.getAttribute("y"));
+                        System.out.println(genealogyGraph.getLabel(secondNode) + " -> x : " + genealogyGraph.getX(secondNode) + " y : " + genealogyGraph.getY(secondNode));
                     }
 
-                    customClass = "adoptedchildren";
-
                     break;
             }
 
             /*
-             * Create the edge between the two nodes and set its style properties
+             * Create the edge between the two nodes, styled by its kinship degree
              */
-            Edge edge = graph.addEdge(firstPersonNameUrl.getUrl() + "-" + secondPersonNameUrl.getUrl(), firstPersonNameUrl.getUrl(), secondPersonNameUrl.getUrl());
-
-            if(!customStyle.equals("")) {
-                edge.setAttribute("ui.style", customStyle);
-            } else if(!customClass.equals("")) {
-                GraphStreamUtils.addClassToElement(edge, customClass);
-            }
+            genealogyGraph.addEdge(firstNode, secondNode, kinshipDegree);
 
             return true;
         }
@@ -356,14 +541,83 @@ public class DynastyTree {
     }
 
     /**
-     * Remove the specific node
+     * Add a batch of people's nodes and kinship connections to the graph in one
+     * go, so that views are updated just once (see GenealogyGraph.addAll)
+     *
+     * @param batch the nodes and connections to be added, by people's URL IDs
+     */
+    public void addAll(GenealogyGraph.Batch batch) {
+        genealogyGraph.addAll(batch);
+    }
+
+    /**
+     * @param personId a person's URL ID (see PersonNameUrl.getId)
+     *
+     * @return true if the person has already been visited while building this tree, false otherwise
+     */
+    public boolean isVisited(int personId) {
+        return personId != PersonTable.NO_ID && visitedIds.get(personId);
+    }
+
+    /**
+     * Mark a person as visited while building this tree, so that he/she isn't visited again
+     *
+     * @param personId the person's URL ID
+     */
+    public void markVisited(int personId) {
+        if(personId != PersonTable.NO_ID) {
+            visitedIds.set(personId);
+        }
+    }
+
+    /**
+     * Add a Person object created while building this tree (marking it as visited)
      *
-     * @param nodeId the ID of the node to be removed
+     * @param personId the person's URL ID
+     * @param person the person's Person object
      */
-    public void removeNode(String nodeId) {
-        if(graphNodeIds.contains(nodeId)) {
-            graph.removeNode(nodeId);
-            graphNodeIds.remove(nodeId);
+    public void addPersonObject(int personId, Person person) {
+        if(personId >= personObjects.length) {
+            personObjects = Arrays.copyOf(personObjects, Math.max(personId + 1, personObjects.length * 2));
+        }
+
+        personObjects[personId] = person;
+
+        visitedIds.set(personId);
+    }
+
+    /**
+     * @param personId a person's URL ID
+     *
+     * @return the person's Person object created while building this tree, null if none
+     */
+    public Person getPersonObject(int personId) {
+        return personId >= 0 && personId < personObjects.length ? personObjects[personId] : null;
+    }
+
+    /**
+     * Remove the node of a person
+     *
+     * @param personNameUrl the PersonNameUrl object of the person whose node is to be removed
+     */
+    public void removeNode(PersonNameUrl personNameUrl) {
+        int node = genealogyGraph.getNode(personNameUrl.getId());
+
+        if(node != GenealogyGraph.NO_NODE) {
+            genealogyGraph.removeNode(node);
+        }
+    }
+
+    /**
+     * Mark the node of a person as the one of an emperor or dictator
+     *
+     * @param personNameUrl the PersonNameUrl object of the person
+     */
+    public void markRegnant(PersonNameUrl personNameUrl) {
+        int node = genealogyGraph.getNode(personNameUrl.getId());
+
+        if(node != GenealogyGraph.NO_NODE) {
+            genealogyGraph.addNodeFlags(node, GenealogyGraph.REGNANT);
         }
     }
 
@@ -375,9 +629,48 @@ public class DynastyTree {
     }
 
     /**
+     * @return the ScrapeSession the dynasty (and therefore the tree's people) belongs to
+     */
+    public ScrapeSession getScrapeSession() {
+        return dynasty.getScrapeSession();
+    }
+
+    /**
+     * @return the GenealogyGraph holding this tree's nodes and edges
+     */
+    public GenealogyGraph getGenealogyGraph() {
+        return genealogyGraph;
+    }
+
+    /**
+     * Return the GraphStream graph of this tree to be shown in a view, creating
+     * it from the GenealogyGraph when first requested: from then on, it gets
+     * the tree's changes (on the thread building the tree)
+     *
      * @return the Graph object related to this DynastyTree instance
      */
-    public Graph getGraph() {
+    public synchronized Graph getGraph() {
+        if(graph == null) {
+            /*
+             * We use a SingleGraph because a maximum of one
+             * edge between two nodes it's enough
+             */
+
+            Graph newGraph = new SingleGraph(dynasty.getWikipediaPageUrl());
+
+            /*
+             * Here we set the location of the CSS stylesheet
+             * which will be used to style nodes and edges
+             * in our graph
+             */
+
+            newGraph.setAttribute("ui.stylesheet", "url("+ DynastyTree.class.getResource("/resources/graphstream/gs-stylesheet.css") + ")");
+
+            genealogyGraph.addListener(new GraphStreamSink(newGraph));
+
+            this.graph = newGraph;
+        }
+
         return graph;
     }
 }
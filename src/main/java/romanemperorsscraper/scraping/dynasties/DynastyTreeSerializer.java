@@ -0,0 +1,335 @@
+package romanemperorsscraper.scraping.dynasties;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.JsonStreamWriter;
+import romanemperorsscraper.scraping.SnapshotReader;
+import romanemperorsscraper.scraping.SnapshotWriter;
+import romanemperorsscraper.scraping.people.PersonTable;
+
+import java.io.IOException;
+
+/**
+ * Utility class providing methods for the serialization of dynasties'
+ * DynastyTree objects into tree snapshots: the nodes (with their positions
+ * and style classes) and the typed edges of the tree's graph, so that an
+ * imported dynasty's tree is loaded in one go instead of being rebuilt
+ * person by person.
+ *
+ * @see DynastyTree
+ * @see DynastySerializer
+ *
+ * @author Matteo Collica
+ */
+public class DynastyTreeSerializer {
+    /*
+     * PREVENT INSTANTIATION WITH A PRIVATE CONSTRUCTOR
+     */
+
+    private DynastyTreeSerializer() {
+        throw new java.lang.UnsupportedOperationException(
+            "As a utility class, this class must not be instantiated"
+        );
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Write the snapshot of a given DynastyTree object, once its
+     * nodes have been moved to their final positions
+     *
+     * @param dynastyTree the DynastyTree object to be serialized
+     * @param jsonStreamWriter the JsonStreamWriter the snapshot is written into, as a JSON object
+     *
+     * @throws IOException if the snapshot could not be written
+     */
+    public static void writeDynastyTree(DynastyTree dynastyTree, JsonStreamWriter jsonStreamWriter) throws IOException {
+        /*
+         * The following is an example of the serialized form this method produces:
+         * {
+         *      "nodes": [
+         *          {
+         *              "url": "https://it.wikipedia.org/wiki/Costanzo_Cloro",
+         *              "label": "Marco Flavio Valerio Costanzo",
+         *              "x": 4,
+         *              "y": -3,
+         *              "class": "regnant"
+         *          },
+         *          [...]
+         *      ],
+         *      "edges": [
+         *          {
+         *              "source": "https://it.wikipedia.org/wiki/Costanzo_Cloro",
+         *              "target": "https://it.wikipedia.org/wiki/Elena_(imperatrice)",
+         *              "class": "spouse"
+         *          },
+         *          [...]
+         *      ]
+         * }
+         */
+
+        dynastyTree.awaitLayout();
+
+        GenealogyGraph genealogyGraph = dynastyTree.getGenealogyGraph();
+
+        jsonStreamWriter.beginObject();
+
+        synchronized (genealogyGraph) {
+            jsonStreamWriter.name("nodes").beginArray();
+
+            for (int node = 0; node < genealogyGraph.getNodesCount(); node++) {
+                if (genealogyGraph.isRemoved(node)) {
+                    continue;
+                }
+
+                jsonStreamWriter.beginObject();
+
+                jsonStreamWriter.name("url").value(genealogyGraph.getPersonUrl(node));
+                jsonStreamWriter.name("label").value(genealogyGraph.getLabel(node));
+
+                jsonStreamWriter.name("x").value(genealogyGraph.getX(node));
+                jsonStreamWriter.name("y").value(genealogyGraph.getY(node));
+
+                if (genealogyGraph.hasNodeFlags(node, GenealogyGraph.REGNANT)) {
+                    jsonStreamWriter.name("class").value(GraphStreamSink.REGNANT_STYLE_CLASS);
+                }
+
+                jsonStreamWriter.endObject();
+            }
+
+            jsonStreamWriter.endArray();
+
+            jsonStreamWriter.name("edges").beginArray();
+
+            for (int edge = 0; edge < genealogyGraph.getEdgesCount(); edge++) {
+                if (genealogyGraph.isEdgeRemoved(edge)) {
+                    continue;
+                }
+
+                jsonStreamWriter.beginObject();
+
+                jsonStreamWriter.name("source").value(genealogyGraph.getPersonUrl(genealogyGraph.getEdgeSource(edge)));
+                jsonStreamWriter.name("target").value(genealogyGraph.getPersonUrl(genealogyGraph.getEdgeTarget(edge)));
+
+                jsonStreamWriter.name("class").value(genealogyGraph.getEdgeKinshipDegree(edge).getStyleClass());
+
+                jsonStreamWriter.endObject();
+            }
+
+            jsonStreamWriter.endArray();
+        }
+
+        jsonStreamWriter.endObject();
+    }
+
+    /**
+     * Write the binary form of a given DynastyTree object's snapshot: the
+     * number of nodes followed by each node's URL, label, coordinates and
+     * style class, then the number of edges followed by each edge's source
+     * and target (as the numbers of their nodes in the list) and style class
+     *
+     * @param dynastyTree the DynastyTree object to be serialized
+     * @param snapshotWriter the SnapshotWriter the snapshot is written into
+     *
+     * @throws IOException if the binary form could not be written
+     */
+    public static void writeDynastyTree(DynastyTree dynastyTree, SnapshotWriter snapshotWriter) throws IOException {
+        dynastyTree.awaitLayout();
+
+        GenealogyGraph genealogyGraph = dynastyTree.getGenealogyGraph();
+
+        synchronized (genealogyGraph) {
+            /* The numbers the nodes are written with, skipping the removed ones */
+
+            int[] nodeNumbers = new int[genealogyGraph.getNodesCount()];
+            int nodesCount = 0;
+
+            for (int node = 0; node < genealogyGraph.getNodesCount(); node++) {
+                nodeNumbers[node] = genealogyGraph.isRemoved(node) ? -1 : nodesCount++;
+            }
+
+            snapshotWriter.writeVarint(nodesCount);
+
+            for (int node = 0; node < genealogyGraph.getNodesCount(); node++) {
+                if (nodeNumbers[node] == -1) {
+                    continue;
+                }
+
+                snapshotWriter.writeString(genealogyGraph.getPersonUrl(node));
+                snapshotWriter.writeString(genealogyGraph.getLabel(node));
+
+                snapshotWriter.writeSignedVarint(genealogyGraph.getX(node));
+                snapshotWriter.writeSignedVarint(genealogyGraph.getY(node));
+
+                snapshotWriter.writeString(genealogyGraph.hasNodeFlags(node, GenealogyGraph.REGNANT) ? GraphStreamSink.REGNANT_STYLE_CLASS : null);
+            }
+
+            int edgesCount = 0;
+
+            for (int edge = 0; edge < genealogyGraph.getEdgesCount(); edge++) {
+                edgesCount += genealogyGraph.isEdgeRemoved(edge) ? 0 : 1;
+            }
+
+            snapshotWriter.writeVarint(edgesCount);
+
+            for (int edge = 0; edge < genealogyGraph.getEdgesCount(); edge++) {
+                if (genealogyGraph.isEdgeRemoved(edge)) {
+                    continue;
+                }
+
+                snapshotWriter.writeVarint(nodeNumbers[genealogyGraph.getEdgeSource(edge)]);
+                snapshotWriter.writeVarint(nodeNumbers[genealogyGraph.getEdgeTarget(edge)]);
+
+                snapshotWriter.writeString(genealogyGraph.getEdgeKinshipDegree(edge).getStyleClass());
+            }
+        }
+    }
+
+    /**
+     * Restore (and construct) a dynasty's DynastyTree from its snapshot,
+     * loading all of its nodes and edges into the graph at once, along with
+     * its people's Person objects (see DynastyTree.restorePeople)
+     *
+     * @param dynasty the Dynasty object the tree belongs to
+     * @param serializedTree the JSONObject containing the tree's snapshot
+     *
+     * @return the restored DynastyTree object, null if the snapshot
+     *         is malformed (the tree has then to be rebuilt)
+     */
+    public static DynastyTree deserializeDynastyTree(Dynasty dynasty, JSONObject serializedTree) {
+        try {
+            JSONArray serializedNodes = (JSONArray) serializedTree.get("nodes");
+            JSONArray serializedEdges = (JSONArray) serializedTree.get("edges");
+
+            if (serializedNodes == null || serializedNodes.isEmpty() || serializedEdges == null) {
+                return null;
+            }
+
+            PersonTable personTable = PersonTable.getSharedTable();
+
+            GenealogyGraph.Batch batch = new GenealogyGraph.Batch();
+
+            for (Object serializedNodeObject : serializedNodes) {
+                JSONObject serializedNode = (JSONObject) serializedNodeObject;
+
+                String url = (String) serializedNode.get("url");
+
+                if (url == null) {
+                    return null;
+                }
+
+                int flags = GraphStreamSink.REGNANT_STYLE_CLASS.equals(serializedNode.get("class")) ? GenealogyGraph.REGNANT : 0;
+
+                batch.addNode(
+                        personTable.getId(url),
+                        (String) serializedNode.get("label"),
+                        ((Number) serializedNode.get("x")).intValue(),
+                        ((Number) serializedNode.get("y")).intValue(),
+                        flags
+                );
+            }
+
+            for (Object serializedEdgeObject : serializedEdges) {
+                JSONObject serializedEdge = (JSONObject) serializedEdgeObject;
+
+                String sourceUrl = (String) serializedEdge.get("source");
+                String targetUrl = (String) serializedEdge.get("target");
+
+                DynastyTree.KinshipDegree kinshipDegree = DynastyTree.KinshipDegree.fromStyleClass((String) serializedEdge.get("class"));
+
+                if (sourceUrl == null || targetUrl == null || kinshipDegree == null) {
+                    return null;
+                }
+
+                batch.addEdge(personTable.getId(sourceUrl), personTable.getId(targetUrl), kinshipDegree);
+            }
+
+            DynastyTree dynastyTree = new DynastyTree(dynasty);
+
+            dynastyTree.addAll(batch);
+            dynastyTree.restorePeople();
+
+            return dynastyTree;
+        } catch (ClassCastException | NullPointerException | IllegalArgumentException e) {
+            /* e.g. a missing coordinate or an edge between people without a node */
+
+            if (RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Malformed tree snapshot for " + dynasty.getWikipediaPageUrl() + ": " + e);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Restore (and construct) a dynasty's DynastyTree from the binary form
+     * of its snapshot, loading all of its nodes and edges into the graph at once,
+     * along with its people's Person objects (see DynastyTree.restorePeople)
+     *
+     * @param dynasty the Dynasty object the tree belongs to
+     * @param snapshotReader the SnapshotReader positioned at the snapshot's binary form
+     *
+     * @return the restored DynastyTree object, null if the snapshot
+     *         is malformed (the tree has then to be rebuilt)
+     */
+    public static DynastyTree readDynastyTree(Dynasty dynasty, SnapshotReader snapshotReader) {
+        int nodesCount = snapshotReader.readVarint();
+
+        if (nodesCount == 0) {
+            return null;
+        }
+
+        PersonTable personTable = PersonTable.getSharedTable();
+
+        GenealogyGraph.Batch batch = new GenealogyGraph.Batch();
+
+        int[] personIds = new int[nodesCount];
+
+        for (int node = 0; node < nodesCount; node++) {
+            String url = snapshotReader.readString();
+            String label = snapshotReader.readString();
+
+            int x = snapshotReader.readSignedVarint();
+            int y = snapshotReader.readSignedVarint();
+
+            int flags = GraphStreamSink.REGNANT_STYLE_CLASS.equals(snapshotReader.readString()) ? GenealogyGraph.REGNANT : 0;
+
+            if (url == null) {
+                return null;
+            }
+
+            personIds[node] = personTable.getId(url);
+
+            batch.addNode(personIds[node], label, x, y, flags);
+        }
+
+        int edgesCount = snapshotReader.readVarint();
+
+        for (int edge = 0; edge < edgesCount; edge++) {
+            int sourceNode = snapshotReader.readVarint();
+            int targetNode = snapshotReader.readVarint();
+
+            DynastyTree.KinshipDegree kinshipDegree = DynastyTree.KinshipDegree.fromStyleClass(snapshotReader.readString());
+
+            if (sourceNode >= nodesCount || targetNode >= nodesCount || kinshipDegree == null) {
+                if (RomanEmperorsScraper.isDebugEnabled()) {
+                    System.out.println("Malformed tree snapshot for " + dynasty.getWikipediaPageUrl());
+                }
+
+                return null;
+            }
+
+            batch.addEdge(personIds[sourceNode], personIds[targetNode], kinshipDegree);
+        }
+
+        DynastyTree dynastyTree = new DynastyTree(dynasty);
+
+        dynastyTree.addAll(batch);
+        dynastyTree.restorePeople();
+
+        return dynastyTree;
+    }
+}
@@ -0,0 +1,240 @@
+package romanemperorsscraper.scraping.dynasties;
+
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.ScrapeSession;
+import romanemperorsscraper.scraping.people.PersonNameUrl;
+import romanemperorsscraper.scraping.people.PersonPageData;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class used to probe the pages of a dynasty founder's candidates at
+ * the same time (as many as the PageSource can fetch at once), while
+ * they're checked one at a time in document order (see
+ * Dynasty.retrieveFounderNameUrl).
+ *
+ * The probed pages are kept out of the ScrapeSession until they're
+ * checked: the ones up to the founder's one are then stored, as they'd
+ * have been fetched anyway, while the ones following it are dropped, so
+ * that the session's content doesn't depend on which probes happened to
+ * end before the founder was found. A page which couldn't be probed is
+ * just not the founder's.
+ *
+ * The probes of every dynasty run on the same pool of daemon threads.
+ *
+ * @see Dynasty
+ *
+ * @author Matteo Collica
+ */
+final class FounderProber {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    private static final AtomicInteger proberThreadsCount = new AtomicInteger();
+
+    private static final ExecutorService proberThreads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "founder-prober-" + proberThreadsCount.incrementAndGet());
+
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /*
+     * ATTRIBUTES
+     */
+
+    private final ScrapeSession scrapeSession;
+
+    private final PageSource pageSource;
+
+    private final String dynastyPageUrl;
+
+    private final List<PersonNameUrl> candidates;
+
+    /* Completed with each candidate's PersonPageData, null if it couldn't be probed */
+    private final ArrayList<CompletableFuture<PersonPageData>> probes;
+
+    private final AtomicInteger nextCandidate = new AtomicInteger();
+
+    /* The threads probing a candidate right now, guarded by the instance's lock */
+    private final HashSet<Thread> probingThreads = new HashSet<>();
+
+    private boolean stopped = false;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a FounderProber and start probing the candidates' pages
+     *
+     * @param scrapeSession the ScrapeSession the founder's page is stored in
+     * @param pageSource the Page Source instance to be used to scrape data
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     * @param candidates the founder's candidates, in document order
+     */
+    FounderProber(ScrapeSession scrapeSession, PageSource pageSource, String dynastyPageUrl, List<PersonNameUrl> candidates) {
+        this.scrapeSession = scrapeSession;
+        this.pageSource = pageSource;
+        this.dynastyPageUrl = dynastyPageUrl;
+        this.candidates = candidates;
+
+        this.probes = new ArrayList<>(candidates.size());
+
+        for(int i = 0; i < candidates.size(); i++) {
+            probes.add(new CompletableFuture<>());
+        }
+
+        int probersCount = Math.min(candidates.size(), Math.max(1, pageSource.getMaxConcurrency()));
+
+        for(int i = 0; i < probersCount; i++) {
+            proberThreads.execute(this::probeCandidates);
+        }
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Wait for a candidate's page to be probed
+     *
+     * @param candidateIndex the candidate's index
+     *
+     * @return true if the candidate's page is an emperor's or a dictator's one, false otherwise
+     *
+     * @throws CancellationException if the current thread gets interrupted while waiting
+     */
+    boolean isEmperorOrDictator(int candidateIndex) {
+        PersonPageData candidatePageData;
+
+        try {
+            candidatePageData = probes.get(candidateIndex).get();
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new CancellationException("Interrupted while probing the founder's candidates");
+        } catch(ExecutionException ex) {
+            /* Probes are never completed exceptionally */
+
+            throw new IllegalStateException(ex.getCause());
+        }
+
+        return candidatePageData != null && candidatePageData.summaryTableImpliesEmperorOrDictatorRole();
+    }
+
+    /**
+     * Store a probed candidate's PersonPageData object in the ScrapeSession
+     * (unless one has already been stored for the same page, or the page
+     * couldn't be probed), so that the crawl doesn't fetch it again: it's
+     * meant for the candidates checked through isEmperorOrDictator, up to
+     * the founder's one included
+     *
+     * @param candidateIndex the index of a candidate whose page has been probed
+     */
+    void store(int candidateIndex) {
+        PersonPageData candidatePageData = probes.get(candidateIndex).getNow(null);
+
+        if(candidatePageData != null) {
+            scrapeSession.storePersonPageData(candidatePageData);
+        }
+    }
+
+    /**
+     * Stop probing, interrupting the probes in progress and waiting for
+     * them to end, so that the PageSource isn't in use anymore afterwards
+     */
+    synchronized void stop() {
+        stopped = true;
+
+        for(Thread probingThread : probingThreads) {
+            probingThread.interrupt();
+        }
+
+        boolean interrupted = false;
+
+        while(!probingThreads.isEmpty()) {
+            try {
+                wait();
+            } catch(InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Probe the candidates not probed yet one at a time, until there are none left
+     */
+    private void probeCandidates() {
+        synchronized(this) {
+            if(stopped) {
+                return;
+            }
+
+            probingThreads.add(Thread.currentThread());
+        }
+
+        try {
+            int candidateIndex;
+
+            while(!isStopped() && (candidateIndex = nextCandidate.getAndIncrement()) < candidates.size()) {
+                PersonPageData candidatePageData = null;
+
+                try {
+                    candidatePageData = probe(candidates.get(candidateIndex));
+                } catch(RuntimeException ex) {
+                    if(RomanEmperorsScraper.isDebugEnabled()) {
+                        System.out.println("Unable to probe " + candidates.get(candidateIndex).getUrl() + ": " + ex.getMessage());
+                    }
+                } finally {
+                    probes.get(candidateIndex).complete(candidatePageData);
+                }
+            }
+        } finally {
+            synchronized(this) {
+                probingThreads.remove(Thread.currentThread());
+
+                /* The thread goes back to the pool, without the interruption meant for the probe */
+
+                Thread.interrupted();
+
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @param candidate a founder's candidate
+     *
+     * @return the candidate's PersonPageData object, the stored one if there is
+     * one or a new one otherwise (which is not stored)
+     */
+    private PersonPageData probe(PersonNameUrl candidate) {
+        PersonPageData storedPageData = scrapeSession.getUrlPersonPageDataMatches().get(candidate.getUrl());
+
+        if(storedPageData != null) {
+            return storedPageData;
+        }
+
+        return new PersonPageData(pageSource, candidate, dynastyPageUrl);
+    }
+
+    private synchronized boolean isStopped() {
+        return stopped;
+    }
+}
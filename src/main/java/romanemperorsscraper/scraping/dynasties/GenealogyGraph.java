@@ -0,0 +1,833 @@
+package romanemperorsscraper.scraping.dynasties;
+
+import romanemperorsscraper.scraping.people.PersonTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Class used to represent the graph of a dynasty's genealogical tree with
+ * primitive arrays only: nodes are numbered 0, 1, 2 [...] in order of
+ * creation and have their person's ID (see PersonTable), label, position
+ * and flags stored in parallel arrays, while edges are stored as (source,
+ * target, kinship degree) triples linked into each node's adjacency list.
+ *
+ * It is the source of truth of a DynastyTree: the GraphStream graph shown
+ * by the views is only created from it when it's first requested (see
+ * DynastyTree.getGraph) and then kept up to date through a Listener, so
+ * building a tree never goes through GraphStream's attribute maps.
+ *
+ * Removed nodes (and their edges) keep their numbers, they're just marked
+ * as removed: a person whose node is added again gets a new node.
+ *
+ * Whether two nodes are connected is checked in constant time through a
+ * hash set of the connected node pairs (each packed in a long), whatever
+ * the nodes' degree. Changes can also be grouped in batches (see
+ * startBatch and addAll): listeners are then notified of them all at
+ * once, when the batch is flushed, and just once per node or edge with
+ * its final state, so that views update once per batch (e.g. when a
+ * GenealogyLayout moves all the nodes, see setPositions).
+ *
+ * Its people's IDs are the ones of the PersonTable shared when the graph
+ * was created, which it keeps even if the shared table is reset later on.
+ *
+ * The graph may be modified by a thread while a view is being attached from
+ * another one, so its methods synchronize on the GenealogyGraph instance.
+ *
+ * @see DynastyTree
+ *
+ * @author Matteo Collica
+ */
+public class GenealogyGraph {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* The node number returned for people without a node */
+    public static final int NO_NODE = -1;
+
+    /* Node flags */
+    public static final int REGNANT = 1;
+
+    /* Internal flag of removed nodes */
+    private static final int REMOVED = 1 << 7;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * ATTRIBUTES
+     */
+
+    /* The table the people's IDs have been given by */
+    private final PersonTable personTable = PersonTable.getSharedTable();
+
+    private int nodesCount = 0;
+
+    private int[] personIds = new int[INITIAL_CAPACITY];
+    private String[] labels = new String[INITIAL_CAPACITY];
+    private int[] xs = new int[INITIAL_CAPACITY];
+    private int[] ys = new int[INITIAL_CAPACITY];
+    private byte[] nodeFlags = new byte[INITIAL_CAPACITY];
+
+    /* The first half edge (see nextHalfEdges) of each node's adjacency list, -1 if none */
+    private int[] firstHalfEdges = new int[INITIAL_CAPACITY];
+
+    /* nodeNumbersByPersonId[personId] is the number of the person's current node, NO_NODE if none */
+    private int[] nodeNumbersByPersonId = new int[0];
+
+    private int edgesCount = 0;
+
+    private int[] edgeSources = new int[INITIAL_CAPACITY];
+    private int[] edgeTargets = new int[INITIAL_CAPACITY];
+    private byte[] edgeKinshipDegrees = new byte[INITIAL_CAPACITY];
+
+    /*
+     * Each edge has two half edges, 2 * edge in its source's adjacency
+     * list and 2 * edge + 1 in its target's one: nextHalfEdges[halfEdge]
+     * is the next half edge of the same list, -1 at the end of the list
+     */
+
+    private int[] nextHalfEdges = new int[2 * INITIAL_CAPACITY];
+
+    /*
+     * Open addressing hash set of the connected node pairs, each packed as
+     * ((smaller node << 32) | larger node) + 1 so that 0 marks a free slot
+     */
+
+    private long[] connectedPairs = new long[2 * INITIAL_CAPACITY];
+
+    private int connectedPairsCount = 0;
+
+    private final ArrayList<Listener> listeners = new ArrayList<>();
+
+    /* How many batches have been started and not yet ended */
+    private int openBatches = 0;
+
+    /*
+     * Changes made since the batch has last been flushed: nodes and edges
+     * from these numbers on are new, while the nodes already notified to
+     * the listeners may have been changed or removed in the meantime
+     */
+
+    private int firstPendingNode = 0;
+    private int firstPendingEdge = 0;
+
+    private final BitSet changedNodes = new BitSet();
+    private final BitSet removedNodes = new BitSet();
+
+    /* Incremented on each added or removed node and edge, to tell whether a layout is still up to date */
+    private int structureVersion = 0;
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Add a node to the graph, placed at (0, 0) and without flags
+     *
+     * @param personId the node's person's ID (see PersonTable)
+     * @param label the node's label text
+     *
+     * @return the added node's number
+     *
+     * @throws IllegalArgumentException if the person already has a node
+     */
+    public synchronized int addNode(int personId, String label) {
+        if (getNode(personId) != NO_NODE) {
+            throw new IllegalArgumentException("The person " + personId + " already has a node");
+        }
+
+        int node = nodesCount;
+
+        if (node == personIds.length) {
+            int capacity = node * 2;
+
+            personIds = Arrays.copyOf(personIds, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            nodeFlags = Arrays.copyOf(nodeFlags, capacity);
+            firstHalfEdges = Arrays.copyOf(firstHalfEdges, capacity);
+        }
+
+        if (personId >= nodeNumbersByPersonId.length) {
+            int oldLength = nodeNumbersByPersonId.length;
+
+            nodeNumbersByPersonId = Arrays.copyOf(nodeNumbersByPersonId, Math.max(personId + 1, oldLength * 2));
+
+            Arrays.fill(nodeNumbersByPersonId, oldLength, nodeNumbersByPersonId.length, NO_NODE);
+        }
+
+        personIds[node] = personId;
+        labels[node] = label;
+        firstHalfEdges[node] = -1;
+
+        nodeNumbersByPersonId[personId] = node;
+
+        nodesCount++;
+        structureVersion++;
+
+        if (openBatches == 0) {
+            for (Listener listener : listeners) {
+                listener.nodeAdded(this, node);
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * Remove a node (and its edges) from the graph
+     *
+     * @param node the node's number
+     */
+    public synchronized void removeNode(int node) {
+        if (isRemoved(node)) {
+            return;
+        }
+
+        nodeFlags[node] |= REMOVED;
+
+        nodeNumbersByPersonId[personIds[node]] = NO_NODE;
+
+        structureVersion++;
+
+        if (openBatches > 0) {
+            if (node < firstPendingNode) {
+                removedNodes.set(node);
+            }
+
+            return;
+        }
+
+        for (Listener listener : listeners) {
+            listener.nodeRemoved(this, node);
+        }
+    }
+
+    /**
+     * @param personId a person's ID (see PersonTable)
+     *
+     * @return the number of the person's node, NO_NODE if the person doesn't have one
+     */
+    public synchronized int getNode(int personId) {
+        return personId >= 0 && personId < nodeNumbersByPersonId.length ? nodeNumbersByPersonId[personId] : NO_NODE;
+    }
+
+    /**
+     * Set a node's horizontal position
+     *
+     * @param node the node's number
+     * @param x the node's new x coordinate
+     */
+    public synchronized void setX(int node, int x) {
+        xs[node] = x;
+
+        fireNodeChanged(node);
+    }
+
+    /**
+     * Set a node's vertical position
+     *
+     * @param node the node's number
+     * @param y the node's new y coordinate
+     */
+    public synchronized void setY(int node, int y) {
+        ys[node] = y;
+
+        fireNodeChanged(node);
+    }
+
+    /**
+     * Move the graph's nodes to the positions computed by a layout, in a single
+     * batch (so that views are updated once): the layout is ignored if nodes or
+     * edges have been added or removed since it's been computed
+     *
+     * @param layout the layout computed for the graph's current structure
+     *
+     * @return true if the nodes have been moved, false if the layout is out of date
+     */
+    public synchronized boolean setPositions(GenealogyLayout layout) {
+        if (layout.getStructureVersion() != structureVersion) {
+            return false;
+        }
+
+        startBatch();
+
+        try {
+            for (int node = 0; node < nodesCount; node++) {
+                if (!isRemoved(node) && (xs[node] != layout.getX(node) || ys[node] != layout.getY(node))) {
+                    xs[node] = layout.getX(node);
+                    ys[node] = layout.getY(node);
+
+                    markChanged(node);
+                }
+            }
+        } finally {
+            endBatch();
+        }
+
+        return true;
+    }
+
+    /**
+     * Add some flags (e.g. REGNANT) to a node
+     *
+     * @param node the node's number
+     * @param flags the flags to be added
+     */
+    public synchronized void addNodeFlags(int node, int flags) {
+        nodeFlags[node] |= flags;
+
+        fireNodeChanged(node);
+    }
+
+    /**
+     * Add an edge between two nodes
+     *
+     * @param source the source node's number
+     * @param target the target node's number
+     * @param kinshipDegree the relationship the edge stands for
+     *
+     * @return the added edge's number
+     */
+    public synchronized int addEdge(int source, int target, DynastyTree.KinshipDegree kinshipDegree) {
+        int edge = edgesCount;
+
+        if (edge == edgeSources.length) {
+            int capacity = edge * 2;
+
+            edgeSources = Arrays.copyOf(edgeSources, capacity);
+            edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+            edgeKinshipDegrees = Arrays.copyOf(edgeKinshipDegrees, capacity);
+            nextHalfEdges = Arrays.copyOf(nextHalfEdges, 2 * capacity);
+        }
+
+        edgeSources[edge] = source;
+        edgeTargets[edge] = target;
+        edgeKinshipDegrees[edge] = (byte) kinshipDegree.ordinal();
+
+        nextHalfEdges[2 * edge] = firstHalfEdges[source];
+        firstHalfEdges[source] = 2 * edge;
+
+        nextHalfEdges[2 * edge + 1] = firstHalfEdges[target];
+        firstHalfEdges[target] = 2 * edge + 1;
+
+        edgesCount++;
+        structureVersion++;
+
+        addConnectedPair(pairKey(source, target));
+
+        if (openBatches == 0) {
+            for (Listener listener : listeners) {
+                listener.edgeAdded(this, edge);
+            }
+        }
+
+        return edge;
+    }
+
+    /**
+     * Add a batch of nodes and edges to the graph in one go, notifying the
+     * listeners just once at the end: nodes of people who already have one
+     * and edges between already connected nodes are skipped
+     *
+     * @param batch the nodes and edges to be added
+     */
+    public synchronized void addAll(Batch batch) {
+        startBatch();
+
+        try {
+            for (int i = 0; i < batch.nodesCount; i++) {
+                int node = getNode(batch.personIds[i]);
+
+                if (node == NO_NODE) {
+                    node = addNode(batch.personIds[i], batch.labels[i]);
+                }
+
+                xs[node] = batch.xs[i];
+                ys[node] = batch.ys[i];
+                nodeFlags[node] |= batch.nodeFlags[i];
+
+                markChanged(node);
+            }
+
+            for (int i = 0; i < batch.edgesCount; i++) {
+                int source = getNode(batch.edgeSourcePersonIds[i]);
+                int target = getNode(batch.edgeTargetPersonIds[i]);
+
+                if (source == NO_NODE || target == NO_NODE) {
+                    throw new IllegalArgumentException("The edge's people " + batch.edgeSourcePersonIds[i] +
+                            " and " + batch.edgeTargetPersonIds[i] + " must have a node");
+                }
+
+                if (!areConnected(source, target)) {
+                    addEdge(source, target, batch.edgeKinshipDegrees[i]);
+                }
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Start a batch of changes: until it's ended, changes are applied to the
+     * graph straight away, but the listeners are only notified of them when
+     * the batch is flushed. Batches may be nested, in which case changes are
+     * notified when the outermost one ends.
+     */
+    public synchronized void startBatch() {
+        if (openBatches++ == 0) {
+            firstPendingNode = nodesCount;
+            firstPendingEdge = edgesCount;
+        }
+    }
+
+    /**
+     * Notify the listeners of the changes made so far in the current batch,
+     * without ending it (e.g. before waiting for something, so that views
+     * show what has been built until then)
+     */
+    public synchronized void flushBatch() {
+        if (openBatches == 0) {
+            return;
+        }
+
+        /* Removed nodes go first, since their people may have been given new nodes */
+
+        for (int node = removedNodes.nextSetBit(0); node >= 0; node = removedNodes.nextSetBit(node + 1)) {
+            for (Listener listener : listeners) {
+                listener.nodeRemoved(this, node);
+            }
+        }
+
+        for (int node = changedNodes.nextSetBit(0); node >= 0; node = changedNodes.nextSetBit(node + 1)) {
+            if (!isRemoved(node)) {
+                for (Listener listener : listeners) {
+                    listener.nodeChanged(this, node);
+                }
+            }
+        }
+
+        for (int node = firstPendingNode; node < nodesCount; node++) {
+            if (!isRemoved(node)) {
+                for (Listener listener : listeners) {
+                    listener.nodeAdded(this, node);
+                }
+            }
+        }
+
+        for (int edge = firstPendingEdge; edge < edgesCount; edge++) {
+            if (!isEdgeRemoved(edge)) {
+                for (Listener listener : listeners) {
+                    listener.edgeAdded(this, edge);
+                }
+            }
+        }
+
+        removedNodes.clear();
+        changedNodes.clear();
+
+        firstPendingNode = nodesCount;
+        firstPendingEdge = edgesCount;
+    }
+
+    /**
+     * End the current batch of changes, notifying the listeners of
+     * its changes if it's the outermost one
+     *
+     * @throws IllegalStateException if no batch has been started
+     */
+    public synchronized void endBatch() {
+        if (openBatches == 0) {
+            throw new IllegalStateException("No batch has been started");
+        }
+
+        if (openBatches == 1) {
+            flushBatch();
+        }
+
+        openBatches--;
+    }
+
+    /**
+     * @param firstNode the first node's number
+     * @param secondNode the second node's number
+     *
+     * @return true if there is an edge (in either direction) between the two nodes, false otherwise
+     */
+    public synchronized boolean areConnected(int firstNode, int secondNode) {
+        /*
+         * Pairs including a removed node are never removed from the set,
+         * but they can't match live nodes since removed nodes aren't reused
+         */
+
+        if (isRemoved(firstNode) || isRemoved(secondNode)) {
+            return false;
+        }
+
+        long pairKey = pairKey(firstNode, secondNode);
+
+        int mask = connectedPairs.length - 1;
+
+        for (int slot = hashSlot(pairKey, mask); connectedPairs[slot] != 0; slot = (slot + 1) & mask) {
+            if (connectedPairs[slot] == pairKey) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Add a listener to be notified of the graph's changes: it's first notified of
+     * the nodes and edges already in the graph, as if they had just been added
+     *
+     * @param listener the listener to be added
+     */
+    public synchronized void addListener(Listener listener) {
+        /*
+         * The other listeners are notified of the pending changes first,
+         * so that all of them get the following changes from the same state
+         */
+
+        flushBatch();
+
+        for (int node = 0; node < nodesCount; node++) {
+            if (!isRemoved(node)) {
+                listener.nodeAdded(this, node);
+            }
+        }
+
+        for (int edge = 0; edge < edgesCount; edge++) {
+            if (!isEdgeRemoved(edge)) {
+                listener.edgeAdded(this, edge);
+            }
+        }
+
+        listeners.add(listener);
+    }
+
+    private void fireNodeChanged(int node) {
+        if (openBatches > 0) {
+            markChanged(node);
+
+            return;
+        }
+
+        for (Listener listener : listeners) {
+            listener.nodeChanged(this, node);
+        }
+    }
+
+    /**
+     * Remember that a node has been changed in the current batch (nodes
+     * added in the batch are notified with their final state anyway)
+     */
+    private void markChanged(int node) {
+        if (node < firstPendingNode) {
+            changedNodes.set(node);
+        }
+    }
+
+    private void addConnectedPair(long pairKey) {
+        if (2 * (connectedPairsCount + 1) > connectedPairs.length) {
+            long[] oldConnectedPairs = connectedPairs;
+
+            connectedPairs = new long[2 * oldConnectedPairs.length];
+
+            for (long oldPairKey : oldConnectedPairs) {
+                if (oldPairKey != 0) {
+                    insertConnectedPair(oldPairKey);
+                }
+            }
+        }
+
+        if (insertConnectedPair(pairKey)) {
+            connectedPairsCount++;
+        }
+    }
+
+    /**
+     * @return true if the pair has been inserted, false if it was already in the set
+     */
+    private boolean insertConnectedPair(long pairKey) {
+        int mask = connectedPairs.length - 1;
+        int slot = hashSlot(pairKey, mask);
+
+        while (connectedPairs[slot] != 0) {
+            if (connectedPairs[slot] == pairKey) {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        connectedPairs[slot] = pairKey;
+
+        return true;
+    }
+
+    private static long pairKey(int firstNode, int secondNode) {
+        int smallerNode = Math.min(firstNode, secondNode);
+        int largerNode = Math.max(firstNode, secondNode);
+
+        return (((long) smallerNode << 32) | largerNode) + 1;
+    }
+
+    private static int hashSlot(long pairKey, int mask) {
+        long hash = pairKey * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash >>> 32) & mask;
+    }
+
+    /*
+     * GETTERS
+     */
+
+    /**
+     * @return the graph's structure version, which changes whenever nodes or edges are added or removed
+     */
+    public synchronized int getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * @return how many nodes have been added to the graph (including the removed ones)
+     */
+    public synchronized int getNodesCount() {
+        return nodesCount;
+    }
+
+    /**
+     * @param node a node's number
+     *
+     * @return true if the node has been removed, false otherwise
+     */
+    public synchronized boolean isRemoved(int node) {
+        return (nodeFlags[node] & REMOVED) != 0;
+    }
+
+    /**
+     * @param node a node's number
+     *
+     * @return the ID (see PersonTable) of the node's person
+     */
+    public synchronized int getPersonId(int node) {
+        return personIds[node];
+    }
+
+    /**
+     * @param node a node's number
+     *
+     * @return the Wikipedia page URL of the node's person
+     */
+    public synchronized String getPersonUrl(int node) {
+        return personTable.getUrl(personIds[node]);
+    }
+
+    /**
+     * @param node a node's number
+     *
+     * @return the node's label text
+     */
+    public synchronized String getLabel(int node) {
+        return labels[node];
+    }
+
+    /**
+     * @param node a node's number
+     *
+     * @return the node's x coordinate
+     */
+    public synchronized int getX(int node) {
+        return xs[node];
+    }
+
+    /**
+     * @param node a node's number
+     *
+     * @return the node's y coordinate
+     */
+    public synchronized int getY(int node) {
+        return ys[node];
+    }
+
+    /**
+     * @param node a node's number
+     * @param flags some node flags (e.g. REGNANT)
+     *
+     * @return true if the node has all the given flags, false otherwise
+     */
+    public synchronized boolean hasNodeFlags(int node, int flags) {
+        return (nodeFlags[node] & flags) == flags;
+    }
+
+    /**
+     * @return how many edges have been added to the graph (including the removed ones)
+     */
+    public synchronized int getEdgesCount() {
+        return edgesCount;
+    }
+
+    /**
+     * @param edge an edge's number
+     *
+     * @return true if the edge has been removed (with one of its nodes), false otherwise
+     */
+    public synchronized boolean isEdgeRemoved(int edge) {
+        return isRemoved(edgeSources[edge]) || isRemoved(edgeTargets[edge]);
+    }
+
+    /**
+     * @param edge an edge's number
+     *
+     * @return the number of the edge's source node
+     */
+    public synchronized int getEdgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    /**
+     * @param edge an edge's number
+     *
+     * @return the number of the edge's target node
+     */
+    public synchronized int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * @param edge an edge's number
+     *
+     * @return the relationship the edge stands for
+     */
+    public synchronized DynastyTree.KinshipDegree getEdgeKinshipDegree(int edge) {
+        return DynastyTree.KinshipDegree.values()[edgeKinshipDegrees[edge]];
+    }
+
+    /**
+     * Class used to collect nodes and edges to be added to a GenealogyGraph
+     * in one go (see addAll), with nodes and edges identified by their
+     * people's IDs (see PersonTable)
+     */
+    public static class Batch {
+        /* The table the people's IDs have been given by */
+    private final PersonTable personTable = PersonTable.getSharedTable();
+
+    private int nodesCount = 0;
+
+        private int[] personIds = new int[INITIAL_CAPACITY];
+        private String[] labels = new String[INITIAL_CAPACITY];
+        private int[] xs = new int[INITIAL_CAPACITY];
+        private int[] ys = new int[INITIAL_CAPACITY];
+        private int[] nodeFlags = new int[INITIAL_CAPACITY];
+
+        private int edgesCount = 0;
+
+        private int[] edgeSourcePersonIds = new int[INITIAL_CAPACITY];
+        private int[] edgeTargetPersonIds = new int[INITIAL_CAPACITY];
+        private DynastyTree.KinshipDegree[] edgeKinshipDegrees = new DynastyTree.KinshipDegree[INITIAL_CAPACITY];
+
+        /**
+         * Add a node to the batch (if the person already has a node, its
+         * position is set and its flags are added to the existing ones)
+         *
+         * @param personId the node's person's ID
+         * @param label the node's label text
+         * @param x the node's x coordinate
+         * @param y the node's y coordinate
+         * @param flags the node's flags (e.g. REGNANT)
+         *
+         * @return this Batch, to chain more additions
+         */
+        public Batch addNode(int personId, String label, int x, int y, int flags) {
+            if (nodesCount == personIds.length) {
+                int capacity = nodesCount * 2;
+
+                personIds = Arrays.copyOf(personIds, capacity);
+                labels = Arrays.copyOf(labels, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                nodeFlags = Arrays.copyOf(nodeFlags, capacity);
+            }
+
+            personIds[nodesCount] = personId;
+            labels[nodesCount] = label;
+            xs[nodesCount] = x;
+            ys[nodesCount] = y;
+            nodeFlags[nodesCount] = flags;
+
+            nodesCount++;
+
+            return this;
+        }
+
+        /**
+         * Add an edge to the batch, its people must have a node in the
+         * graph or be added as nodes by the batch itself
+         *
+         * @param sourcePersonId the source node's person's ID
+         * @param targetPersonId the target node's person's ID
+         * @param kinshipDegree the relationship the edge stands for
+         *
+         * @return this Batch, to chain more additions
+         */
+        public Batch addEdge(int sourcePersonId, int targetPersonId, DynastyTree.KinshipDegree kinshipDegree) {
+            if (edgesCount == edgeSourcePersonIds.length) {
+                int capacity = edgesCount * 2;
+
+                edgeSourcePersonIds = Arrays.copyOf(edgeSourcePersonIds, capacity);
+                edgeTargetPersonIds = Arrays.copyOf(edgeTargetPersonIds, capacity);
+                edgeKinshipDegrees = Arrays.copyOf(edgeKinshipDegrees, capacity);
+            }
+
+            edgeSourcePersonIds[edgesCount] = sourcePersonId;
+            edgeTargetPersonIds[edgesCount] = targetPersonId;
+            edgeKinshipDegrees[edgesCount] = kinshipDegree;
+
+            edgesCount++;
+
+            return this;
+        }
+    }
+
+    /**
+     * Interface to be implemented to be notified of a GenealogyGraph's changes,
+     * on the thread changing the graph (and while holding its lock)
+     */
+    public interface Listener {
+        /**
+         * Called when a node is added
+         *
+         * @param genealogyGraph the changed graph
+         * @param node the added node's number
+         */
+        void nodeAdded(GenealogyGraph genealogyGraph, int node);
+
+        /**
+         * Called when a node's position or flags change
+         *
+         * @param genealogyGraph the changed graph
+         * @param node the changed node's number
+         */
+        void nodeChanged(GenealogyGraph genealogyGraph, int node);
+
+        /**
+         * Called when a node (and therefore its edges) is removed
+         *
+         * @param genealogyGraph the changed graph
+         * @param node the removed node's number
+         */
+        void nodeRemoved(GenealogyGraph genealogyGraph, int node);
+
+        /**
+         * Called when an edge is added
+         *
+         * @param genealogyGraph the changed graph
+         * @param edge the added edge's number
+         */
+        void edgeAdded(GenealogyGraph genealogyGraph, int edge);
+    }
+}
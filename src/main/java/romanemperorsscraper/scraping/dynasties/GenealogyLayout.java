@@ -0,0 +1,954 @@
+package romanemperorsscraper.scraping.dynasties;
+
+import java.util.Arrays;
+
+/**
+ * Class used to compute the positions of a genealogical tree's nodes with
+ * a layered (Sugiyama-style) layout, in which each layer is a generation:
+ * - Spouses are kept side by side, in a "family unit" laid out as a whole;
+ * - Parents are placed one layer above their children and predecessors
+ *   above their successors (the few relationships contradicting the others,
+ *   like cycles in wrong data, are just drawn across layers);
+ * - Edges spanning a few layers are routed through placeholder nodes, and
+ *   the units of each layer are ordered to reduce edge crossings (through
+ *   alternate barycenter sweeps, keeping the best ordering found);
+ * - Units are finally moved as close as possible to the units they're
+ *   connected to, without overlapping nor changing their order.
+ *
+ * Every step takes linear or log-linear time in the number of nodes
+ * and edges, so that trees of thousands of people are laid out in a few
+ * tens of milliseconds. Positions don't depend on the order in which
+ * people have been scraped, apart from ties.
+ *
+ * A layout is computed from the graph's state at a given structure version
+ * (see GenealogyGraph.getStructureVersion) and applied through
+ * GenealogyGraph.setPositions, which ignores it if the graph has changed.
+ *
+ * @see GenealogyGraph
+ * @see DynastyTree
+ *
+ * @author Matteo Collica
+ */
+public final class GenealogyLayout {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* Graph units between two people side by side and between two layers */
+    private static final int X_SPACING = 2;
+    private static final int Y_SPACING = 3;
+
+    /* Empty space between two units of the same layer, in people's widths */
+    private static final double UNITS_GAP = 1;
+
+    /*
+     * Edges spanning more layers than this aren't routed through placeholders (they'd
+     * take as many of them, while they're just drawn as straight lines anyway)
+     */
+    private static final int MAX_ROUTED_SPAN = 8;
+
+    private static final int ORDERING_SWEEPS = 12;
+    private static final int POSITIONING_PASSES = 4;
+
+    /* Placeholder nodes weigh more when positioning, so that long edges are kept straight */
+    private static final double PLACEHOLDER_WEIGHT = 2;
+
+    /*
+     * ATTRIBUTES
+     */
+
+    private final int structureVersion;
+
+    private final int[] xs;
+    private final int[] ys;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    private GenealogyLayout(int structureVersion, int[] xs, int[] ys) {
+        this.structureVersion = structureVersion;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Compute the layout of a genealogical tree graph (reading its
+     * current state while holding its lock, then releasing it)
+     *
+     * @param genealogyGraph the graph to be laid out
+     *
+     * @return the computed layout
+     */
+    public static GenealogyLayout compute(GenealogyGraph genealogyGraph) {
+        int structureVersion;
+        int nodesCount;
+
+        boolean[] removedNodes;
+
+        int[] edgeSources;
+        int[] edgeTargets;
+        DynastyTree.KinshipDegree[] edgeKinshipDegrees;
+
+        synchronized (genealogyGraph) {
+            structureVersion = genealogyGraph.getStructureVersion();
+            nodesCount = genealogyGraph.getNodesCount();
+
+            removedNodes = new boolean[nodesCount];
+
+            for (int node = 0; node < nodesCount; node++) {
+                removedNodes[node] = genealogyGraph.isRemoved(node);
+            }
+
+            int edgesCount = genealogyGraph.getEdgesCount();
+
+            edgeSources = new int[edgesCount];
+            edgeTargets = new int[edgesCount];
+            edgeKinshipDegrees = new DynastyTree.KinshipDegree[edgesCount];
+
+            for (int edge = 0; edge < edgesCount; edge++) {
+                edgeSources[edge] = genealogyGraph.getEdgeSource(edge);
+                edgeTargets[edge] = genealogyGraph.getEdgeTarget(edge);
+                edgeKinshipDegrees[edge] = genealogyGraph.getEdgeKinshipDegree(edge);
+            }
+        }
+
+        LayoutBuilder layoutBuilder = new LayoutBuilder(nodesCount, removedNodes, edgeSources, edgeTargets, edgeKinshipDegrees);
+
+        layoutBuilder.groupSpouses();
+        layoutBuilder.assignLayers();
+        layoutBuilder.addPlaceholders();
+        layoutBuilder.orderLayers();
+        layoutBuilder.assignPositions();
+
+        int[] xs = new int[nodesCount];
+        int[] ys = new int[nodesCount];
+
+        layoutBuilder.writeCoordinates(xs, ys);
+
+        return new GenealogyLayout(structureVersion, xs, ys);
+    }
+
+    /*
+     * GETTERS
+     */
+
+    /**
+     * @return the structure version of the graph this layout has been computed for
+     */
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * @return the number of nodes this layout has positions for
+     */
+    public int getNodesCount() {
+        return xs.length;
+    }
+
+    /**
+     * @param node a node's number
+     *
+     * @return the node's x coordinate
+     */
+    public int getX(int node) {
+        return xs[node];
+    }
+
+    /**
+     * @param node a node's number
+     *
+     * @return the node's y coordinate
+     */
+    public int getY(int node) {
+        return ys[node];
+    }
+
+    /**
+     * Class holding the intermediate state of a layout computation, in which
+     * "vertices" are the family units (0 to unitsCount - 1) followed by the
+     * placeholder nodes of the edges spanning more layers
+     */
+    private static class LayoutBuilder {
+        private final int nodesCount;
+        private final boolean[] removedNodes;
+
+        private final int[] edgeSources;
+        private final int[] edgeTargets;
+        private final DynastyTree.KinshipDegree[] edgeKinshipDegrees;
+
+        /* unitOfNode[node] is the family unit of a node, -1 if it has been removed */
+        private int[] unitOfNode;
+
+        private int unitsCount;
+
+        /* The people of each unit, unitMembers[unitMembersStart[unit]] to unitMembers[unitMembersStart[unit + 1] - 1] */
+        private int[] unitMembersStart;
+        private int[] unitMembers;
+
+        private int[] vertexLayers;
+        private double[] vertexWidths;
+
+        private int verticesCount;
+        private int layersCount;
+
+        /* Neighbours of each vertex in the layer above and in the one below */
+        private int[][] upperNeighbours;
+        private int[][] lowerNeighbours;
+
+        /* The vertices of each layer, in order, and each vertex's index in its layer */
+        private int[][] layers;
+        private int[] vertexIndexes;
+
+        /* The center of each vertex, in people's widths */
+        private double[] vertexCenters;
+
+        private LayoutBuilder(int nodesCount, boolean[] removedNodes, int[] edgeSources, int[] edgeTargets,
+                              DynastyTree.KinshipDegree[] edgeKinshipDegrees) {
+            this.nodesCount = nodesCount;
+            this.removedNodes = removedNodes;
+            this.edgeSources = edgeSources;
+            this.edgeTargets = edgeTargets;
+            this.edgeKinshipDegrees = edgeKinshipDegrees;
+        }
+
+        private boolean isEdgeRemoved(int edge) {
+            return removedNodes[edgeSources[edge]] || removedNodes[edgeTargets[edge]];
+        }
+
+        /**
+         * Group spouses (and their spouses [...]) into family units, through a union-find
+         */
+        private void groupSpouses() {
+            int[] parents = new int[nodesCount];
+
+            for (int node = 0; node < nodesCount; node++) {
+                parents[node] = node;
+            }
+
+            for (int edge = 0; edge < edgeSources.length; edge++) {
+                if (edgeKinshipDegrees[edge] == DynastyTree.KinshipDegree.SPOUSE && !isEdgeRemoved(edge)) {
+                    int firstRoot = findRoot(parents, edgeSources[edge]);
+                    int secondRoot = findRoot(parents, edgeTargets[edge]);
+
+                    /* The smaller node (usually the one scraped first) is the unit's root */
+
+                    parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+                }
+            }
+
+            unitOfNode = new int[nodesCount];
+
+            int[] unitOfRoot = new int[nodesCount];
+
+            Arrays.fill(unitOfRoot, -1);
+
+            int[] membersCounts = new int[nodesCount + 1];
+
+            for (int node = 0; node < nodesCount; node++) {
+                if (removedNodes[node]) {
+                    unitOfNode[node] = -1;
+
+                    continue;
+                }
+
+                int root = findRoot(parents, node);
+
+                if (unitOfRoot[root] == -1) {
+                    unitOfRoot[root] = unitsCount++;
+                }
+
+                unitOfNode[node] = unitOfRoot[root];
+                membersCounts[unitOfNode[node]]++;
+            }
+
+            unitMembersStart = new int[unitsCount + 1];
+
+            for (int unit = 0; unit < unitsCount; unit++) {
+                unitMembersStart[unit + 1] = unitMembersStart[unit] + membersCounts[unit];
+            }
+
+            unitMembers = new int[unitMembersStart[unitsCount]];
+
+            int[] nextMemberIndexes = Arrays.copyOf(unitMembersStart, unitsCount);
+
+            for (int node = 0; node < nodesCount; node++) {
+                if (unitOfNode[node] != -1) {
+                    unitMembers[nextMemberIndexes[unitOfNode[node]]++] = node;
+                }
+            }
+        }
+
+        private static int findRoot(int[] parents, int node) {
+            while (parents[node] != node) {
+                parents[node] = parents[parents[node]];
+                node = parents[node];
+            }
+
+            return node;
+        }
+
+        /**
+         * Assign a layer (a generation) to each unit: the units' arcs (from parents
+         * to children and from predecessors to successors) are made acyclic by
+         * ignoring the arcs closing a cycle, then units are placed one layer below
+         * the lowest of their upper units, and units without upper units are moved
+         * right above the highest of their lower units (e.g. a spouse's parents)
+         */
+        private void assignLayers() {
+            long[] arcs = getUnitArcs();
+
+            int[] outArcsStart = new int[unitsCount + 1];
+
+            for (long arc : arcs) {
+                outArcsStart[(int) (arc >>> 32) + 1]++;
+            }
+
+            for (int unit = 0; unit < unitsCount; unit++) {
+                outArcsStart[unit + 1] += outArcsStart[unit];
+            }
+
+            /* Arcs are sorted by upper unit, so each unit's arcs are already contiguous */
+
+            int[] arcLowerUnits = new int[arcs.length];
+
+            for (int arc = 0; arc < arcs.length; arc++) {
+                arcLowerUnits[arc] = (int) arcs[arc];
+            }
+
+            boolean[] ignoredArcs = findCycleClosingArcs(outArcsStart, arcLowerUnits);
+
+            /* Longest path layering, visiting units in topological order */
+
+            int[] inDegrees = new int[unitsCount];
+
+            for (int arc = 0; arc < arcs.length; arc++) {
+                if (!ignoredArcs[arc]) {
+                    inDegrees[arcLowerUnits[arc]]++;
+                }
+            }
+
+            int[] topologicalOrder = new int[unitsCount];
+            int orderedCount = 0;
+
+            for (int unit = 0; unit < unitsCount; unit++) {
+                if (inDegrees[unit] == 0) {
+                    topologicalOrder[orderedCount++] = unit;
+                }
+            }
+
+            int[] unitLayers = new int[unitsCount];
+            int[] remainingInDegrees = inDegrees.clone();
+
+            for (int i = 0; i < orderedCount; i++) {
+                int unit = topologicalOrder[i];
+
+                for (int arc = outArcsStart[unit]; arc < outArcsStart[unit + 1]; arc++) {
+                    if (ignoredArcs[arc]) {
+                        continue;
+                    }
+
+                    int lowerUnit = arcLowerUnits[arc];
+
+                    unitLayers[lowerUnit] = Math.max(unitLayers[lowerUnit], unitLayers[unit] + 1);
+
+                    if (--remainingInDegrees[lowerUnit] == 0) {
+                        topologicalOrder[orderedCount++] = lowerUnit;
+                    }
+                }
+            }
+
+            for (int i = unitsCount - 1; i >= 0; i--) {
+                int unit = topologicalOrder[i];
+
+                if (inDegrees[unit] != 0) {
+                    continue;
+                }
+
+                int highestLowerLayer = Integer.MAX_VALUE;
+
+                for (int arc = outArcsStart[unit]; arc < outArcsStart[unit + 1]; arc++) {
+                    if (!ignoredArcs[arc]) {
+                        highestLowerLayer = Math.min(highestLowerLayer, unitLayers[arcLowerUnits[arc]]);
+                    }
+                }
+
+                if (highestLowerLayer != Integer.MAX_VALUE) {
+                    unitLayers[unit] = highestLowerLayer - 1;
+                }
+            }
+
+            vertexLayers = unitLayers;
+
+            for (int unitLayer : unitLayers) {
+                layersCount = Math.max(layersCount, unitLayer + 1);
+            }
+        }
+
+        /**
+         * @return the distinct arcs between different units, each packed as
+         * (upper unit << 32 | lower unit) and sorted
+         */
+        private long[] getUnitArcs() {
+            long[] arcs = new long[edgeSources.length];
+            int arcsCount = 0;
+
+            for (int edge = 0; edge < edgeSources.length; edge++) {
+                if (isEdgeRemoved(edge)) {
+                    continue;
+                }
+
+                int upperNode;
+                int lowerNode;
+
+                switch (edgeKinshipDegrees[edge]) {
+                    case MOTHER:
+                    case FATHER:
+                    case ADOPTIVEFATHER:
+                        /* These edges go from the child to the parent */
+                        upperNode = edgeTargets[edge];
+                        lowerNode = edgeSources[edge];
+
+                        break;
+
+                    case CHILDREN:
+                    case ADOPTEDCHILDREN:
+                    case SUCCESSOR:
+                        upperNode = edgeSources[edge];
+                        lowerNode = edgeTargets[edge];
+
+                        break;
+
+                    default:
+                        continue;
+                }
+
+                int upperUnit = unitOfNode[upperNode];
+                int lowerUnit = unitOfNode[lowerNode];
+
+                if (upperUnit != lowerUnit) {
+                    arcs[arcsCount++] = ((long) upperUnit << 32) | lowerUnit;
+                }
+            }
+
+            return sortedDistinct(arcs, arcsCount);
+        }
+
+        private static long[] sortedDistinct(long[] values, int valuesCount) {
+            Arrays.sort(values, 0, valuesCount);
+
+            int distinctCount = 0;
+
+            for (int i = 0; i < valuesCount; i++) {
+                if (distinctCount == 0 || values[distinctCount - 1] != values[i]) {
+                    values[distinctCount++] = values[i];
+                }
+            }
+
+            return Arrays.copyOf(values, distinctCount);
+        }
+
+        /**
+         * Find the arcs closing a cycle through an iterative depth first search
+         * (an arc leading to a unit still being visited closes a cycle)
+         */
+        private boolean[] findCycleClosingArcs(int[] outArcsStart, int[] arcLowerUnits) {
+            boolean[] ignoredArcs = new boolean[arcLowerUnits.length];
+
+            /* 0: not visited, 1: being visited, 2: visited */
+            byte[] states = new byte[unitsCount];
+
+            int[] stack = new int[unitsCount];
+            int[] nextArcs = new int[unitsCount];
+
+            for (int startUnit = 0; startUnit < unitsCount; startUnit++) {
+                if (states[startUnit] != 0) {
+                    continue;
+                }
+
+                int stackSize = 0;
+
+                stack[stackSize++] = startUnit;
+                nextArcs[startUnit] = outArcsStart[startUnit];
+                states[startUnit] = 1;
+
+                while (stackSize > 0) {
+                    int unit = stack[stackSize - 1];
+
+                    if (nextArcs[unit] == outArcsStart[unit + 1]) {
+                        states[unit] = 2;
+                        stackSize--;
+
+                        continue;
+                    }
+
+                    int arc = nextArcs[unit]++;
+                    int lowerUnit = arcLowerUnits[arc];
+
+                    if (states[lowerUnit] == 1) {
+                        ignoredArcs[arc] = true;
+                    } else if (states[lowerUnit] == 0) {
+                        states[lowerUnit] = 1;
+                        nextArcs[lowerUnit] = outArcsStart[lowerUnit];
+                        stack[stackSize++] = lowerUnit;
+                    }
+                }
+            }
+
+            return ignoredArcs;
+        }
+
+        /**
+         * Turn every arc spanning more layers (in either direction, since the arcs
+         * ignored while layering may go upwards) into a chain of segments between
+         * adjacent layers, through placeholder vertices (up to MAX_ROUTED_SPAN layers)
+         */
+        private void addPlaceholders() {
+            long[] arcs = getUnitArcs();
+
+            long[] segments = new long[arcs.length];
+            int segmentsCount = 0;
+
+            int[] layersOfVertices = Arrays.copyOf(vertexLayers, unitsCount + 16);
+            verticesCount = unitsCount;
+
+            for (long arc : arcs) {
+                int upperVertex = (int) (arc >>> 32);
+                int lowerVertex = (int) arc;
+
+                int span = Math.abs(layersOfVertices[upperVertex] - layersOfVertices[lowerVertex]);
+
+                if (span == 0 || span > MAX_ROUTED_SPAN) {
+                    continue;
+                }
+
+                if (layersOfVertices[upperVertex] > layersOfVertices[lowerVertex]) {
+                    int swappedVertex = upperVertex;
+
+                    upperVertex = lowerVertex;
+                    lowerVertex = swappedVertex;
+                }
+
+                int previousVertex = upperVertex;
+
+                for (int layer = layersOfVertices[upperVertex] + 1; layer <= layersOfVertices[lowerVertex]; layer++) {
+                    int vertex;
+
+                    if (layer == layersOfVertices[lowerVertex]) {
+                        vertex = lowerVertex;
+                    } else {
+                        if (verticesCount == layersOfVertices.length) {
+                            layersOfVertices = Arrays.copyOf(layersOfVertices, verticesCount * 2);
+                        }
+
+                        vertex = verticesCount++;
+                        layersOfVertices[vertex] = layer;
+                    }
+
+                    if (segmentsCount == segments.length) {
+                        segments = Arrays.copyOf(segments, segmentsCount * 2 + 1);
+                    }
+
+                    segments[segmentsCount++] = ((long) previousVertex << 32) | vertex;
+
+                    previousVertex = vertex;
+                }
+            }
+
+            vertexLayers = Arrays.copyOf(layersOfVertices, verticesCount);
+
+            vertexWidths = new double[verticesCount];
+
+            for (int unit = 0; unit < unitsCount; unit++) {
+                vertexWidths[unit] = unitMembersStart[unit + 1] - unitMembersStart[unit];
+            }
+
+            segments = sortedDistinct(segments, segmentsCount);
+
+            /* Build the neighbours' lists from the segments */
+
+            int[] upperCounts = new int[verticesCount];
+            int[] lowerCounts = new int[verticesCount];
+
+            for (long segment : segments) {
+                lowerCounts[(int) (segment >>> 32)]++;
+                upperCounts[(int) segment]++;
+            }
+
+            upperNeighbours = new int[verticesCount][];
+            lowerNeighbours = new int[verticesCount][];
+
+            for (int vertex = 0; vertex < verticesCount; vertex++) {
+                upperNeighbours[vertex] = new int[upperCounts[vertex]];
+                lowerNeighbours[vertex] = new int[lowerCounts[vertex]];
+
+                upperCounts[vertex] = 0;
+                lowerCounts[vertex] = 0;
+            }
+
+            for (long segment : segments) {
+                int upperVertex = (int) (segment >>> 32);
+                int lowerVertex = (int) segment;
+
+                lowerNeighbours[upperVertex][lowerCounts[upperVertex]++] = lowerVertex;
+                upperNeighbours[lowerVertex][upperCounts[lowerVertex]++] = upperVertex;
+            }
+        }
+
+        /**
+         * Order the vertices of each layer: they're first ordered by a breadth first
+         * visit from the first unit (the dynasty founder's one), then sorted by the
+         * barycenter of their neighbours in the previous layer, sweeping downwards
+         * and upwards alternately, keeping the ordering with the fewest crossings
+         */
+        private void orderLayers() {
+            int[] layerSizes = new int[layersCount];
+
+            for (int vertex = 0; vertex < verticesCount; vertex++) {
+                layerSizes[vertexLayers[vertex]]++;
+            }
+
+            layers = new int[layersCount][];
+
+            for (int layer = 0; layer < layersCount; layer++) {
+                layers[layer] = new int[layerSizes[layer]];
+                layerSizes[layer] = 0;
+            }
+
+            boolean[] visitedVertices = new boolean[verticesCount];
+            int[] queue = new int[verticesCount];
+
+            for (int startVertex = 0; startVertex < verticesCount; startVertex++) {
+                if (visitedVertices[startVertex]) {
+                    continue;
+                }
+
+                int queueStart = 0;
+                int queueEnd = 0;
+
+                queue[queueEnd++] = startVertex;
+                visitedVertices[startVertex] = true;
+
+                while (queueStart < queueEnd) {
+                    int vertex = queue[queueStart++];
+                    int layer = vertexLayers[vertex];
+
+                    layers[layer][layerSizes[layer]++] = vertex;
+
+                    for (int[] neighbours : new int[][] { upperNeighbours[vertex], lowerNeighbours[vertex] }) {
+                        for (int neighbour : neighbours) {
+                            if (!visitedVertices[neighbour]) {
+                                visitedVertices[neighbour] = true;
+                                queue[queueEnd++] = neighbour;
+                            }
+                        }
+                    }
+                }
+            }
+
+            vertexIndexes = new int[verticesCount];
+
+            updateVertexIndexes();
+
+            long bestCrossings = countCrossings();
+            int[][] bestLayers = copyLayers();
+
+            for (int sweep = 0; sweep < ORDERING_SWEEPS && bestCrossings > 0; sweep++) {
+                if (sweep % 2 == 0) {
+                    for (int layer = 1; layer < layersCount; layer++) {
+                        sortByBarycenter(layers[layer], upperNeighbours);
+                    }
+                } else {
+                    for (int layer = layersCount - 2; layer >= 0; layer--) {
+                        sortByBarycenter(layers[layer], lowerNeighbours);
+                    }
+                }
+
+                long crossings = countCrossings();
+
+                if (crossings < bestCrossings) {
+                    bestCrossings = crossings;
+                    bestLayers = copyLayers();
+                }
+            }
+
+            layers = bestLayers;
+
+            updateVertexIndexes();
+        }
+
+        private void updateVertexIndexes() {
+            for (int[] layer : layers) {
+                for (int index = 0; index < layer.length; index++) {
+                    vertexIndexes[layer[index]] = index;
+                }
+            }
+        }
+
+        private int[][] copyLayers() {
+            int[][] layersCopy = new int[layersCount][];
+
+            for (int layer = 0; layer < layersCount; layer++) {
+                layersCopy[layer] = layers[layer].clone();
+            }
+
+            return layersCopy;
+        }
+
+        /**
+         * Sort a layer's vertices by the barycenter of their neighbours' indexes
+         * (vertices without neighbours keep their own index as barycenter)
+         */
+        private void sortByBarycenter(int[] layer, int[][] neighbours) {
+            long[] sortKeys = new long[layer.length];
+
+            for (int index = 0; index < layer.length; index++) {
+                int vertex = layer[index];
+
+                double barycenter = index;
+
+                if (neighbours[vertex].length > 0) {
+                    double indexesSum = 0;
+
+                    for (int neighbour : neighbours[vertex]) {
+                        indexesSum += vertexIndexes[neighbour];
+                    }
+
+                    barycenter = indexesSum / neighbours[vertex].length;
+                }
+
+                /*
+                 * Barycenters are non negative, so their bits sort like their values:
+                 * the lowest 21 bits are replaced with the vertex's index in the
+                 * layer, so that ties keep the current order
+                 */
+
+                sortKeys[index] = (Double.doubleToLongBits(barycenter) & ~0x1FFFFFL) | index;
+            }
+
+            Arrays.sort(sortKeys);
+
+            int[] sortedLayer = new int[layer.length];
+
+            for (int index = 0; index < layer.length; index++) {
+                sortedLayer[index] = layer[(int) (sortKeys[index] & 0x1FFFFF)];
+            }
+
+            System.arraycopy(sortedLayer, 0, layer, 0, layer.length);
+
+            for (int index = 0; index < layer.length; index++) {
+                vertexIndexes[layer[index]] = index;
+            }
+        }
+
+        /**
+         * Count the crossings between the segments of each pair of adjacent
+         * layers, as inversions of the lower indexes once the segments are
+         * sorted by upper index (counted through a Fenwick tree)
+         */
+        private long countCrossings() {
+            long crossings = 0;
+
+            for (int layer = 0; layer + 1 < layersCount; layer++) {
+                int segmentsCount = 0;
+
+                for (int vertex : layers[layer]) {
+                    segmentsCount += lowerNeighbours[vertex].length;
+                }
+
+                long[] segments = new long[segmentsCount];
+                segmentsCount = 0;
+
+                for (int vertex : layers[layer]) {
+                    for (int lowerNeighbour : lowerNeighbours[vertex]) {
+                        segments[segmentsCount++] = ((long) vertexIndexes[vertex] << 32) | vertexIndexes[lowerNeighbour];
+                    }
+                }
+
+                Arrays.sort(segments);
+
+                int lowerLayerSize = layers[layer + 1].length;
+                int[] fenwickTree = new int[lowerLayerSize + 1];
+
+                for (int i = 0; i < segmentsCount; i++) {
+                    int lowerIndex = (int) segments[i] + 1;
+
+                    /* Segments already counted ending to the right of this one cross it */
+
+                    int endingBefore = 0;
+
+                    for (int j = lowerIndex; j > 0; j -= j & -j) {
+                        endingBefore += fenwickTree[j];
+                    }
+
+                    crossings += i - endingBefore;
+
+                    for (int j = lowerIndex; j <= lowerLayerSize; j += j & -j) {
+                        fenwickTree[j]++;
+                    }
+                }
+            }
+
+            return crossings;
+        }
+
+        /**
+         * Assign each vertex a horizontal center: vertices are packed side by side,
+         * then each layer is repeatedly moved towards the centers of its neighbours
+         * in the adjacent layers (the closest placement keeping the layer's order
+         * and the vertices' minimum distances is found by isotonic regression)
+         */
+        private void assignPositions() {
+            vertexCenters = new double[verticesCount];
+
+            for (int[] layer : layers) {
+                double left = 0;
+
+                for (int vertex : layer) {
+                    vertexCenters[vertex] = left + vertexWidths[vertex] / 2;
+                    left += vertexWidths[vertex] + UNITS_GAP;
+                }
+            }
+
+            for (int pass = 0; pass < POSITIONING_PASSES; pass++) {
+                for (int layer = 1; layer < layersCount; layer++) {
+                    moveTowardsNeighbours(layers[layer], upperNeighbours, null);
+                }
+
+                for (int layer = layersCount - 2; layer >= 0; layer--) {
+                    moveTowardsNeighbours(layers[layer], lowerNeighbours, null);
+                }
+            }
+
+            for (int layer = 0; layer < layersCount; layer++) {
+                moveTowardsNeighbours(layers[layer], upperNeighbours, lowerNeighbours);
+            }
+        }
+
+        private void moveTowardsNeighbours(int[] layer, int[][] neighbours, int[][] otherNeighbours) {
+            int layerSize = layer.length;
+
+            if (layerSize == 0) {
+                return;
+            }
+
+            double[] targets = new double[layerSize];
+            double[] weights = new double[layerSize];
+            double[] offsets = new double[layerSize];
+
+            for (int index = 0; index < layerSize; index++) {
+                int vertex = layer[index];
+
+                double centersSum = 0;
+                int neighboursCount = 0;
+
+                for (int neighbour : neighbours[vertex]) {
+                    centersSum += vertexCenters[neighbour];
+                    neighboursCount++;
+                }
+
+                if (otherNeighbours != null) {
+                    for (int neighbour : otherNeighbours[vertex]) {
+                        centersSum += vertexCenters[neighbour];
+                        neighboursCount++;
+                    }
+                }
+
+                double target = neighboursCount > 0 ? centersSum / neighboursCount : vertexCenters[vertex];
+
+                /*
+                 * With offsets[i] the minimum distance between the first vertex and the
+                 * i-th one, keeping the vertices apart means keeping (center - offset)
+                 * non decreasing
+                 */
+
+                if (index > 0) {
+                    int previousVertex = layer[index - 1];
+
+                    offsets[index] = offsets[index - 1] + (vertexWidths[previousVertex] + vertexWidths[vertex]) / 2 + UNITS_GAP;
+                }
+
+                targets[index] = target - offsets[index];
+                weights[index] = vertex < unitsCount ? 1 : PLACEHOLDER_WEIGHT;
+            }
+
+            double[] fittedTargets = fitNonDecreasing(targets, weights);
+
+            for (int index = 0; index < layerSize; index++) {
+                vertexCenters[layer[index]] = fittedTargets[index] + offsets[index];
+            }
+        }
+
+        /**
+         * Weighted isotonic regression through the pool adjacent violators algorithm:
+         * return the non decreasing sequence closest (in weighted least squares) to the given one
+         */
+        private static double[] fitNonDecreasing(double[] values, double[] weights) {
+            int valuesCount = values.length;
+
+            double[] blockMeans = new double[valuesCount];
+            double[] blockWeights = new double[valuesCount];
+            int[] blockSizes = new int[valuesCount];
+
+            int blocksCount = 0;
+
+            for (int i = 0; i < valuesCount; i++) {
+                blockMeans[blocksCount] = values[i];
+                blockWeights[blocksCount] = weights[i];
+                blockSizes[blocksCount] = 1;
+                blocksCount++;
+
+                while (blocksCount > 1 && blockMeans[blocksCount - 2] > blockMeans[blocksCount - 1]) {
+                    double mergedWeight = blockWeights[blocksCount - 2] + blockWeights[blocksCount - 1];
+
+                    blockMeans[blocksCount - 2] = (blockMeans[blocksCount - 2] * blockWeights[blocksCount - 2] +
+                            blockMeans[blocksCount - 1] * blockWeights[blocksCount - 1]) / mergedWeight;
+                    blockWeights[blocksCount - 2] = mergedWeight;
+                    blockSizes[blocksCount - 2] += blockSizes[blocksCount - 1];
+
+                    blocksCount--;
+                }
+            }
+
+            double[] fittedValues = new double[valuesCount];
+
+            for (int block = 0, i = 0; block < blocksCount; block++) {
+                for (int j = 0; j < blockSizes[block]; j++) {
+                    fittedValues[i++] = blockMeans[block];
+                }
+            }
+
+            return fittedValues;
+        }
+
+        /**
+         * Write the nodes' coordinates (in graph units, the leftmost node having x = 0
+         * and the first layer y = 0) placing the members of each unit side by side
+         */
+        private void writeCoordinates(int[] xs, int[] ys) {
+            double minimumLeft = Double.MAX_VALUE;
+
+            for (int unit = 0; unit < unitsCount; unit++) {
+                minimumLeft = Math.min(minimumLeft, vertexCenters[unit] - vertexWidths[unit] / 2);
+            }
+
+            for (int unit = 0; unit < unitsCount; unit++) {
+                double memberCenter = vertexCenters[unit] - vertexWidths[unit] / 2 + 0.5 - minimumLeft;
+
+                for (int i = unitMembersStart[unit]; i < unitMembersStart[unit + 1]; i++) {
+                    int node = unitMembers[i];
+
+                    xs[node] = (int) Math.round(memberCenter * X_SPACING);
+                    ys[node] = -vertexLayers[unit] * Y_SPACING;
+
+                    memberCenter += 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package romanemperorsscraper.scraping.dynasties;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+/**
+ * GenealogyGraph listener which copies a genealogical tree graph
+ * (and its following changes) into a GraphStream graph to be shown:
+ * nodes are identified by their person's Wikipedia page URL, edges
+ * by their nodes' ones ('source URL-target URL') and both are styled
+ * through 'ui.class' attributes.
+ *
+ * @see GenealogyGraph
+ * @see DynastyTree
+ *
+ * @author Matteo Collica
+ */
+class GraphStreamSink implements GenealogyGraph.Listener {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* The style class of the nodes of emperors and dictators */
+    static final String REGNANT_STYLE_CLASS = "regnant";
+
+    /*
+     * ATTRIBUTES
+     */
+
+    private final Graph graph;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a GraphStreamSink copying a GenealogyGraph into the given GraphStream graph
+     *
+     * @param graph the GraphStream graph to be filled
+     */
+    GraphStreamSink(Graph graph) {
+        this.graph = graph;
+    }
+
+    /*
+     * METHODS
+     */
+
+    @Override
+    public void nodeAdded(GenealogyGraph genealogyGraph, int node) {
+        GraphStreamUtils.addNodeToGraph(getNodeId(genealogyGraph, node), genealogyGraph.getLabel(node), graph);
+
+        if (genealogyGraph.getX(node) != 0 || genealogyGraph.getY(node) != 0 || genealogyGraph.hasNodeFlags(node, GenealogyGraph.REGNANT)) {
+            nodeChanged(genealogyGraph, node);
+        }
+    }
+
+    @Override
+    public void nodeChanged(GenealogyGraph genealogyGraph, int node) {
+        Node graphNode = graph.getNode(getNodeId(genealogyGraph, node));
+
+        graphNode.setAttribute("x", genealogyGraph.getX(node));
+        graphNode.setAttribute("y", genealogyGraph.getY(node));
+
+        if (genealogyGraph.hasNodeFlags(node, GenealogyGraph.REGNANT)) {
+            graphNode.setAttribute("ui.class", REGNANT_STYLE_CLASS);
+        }
+    }
+
+    @Override
+    public void nodeRemoved(GenealogyGraph genealogyGraph, int node) {
+        graph.removeNode(getNodeId(genealogyGraph, node));
+    }
+
+    @Override
+    public void edgeAdded(GenealogyGraph genealogyGraph, int edge) {
+        String sourceId = getNodeId(genealogyGraph, genealogyGraph.getEdgeSource(edge));
+        String targetId = getNodeId(genealogyGraph, genealogyGraph.getEdgeTarget(edge));
+
+        Edge graphEdge = graph.addEdge(sourceId + "-" + targetId, sourceId, targetId);
+
+        GraphStreamUtils.addClassToElement(graphEdge, genealogyGraph.getEdgeKinshipDegree(edge).getStyleClass());
+    }
+
+    private static String getNodeId(GenealogyGraph genealogyGraph, int node) {
+        return genealogyGraph.getPersonUrl(node);
+    }
+}
@@ -4,10 +4,6 @@ import org.graphstream.graph.Element;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
 /**
  * Utility class providing methods
  * related to GraphStream
@@ -68,26 +64,4 @@ public class GraphStreamUtils {
 
         return node;
     }
-
-    /**
-     * Given two GraphStream nodes, check whether there is a connection between them
-     *
-     * @param firstNode the first node
-     * @param secondNode the second node
-     *
-     * @return whether there is a connection between the two nodes
-     */
-    public static boolean areConnected(Node firstNode, Node secondNode) {
-        Stream<Node> neighbourNodesStream = firstNode.neighborNodes();
-
-        List<Node> neighbourNodes = neighbourNodesStream.collect(Collectors.toList());
-
-        for(Node neighbourNode : neighbourNodes) {
-            if(neighbourNode == secondNode) {
-                return true;
-            }
-        }
-
-        return false;
-    }
 }
@@ -0,0 +1,168 @@
+package romanemperorsscraper.scraping.people;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Class used to dispatch the lines of a "sinottico" summary table to
+ * the extractor of the field they hold, through a map of (header label
+ * : field) entries computed once when the fields are registered.
+ *
+ * A field may be registered with more labels (like "coniuge", "coniugi",
+ * "consorte" [...]), so that adding a label variant costs nothing while
+ * parsing. Each field counts how many lines it extracted and how long it
+ * took, to see which fields dominate the parsing time.
+ *
+ * Since pages are parsed by more threads at once (see PersonCrawler),
+ * the counters are thread-safe and the map is never modified after
+ * the registration.
+ *
+ * @see PersonPageData
+ *
+ * @author Matteo Collica
+ */
+public class InfoboxFieldRegistry {
+    /*
+     * ATTRIBUTES
+     */
+
+    private final HashMap<String, Field> fieldsByLabel = new HashMap<>();
+
+    private final ArrayList<Field> fields = new ArrayList<>();
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Register a field's extractor
+     *
+     * @param fieldName the field's name, used in statistics
+     * @param extractor the function filling the field of a PersonPageData from a summary table line
+     * @param labels the header labels of the lines holding the field
+     *
+     * @return this InfoboxFieldRegistry, to chain more registrations
+     *
+     * @throws IllegalArgumentException if a label has already been registered for another field
+     */
+    InfoboxFieldRegistry register(String fieldName, BiConsumer<PersonPageData, InfoboxSnapshot.Row> extractor, String... labels) {
+        Field field = new Field(fieldName, extractor, labels);
+
+        for (String label : labels) {
+            if (fieldsByLabel.putIfAbsent(normalizeLabel(label), field) != null) {
+                throw new IllegalArgumentException("The label '" + label + "' has already been registered");
+            }
+        }
+
+        fields.add(field);
+
+        return this;
+    }
+
+    /**
+     * Extract the field held by a summary table line (if any) into a PersonPageData
+     *
+     * @param personPageData the PersonPageData to be filled
+     * @param headerText the text of the line's header cell
+     * @param line the summary table line
+     *
+     * @return true if the line holds a registered field, false otherwise
+     */
+    boolean extract(PersonPageData personPageData, String headerText, InfoboxSnapshot.Row line) {
+        Field field = fieldsByLabel.get(normalizeLabel(headerText));
+
+        if (field == null) {
+            return false;
+        }
+
+        long startNanos = System.nanoTime();
+
+        try {
+            field.extractor.accept(personPageData, line);
+        } finally {
+            field.hits.increment();
+            field.nanos.add(System.nanoTime() - startNanos);
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the registered fields, in registration order
+     */
+    public List<Field> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Reset the hit and timing counters of all the fields
+     */
+    public void resetStatistics() {
+        for (Field field : fields) {
+            field.hits.reset();
+            field.nanos.reset();
+        }
+    }
+
+    /**
+     * Normalize a header label like the summary table lines' headers are compared
+     * (without new lines and in lower case, e.g. "Nascita\n" => "nascita")
+     */
+    private static String normalizeLabel(String label) {
+        return label.replace("\n", "").toLowerCase();
+    }
+
+    /**
+     * Class used to represent a registered field, with its statistics
+     */
+    public static class Field {
+        private final String name;
+
+        private final List<String> labels;
+
+        private final BiConsumer<PersonPageData, InfoboxSnapshot.Row> extractor;
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        private Field(String name, BiConsumer<PersonPageData, InfoboxSnapshot.Row> extractor, String[] labels) {
+            this.name = name;
+            this.extractor = extractor;
+            this.labels = Collections.unmodifiableList(Arrays.asList(labels.clone()));
+        }
+
+        /**
+         * @return the field's name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the header labels of the lines holding the field
+         */
+        public List<String> getLabels() {
+            return labels;
+        }
+
+        /**
+         * @return how many summary table lines have been extracted into this field
+         */
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /**
+         * @return how long extracting this field took overall, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos.sum();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package romanemperorsscraper.scraping.people;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.HtmlFragmentScanner;
+import romanemperorsscraper.scraping.JsoupPageDocument;
+import romanemperorsscraper.scraping.PageAnchor;
+import romanemperorsscraper.scraping.PageDocument;
+import romanemperorsscraper.scraping.PageElement;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.SeleniumPageDocument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class representing a local, read-only copy of everything
+ * PersonPageData needs from a person's Wikipedia page: the
+ * lead image URL and the rows of the "sinottico" summary table
+ * (header text, line text, data cell innerText and anchors).
+ *
+ * Once taken, parsing the snapshot costs no more round trips
+ * to the page's backend (which are expensive when the page
+ * is loaded in a browser through a WebDriver session).
+ *
+ * @see PersonPageData
+ *
+ * @author Radu Ionut Barbalata
+ * @author Matteo Collica
+ */
+public class InfoboxSnapshot {
+    /*
+     * ATTRIBUTES
+     */
+
+    private final String imageUrl;
+
+    private final String summaryTableText;
+
+    private final ArrayList<Row> rows;
+
+    /*
+     * The classes of the summary table and of the lead image's
+     * container (the first one found of the two classes)
+     */
+
+    private static final String SUMMARY_TABLE_CLASS = "sinottico";
+    private static final String FIRST_IMAGE_CLASS   = "floatnone";
+    private static final String SECOND_IMAGE_CLASS  = "thumbinner";
+
+    /*
+     * Script returning, in a single WebDriver call, the same values which
+     * would otherwise be read element by element. Texts mimic WebDriver's
+     * getText(): non-breaking spaces become spaces, they are trimmed and
+     * they are empty for elements which aren't rendered.
+     *
+     * The result has this compact form:
+     * [imageUrl, summaryTableText, [[headerText, lineText, dataInnerText, [[anchorText, anchorHref], ...]], ...]]
+     */
+
+    private static final String SNAPSHOT_SCRIPT =
+            "function text(e) { return e.getClientRects().length ? e.innerText.replace(/\\u00a0/g, ' ').trim() : ''; }" +
+            "var imageElement = document.querySelector('.floatnone') || document.querySelector('.thumbinner');" +
+            "var imageUrl = null;" +
+            "if (imageElement) {" +
+            "  var imageAnchor = imageElement.querySelector('a');" +
+            "  var image = imageAnchor ? imageAnchor.querySelector('img') : null;" +
+            "  if (image) { imageUrl = image.src; }" +
+            "}" +
+            "var summaryTable = document.querySelector('.sinottico');" +
+            "if (!summaryTable) { return [imageUrl, null, null]; }" +
+            "var rows = [];" +
+            "summaryTable.querySelectorAll('tr').forEach(function (line) {" +
+            "  var header = line.querySelector('th');" +
+            "  var data = line.querySelector('td');" +
+            "  var anchors = [];" +
+            "  if (data) {" +
+            "    data.querySelectorAll('a').forEach(function (a) { anchors.push([text(a), a.hasAttribute('href') ? a.href : null]); });" +
+            "  }" +
+            "  rows.push([header ? text(header) : null, text(line), data ? data.innerText : null, anchors]);" +
+            "});" +
+            "return [imageUrl, text(summaryTable), rows];";
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct an InfoboxSnapshot from already extracted values
+     *
+     * @param imageUrl the lead image URL (null if the page has no image)
+     * @param summaryTableText the whole summary table text (null if the page has no summary table)
+     * @param rows the summary table rows (null if the page has no summary table)
+     */
+    public InfoboxSnapshot(String imageUrl, String summaryTableText, ArrayList<Row> rows) {
+        this.imageUrl = imageUrl;
+        this.summaryTableText = summaryTableText;
+        this.rows = rows;
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Fetch a person's Wikipedia page and take its snapshot: by streaming
+     * its HTML if the PageSource hands it out, by parsing the whole page
+     * otherwise
+     *
+     * @param pageSource the Page Source instance to be used to fetch the page
+     * @param url the person's Wikipedia page URL
+     *
+     * @return the page's InfoboxSnapshot
+     * @throws romanemperorsscraper.scraping.PageFetchException if the page could not be fetched
+     */
+    public static InfoboxSnapshot create(PageSource pageSource, String url) {
+        if(pageSource.canReadPages()) {
+            return pageSource.readPage(url, InfoboxSnapshot::createByStreaming);
+        }
+
+        try (PageDocument pageDocument = pageSource.getPage(url)) {
+            return create(pageDocument);
+        }
+    }
+
+    /**
+     * Take a snapshot of a person's Wikipedia page: through a single script
+     * execution if the page is loaded in a browser, by walking its elements
+     * otherwise (or if the script fails for any reason)
+     *
+     * @param pageDocument the person's Wikipedia page
+     *
+     * @return the page's InfoboxSnapshot
+     */
+    public static InfoboxSnapshot create(PageDocument pageDocument) {
+        if(pageDocument instanceof SeleniumPageDocument) {
+            try {
+                return createByScript((SeleniumPageDocument) pageDocument);
+            } catch(WebDriverException | ClassCastException ex) {
+                if(RomanEmperorsScraper.isDebugEnabled()) {
+                    System.out.println("Falling back to element by element extraction for "
+                            + pageDocument.getUrl() + ": " + ex.getMessage());
+                }
+            }
+        }
+
+        return createByElements(pageDocument);
+    }
+
+    /**
+     * Take a snapshot of a page loaded in a browser with a single script execution
+     *
+     * @param pageDocument the person's Wikipedia page loaded in a browser
+     *
+     * @return the page's InfoboxSnapshot
+     */
+    private static InfoboxSnapshot createByScript(SeleniumPageDocument pageDocument) {
+        JavascriptExecutor javascriptExecutor = (JavascriptExecutor) pageDocument.getWebDriver();
+
+        List<?> result = (List<?>) javascriptExecutor.executeScript(SNAPSHOT_SCRIPT);
+
+        String imageUrl = (String) result.get(0);
+        String summaryTableText = (String) result.get(1);
+
+        List<?> serializedRows = (List<?>) result.get(2);
+
+        if(serializedRows == null) {
+            return new InfoboxSnapshot(imageUrl, null, null);
+        }
+
+        ArrayList<Row> rows = new ArrayList<>(serializedRows.size());
+
+        for(Object serializedRowObject : serializedRows) {
+            List<?> serializedRow = (List<?>) serializedRowObject;
+            List<?> serializedAnchors = (List<?>) serializedRow.get(3);
+
+            ArrayList<PageAnchor> anchors = new ArrayList<>(serializedAnchors.size());
+
+            for(Object serializedAnchorObject : serializedAnchors) {
+                List<?> serializedAnchor = (List<?>) serializedAnchorObject;
+
+                anchors.add(new PageAnchor((String) serializedAnchor.get(0), (String) serializedAnchor.get(1)));
+            }
+
+            rows.add(new Row(
+                    (String) serializedRow.get(0),
+                    (String) serializedRow.get(1),
+                    (String) serializedRow.get(2),
+                    anchors
+            ));
+        }
+
+        return new InfoboxSnapshot(imageUrl, summaryTableText, rows);
+    }
+
+    /**
+     * Take a snapshot of a page by streaming its HTML, without ever parsing
+     * the whole page: only the summary table and the lead image elements are
+     * picked out of it (and parsed), and reading stops as soon as they've
+     * all been found
+     *
+     * The lead image is searched for up to the end of the summary table
+     * (where Wikipedia puts it) or, if there is none there, up to the first
+     * one found after it
+     *
+     * @param body the page's raw body
+     * @param charset the page's charset, null if it has to be detected (UTF-8 is assumed)
+     * @param pageUrl the page's actual URL (after any redirect)
+     *
+     * @return the page's InfoboxSnapshot
+     * @throws IOException if the page's body could not be read
+     */
+    private static InfoboxSnapshot createByStreaming(InputStream body, String charset, String pageUrl) throws IOException {
+        Reader reader = new InputStreamReader(body, charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8);
+
+        HtmlFragmentScanner htmlFragmentScanner = new HtmlFragmentScanner(reader);
+
+        ArrayList<String> searchedClassNames = new ArrayList<>(Arrays.asList(SUMMARY_TABLE_CLASS, FIRST_IMAGE_CLASS, SECOND_IMAGE_CLASS));
+
+        StringBuilder fragmentsHtml = new StringBuilder();
+
+        boolean summaryTableFound = false;
+        boolean imageFound = false;
+
+        HtmlFragmentScanner.Fragment fragment;
+
+        while((fragment = htmlFragmentScanner.nextElementByClassNames(searchedClassNames)) != null) {
+            /*
+             * The fragments are kept in document order, so that the first
+             * image of each class is the same as in the whole page
+             */
+
+            fragmentsHtml.append(fragment.getHtml());
+
+            if(fragment.containsClassName(SUMMARY_TABLE_CLASS)) {
+                summaryTableFound = true;
+
+                searchedClassNames.remove(SUMMARY_TABLE_CLASS);
+            }
+
+            if(fragment.containsClassName(FIRST_IMAGE_CLASS)) {
+                imageFound = true;
+
+                /* Images of the first class always take precedence */
+
+                searchedClassNames.remove(FIRST_IMAGE_CLASS);
+                searchedClassNames.remove(SECOND_IMAGE_CLASS);
+            }
+
+            if(fragment.containsClassName(SECOND_IMAGE_CLASS)) {
+                imageFound = true;
+
+                searchedClassNames.remove(SECOND_IMAGE_CLASS);
+            }
+
+            if(searchedClassNames.isEmpty() || (summaryTableFound && imageFound)) {
+                break;
+            }
+        }
+
+        Document document = Jsoup.parseBodyFragment(fragmentsHtml.toString(), pageUrl);
+
+        try (PageDocument pageDocument = new JsoupPageDocument(document, pageUrl)) {
+            return createByElements(pageDocument);
+        }
+    }
+
+    /**
+     * Take a snapshot of a page by walking its elements one by one
+     *
+     * @param pageDocument the person's Wikipedia page
+     *
+     * @return the page's InfoboxSnapshot
+     */
+    private static InfoboxSnapshot createByElements(PageDocument pageDocument) {
+        /*
+         * imageUrl
+         */
+
+        PageElement imageElement = pageDocument.findElementByClassName(FIRST_IMAGE_CLASS);
+
+        if(imageElement == null) {
+            imageElement = pageDocument.findElementByClassName(SECOND_IMAGE_CLASS);
+        }
+
+        String imageUrl = null;
+
+        if(imageElement != null) {
+            PageElement imageAnchorElement = imageElement.findElementByTagName("a");
+            PageElement image = imageAnchorElement != null ? imageAnchorElement.findElementByTagName("img") : null;
+
+            if(image != null) {
+                imageUrl = image.getAttribute("src");
+            }
+        }
+
+        /*
+         * Summary table rows
+         */
+
+        PageElement summaryElement = pageDocument.findElementByClassName(SUMMARY_TABLE_CLASS);
+
+        if(summaryElement == null) {
+            return new InfoboxSnapshot(imageUrl, null, null);
+        }
+
+        ArrayList<Row> rows = new ArrayList<>();
+
+        for(PageElement line : summaryElement.findElementsByTagName("tr")) {
+            PageElement headerElement = line.findElementByTagName("th");
+            PageElement dataElement = line.findElementByTagName("td");
+
+            ArrayList<PageAnchor> anchors = new ArrayList<>();
+
+            if(dataElement != null) {
+                for(PageElement anchorElement : dataElement.findElementsByTagName("a")) {
+                    anchors.add(PageAnchor.of(anchorElement));
+                }
+            }
+
+            rows.add(new Row(
+                    headerElement != null ? headerElement.getText() : null,
+                    line.getText(),
+                    dataElement != null ? dataElement.getInnerText() : null,
+                    anchors
+            ));
+        }
+
+        return new InfoboxSnapshot(imageUrl, summaryElement.getText(), rows);
+    }
+
+    /*
+     * GETTERS
+     */
+
+    /**
+     * @return the page's lead image URL, null if the page has no image
+     */
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    /**
+     * @return the whole summary table text, null if the page has no summary table
+     */
+    public String getSummaryTableText() {
+        return summaryTableText;
+    }
+
+    /**
+     * @return true if the page has a "sinottico" summary table, false otherwise
+     */
+    public boolean hasSummaryTable() {
+        return rows != null;
+    }
+
+    /**
+     * @return the summary table rows in document order, null if the page has no summary table
+     */
+    public ArrayList<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * Class representing a single line ('tr' element) of the summary table
+     */
+    public static class Row {
+        private final String headerText;
+        private final String text;
+        private final String dataInnerText;
+        private final ArrayList<PageAnchor> dataAnchors;
+
+        /**
+         * @param headerText the text of the line's header cell, null if it has none
+         * @param text the text of the whole line
+         * @param dataInnerText the innerText of the line's data cell, null if it has none
+         * @param dataAnchors the anchors contained in the line's data cell
+         */
+        public Row(String headerText, String text, String dataInnerText, ArrayList<PageAnchor> dataAnchors) {
+            this.headerText = headerText;
+            this.text = text;
+            this.dataInnerText = dataInnerText;
+            this.dataAnchors = dataAnchors;
+        }
+
+        /**
+         * @return the text of the line's header cell ('th' element), null if it has none
+         */
+        public String getHeaderText() {
+            return headerText;
+        }
+
+        /**
+         * @return the text of the whole line
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the innerText of the line's data cell ('td' element), null if it has none
+         */
+        public String getDataInnerText() {
+            return dataInnerText;
+        }
+
+        /**
+         * @return the anchors contained in the line's data cell, in document order
+         */
+        public ArrayList<PageAnchor> getDataAnchors() {
+            return dataAnchors;
+        }
+    }
+}
@@ -0,0 +1,637 @@
+package romanemperorsscraper.scraping.people;
+
+import java.util.ArrayList;
+
+/**
+ * Utility class providing single-pass scanners over the text of the
+ * "sinottico" summary table cells, used by PersonPageData to extract
+ * dates and names.
+ *
+ * Each scanner walks the cell text once, skipping brackets and their
+ * content on the fly, and tokenizes it with reusable buffers: no String
+ * is created per character (or per discarded token) and no exception
+ * is used for control flow. Their output is the same the former chains
+ * of replace/split passes produced, quirks included.
+ *
+ * @see PersonPageData
+ *
+ * @author Matteo Collica
+ */
+public class InfoboxTextScanner {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    private static final String[] MONTHS = {
+        "gennaio", "febbraio", "marzo", "aprile", "maggio", "giugno",
+        "luglio", "agosto", "settembre", "ottobre", "novembre", "dicembre"
+    };
+
+    /* Non-breaking space, used by Wikipedia between day, month and year */
+    private static final char NBSP = '\u00A0';
+
+    /*
+     * PREVENT INSTANTIATION WITH A PRIVATE CONSTRUCTOR
+     */
+
+    private InfoboxTextScanner() {
+        throw new java.lang.UnsupportedOperationException(
+            "As a utility class, this class must not be instantiated"
+        );
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Clean a given information text by removing
+     * brackets ('(' and '[') and characters inside
+     *
+     * @param information the given information text
+     * @return the cleaned result as a StringBuilder instance
+     */
+    public static StringBuilder clearBrackets(CharSequence information) {
+        int length = information.length();
+
+        StringBuilder cleanedInformation = new StringBuilder(length);
+
+        int bracketsOpen = 0;
+
+        for (int i = 0; i < length; i++) {
+            char currentChar = information.charAt(i);
+
+            if (bracketsOpen == 0) {
+                if (currentChar == '(' || currentChar == '[') {
+                    bracketsOpen++;
+                } else {
+                    cleanedInformation.append(currentChar);
+                }
+            } else if (currentChar == ')' || currentChar == ']') {
+                bracketsOpen--;
+            } else if (currentChar == '(' || currentChar == '[') {
+                bracketsOpen++;
+            }
+        }
+
+        return cleanedInformation;
+    }
+
+    /**
+     * Extract a birth or death date from the text of its cell,
+     * e.g. "Roma, 23 settembre 63 a.C.[1]" => "23 settembre 63 a.C. "
+     *
+     * The text is split into words on spaces, non-breaking spaces and
+     * new lines, ignoring brackets (and their content) and '°' characters
+     *
+     * @param informationText the text of the cell
+     * @return StringBuilder object with the date (to be trimmed)
+     */
+    public static StringBuilder extractDate(CharSequence informationText) {
+        DateBuilder dateBuilder = new DateBuilder();
+
+        StringBuilder token = new StringBuilder(16);
+
+        int bracketsOpen = 0;
+
+        for (int i = 0, length = informationText.length(); i < length; i++) {
+            char currentChar = informationText.charAt(i);
+
+            if (bracketsOpen != 0) {
+                if (currentChar == ')' || currentChar == ']') {
+                    bracketsOpen--;
+                } else if (currentChar == '(' || currentChar == '[') {
+                    bracketsOpen++;
+                }
+            } else if (currentChar == '(' || currentChar == '[') {
+                bracketsOpen++;
+            } else if (currentChar == ' ' || currentChar == NBSP || currentChar == '\n') {
+                dateBuilder.append(token);
+            } else if (currentChar != '°') {
+                token.append(currentChar);
+            }
+        }
+
+        dateBuilder.append(token);
+
+        return dateBuilder.build();
+    }
+
+    /**
+     * Extract the dates of a reign period from the text of its cell, one for
+     * each part of the period: the parts are separated by '–', '-' or new lines
+     * and their words by spaces, while brackets (and their content) and 'º'
+     * characters are ignored, e.g. "27 a.C. – 19 agosto 14" => ["27 a.C. ", "19 agosto 14 d.C"]
+     *
+     * Like String.split, trailing empty parts are left out unless there is
+     * just one part (i.e. no separator at all)
+     *
+     * @param reignText the text of the cell
+     * @return an ArrayList with the date of each part of the reign period (to be trimmed)
+     */
+    public static ArrayList<String> extractReignDates(CharSequence reignText) {
+        ArrayList<String> datesOfReign = new ArrayList<>();
+
+        DateBuilder dateBuilder = new DateBuilder();
+
+        StringBuilder token = new StringBuilder(16);
+
+        int bracketsOpen = 0;
+
+        boolean emptyPart = true;
+        boolean separatorFound = false;
+
+        int partsCount = 0;
+
+        for (int i = 0, length = reignText.length(); i < length; i++) {
+            char currentChar = reignText.charAt(i);
+
+            if (bracketsOpen != 0) {
+                if (currentChar == ')' || currentChar == ']') {
+                    bracketsOpen--;
+                } else if (currentChar == '(' || currentChar == '[') {
+                    bracketsOpen++;
+                }
+            } else if (currentChar == '(' || currentChar == '[') {
+                bracketsOpen++;
+            } else if (currentChar == '–' || currentChar == '-' || currentChar == '\n') {
+                dateBuilder.append(token);
+
+                datesOfReign.add(dateBuilder.build().toString());
+
+                if (!emptyPart) {
+                    partsCount = datesOfReign.size();
+                }
+
+                dateBuilder = new DateBuilder();
+
+                emptyPart = true;
+                separatorFound = true;
+            } else if (currentChar == ' ') {
+                dateBuilder.append(token);
+
+                emptyPart = false;
+            } else if (currentChar != 'º') {
+                token.append(currentChar);
+
+                emptyPart = false;
+            }
+        }
+
+        dateBuilder.append(token);
+
+        datesOfReign.add(dateBuilder.build().toString());
+
+        if (!emptyPart || !separatorFound) {
+            partsCount = datesOfReign.size();
+        }
+
+        /* Leave out the trailing empty parts */
+
+        while (datesOfReign.size() > partsCount) {
+            datesOfReign.remove(datesOfReign.size() - 1);
+        }
+
+        return datesOfReign;
+    }
+
+    /**
+     * Extract people's names from a cell listing them separated by new lines,
+     * commas or semicolons (ignoring brackets and their content): only the
+     * parts starting with an upper case character (not a space) and not
+     * ending with '?' are considered names, e.g. "Scribonia (40 a.C.)\nLivia"
+     * => ["Scribonia", "Livia"]
+     *
+     * @param peopleText the text of the cell
+     * @return an ArrayList with the trimmed names
+     */
+    public static ArrayList<String> extractNames(CharSequence peopleText) {
+        ArrayList<String> names = new ArrayList<>();
+
+        StringBuilder part = new StringBuilder(32);
+
+        int bracketsOpen = 0;
+
+        for (int i = 0, length = peopleText.length(); i < length; i++) {
+            char currentChar = peopleText.charAt(i);
+
+            if (bracketsOpen != 0) {
+                if (currentChar == ')' || currentChar == ']') {
+                    bracketsOpen--;
+                } else if (currentChar == '(' || currentChar == '[') {
+                    bracketsOpen++;
+                }
+            } else if (currentChar == '(' || currentChar == '[') {
+                bracketsOpen++;
+            } else if (currentChar == '\n' || currentChar == ',' || currentChar == ';') {
+                addName(names, part);
+            } else {
+                part.append(currentChar);
+            }
+        }
+
+        addName(names, part);
+
+        return names;
+    }
+
+    /**
+     * Extract children's names from the text of their cell, one per line: a name
+     * ends at the first bracket, comma or semicolon of its line, lines starting with
+     * a lower case character are skipped and twins are split on " e " separators.
+     * Adopted children follow a line containing "adott" (e.g. "Adottivi:") or have
+     * "adott" in their own line (e.g. "Tiberio (adottato)").
+     *
+     * @param childrenText the text of the cell
+     * @return the ChildrenNames found in the cell, or null if it contains an empty line
+     *         (in which case the whole cell has always been discarded)
+     */
+    public static ChildrenNames extractChildrenNames(String childrenText) {
+        ChildrenNames childrenNames = new ChildrenNames();
+
+        boolean adoptiveChildrenState = false;
+
+        /* Like String.split, leave out the trailing empty lines (if there's more than one line) */
+
+        int linesEnd = childrenText.length();
+
+        if (childrenText.indexOf('\n') != -1) {
+            while (linesEnd > 0 && childrenText.charAt(linesEnd - 1) == '\n') {
+                linesEnd--;
+            }
+
+            if (linesEnd == 0) {
+                return childrenNames;
+            }
+        }
+
+        int lineStart = 0;
+
+        while (true) {
+            int lineEnd = childrenText.indexOf('\n', lineStart);
+
+            if (lineEnd == -1 || lineEnd > linesEnd) {
+                lineEnd = linesEnd;
+            }
+
+            if (lineStart == lineEnd) {
+                return null;
+            }
+
+            /*
+             * Check if it's a valid name, so if it starts with an UpperCase
+             */
+
+            if (!isLowerCase(childrenText.charAt(lineStart))) {
+                int nameEnd = lineStart;
+
+                while (nameEnd < lineEnd) {
+                    char currentChar = childrenText.charAt(nameEnd);
+
+                    if (currentChar == '(' || currentChar == '[' || currentChar == ';' || currentChar == ',') {
+                        break;
+                    }
+
+                    nameEnd++;
+                }
+
+                String name = childrenText.substring(lineStart, nameEnd);
+
+                if (name.toLowerCase().contains("adott")) {
+                    adoptiveChildrenState = true;
+                } else {
+                    String trimmedName = name.trim();
+
+                    if (adoptiveChildrenState || indexOf(childrenText, "adott", lineStart, lineEnd) != -1) {
+                        childrenNames.adoptedChildren.add(trimmedName);
+                    } else {
+                        addTwins(childrenNames.children, name);
+                    }
+
+                    childrenNames.allChildren.add(trimmedName);
+                }
+            }
+
+            if (lineEnd == linesEnd) {
+                break;
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return childrenNames;
+    }
+
+    /**
+     * Check if a word (the whole content of a CharSequence) is
+     * an integer, exactly as Integer.parseInt would accept it
+     *
+     * @param word the word to check
+     * @return true if the word is an integer, false otherwise
+     */
+    public static boolean isInteger(CharSequence word) {
+        int length = word.length();
+
+        if (length == 0) {
+            return false;
+        }
+
+        int i = 0;
+        long limit = Integer.MAX_VALUE;
+
+        char firstChar = word.charAt(0);
+
+        if (firstChar < '0') {
+            if (firstChar == '-') {
+                limit = -(long) Integer.MIN_VALUE;
+            } else if (firstChar != '+') {
+                return false;
+            }
+
+            if (length == 1) {
+                return false;
+            }
+
+            i++;
+        }
+
+        long value = 0;
+
+        for (; i < length; i++) {
+            int digit = Character.digit(word.charAt(i), 10);
+
+            if (digit < 0) {
+                return false;
+            }
+
+            value = value * 10 + digit;
+
+            if (value > limit) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Add a part of a people's list to the names if it's a valid
+     * name, then empty it to be reused for the next part
+     *
+     * @param names the ArrayList of names
+     * @param part the part of the people's list
+     */
+    private static void addName(ArrayList<String> names, StringBuilder part) {
+        int length = part.length();
+
+        if (length != 0 && part.charAt(0) != ' ' && part.charAt(length - 1) != '?' && isUpperCase(part.charAt(0))) {
+            int start = 0;
+            int end = length;
+
+            while (start < end && part.charAt(start) <= ' ') {
+                start++;
+            }
+
+            while (end > start && part.charAt(end - 1) <= ' ') {
+                end--;
+            }
+
+            names.add(part.substring(start, end));
+        }
+
+        part.setLength(0);
+    }
+
+    /**
+     * Twins are usually represented with a middle "e" separator like:
+     * "<first_son_name> e <second_son_name>", split them as
+     * String.split(" e ") would do and add their trimmed names
+     *
+     * @param children the ArrayList of children's names
+     * @param name the name (or names) of a child (or of twins)
+     */
+    private static void addTwins(ArrayList<String> children, String name) {
+        int separatorIndex = name.indexOf(" e ");
+
+        if (separatorIndex == -1) {
+            children.add(name.trim());
+
+            return;
+        }
+
+        int firstTwin = children.size();
+        int lastNotEmptyTwin = firstTwin;
+
+        int twinStart = 0;
+
+        while (true) {
+            int twinEnd = separatorIndex == -1 ? name.length() : separatorIndex;
+
+            children.add(name.substring(twinStart, twinEnd).trim());
+
+            if (twinEnd > twinStart) {
+                lastNotEmptyTwin = children.size();
+            }
+
+            if (separatorIndex == -1) {
+                break;
+            }
+
+            twinStart = separatorIndex + 3;
+            separatorIndex = name.indexOf(" e ", twinStart);
+        }
+
+        /* Like String.split, leave out the trailing empty names */
+
+        while (children.size() > lastNotEmptyTwin) {
+            children.remove(children.size() - 1);
+        }
+    }
+
+    /**
+     * @param text the text to search in
+     * @param str the string to be searched
+     * @param fromIndex the index to start searching from
+     * @param toIndex the index the string must end before
+     *
+     * @return the index of the first occurrence of str between fromIndex and toIndex, -1 if none
+     */
+    private static int indexOf(String text, String str, int fromIndex, int toIndex) {
+        for (int i = fromIndex, last = toIndex - str.length(); i <= last; i++) {
+            if (text.startsWith(str, i)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Check if a character is equal to its upper case form, as comparing
+     * it as a String to String.toUpperCase would do (e.g. 'ß' is not)
+     *
+     * @param character the character to check
+     * @return true if the character is equal to its upper case form, false otherwise
+     */
+    private static boolean isUpperCase(char character) {
+        if (character < '\u0100' && character != 'ß') {
+            return Character.toUpperCase(character) == character;
+        }
+
+        String characterString = String.valueOf(character);
+
+        return characterString.equals(characterString.toUpperCase());
+    }
+
+    /**
+     * Check if a character is equal to its lower case form, as
+     * comparing it as a String to String.toLowerCase would do
+     *
+     * @param character the character to check
+     * @return true if the character is equal to its lower case form, false otherwise
+     */
+    private static boolean isLowerCase(char character) {
+        if (character < '\u0100') {
+            return Character.toLowerCase(character) == character;
+        }
+
+        String characterString = String.valueOf(character);
+
+        return characterString.equals(characterString.toLowerCase());
+    }
+
+    /**
+     * Class used to assemble a date word by word, keeping only
+     * the words which can be part of a date: numbers, months,
+     * a.C., d.C., -{@literal >}, "o" (as in date1 o date2) and
+     * words containing '/'. If neither a d.C. nor an a.C. is
+     * found, d.C. is assumed.
+     */
+    private static class DateBuilder {
+        private final StringBuilder cleanedDate = new StringBuilder();
+
+        private int datesCount = 0;
+
+        /**
+         * Append a word to the date if it can be part of it,
+         * then empty the word to be reused for the next one
+         *
+         * @param word the word
+         */
+        private void append(StringBuilder word) {
+            if (word.length() == 0) {
+                return;
+            }
+
+            if (isInteger(word)) {
+                cleanedDate.append(word).append(' ');
+            } else if (isMonth(word) || contentEquals(word, "a.C.") || contentEquals(word, "d.C.") || contentEquals(word, "->")) {
+                if (datesCount < 1 && contentEquals(word, "->")) {
+                    /*
+                     * -> means than we are at the end of the
+                     * information about the current date, so
+                     * if neither a d.C. nor an a.C. was found
+                     * we append a d.C. before the -> symbol
+                     */
+
+                    cleanedDate.append("d.C. ");
+                    datesCount = 1;
+                }
+
+                if (contentEquals(word, "a.C.") || contentEquals(word, "d.C.")) {
+                    datesCount += 1;
+                }
+
+                cleanedDate.append(word).append(' ');
+            } else if (indexOf(word, '/') != -1) {
+                cleanedDate.append(word).append(' ');
+            } else if (contentEquals(word, "o")) {
+                cleanedDate.append("o ");
+            }
+
+            word.setLength(0);
+        }
+
+        /**
+         * @return the assembled date
+         */
+        private StringBuilder build() {
+            /*
+             * If neither a d.C. nor an a.C. was found
+             * we append a d.C. to the end of the string
+             */
+
+            if (datesCount == 0 && cleanedDate.length() != 0) {
+                cleanedDate.append("d.C");
+            }
+
+            return cleanedDate;
+        }
+
+        private static boolean isMonth(StringBuilder word) {
+            for (String month : MONTHS) {
+                if (contentEquals(word, month)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static boolean contentEquals(StringBuilder word, String str) {
+            int length = str.length();
+
+            if (word.length() != length) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (word.charAt(i) != str.charAt(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private static int indexOf(StringBuilder word, char character) {
+            for (int i = 0, length = word.length(); i < length; i++) {
+                if (word.charAt(i) == character) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+    }
+
+    /**
+     * Class used to represent the children's names found in a cell
+     */
+    public static class ChildrenNames {
+        private final ArrayList<String> children = new ArrayList<>();
+        private final ArrayList<String> adoptedChildren = new ArrayList<>();
+        private final ArrayList<String> allChildren = new ArrayList<>();
+
+        /**
+         * @return the names of the (not adopted) children
+         */
+        public ArrayList<String> getChildren() {
+            return children;
+        }
+
+        /**
+         * @return the names of the adopted children
+         */
+        public ArrayList<String> getAdoptedChildren() {
+            return adoptedChildren;
+        }
+
+        /**
+         * @return the names of all the children, in the order they're listed
+         */
+        public ArrayList<String> getAllChildren() {
+            return allChildren;
+        }
+    }
+}
@@ -1,22 +1,18 @@
 package romanemperorsscraper.scraping.people;
 
-import org.graphstream.graph.Graph;
-import org.graphstream.graph.Node;
-import org.openqa.selenium.WebDriver;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
 import romanemperorsscraper.scraping.dynasties.DynastyTree;
-import romanemperorsscraper.scraping.dynasties.GraphStreamUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 
 /**
  * Class offering a recursive constructor to
  * visit, starting from a Dynasty founder,
  * all the dynasty members' Wikipedia pages
+ * (fetched through a PersonCrawler)
  *
  * @see PersonPageData
+ * @see PersonCrawler
  * @see DynastyTree
  *
  * @author Matteo Collica
@@ -24,9 +20,6 @@ import java.util.HashSet;
  * @author Sara Lazzaroni
  */
 public class Person {
-    private static HashMap<String, Person> storedPersonObjects = new HashMap<>();
-    private static HashSet<String> visitedUrls = new HashSet<>();
-
     private PersonPageData personPageData;
 
     private Person mother;
@@ -42,23 +35,20 @@ public class Person {
      * Construct a Person object and set the corresponding graph node's style
      *
      * @param personPageData the PersonPageData this Person instance is related to
-     * @param graph the Graph instance this Person instance's graph node is placed into
+     * @param dynastyTree the DynastyTree instance this Person instance's graph node is placed into
      */
-    public Person(PersonPageData personPageData, Graph graph) {
+    public Person(PersonPageData personPageData, DynastyTree dynastyTree) {
         this.personPageData = personPageData;
 
         PersonNameUrl personNameUrl = personPageData.getPersonNameUrl();
         String wikipediaPageUrl = personNameUrl.getUrl();
 
         if (personPageData.isEmperorOrDictator()) {
-            Node node = graph.getNode(wikipediaPageUrl);
-            String customClass = "regnant";
-
-            GraphStreamUtils.addClassToElement(node, customClass);
+            dynastyTree.markRegnant(personNameUrl);
         }
 
-        storedPersonObjects.put(wikipediaPageUrl, this);
-        visitedUrls.add(wikipediaPageUrl);
+        dynastyTree.getScrapeSession().storePersonObject(wikipediaPageUrl, this);
+        dynastyTree.addPersonObject(personNameUrl.getId(), this);
     }
 
     /**
@@ -67,23 +57,18 @@ public class Person {
      * or dictator, scrape relatives' Wikipedia pages, add their nodes to the
      * graph and finally connect them to its node.
      *
-     * @param webDriver the WebDriver needed to scrape relatives' data
+     * @param personCrawler the PersonCrawler needed to scrape relatives' data
      * @param personPageData the PersonPageData this Person instance is related to
      * @param dynastyTree the DynastyTree instance this Person instance belongs to
      */
-    public Person(WebDriver webDriver, PersonPageData personPageData, DynastyTree dynastyTree) {
+    public Person(PersonCrawler personCrawler, PersonPageData personPageData, DynastyTree dynastyTree) {
         this.personPageData = personPageData;
 
         PersonNameUrl personNameUrl = personPageData.getPersonNameUrl();
         String wikipediaPageUrl     = personNameUrl.getUrl();
 
-        Graph graph = dynastyTree.getGraph();
-
         if(personPageData.isEmperorOrDictator()) {
-            Node node = graph.getNode(wikipediaPageUrl);
-            String customClass = "regnant";
-
-            GraphStreamUtils.addClassToElement(node, customClass);
+            dynastyTree.markRegnant(personNameUrl);
         }
 
         String dynastyPageUrl = dynastyTree.getDynasty().getWikipediaPageUrl();
@@ -92,8 +77,8 @@ public class Person {
         int offsetY = 0;
         boolean added;
 
-        visitedUrls.add(wikipediaPageUrl);
-        storedPersonObjects.put(wikipediaPageUrl, this);
+        dynastyTree.getScrapeSession().storePersonObject(wikipediaPageUrl, this);
+        dynastyTree.addPersonObject(personNameUrl.getId(), this);
 
         /*
          * Only scrape relatives if the PersonPageData instance
@@ -122,19 +107,18 @@ public class Person {
                     dynastyTree.addPersonConnection(personPageData, fatherNameUrl, DynastyTree.KinshipDegree.FATHER, offsetX, offsetY);
 
                     /*
-                     * [1] The presence of a Wikipedia page URL
-                     * in the visitedUrls HashSet means that its
-                     * Wikipedia page has already been visited
+                     * [1] A Wikipedia page URL already visited
+                     * while building this DynastyTree means that
+                     * its Wikipedia page has already been used
                      * to create a Person object, in this case
                      * we retrieve its instance from the
-                     * storedPersonObjects HashMap instead of
-                     * creating it again.
+                     * DynastyTree instead of creating it again.
                      */
 
-                    if (!visitedUrls.contains(fatherPageUrl)) {
-                        this.father = new Person(PersonPageData.getPersonPageData(webDriver, fatherNameUrl, dynastyPageUrl), graph);
+                    if (!dynastyTree.isVisited(fatherNameUrl.getId())) {
+                        this.father = new Person(personCrawler.getPersonPageData(fatherNameUrl, DynastyTree.KinshipDegree.FATHER), dynastyTree);
                     } else {
-                        this.father = storedPersonObjects.getOrDefault(fatherPageUrl, null);
+                        this.father = dynastyTree.getPersonObject(fatherNameUrl.getId());
                     }
                 }
             }
@@ -157,10 +141,10 @@ public class Person {
                      * [1]
                      */
 
-                    if (!visitedUrls.contains(adoptiveFatherPageUrl)) {
-                        this.adoptiveFather = new Person(PersonPageData.getPersonPageData(webDriver, adoptiveFatherNameUrl, dynastyPageUrl), graph);
+                    if (!dynastyTree.isVisited(adoptiveFatherNameUrl.getId())) {
+                        this.adoptiveFather = new Person(personCrawler.getPersonPageData(adoptiveFatherNameUrl, DynastyTree.KinshipDegree.ADOPTIVEFATHER), dynastyTree);
                     } else {
-                        this.adoptiveFather = storedPersonObjects.getOrDefault(adoptiveFatherPageUrl, null);
+                        this.adoptiveFather = dynastyTree.getPersonObject(adoptiveFatherNameUrl.getId());
                     }
                 }
             }
@@ -175,16 +159,16 @@ public class Person {
                 String motherPageUrl = motherNameUrl.getUrl();
 
                 if (motherPageUrl != null) {
-                    if (!visitedUrls.contains(motherPageUrl)) {
+                    if (!dynastyTree.isVisited(motherNameUrl.getId())) {
                         dynastyTree.addPersonToGraph(motherNameUrl);
 
                         dynastyTree.addPersonConnection(personPageData, motherNameUrl, DynastyTree.KinshipDegree.MOTHER, offsetX, offsetY);
 
-                        PersonPageData motherPersonPageData = PersonPageData.getPersonPageData(webDriver, motherNameUrl, dynastyPageUrl);
+                        PersonPageData motherPersonPageData = personCrawler.getPersonPageData(motherNameUrl, DynastyTree.KinshipDegree.MOTHER);
 
-                        this.mother = new Person(motherPersonPageData, graph);
+                        this.mother = new Person(motherPersonPageData, dynastyTree);
                     } else {
-                        this.mother = storedPersonObjects.getOrDefault(motherPageUrl, null);
+                        this.mother = dynastyTree.getPersonObject(motherNameUrl.getId());
                     }
                 }
             }
@@ -221,10 +205,10 @@ public class Person {
                          * [1]
                          */
 
-                        if (!visitedUrls.contains(spousePageUrl)) {
-                            this.spouses.add(new Person(webDriver, PersonPageData.getPersonPageData(webDriver, spouseNameUrl, dynastyPageUrl), dynastyTree));
+                        if (!dynastyTree.isVisited(spouseNameUrl.getId())) {
+                            this.spouses.add(new Person(personCrawler, personCrawler.getPersonPageData(spouseNameUrl, DynastyTree.KinshipDegree.SPOUSE), dynastyTree));
                         } else {
-                            this.spouses.add(storedPersonObjects.getOrDefault(spousePageUrl, null));
+                            this.spouses.add(dynastyTree.getPersonObject(spouseNameUrl.getId()));
                         }
                     }
                 }
@@ -242,8 +226,8 @@ public class Person {
                 ArrayList<PersonPageData> validSuccessors = new ArrayList<>();
 
                 for (PersonNameUrl successorNameUrl : successors) {
-                    if (!visitedUrls.contains(successorNameUrl.getUrl())) {
-                        PersonPageData successorPageData = PersonPageData.getPersonPageData(webDriver, successorNameUrl, dynastyPageUrl);
+                    if (!dynastyTree.isVisited(successorNameUrl.getId())) {
+                        PersonPageData successorPageData = personCrawler.getPersonPageData(successorNameUrl, DynastyTree.KinshipDegree.SUCCESSOR);
 
                         /*
                          * We consider a successor to be part of the current dynasty if
@@ -270,7 +254,7 @@ public class Person {
 
                             added = dynastyTree.addPersonConnection(personPageData, successorNameUrl, DynastyTree.KinshipDegree.SUCCESSOR, offsetX, offsetY);
 
-                            visitedUrls.add(successorNameUrl.getUrl());
+                            dynastyTree.markVisited(successorNameUrl.getId());
 
                             if (added) {
                                 offsetX++;
@@ -280,7 +264,7 @@ public class Person {
                 }
 
                 for (PersonPageData validSuccessorPageData : validSuccessors) {
-                    this.successors.add(new Person(webDriver, validSuccessorPageData, dynastyTree));
+                    this.successors.add(new Person(personCrawler, validSuccessorPageData, dynastyTree));
                 }
             }
 
@@ -320,8 +304,8 @@ public class Person {
                             }
                         }
 
-                        if (!visitedUrls.contains(childPageUrl)) {
-                            PersonPageData childrenPageData = PersonPageData.getPersonPageData(webDriver, childNameUrl, dynastyPageUrl);
+                        if (!dynastyTree.isVisited(childNameUrl.getId())) {
+                            PersonPageData childrenPageData = personCrawler.getPersonPageData(childNameUrl, DynastyTree.KinshipDegree.CHILDREN);
 
                             /*
                              * [3] We consider a child to be part of the current dynasty if
@@ -331,9 +315,9 @@ public class Person {
                              */
 
                             if (childrenPageData.getPersonDynastyPageUrl() == null || Dynasty.dynastyPageUrlEquals(dynastyPageUrl, childrenPageData.getPersonDynastyPageUrl())) {
-                                this.children.add(new Person(webDriver, childrenPageData, dynastyTree));
+                                this.children.add(new Person(personCrawler, childrenPageData, dynastyTree));
                             } else {
-                                dynastyTree.removeNode(childPageUrl);
+                                dynastyTree.removeNode(childNameUrl);
                             }
                         }
                     }
@@ -373,17 +357,17 @@ public class Person {
                             }
                         }
 
-                        if (!visitedUrls.contains(adoptedChildPageUrl)) {
-                            PersonPageData adoptedChildPageData = PersonPageData.getPersonPageData(webDriver, adoptedChildNameUrl, dynastyPageUrl);
+                        if (!dynastyTree.isVisited(adoptedChildNameUrl.getId())) {
+                            PersonPageData adoptedChildPageData = personCrawler.getPersonPageData(adoptedChildNameUrl, DynastyTree.KinshipDegree.ADOPTEDCHILDREN);
 
                             /*
                              * [3]
                              */
 
                             if (adoptedChildPageData.getPersonDynastyPageUrl() == null || Dynasty.dynastyPageUrlEquals(dynastyPageUrl, adoptedChildPageData.getPersonDynastyPageUrl())) {
-                                this.adoptedChildren.add(new Person(webDriver, adoptedChildPageData, dynastyTree));
+                                this.adoptedChildren.add(new Person(personCrawler, adoptedChildPageData, dynastyTree));
                             } else {
-                                dynastyTree.removeNode(adoptedChildPageUrl);
+                                dynastyTree.removeNode(adoptedChildNameUrl);
                             }
                         }
                     }
@@ -392,23 +376,6 @@ public class Person {
         }
     }
 
-    /**
-     * Empty the visitedUrls HashSet by instantiating it again,
-     * so that all previously visited urls will no longer result
-     * as such. Useful before scraping a new dynasty for example.
-     */
-    public static void resetVisitedUrls() {
-        visitedUrls = new HashSet<>();
-    }
-
-    /**
-     * @return the storedPersonObjects HashMap, containing the already
-     * constructed Person objects by their Wikipedia page URL
-     */
-    public static HashMap<String, Person> getStoredPersonObjects() {
-        return storedPersonObjects;
-    }
-
     /**
      * @return the PersonPageData object related to this Person instance
      */
@@ -422,4 +389,14 @@ public class Person {
     public ArrayList<Person> getSuccessors() {
         return successors;
     }
+
+    /**
+     * Add a successor to this Person instance, used when the
+     * DynastyTree is restored instead of being built
+     *
+     * @param successor the successor's Person object
+     */
+    public void addSuccessor(Person successor) {
+        successors.add(successor);
+    }
 }
@@ -0,0 +1,497 @@
+package romanemperorsscraper.scraping.people;
+
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.PageFetchException;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.ScrapeSession;
+import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.dynasties.DynastyTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class used to fetch dynasty members' Wikipedia pages with a pool
+ * of fetch workers while a dynasty's tree is being assembled.
+ *
+ * As soon as a person's page arrives, the pages of the relatives the
+ * tree assembly is going to visit next (following the same rules of
+ * the Person recursive constructor) are put in the crawl frontier,
+ * so that they are fetched concurrently ahead of time.
+ *
+ * The tree itself is still assembled by the Person recursive constructor
+ * on a single thread, which asks this class for each PersonPageData in
+ * the same order as the sequential crawl: nodes, edges and their
+ * placement are therefore the same regardless of the number of workers.
+ *
+ * Fetch workers load pages through the crawl's ScrapeSession, so a
+ * page already loaded (or being loaded) by another dynasty's crawl
+ * running at the same time is never fetched twice.
+ *
+ * The crawl is cancelled by interrupting the assembling thread, which
+ * then gets a CancellationException from its next request.
+ *
+ * @see Person
+ * @see DynastyTree
+ *
+ * @author Matteo Collica
+ */
+public class PersonCrawler {
+    /*
+     * ATTRIBUTES
+     */
+
+    private final ScrapeSession scrapeSession;
+
+    private final PageSource pageSource;
+
+    private final String dynastyPageUrl;
+
+    /* null when pages are fetched on demand by the assembling thread */
+    private final ExecutorService fetchWorkers;
+
+    /*
+     * The crawl frontier: every page fetch scheduled so far by URL ID (see
+     * PersonTable), whether it's still waiting for a worker, in progress or done
+     */
+
+    private PageFetch[] scheduledFetches = new PageFetch[0];
+
+    /* Page fetches completed by workers and not yet processed */
+    private final LinkedBlockingQueue<PageFetch> completedFetches = new LinkedBlockingQueue<>();
+
+    /* IDs of the URLs whose relatives have already been put in the frontier */
+    private final BitSet expandedIds = new BitSet();
+
+    /* Page fetches scheduled and not yet processed */
+    private int queuedFetches = 0;
+
+    /* People returned to the assembling thread so far */
+    private int scrapedPeople = 0;
+
+    private ProgressListener progressListener;
+
+    /* Run on the assembling thread before it waits for a page, null if none */
+    private Runnable beforeWaitingAction;
+
+    private static final AtomicInteger workerThreadsCount = new AtomicInteger();
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a PersonCrawler for a dynasty
+     *
+     * @param scrapeSession the ScrapeSession scraped people are stored in (and looked up from)
+     * @param pageSource the Page Source instance to be used to scrape data
+     *                   (null if data can only be retrieved from already
+     *                   scraped or imported PersonPageData objects)
+     * @param dynastyPageUrl the Wikipedia page URL of the dynasty to be crawled
+     * @param workers the maximum number of pages to be fetched at the same time,
+     *                capped to the PageSource's maximum concurrency (with only
+     *                one worker pages are fetched on demand, one at a time)
+     */
+    public PersonCrawler(ScrapeSession scrapeSession, PageSource pageSource, String dynastyPageUrl, int workers) {
+        this.scrapeSession = scrapeSession;
+        this.pageSource = pageSource;
+        this.dynastyPageUrl = dynastyPageUrl;
+
+        if(pageSource != null) {
+            workers = Math.min(workers, pageSource.getMaxConcurrency());
+        }
+
+        if(pageSource != null && workers > 1) {
+            this.fetchWorkers = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "person-crawler-" + workerThreadsCount.incrementAndGet());
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+        } else {
+            this.fetchWorkers = null;
+        }
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Start crawling from a dynasty's founder by putting the
+     * pages of his/her relatives in the crawl frontier
+     *
+     * @param founderPageData the dynasty founder's PersonPageData object
+     */
+    public void crawlFrom(PersonPageData founderPageData) {
+        expand(founderPageData, null);
+    }
+
+    /**
+     * Return a person's PersonPageData object, waiting for its page to be
+     * fetched if needed, and register it as ScrapeSession.getPersonPageData
+     * would do
+     *
+     * @param personNameUrl the person's PersonNameUrl object
+     * @param reachedAs the kinship degree which led the tree assembly to the
+     *                  person (null for a dynasty founder), used to decide if
+     *                  the person's relatives will be visited as well
+     *
+     * @return the person's PersonPageData object
+     * @throws PageFetchException if the person's page could not be fetched
+     */
+    public PersonPageData getPersonPageData(PersonNameUrl personNameUrl, DynastyTree.KinshipDegree reachedAs) {
+        String url = personNameUrl.getUrl();
+
+        if(Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Crawl cancelled before scraping " + url);
+        }
+
+        if(beforeWaitingAction != null && pageSource != null && url != null && !scrapeSession.hasPersonPageData(url)) {
+            beforeWaitingAction.run();
+        }
+
+        if(fetchWorkers != null && url != null && !scrapeSession.hasPersonPageData(url)) {
+            PageFetch pageFetch = getScheduledFetch(personNameUrl.getId());
+
+            if(pageFetch == null) {
+                pageFetch = schedule(personNameUrl, reachedAs);
+            }
+
+            /*
+             * While waiting for the requested page, expand the frontier
+             * with the relatives of any other person whose page arrives
+             */
+
+            try {
+                while(!pageFetch.processed) {
+                    process(completedFetches.take());
+                }
+            } catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+
+                throw new CancellationException("Crawl cancelled while waiting for " + url);
+            }
+
+            /*
+             * A failed fetch is retried below, on demand, by the
+             * assembling thread (which reports any further failure).
+             *
+             * The page may have been put in the frontier by another relative,
+             * whose link to it may have a different text: the PersonPageData
+             * object keeps the name it's been loaded with, while this dynasty
+             * registers (and labels) the person with the name it's requested
+             * with, like the sequential crawl
+             */
+        }
+
+        PersonPageData personPageData;
+
+        try {
+            personPageData = scrapeSession.getPersonPageData(pageSource, personNameUrl, dynastyPageUrl);
+        } catch(PageFetchException ex) {
+            /* A fetch failing because of the interruption is just a cancelled crawl */
+
+            if(Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Crawl cancelled while scraping " + url);
+            }
+
+            throw ex;
+        }
+
+        /*
+         * People scraped while crawling another dynasty are already
+         * known and therefore never fetched, but their relatives
+         * may have to be visited all the same
+         */
+
+        expand(personPageData, reachedAs);
+
+        scrapedPeople++;
+
+        if(progressListener != null) {
+            progressListener.onPersonScraped(personPageData, scrapedPeople, queuedFetches);
+        }
+
+        return personPageData;
+    }
+
+    /**
+     * @param progressListener the ProgressListener to be notified each time
+     *                         a person is returned to the assembling thread
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * @param beforeWaitingAction the action to be run on the assembling thread each time
+     *                            it's going to wait for a page to be fetched (may be null)
+     */
+    public void setBeforeWaitingAction(Runnable beforeWaitingAction) {
+        this.beforeWaitingAction = beforeWaitingAction;
+    }
+
+    /**
+     * Stop all the fetch workers, dropping the fetches still in the frontier
+     */
+    public void close() {
+        if(fetchWorkers == null) {
+            return;
+        }
+
+        fetchWorkers.shutdownNow();
+
+        /*
+         * Wait for in-progress fetches to end, so that the PageSource
+         * isn't in use anymore once the crawl is over
+         */
+
+        try {
+            fetchWorkers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Put a person's page in the crawl frontier
+     *
+     * @param personNameUrl the person's PersonNameUrl object
+     * @param reachedAs the kinship degree the person has been reached by
+     *
+     * @return the scheduled PageFetch
+     */
+    private PageFetch schedule(PersonNameUrl personNameUrl, DynastyTree.KinshipDegree reachedAs) {
+        PageFetch pageFetch = new PageFetch(personNameUrl, reachedAs);
+
+        int id = personNameUrl.getId();
+
+        if(id >= scheduledFetches.length) {
+            scheduledFetches = Arrays.copyOf(scheduledFetches, Math.max(id + 1, scheduledFetches.length * 2));
+        }
+
+        scheduledFetches[id] = pageFetch;
+
+        queuedFetches++;
+
+        fetchWorkers.execute(pageFetch);
+
+        return pageFetch;
+    }
+
+    /**
+     * Process a page fetch completed by a worker
+     *
+     * @param pageFetch the completed PageFetch
+     */
+    private void process(PageFetch pageFetch) {
+        pageFetch.processed = true;
+
+        queuedFetches--;
+
+        if(pageFetch.hasSucceeded()) {
+            expand(pageFetch.getPersonPageData(), pageFetch.reachedAs);
+        }
+    }
+
+    /**
+     * If the tree assembly is going to visit a person's relatives,
+     * put their pages in the crawl frontier in the same order in
+     * which the Person recursive constructor visits them
+     *
+     * @param personPageData the person's PersonPageData object
+     * @param reachedAs the kinship degree the person has been reached by
+     */
+    private void expand(PersonPageData personPageData, DynastyTree.KinshipDegree reachedAs) {
+        if(fetchWorkers == null || !isExpandable(personPageData, reachedAs)) {
+            return;
+        }
+
+        int id = personPageData.getPersonNameUrl().getId();
+
+        if(expandedIds.get(id)) {
+            return;
+        }
+
+        expandedIds.set(id);
+
+        enqueue(personPageData.getFatherNameUrl(), DynastyTree.KinshipDegree.FATHER);
+        enqueue(personPageData.getAdoptiveFatherNameUrl(), DynastyTree.KinshipDegree.ADOPTIVEFATHER);
+        enqueue(personPageData.getMotherNameUrl(), DynastyTree.KinshipDegree.MOTHER);
+
+        enqueueAll(personPageData.getSpouses(), DynastyTree.KinshipDegree.SPOUSE);
+        enqueueAll(personPageData.getSuccessors(), DynastyTree.KinshipDegree.SUCCESSOR);
+        enqueueAll(personPageData.getChildren(), DynastyTree.KinshipDegree.CHILDREN);
+        enqueueAll(personPageData.getAdoptedChildren(), DynastyTree.KinshipDegree.ADOPTEDCHILDREN);
+    }
+
+    /**
+     * Check whether the Person recursive constructor is going to visit the
+     * relatives of a person reached by the given kinship degree
+     *
+     * @param personPageData the person's PersonPageData object
+     * @param reachedAs the kinship degree the person has been reached by
+     *
+     * @return true if the person's relatives are going to be visited, false otherwise
+     */
+    private boolean isExpandable(PersonPageData personPageData, DynastyTree.KinshipDegree reachedAs) {
+        if(!personPageData.isEmperorOrDictator()) {
+            return false;
+        }
+
+        if(reachedAs == null) {
+            return true;
+        }
+
+        String personDynastyPageUrl = personPageData.getPersonDynastyPageUrl();
+
+        switch(reachedAs) {
+            case SPOUSE:
+                return true;
+
+            case SUCCESSOR:
+                return personDynastyPageUrl != null &&
+                        (Dynasty.dynastyPageUrlEquals(dynastyPageUrl, personDynastyPageUrl) ||
+                                personDynastyPageUrl.startsWith("https://it.wikipedia.org/w/"));
+
+            case CHILDREN:
+            case ADOPTEDCHILDREN:
+                return personDynastyPageUrl == null || Dynasty.dynastyPageUrlEquals(dynastyPageUrl, personDynastyPageUrl);
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Put a person's page in the crawl frontier unless it's already known or scheduled
+     *
+     * @param personNameUrl the person's PersonNameUrl object (may be null)
+     * @param reachedAs the kinship degree the person has been reached by
+     */
+    private void enqueue(PersonNameUrl personNameUrl, DynastyTree.KinshipDegree reachedAs) {
+        if(personNameUrl == null) {
+            return;
+        }
+
+        String url = personNameUrl.getUrl();
+
+        if(url != null && getScheduledFetch(personNameUrl.getId()) == null && !scrapeSession.hasPersonPageData(url)) {
+            schedule(personNameUrl, reachedAs);
+        }
+    }
+
+    /**
+     * @param id a person's URL ID
+     *
+     * @return the PageFetch scheduled for the person, null if none
+     */
+    private PageFetch getScheduledFetch(int id) {
+        return id < scheduledFetches.length ? scheduledFetches[id] : null;
+    }
+
+    /**
+     * @param personNameUrls the people's PersonNameUrl objects (may be null)
+     * @param reachedAs the kinship degree the people have been reached by
+     */
+    private void enqueueAll(ArrayList<PersonNameUrl> personNameUrls, DynastyTree.KinshipDegree reachedAs) {
+        if(personNameUrls != null) {
+            for(PersonNameUrl personNameUrl : personNameUrls) {
+                enqueue(personNameUrl, reachedAs);
+            }
+        }
+    }
+
+    /**
+     * Interface to be implemented to follow a crawl's progress
+     */
+    public interface ProgressListener {
+        /**
+         * Called on the assembling thread each time a person is returned to it
+         *
+         * @param personPageData the person's PersonPageData object
+         * @param scrapedPeople the number of people returned so far
+         * @param queuedPages the number of pages still in the crawl frontier
+         */
+        void onPersonScraped(PersonPageData personPageData, int scrapedPeople, int queuedPages);
+    }
+
+    /**
+     * Class representing the fetch of a person's page by a worker
+     */
+    private class PageFetch extends FutureTask<PersonPageData> {
+        private final PersonNameUrl personNameUrl;
+
+        private final DynastyTree.KinshipDegree reachedAs;
+
+        /* Only read and written by the assembling thread */
+        private boolean processed = false;
+
+        private volatile Throwable failure;
+
+        /**
+         * @param personNameUrl the person's PersonNameUrl object
+         * @param reachedAs the kinship degree the person has been reached by
+         */
+        private PageFetch(PersonNameUrl personNameUrl, DynastyTree.KinshipDegree reachedAs) {
+            super(() -> scrapeSession.loadPersonPageData(pageSource, personNameUrl, dynastyPageUrl));
+
+            this.personNameUrl = personNameUrl;
+            this.reachedAs = reachedAs;
+        }
+
+        @Override
+        protected void setException(Throwable throwable) {
+            failure = throwable;
+
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                System.out.println("Unable to scrape " + personNameUrl.getUrl() + ": " + throwable.getMessage());
+            }
+
+            super.setException(throwable);
+        }
+
+        @Override
+        protected void done() {
+            completedFetches.add(this);
+        }
+
+        /**
+         * @return true if the page has been fetched without errors, false otherwise
+         */
+        private boolean hasSucceeded() {
+            return isDone() && !isCancelled() && failure == null;
+        }
+
+        /**
+         * @return the fetched PersonPageData object
+         * @throws PageFetchException if the page could not be fetched
+         */
+        private PersonPageData getPersonPageData() {
+            try {
+                return get();
+            } catch(ExecutionException ex) {
+                if(ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+
+                throw new PageFetchException(personNameUrl.getUrl(), ex.getCause());
+            } catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+
+                throw new PageFetchException(personNameUrl.getUrl(), ex);
+            }
+        }
+    }
+}
@@ -2,23 +2,41 @@ package romanemperorsscraper.scraping.people;
 
 import org.json.simple.JSONObject;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
 /**
  * Class used to store names and Wikipedia page URLs
  * of people related to Roman Emperors Dynasties.
  *
+ * Each URL is given an integer ID by the shared PersonTable, which also
+ * holds a single PersonNameUrl object for each (full name, URL) pair:
+ * they're returned by PersonNameUrl.of, to be used instead of the
+ * constructors wherever the same person may be stored many times.
+ *
  * @see PersonPageData
+ * @see PersonTable
  *
  * @author Matteo Collica
  * @author Radu Ionut Barbalata
  */
 public class PersonNameUrl {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* The path Wikipedia articles' titles follow in their URLs */
+    private static final String ARTICLE_PATH = "/wiki/";
+
     /*
      * ATTRIBUTES
      */
 
     private final String fullName;
 
-    private String url;
+    private final String url;
+
+    private final int id;
 
     /*
      * CONSTRUCTORS
@@ -31,8 +49,22 @@ public class PersonNameUrl {
      * @param fullName the full name to be set
      */
     public PersonNameUrl(String fullName, String url) {
+        this.id       = PersonTable.getSharedTable().getId(url);
+        this.fullName = fullName;
+        this.url      = PersonTable.getSharedTable().getUrl(id);
+    }
+
+    /**
+     * Construct a PersonNameUrl object whose URL has already been given an ID
+     *
+     * @param fullName the full name to be set
+     * @param url the Wikipedia page url to be set (as stored in the PersonTable)
+     * @param id the URL's ID
+     */
+    PersonNameUrl(String fullName, String url, int id) {
         this.fullName = fullName;
         this.url      = url;
+        this.id       = id;
     }
 
     /**
@@ -41,8 +73,60 @@ public class PersonNameUrl {
      * @param serializedPersonNameUrl the JSONObject to deserialize data from
      */
     public PersonNameUrl(JSONObject serializedPersonNameUrl) {
-        this.fullName = PersonPageDataSerializer.parseJsonString(serializedPersonNameUrl.get("fullName"));
-        this.url      = PersonPageDataSerializer.parseJsonString(serializedPersonNameUrl.get("url"));
+        this(PersonPageDataSerializer.parseJsonString(serializedPersonNameUrl.get("fullName")),
+                PersonPageDataSerializer.parseJsonString(serializedPersonNameUrl.get("url")));
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Return the shared PersonNameUrl object with the given full name and Wikipedia page URL
+     *
+     * @param fullName the person's full name
+     * @param url the person's Wikipedia page URL (may be null)
+     *
+     * @return the PersonNameUrl object stored in the PersonTable for the (full name, URL) pair
+     */
+    public static PersonNameUrl of(String fullName, String url) {
+        return PersonTable.getSharedTable().getPersonNameUrl(fullName, url);
+    }
+
+    /**
+     * Get the title of the Wikipedia page a URL points to
+     * e.g. "https://it.wikipedia.org/wiki/Tito_(imperatore_romano)" => "Tito (imperatore romano)"
+     *
+     * @param url a Wikipedia page URL (may be null)
+     *
+     * @return the page's title, null if the URL doesn't point to an article
+     */
+    public static String getPageTitle(String url) {
+        int titleIndex = url == null ? -1 : url.indexOf(ARTICLE_PATH);
+
+        if (titleIndex == -1) {
+            return null;
+        }
+
+        String title = url.substring(titleIndex + ARTICLE_PATH.length());
+
+        int fragmentIndex = title.indexOf('#');
+
+        if (fragmentIndex != -1) {
+            title = title.substring(0, fragmentIndex);
+        }
+
+        /* Titles may contain '+', which URLDecoder would turn into a space */
+
+        try {
+            title = URLDecoder.decode(title.replace("+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            /* A title which isn't percent-encoded is kept as it is */
+        }
+
+        title = title.replace('_', ' ').trim();
+
+        return title.isEmpty() ? null : title;
     }
 
     /*
@@ -62,4 +146,12 @@ public class PersonNameUrl {
     public String getUrl() {
         return url;
     }
+
+    /**
+     * @return the ID of the Wikipedia Page URL of the person represented by this
+     * PersonNameUrl object, PersonTable.NO_ID if the person doesn't have one
+     */
+    public int getId() {
+        return id;
+    }
 }
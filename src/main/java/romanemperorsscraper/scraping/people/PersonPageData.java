@@ -1,14 +1,11 @@
 package romanemperorsscraper.scraping.people;
 
 import org.json.simple.JSONObject;
-import org.openqa.selenium.By;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.PageAnchor;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.SnapshotReader;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 
 /**
@@ -18,6 +15,7 @@ import java.util.List;
  * @see Person
  * @see PersonNameUrl
  * @see PersonPageDataSerializer
+ * @see romanemperorsscraper.scraping.ScrapeSession
  *
  * @author Radu Ionut Barbalata
  */
@@ -26,17 +24,24 @@ public class PersonPageData {
      * ATTRIBUTES
      */
 
-    private PersonNameUrl personNameUrl;
+    private final PersonNameUrl personNameUrl;
     private String personDynastyPageUrl = null;
 
     private String imageUrl;
     private String role = "Normal";
 
-    private String birthDate;
-    private String deathDate;
+    /*
+     * Whether the summary table as a whole says the person is an emperor
+     * or a dictator, which is how dynasty founders' pages are recognized
+     */
+
+    private boolean summaryTableImpliesRole = false;
 
-    private String reignBeginningDate;
-    private String reignEndDate;
+    private RomanDate birthDate;
+    private RomanDate deathDate;
+
+    private RomanDate reignBeginningDate;
+    private RomanDate reignEndDate;
 
     private PersonNameUrl motherNameUrl;
     private PersonNameUrl fatherNameUrl;
@@ -51,190 +56,131 @@ public class PersonPageData {
      * CLASS ATTRIBUTES
      */
 
-    private static HashMap<String, PersonPageData> urlPersonPageDataMatches = new HashMap<>();
-    private static HashMap<String, HashMap<String, String>> dynastiesPeopleList = new HashMap<>();
-
-    private static HashSet<String> months = new HashSet<>();
-
-    static {
-        months.add("gennaio");
-        months.add("febbraio");
-        months.add("marzo");
-        months.add("aprile");
-        months.add("maggio");
-        months.add("giugno");
-        months.add("luglio");
-        months.add("agosto");
-        months.add("settembre");
-        months.add("ottobre");
-        months.add("novembre");
-        months.add("dicembre");
-    }
+    /*
+     * The extractors of the fields held by the "sinottico" summary
+     * table, with the header labels (in lower case) of their lines
+     */
+
+    private static final InfoboxFieldRegistry FIELD_EXTRACTORS = new InfoboxFieldRegistry()
+            .register("successors", PersonPageData::extractSuccessors, "successore")
+            .register("dynasty", PersonPageData::extractDynasty, "dinastia")
+            .register("birthDate", PersonPageData::extractBirthDate, "nascita")
+            .register("deathDate", PersonPageData::extractDeathDate, "morte")
+            .register("reignDates", PersonPageData::extractReignDates, "regno", "in carica", "dittatura")
+            .register("spouses", PersonPageData::extractSpouses, "coniuge", "coniugi", "consorte", "consorte di")
+            .register("children", PersonPageData::extractChildren, "figli")
+            .register("mother", PersonPageData::extractMother, "madre")
+            .register("father", PersonPageData::extractFather, "padre");
 
     /**
-     * Construct a PersonPageData object or return it if it was already constructed
-     *
-     * @param webDriver the Web Driver instance to be used to scrape data
-     * @param personNameUrl PersonNameUrl object of the person
-     * @param dynastyPageUrl the dynasty's Wikipedia page url
+     * Fulfill the fields of a PersonPageData object from a JSON object
      *
-     * @return the constructed PersonPageData object
+     * @param personPageUrl the person's Wikipedia page URL
+     * @param serializedPersonPageData the JSONObject to deserialize data from
      */
-    public static PersonPageData getPersonPageData(WebDriver webDriver, PersonNameUrl personNameUrl, String dynastyPageUrl) {
-        String url = personNameUrl.getUrl();
-        PersonPageData personPageData;
-
-        if(urlPersonPageDataMatches.containsKey(url)) {
-            personPageData = urlPersonPageDataMatches.get(url);
-        } else {
-            personPageData = new PersonPageData(webDriver, personNameUrl, dynastyPageUrl);
-        }
+    public PersonPageData(String personPageUrl, JSONObject serializedPersonPageData) {
+        this.personNameUrl = PersonNameUrl.of((String) serializedPersonPageData.get("fullName"), personPageUrl);
 
         /*
-         * IF:
-         * - The person has a Wikipedia page;
-         * - The person doesn't have a Dynasty
-         *   OR the person has a dynasty, and it is equal
-         *      to the one identified by the dynastyPageUrl.
-         *
-         * THEN:
-         * - Add this person to that dynasty's HashMap
-         *   so that it can be later retrieved for the
-         *   PeopleList
+         * Personal information
          */
 
-        if(personPageData.getPersonNameUrl().getUrl() != null
-                && (personPageData.getPersonDynastyPageUrl() == null
-                        || Dynasty.dynastyPageUrlEquals(dynastyPageUrl, personPageData.getPersonDynastyPageUrl()))) {
+        this.personDynastyPageUrl = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("dynastyPageUrl"));
 
-            /*
-             * Create the dynasty's HashMap inside the dynastiesPeopleList HashMap
-             * if it doesn't already exist
-             */
+        this.birthDate = PersonPageDataSerializer.deserializeRomanDate(serializedPersonPageData, "birthDate");
+        this.deathDate = PersonPageDataSerializer.deserializeRomanDate(serializedPersonPageData, "deathDate");
 
-            if(!dynastiesPeopleList.containsKey(dynastyPageUrl)){
-                dynastiesPeopleList.put(dynastyPageUrl, new HashMap<>());
-            }
+        this.reignBeginningDate = PersonPageDataSerializer.deserializeRomanDate(serializedPersonPageData, "reignBeginningDate");
+        this.reignEndDate = PersonPageDataSerializer.deserializeRomanDate(serializedPersonPageData, "reignEndDate");
 
-            String key;
+        this.role = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("role"));
+        this.imageUrl = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("imageUrl"));
 
-            /*
-             * The ID will consist of the person's full name
-             * concatenated with their date of birth (when it
-             * is available) to prevent homonyms
-             */
+        /*
+         * Older export files don't have the flag, in which case the role is
+         * the best guess we have (it's implied by the summary table as well)
+         */
 
-            if(personPageData.getBirthDate() != null) {
-                key = personPageData.getPersonNameUrl().getFullName()+" ("+ personPageData.getBirthDate()+")";
-            } else {
-                key = personPageData.getPersonNameUrl().getFullName();
-            }
+        Object summaryTableImpliesRole = serializedPersonPageData.get("summaryTableImpliesRole");
 
-            dynastiesPeopleList.get(dynastyPageUrl).put(key, personPageData.getPersonNameUrl().getUrl());
-        }
+        this.summaryTableImpliesRole = summaryTableImpliesRole instanceof Boolean
+                ? (Boolean) summaryTableImpliesRole
+                : isEmperorOrDictator();
 
-        return personPageData;
-    }
+        /*
+         * Kinship degrees which admit only one person (like biological mother and father)
+         */
 
-    /**
-     * Return an already created PersonPageData object or null
-     *
-     * @param personPageUrl the person's Wikipedia page URL
-     * @param dynastyPageUrl the dynasty's Wikipedia page URL
-     *
-     * @return PersonPageData object relative to the given URL
-     */
-    public static PersonPageData getCachedPersonPageData(String personPageUrl, String dynastyPageUrl) {
-        if(urlPersonPageDataMatches.containsKey(personPageUrl)) {
-            PersonPageData personPageData = urlPersonPageDataMatches.get(personPageUrl);
+        this.motherNameUrl = PersonPageDataSerializer.deserializePersonNameUrl((JSONObject) serializedPersonPageData.get("mother"));
 
-            if(!dynastiesPeopleList.containsKey(dynastyPageUrl)){
-                dynastiesPeopleList.put(dynastyPageUrl, new HashMap<>());
-            }
+        this.fatherNameUrl = PersonPageDataSerializer.deserializePersonNameUrl((JSONObject) serializedPersonPageData.get("father"));
 
-            String key;
+        this.adoptiveFatherNameUrl = PersonPageDataSerializer.deserializePersonNameUrl((JSONObject) serializedPersonPageData.get("adoptiveFather"));
 
-            /*
-             * The ID will consist of the person's full name
-             * concatenated with their date of birth (when it
-             * is available) to prevent homonyms
-             */
+        /*
+         * Kinship degrees which admit more than one person (like successors, spouses and children)
+         */
 
-            if(personPageData.getBirthDate() != null) {
-                key = personPageData.getPersonNameUrl().getFullName()+" ("+ personPageData.getBirthDate()+")";
-            } else {
-                key = personPageData.getPersonNameUrl().getFullName();
-            }
+        this.successors = PersonPageDataSerializer.deserializeArrayOfPersonNameUrl((JSONObject) serializedPersonPageData.get("successors"));
 
-            /*
-             * Differently than in the getPersonPageData method, here we don't
-             * check whether the person has a Wikipedia page and if he/she is of
-             * the same dynasty because this method is only used for dynasty founders
-             */
+        this.spouses = PersonPageDataSerializer.deserializeArrayOfPersonNameUrl((JSONObject) serializedPersonPageData.get("spouses"));
 
-            dynastiesPeopleList.get(dynastyPageUrl).put(key, personPageData.getPersonNameUrl().getUrl());
+        this.children = PersonPageDataSerializer.deserializeArrayOfPersonNameUrl((JSONObject) serializedPersonPageData.get("children"));
 
-            return personPageData;
-        }
+        this.adoptedChildren = PersonPageDataSerializer.deserializeArrayOfPersonNameUrl((JSONObject) serializedPersonPageData.get("adoptedChildren"));
 
-        return null;
     }
 
     /**
-     * Fulfill the fields of a PersonPageData object from a JSON object
+     * Fulfill the fields of a PersonPageData object from its record in a snapshot file
      *
      * @param personPageUrl the person's Wikipedia page URL
-     * @param serializedPersonPageData the JSONObject to deserialize data from
+     * @param snapshotReader the SnapshotReader positioned right after the record's URL
+     * @param recordUrls the Wikipedia page URLs of the people in the snapshot's
+     *                   people section, by record number (relatives having a
+     *                   record are referred to by its number)
      */
-    public PersonPageData(String personPageUrl, JSONObject serializedPersonPageData) {
-        this.personNameUrl = new PersonNameUrl((String) serializedPersonPageData.get("fullName"), personPageUrl);
-
-        /*
-         * We add this PersonPageData instance to the urlPersonPageDataMatches
-         * HashMap so that it can be later retrieved by its Wikipedia page URL
-         */
-
-        if(personNameUrl.getUrl() != null) {
-            addToUrlPersonPageDataMatches(personNameUrl.getUrl(), this);
-        }
+    public PersonPageData(String personPageUrl, SnapshotReader snapshotReader, String[] recordUrls) {
+        this.personNameUrl = PersonNameUrl.of(snapshotReader.readString(), personPageUrl);
 
         /*
          * Personal information
          */
 
-        this.personDynastyPageUrl = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("dynastyPageUrl"));
+        this.personDynastyPageUrl = snapshotReader.readString();
 
-        this.birthDate = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("birthDate"));
-        this.deathDate = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("deathDate"));
+        this.birthDate = PersonPageDataSerializer.readRomanDate(snapshotReader);
+        this.deathDate = PersonPageDataSerializer.readRomanDate(snapshotReader);
 
-        this.reignBeginningDate = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("reignBeginningDate"));
-        this.reignEndDate = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("reignEndDate"));
+        this.reignBeginningDate = PersonPageDataSerializer.readRomanDate(snapshotReader);
+        this.reignEndDate = PersonPageDataSerializer.readRomanDate(snapshotReader);
 
-        this.role = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("role"));
-        this.imageUrl = PersonPageDataSerializer.parseJsonString(serializedPersonPageData.get("imageUrl"));
+        this.role = snapshotReader.readString();
+        this.imageUrl = snapshotReader.readString();
+
+        this.summaryTableImpliesRole = snapshotReader.readVarint() == 1;
 
         /*
          * Kinship degrees which admit only one person (like biological mother and father)
          */
 
-        this.motherNameUrl = PersonPageDataSerializer.deserializePersonNameUrl((JSONObject) serializedPersonPageData.get("mother"));
+        this.motherNameUrl = PersonPageDataSerializer.readPersonNameUrl(snapshotReader, recordUrls);
 
-        this.fatherNameUrl = PersonPageDataSerializer.deserializePersonNameUrl((JSONObject) serializedPersonPageData.get("father"));
+        this.fatherNameUrl = PersonPageDataSerializer.readPersonNameUrl(snapshotReader, recordUrls);
 
-        this.adoptiveFatherNameUrl = PersonPageDataSerializer.deserializePersonNameUrl((JSONObject) serializedPersonPageData.get("adoptiveFather"));
+        this.adoptiveFatherNameUrl = PersonPageDataSerializer.readPersonNameUrl(snapshotReader, recordUrls);
 
         /*
          * Kinship degrees which admit more than one person (like successors, spouses and children)
          */
 
-        this.successors = PersonPageDataSerializer.deserializeArrayOfPersonNameUrl((JSONObject) serializedPersonPageData.get("successors"));
+        this.successors = PersonPageDataSerializer.readArrayOfPersonNameUrl(snapshotReader, recordUrls);
 
-        this.spouses = PersonPageDataSerializer.deserializeArrayOfPersonNameUrl((JSONObject) serializedPersonPageData.get("spouses"));
-
-        this.children = PersonPageDataSerializer.deserializeArrayOfPersonNameUrl((JSONObject) serializedPersonPageData.get("children"));
+        this.spouses = PersonPageDataSerializer.readArrayOfPersonNameUrl(snapshotReader, recordUrls);
 
-        this.adoptedChildren = PersonPageDataSerializer.deserializeArrayOfPersonNameUrl((JSONObject) serializedPersonPageData.get("adoptedChildren"));
+        this.children = PersonPageDataSerializer.readArrayOfPersonNameUrl(snapshotReader, recordUrls);
 
+        this.adoptedChildren = PersonPageDataSerializer.readArrayOfPersonNameUrl(snapshotReader, recordUrls);
     }
 
     /**
@@ -242,49 +188,39 @@ public class PersonPageData {
      * the information obtained during the scraping of
      * a dynasty member's Wikipedia page
      *
-     * @param webDriver the Web Driver instance to be used to scrape data
+     * Differently than getPersonPageData, this constructor doesn't
+     * touch any class attribute, so that pages can be scraped by
+     * more threads at once (see PersonCrawler)
+     *
+     * The person is named after his/her page's title rather than after the
+     * link he/she has been reached through: the object is shared by all the
+     * crawls reaching the page (see ScrapeSession), whose links' texts may
+     * differ, so its name mustn't depend on which of them loaded it first
+     *
+     * @param pageSource the Page Source instance to be used to scrape data
      * @param personNameUrl the person's PersonNameUrl object
      * @param dynastyPageUrl the Wikipedia page URL of the dynasty we're currently scraping on
      */
-    public PersonPageData(WebDriver webDriver, PersonNameUrl personNameUrl, String dynastyPageUrl) {
-        this.personNameUrl = personNameUrl;
+    public PersonPageData(PageSource pageSource, PersonNameUrl personNameUrl, String dynastyPageUrl) {
+        String pageTitle = PersonNameUrl.getPageTitle(personNameUrl.getUrl());
 
-        /*
-         * We add this PersonPageData instance to the urlPersonPageDataMatches
-         * HashMap so that it can be later retrieved by its Wikipedia page URL
-         */
-
-        if(this.personNameUrl.getUrl() != null) {
-            addToUrlPersonPageDataMatches(this.personNameUrl.getUrl(), this);
-        }
+        this.personNameUrl = pageTitle != null ? PersonNameUrl.of(pageTitle, personNameUrl.getUrl()) : personNameUrl;
 
         String wikipediaPageUrl = personNameUrl.getUrl();
 
-        webDriver.get(wikipediaPageUrl);
-
         /*
-         * imageUrl
+         * Everything we need from the page (the image URL and the
+         * "sinottico" summary table) is copied locally at once, so
+         * that parsing it doesn't cost any further round trip
          */
 
-        WebElement imageElement = null;
-
-        try {
-            imageElement = webDriver.findElement(By.className("floatnone"));
-        } catch(Exception ex) {
-            try{
-                imageElement = webDriver.findElement(By.className("thumbinner"));
-            } catch (Exception ignored) {}
-        }
+        InfoboxSnapshot infobox = InfoboxSnapshot.create(pageSource, wikipediaPageUrl);
 
         /*
-         * The image may also not be present in the page
+         * imageUrl (the image may also not be present in the page)
          */
 
-        if (imageElement != null){
-            this.imageUrl = imageElement.findElement(By.tagName("a")).findElement(By.tagName("img")).getAttribute("src");
-        } else {
-            this.imageUrl = null;
-        }
+        this.imageUrl = infobox.getImageUrl();
 
         /*
          * The person's information are contained in the "sinottico"
@@ -292,20 +228,27 @@ public class PersonPageData {
          * immediately as there are no more data to scrape
          */
 
-        WebElement summaryElement;
-
-        try {
-            summaryElement = webDriver.findElement(By.className("sinottico"));
-        } catch(Exception ignored) {
+        if(!infobox.hasSummaryTable()) {
             return;
         }
 
+        String summaryTableText = infobox.getSummaryTableText();
+
+        this.summaryTableImpliesRole = RoleKeywordMatcher.classify(summaryTableText) != 0;
+
         boolean searchForRole = true;
 
-        List<WebElement> linesOfSummaryTable = summaryElement.findElements(By.tagName("tr"));
-        for (WebElement line : linesOfSummaryTable) {
+        for (InfoboxSnapshot.Row line : infobox.getRows()) {
             try {
-                WebElement categoryInformationElement = line.findElement(By.tagName("th"));
+                String categoryInformation = line.getHeaderText();
+
+                /*
+                 * Lines without a header cell don't contain any information
+                 */
+
+                if (categoryInformation == null) {
+                    continue;
+                }
 
                 String lineText = line.getText();
 
@@ -317,677 +260,432 @@ public class PersonPageData {
                  */
 
                 if(searchForRole) {
-                    if (textImpliesDictatorRole(lineText)) {
+                    int impliedRoles = RoleKeywordMatcher.classify(lineText);
+
+                    if ((impliedRoles & RoleKeywordMatcher.DICTATOR_ROLE) != 0) {
                         this.role = "Dictator";
 
                         searchForRole = false;
 
-                    } else if (textImpliesEmperorRole(lineText)) {
+                    } else if ((impliedRoles & RoleKeywordMatcher.EMPEROR_ROLE) != 0) {
                         this.role = "Emperor";
 
                         searchForRole = false;
                     }
                 }
 
-                if (categoryInformationElement != null) {
-                    String informationType = categoryInformationElement.getText().replace("\n", "");
-                    WebElement informationDataElement = line.findElement(By.tagName("td"));
-
-                    switch (informationType.toLowerCase()) {
-                        case ("successore"):
-                            /*
-                             * We clear the data from Brackets and their content as
-                             * they never contain successors but instead stuff like
-                             * numbers
-                             */
-
-                            String successorsText = informationDataElement.getAttribute("innerText");
+                /*
+                 * Each line is handed to the extractor of the field
+                 * its header label stands for (if there is one)
+                 */
 
-                            /*
-                             * We iterate over all the successors and add them
-                             * to the PersonPageData successors ArrayList
-                             */
+                FIELD_EXTRACTORS.extract(this, categoryInformation, line);
+            } catch(Exception ignored) {}
+        }
 
-                            String successorsNames = clearBrackets(successorsText).toString();
+        /*
+         * There may be some dynasty members which
+         * have a reign beginning and end date even
+         * if they aren't emperors themselves (like
+         * emperors' spouses), in these cases we
+         * empty the values
+         */
 
-                            List<WebElement> successorsAnchorElements = informationDataElement.findElements(By.tagName("a"));
+        if(!isEmperorOrDictator()) {
+            this.successors = null;
 
-                            for (WebElement successorAnchorElement : successorsAnchorElements) {
-                                String successorLinkedName = successorAnchorElement.getText();
+            this.reignBeginningDate = null;
+            this.reignEndDate = null;
+        }
+    }
 
-                                if (successorsNames.contains(successorLinkedName)) {
-                                    this.successors.add(new PersonNameUrl(
-                                        successorLinkedName,
-                                        successorAnchorElement.getAttribute("href")
-                                    ));
-                                }
-                            }
 
-                            break;
+    /**
+     * Extract the successors from a "successore" summary table line
+     *
+     * @param line the summary table line
+     */
+    private void extractSuccessors(InfoboxSnapshot.Row line) {
+        /*
+         * We clear the data from Brackets and their content as
+         * they never contain successors but instead stuff like
+         * numbers
+         */
 
+        String successorsText = line.getDataInnerText();
 
-                        case ("dinastia"):
-                            WebElement dynastyAnchorElement = informationDataElement.findElement(By.tagName("a"));
+        /*
+         * We iterate over all the successors and add them
+         * to the PersonPageData successors ArrayList
+         */
 
-                            this.personDynastyPageUrl = dynastyAnchorElement.getAttribute("href");
+        String successorsNames = InfoboxTextScanner.clearBrackets(successorsText).toString();
 
-                            break;
+        for (PageAnchor successorAnchorElement : line.getDataAnchors()) {
+            String successorLinkedName = successorAnchorElement.getText();
 
+            if (successorsNames.contains(successorLinkedName)) {
+                this.successors.add(PersonNameUrl.of(
+                    successorLinkedName,
+                    successorAnchorElement.getHref()
+                ));
+            }
+        }
+    }
 
-                        case ("morte"):
-                        case ("nascita"):
-                            String informationText = informationDataElement.getAttribute("innerText");
 
-                            /*
-                             * We clear the string from \n because it can be a separator
-                             * between number and words (which can represent a month)
-                             *
-                             * We also clear the data from the brackets and their content
-                             * because they contain superficial or useless information
-                             * for our goal, and we replace "°" with "" because there can
-                             * be numbers presented like [1°]
-                             */
+    /**
+     * Extract the dynasty's Wikipedia page URL from a "dinastia" summary table line
+     *
+     * @param line the summary table line
+     */
+    private void extractDynasty(InfoboxSnapshot.Row line) {
+        PageAnchor dynastyAnchorElement = line.getDataAnchors().get(0);
 
-                            informationText = informationText.replace("\n", " ");
-                            informationText = informationText.replace("°", "");
+        this.personDynastyPageUrl = dynastyAnchorElement.getHref();
+    }
 
-                            StringBuilder clearedInformations = clearBrackets(informationText);
-                            StringBuilder currentInformation = new StringBuilder();
 
-                            /*
-                             * Normalize all non-breaking spaces (having ASCII code 160)
-                             * to simple space characters (having ASCII code 32), a
-                             * replacement needed to be able to split on spaces later on
-                             */
+    /**
+     * Extract the birthdate from a "nascita" summary table line
+     *
+     * @param line the summary table line
+     */
+    private void extractBirthDate(InfoboxSnapshot.Row line) {
+        this.birthDate = extractDate(line);
+    }
 
-                            for (int indx = 0; indx < clearedInformations.length(); indx += 1) {
-                                Character character = clearedInformations.charAt(indx);
 
-                                int asciiValue = character;
+    /**
+     * Extract the death date from a "morte" summary table line
+     *
+     * @param line the summary table line
+     */
+    private void extractDeathDate(InfoboxSnapshot.Row line) {
+        this.deathDate = extractDate(line);
+    }
 
-                                if (asciiValue == 32 || asciiValue == 160) {
-                                    currentInformation.append(" ");
-                                } else {
-                                    currentInformation.append(character);
-                                }
-                            }
 
-                            String[] singleInformation = String.valueOf(currentInformation).split(" ");
-                            StringBuilder date = new StringBuilder(extractDates(singleInformation));
+    /**
+     * Extract the reign beginning and end dates from a "regno"
+     * (or "in carica", "dittatura") summary table line
+     *
+     * @param line the summary table line
+     */
+    private void extractReignDates(InfoboxSnapshot.Row line) {
+        /*
+         * The separator between the beginning date of reign and
+         * the reign end date can be "–", "-" or "\n"
+         */
 
-                            if (informationType.equalsIgnoreCase("morte")) {
-                                this.deathDate = date.toString().trim();
-                            } else {
-                                this.birthDate = date.toString().trim();
-                            }
+        ArrayList<String> datesOfReign = InfoboxTextScanner.extractReignDates(line.getDataInnerText());
 
-                            break;
+        String reignBeginningDate = datesOfReign.get(0).trim();
 
+        this.reignBeginningDate = RomanDate.parse(reignBeginningDate);
 
-                        case ("dittatura"):
-                        case ("in carica"):
-                        case ("regno"):
-                            ArrayList<String> datesOfReign = new ArrayList<>();
-                            String reignData = informationDataElement.getAttribute("innerText");
+        /*
+         * Search the reign end date starting from the
+         * last array index backwards
+         */
 
-                            reignData = clearBrackets(reignData).toString();
-                            reignData = reignData.replace("º", "");
+        int indexOfString = datesOfReign.size() - 1;
 
-                            /*
-                             * The separator between the beginning date of reign and
-                             * the reign end date can be "–", "-" or "\n"
-                             */
+        while (datesOfReign.get(indexOfString).isEmpty()){
+            indexOfString--;
+        }
 
-                            reignData = reignData.replace("–", "\n");
-                            reignData = reignData.replace("-", "\n");
+        String reignEndDate = datesOfReign.get(indexOfString).trim();
 
-                            String[] listDates = reignData.split("\n");
+        /*
+         * Since InfoboxTextScanner automatically puts
+         * d.C. if the date doesn't contain neither d.C. neither a.C.,
+         * we replace it here for the reignBeginningDate with a.C.
+         * if the reignEndDate contains a.C.
+         *
+         * e.g. reignBeginningDate = 16 gennaio 27 d.C.
+         *      reignEndDate = 10 agosto 14 a.C.
+         *      => reignBeginningDate = 16 gennaio 27 a.C.
+         */
 
-                            for (String reignDate : listDates) {
-                                datesOfReign.add((extractDates(reignDate.split(" "))).toString());
-                            }
+        if (reignEndDate.contains("a.C")){
+            this.reignBeginningDate = RomanDate.parse(reignBeginningDate.replace("d.C", "a.C"));
+        }
 
-                            this.reignBeginningDate = datesOfReign.get(0).trim();
+        this.reignEndDate = RomanDate.parse(reignEndDate);
+    }
 
-                            /*
-                             * Search the reign end date starting from the
-                             * last array index backwards
-                             */
 
-                            int indexOfString = datesOfReign.size() - 1;
+    /**
+     * Extract the spouses from a "coniuge" (or "coniugi",
+     * "consorte", "consorte di") summary table line
+     *
+     * @param line the summary table line
+     */
+    private void extractSpouses(InfoboxSnapshot.Row line) {
+        /*
+         * If a line (or a part of it separated by commas or semicolons)
+         * starts with an UpperCase letter and doesn't end with the '?'
+         * symbol then it's supposed to be a valid name, as the content
+         * of brackets is skipped
+         */
 
-                            while (datesOfReign.get(indexOfString).isEmpty()){
-                                indexOfString--;
-                            }
+        ArrayList<String> spousesNames = InfoboxTextScanner.extractNames(line.getDataInnerText());
 
-                            this.reignEndDate = datesOfReign.get(indexOfString).trim();
+        /*
+         * getPersonNameUrls returns an ArrayList of PersonNameUrl(s) by
+         * connecting each spouse name to the URLs it points to
+         */
 
-                            /*
-                             * Since in the extractDates method we automatically put
-                             * d.C. if the date doesn't contain neither d.C. neither a.C.,
-                             * we replace it here for the reignBeginningDate with a.C.
-                             * if the reignEndDate contains a.C.
-                             *
-                             * e.g. reignBeginningDate = 16 gennaio 27 d.C.
-                             *      reignEndDate = 10 agosto 14 a.C.
-                             *      => reignBeginningDate = 16 gennaio 27 a.C.
-                             */
+        ArrayList<PersonNameUrl> spousesPersonNameUrls = getPersonNameUrls(spousesNames, line.getDataAnchors());
+        for (PersonNameUrl spousePersonNameUrl : spousesPersonNameUrls) {
+            String spouseName = spousePersonNameUrl.getFullName();
 
-                            if (this.reignEndDate.contains("a.C")){
-                                this.reignBeginningDate = this.reignBeginningDate.replace("d.C", "a.C");
-                            }
-
-                            break;
-
-
-                        case ("consorte di"):
-                        case ("consorte"):
-                        case ("coniugi"):
-                        case ("coniuge"):
-                            ArrayList<String> spousesNames = new ArrayList<>();
+            spousesNames.remove(spouseName);
 
-                            String[] cleanedLines = clearBrackets(informationDataElement.getAttribute("innerText")).toString().replace(";", "\n").replace(",", "\n").split("\n");
-                            for (String cleanedLine : cleanedLines) {
-                                /*
-                                 * If a line starts with an UpperCase letter and
-                                 * doesn't end with the '?' symbol then it's
-                                 * supposed to be a valid name as invalid
-                                 * content were already cleaned before from
-                                 * the line. We then add it to the ArrayList.
-                                 */
-
-                                if (!cleanedLine.isEmpty() && cleanedLine.substring(0, 1).equals(cleanedLine.substring(0, 1).toUpperCase()) && !cleanedLine.startsWith(" ")  && !cleanedLine.endsWith("?") ){
-                                    spousesNames.add(cleanedLine.trim());
-                                }
-                            }
-
-                            /*
-                             * getPersonNameUrls returns an ArrayList of PersonNameUrl(s) by
-                             * connecting each spouse name to the URLs it points to
-                             */
-
-                            ArrayList<PersonNameUrl> spousesPersonNameUrls = getPersonNameUrls(spousesNames, informationDataElement);
-                            for (PersonNameUrl spousePersonNameUrl : spousesPersonNameUrls) {
-                                String spouseName = spousePersonNameUrl.getFullName();
-
-                                spousesNames.remove(spouseName);
-
-                                this.spouses.add(spousePersonNameUrl);
-                            }
-
-                            /*
-                             * The remaining spouses (those without a Wikipedia page URL) are
-                             * added with a PersonNameUrl which contains an empty URL instead
-                             */
-
-                            if (!spousesNames.isEmpty()){
-                                for (String spouseName : spousesNames){
-                                    PersonNameUrl person = new PersonNameUrl(spouseName, null);
-
-                                    this.spouses.add(person);
-                                }
-                            }
-
-                            break;
-
-
-                        case ("figli"):
-                            ArrayList<String> children             = new ArrayList<>();
-                            ArrayList<String> adoptedChildrenNames = new ArrayList<>();
-                            ArrayList<String> allChildrenNames     = new ArrayList<>();
-
-                            boolean adoptiveChildrenState = false;
-
-                            String childrenString = informationDataElement.getAttribute("innerText");
-
-                            String[] childrenNames = childrenString.split("\n");
-                            for (String childData : childrenNames) {
-                                /*
-                                 * Check if it's a valid name, so if it starts with an UpperCase
-                                 */
-
-                                if (childData.substring(0, 1).equals(childData.substring(0, 1).toLowerCase())){
-                                    continue;
-                                }
-
-                                /*
-                                 * Pick as the name all the characters until a
-                                 * bracket ('(' or '['), comma (',') or semicolon
-                                 * (';') is found (as it usually mean the end of
-                                 * the name)
-                                 */
-
-                                StringBuilder name = new StringBuilder();
-                                for (int i = 0; i < childData.length(); i++) {
-
-                                    if (childData.charAt(i) == '(' | (childData.charAt(i) == '[') | (childData.charAt(i) ==';') | (childData.charAt(i) ==',')) {
-                                        break;
-                                    }
-
-                                    name.append(childData.charAt(i));
-                                }
-
-                                /*
-                                 * The start of the adopted children names list
-                                 * is usually indicated by an "Adott" substring
-                                 * like "Adottivi:"
-                                 */
-
-                                if (name.toString().toLowerCase().contains("adott")){
-                                    adoptiveChildrenState = true;
-                                    continue;
-                                }
-
-                                if (!adoptiveChildrenState) {
-                                    /*
-                                     * If a person have few children usually
-                                     * the adopted ones are represented like:
-                                     * "<name> (adottato/adottivo)"
-                                     */
-
-                                    if (childData.contains("adott")) {
-                                        adoptedChildrenNames.add(name.toString().trim());
-                                    } else {
-                                        /*
-                                         * Twins are usually represented with a
-                                         * middle "e" separator like:
-                                         * "<first_son_name> e <second_son_name>"
-                                         */
-
-                                        for (String child : name.toString().split(" e ")) {
-                                            children.add(child.trim());
-                                        }
-                                    }
-                                } else {
-                                    adoptedChildrenNames.add(name.toString().trim());
-                                }
-
-                                allChildrenNames.add(name.toString().trim());
-                            }
-
-                            ArrayList<PersonNameUrl> childrenPersonNameUrls = getPersonNameUrls(allChildrenNames, informationDataElement);
-                            for (PersonNameUrl childPersonNameUrl : childrenPersonNameUrls) {
-                                String childName = childPersonNameUrl.getFullName();
-
-                                if (children.contains(childName)) {
-                                    this.children.add(childPersonNameUrl);
-
-                                    children.remove(childName);
-                                } else {
-                                    this.adoptedChildren.add(childPersonNameUrl);
-
-                                    adoptedChildrenNames.remove(childName);
-                                }
-                            }
-
-                            /*
-                             * The remaining children (those without a Wikipedia page URL) are
-                             * added with a PersonNameUrl which contains an empty URL instead
-                             */
-
-                            if (!children.isEmpty()){
-                                for (String child : children) {
-                                    PersonNameUrl
-                                            name = new PersonNameUrl(child, null);
-
-                                    this.children.add(name);
-                                }
-                            }
-
-                            /*
-                             * The remaining adopted children (those without a Wikipedia page URL)
-                             * are added with a PersonNameUrl which contains an empty URL instead
-                             */
-
-                            if (!adoptedChildrenNames.isEmpty()){
-                                for(String child : adoptedChildrenNames){
-                                    PersonNameUrl
-                                            name = new PersonNameUrl(child, null);
-                                    this.adoptedChildren.add(name);
-                                }
-                            }
-
-                            break;
-
-
-                        case ("madre"):
-
-                            ArrayList<String> mothers = new ArrayList<>();
-
-                            String mothersString = informationDataElement.getAttribute("innerText");
-                            mothersString = clearBrackets(mothersString).toString().replace(";", ",").replace(";", "\n");
-
-                            String[] mothersNames = mothersString.split("\n");
-
-                            for (String motherName : mothersNames) {
-                                /*
-                                 * Check if it's a valid name, so if it starts with an UpperCase
-                                 */
-                                motherName = motherName.trim();
-                                if (motherName.substring(0, 1).equals(motherName.substring(0, 1).toUpperCase())){
-                                    mothers.add(motherName);
-                                }
-                            }
-
-                            ArrayList<PersonNameUrl> momsPersonNameUrls = getPersonNameUrls(mothers, informationDataElement);
-
-                            if (momsPersonNameUrls.isEmpty()){
-                                this.motherNameUrl = new PersonNameUrl(mothers.get(0), null);
-                            }
-                            else {
-                                this.motherNameUrl = momsPersonNameUrls.get(0);
-                            }
-
-                            break;
-
-
-                        case ("padre"):
-                            ArrayList<String> fathersNames = new ArrayList<>();
-                            ArrayList<String> fatherNamesPosition = new ArrayList<>();
-
-                            String fathersString = informationDataElement.getAttribute("innerText");
-                            fathersString = clearBrackets(fathersString).toString();
-                            fathersString = fathersString.replace("Adottivo:", "").replace(",", ";").replace(";", "\n");
-                            String[] fathersPossibleNames = fathersString.split("\n");
-
-                            for (String fatherName : fathersPossibleNames) {
-                                /*
-                                 * Check if it's a valid name, so if it starts with an UpperCase
-                                 */
-                                fatherName = fatherName.trim();
-                                if (!fatherName.isEmpty() && fatherName.substring(0, 1).equals(fatherName.substring(0, 1).toUpperCase())){
-                                    fathersNames.add(fatherName);
-                                    fatherNamesPosition.add(fatherName);
-                                }
-                            }
-
-                            /*
-                             * [1] The adoptive father is usually (from our researches)
-                             * in the second line of the fathersString, like:
-                             * "<blood_father_name> \n <adoptive_father_name>"
-                             */
-
-                            ArrayList<PersonNameUrl> fathersPersonNameUrls = getPersonNameUrls(fathersNames, informationDataElement);
-
-                            for (PersonNameUrl fatherPersonNameUrl : fathersPersonNameUrls){
-                                /*
-                                 * [1]
-                                 */
-
-                                if (this.fatherNameUrl == null && fatherNamesPosition.get(0).equals(fatherPersonNameUrl.getFullName())){
-                                    this.fatherNameUrl = fatherPersonNameUrl;
-                                } else {
-                                    this.adoptiveFatherNameUrl = fatherPersonNameUrl;
-                                }
-
-                                fatherNamesPosition.remove(fatherPersonNameUrl.getFullName());
-                            }
-
-                            for (String father : fatherNamesPosition) {
-                                /*
-                                 * [1]
-                                 */
-
-                                if(this.fatherNameUrl == null) {
-                                    this.fatherNameUrl = new PersonNameUrl(father, null);
-                                } else {
-                                    this.adoptiveFatherNameUrl = new PersonNameUrl(father, null);
-                                }
-                            }
-
-                            break;
-                    }
-                }
-            } catch(Exception ignored) {}
+            this.spouses.add(spousePersonNameUrl);
         }
 
         /*
-         * There may be some dynasty members which
-         * have a reign beginning and end date even
-         * if they aren't emperors themselves (like
-         * emperors' spouses), in these cases we
-         * empty the values
+         * The remaining spouses (those without a Wikipedia page URL) are
+         * added with a PersonNameUrl which contains an empty URL instead
          */
 
-        if(!isEmperorOrDictator()) {
-            this.successors = null;
+        if (!spousesNames.isEmpty()){
+            for (String spouseName : spousesNames){
+                PersonNameUrl person = PersonNameUrl.of(spouseName, null);
 
-            this.reignBeginningDate = null;
-            this.reignEndDate = null;
+                this.spouses.add(person);
+            }
         }
+    }
+
 
+    /**
+     * Extract the children and adopted children from a "figli" summary table line
+     *
+     * @param line the summary table line
+     */
+    private void extractChildren(InfoboxSnapshot.Row line) {
         /*
-         * IF:
-         * - The person has a Wikipedia page;
-         * - The person doesn't have a Dynasty
-         *   OR the person has a dynasty, and it is equal
-         *      to the one identified by the dynastyPageUrl.
-         *
-         * THEN:
-         * - Add this person to that dynasty's HashMap
-         *   so that it can be later retrieved for the
-         *   PeopleList
+         * Each line holds a name (ending at the first bracket, comma or
+         * semicolon), or twins separated by " e ", while the start of the
+         * adopted children names list is usually indicated by an "Adott"
+         * substring like "Adottivi:" (if a person has few children the
+         * adopted ones are usually represented like "<name> (adottato)")
          */
 
-        if(this.personNameUrl.getUrl() != null && getDynastiesPeopleList() != null &&
-                (getPersonDynastyPageUrl() == null || Dynasty.dynastyPageUrlEquals(dynastyPageUrl, getPersonDynastyPageUrl()))) {
-            /*
-             * Create the dynasty's HashMap inside the dynastiesPeopleList HashMap
-             * if it doesn't already exist
-             */
+        InfoboxTextScanner.ChildrenNames childrenNames = InfoboxTextScanner.extractChildrenNames(line.getDataInnerText());
 
-            if(!dynastiesPeopleList.containsKey(dynastyPageUrl)){
-                dynastiesPeopleList.put(dynastyPageUrl, new HashMap<>());
-            }
+        if (childrenNames == null) {
+            return;
+        }
 
-            String key;
+        ArrayList<String> children             = childrenNames.getChildren();
+        ArrayList<String> adoptedChildrenNames = childrenNames.getAdoptedChildren();
+        ArrayList<String> allChildrenNames     = childrenNames.getAllChildren();
 
-            /*
-             * The ID will consist of the person's full name
-             * concatenated with their date of birth (when it
-             * is available) to prevent homonyms
-             */
+        ArrayList<PersonNameUrl> childrenPersonNameUrls = getPersonNameUrls(allChildrenNames, line.getDataAnchors());
+        for (PersonNameUrl childPersonNameUrl : childrenPersonNameUrls) {
+            String childName = childPersonNameUrl.getFullName();
 
-            if(getBirthDate() != null) {
-                key = this.personNameUrl.getFullName() + " (" + getBirthDate() + ")";
+            if (children.contains(childName)) {
+                this.children.add(childPersonNameUrl);
+
+                children.remove(childName);
             } else {
-                key = this.personNameUrl.getFullName();
+                this.adoptedChildren.add(childPersonNameUrl);
+
+                adoptedChildrenNames.remove(childName);
             }
+        }
+
+        /*
+         * The remaining children (those without a Wikipedia page URL) are
+         * added with a PersonNameUrl which contains an empty URL instead
+         */
+
+        if (!children.isEmpty()){
+            for (String child : children) {
+                PersonNameUrl
+                        name = PersonNameUrl.of(child, null);
 
-            dynastiesPeopleList.get(dynastyPageUrl).put(key, this.personNameUrl.getUrl());
+                this.children.add(name);
+            }
         }
-    }
 
+        /*
+         * The remaining adopted children (those without a Wikipedia page URL)
+         * are added with a PersonNameUrl which contains an empty URL instead
+         */
 
-    /**
-     * Add a PersonPageData instance to the urlPersonPageDataMatches HashMap
-     *
-     * @param url the Wikipedia page URL to be used to later retrieve it
-     * @param personPageData the PersonPageData instance
-     */
-    public static void addToUrlPersonPageDataMatches(String url, PersonPageData personPageData) {
-        urlPersonPageDataMatches.put(url, personPageData);
+        if (!adoptedChildrenNames.isEmpty()){
+            for(String child : adoptedChildrenNames){
+                PersonNameUrl
+                        name = PersonNameUrl.of(child, null);
+                this.adoptedChildren.add(name);
+            }
+        }
     }
 
+
     /**
-     * Replace urlPersonPageDataMatches with the given one. Used to replace all
-     * the PersonPageData stored instances with new ones (e.g. when importing
-     * data from JSON files)
+     * Extract the mother from a "madre" summary table line
      *
-     * @param urlPersonPageDataMatches the new urlPersonPageDataMatches HashMap content
+     * @param line the summary table line
      */
-    public static void setUrlPersonPageDataMatches(HashMap<String, PersonPageData> urlPersonPageDataMatches) {
-        PersonPageData.urlPersonPageDataMatches = urlPersonPageDataMatches;
-    }
+    private void extractMother(InfoboxSnapshot.Row line) {
+        ArrayList<String> mothers = new ArrayList<>();
 
-    /**
-     * @return the urlPersonPageDataMatches HashHap of Wikipedia page URL :
-     * PersonPageData entries
-     */
-    public static HashMap<String, PersonPageData> getUrlPersonPageDataMatches() {
-        return urlPersonPageDataMatches;
-    }
+        String mothersString = line.getDataInnerText();
+        mothersString = InfoboxTextScanner.clearBrackets(mothersString).toString().replace(";", ",").replace(";", "\n");
 
-    /**
-     * Check if a given line of text contains something which
-     * implies the emperor role
-     *
-     * @param textLine the line of text to check
-     * @return true if the line implies the emperor role, false otherwise
-     */
-    public static boolean textImpliesEmperorRole(String textLine) {
-        String lowerCaseTextLine = textLine.toLowerCase();
-        lowerCaseTextLine = clearBrackets(lowerCaseTextLine).toString();
-
-        return !lowerCaseTextLine.contains("consorte del") &&
-                (lowerCaseTextLine.contains("imperatore romano") ||
-                lowerCaseTextLine.contains("augusto d'occidente dell'impero romano") ||
-                lowerCaseTextLine.contains("cesare d'occidente dell'impero romano") ||
-                lowerCaseTextLine.contains("cesare e poi augusto dell'impero romano") ||
-                lowerCaseTextLine.contains("augusto d'oriente dell'impero romano") ||
-                lowerCaseTextLine.contains("augusto dell'impero romano"));
-    }
+        String[] mothersNames = mothersString.split("\n");
 
-    /**
-     * Check if a given line of text contains something which
-     * implies the dictator role
-     *
-     * @param textLine the line of text to check
-     *
-     * @return true if the line implies the dictator role, false otherwise
-     */
-    public static boolean textImpliesDictatorRole(String textLine) {
-        String lowerCaseTextLine = textLine.toLowerCase();
+        for (String motherName : mothersNames) {
+            /*
+             * Check if it's a valid name, so if it starts with an UpperCase
+             */
+            motherName = motherName.trim();
+            if (motherName.substring(0, 1).equals(motherName.substring(0, 1).toUpperCase())){
+                mothers.add(motherName);
+            }
+        }
 
-        return !lowerCaseTextLine.contains("consorte del") &&
-                lowerCaseTextLine.contains("dittatore");
+        ArrayList<PersonNameUrl> momsPersonNameUrls = getPersonNameUrls(mothers, line.getDataAnchors());
+
+        if (momsPersonNameUrls.isEmpty()){
+            this.motherNameUrl = PersonNameUrl.of(mothers.get(0), null);
+        }
+        else {
+            this.motherNameUrl = momsPersonNameUrls.get(0);
+        }
     }
 
+
     /**
-     * Check for every element in the input if it can be
-     * part of a possible date, so the output contain
-     * numbers, months, a.C or d.C, and -{@literal >}
-     * as well it contains particular cases like an or in the middle of two dates
-     * date1 or date2, and the output will be date1 or date2
+     * Extract the father and adoptive father from a "padre" summary table line
      *
-     * @param possibleDates a list of Strings
-     * @return StringBuilder object with the date
+     * @param line the summary table line
      */
-    private static StringBuilder extractDates(String[] possibleDates) {
-        StringBuilder cleanedDate = new StringBuilder();
-        int datesCount = 0;
+    private void extractFather(InfoboxSnapshot.Row line) {
+        ArrayList<String> fathersNames = new ArrayList<>();
+        ArrayList<String> fatherNamesPosition = new ArrayList<>();
+
+        String fathersString = line.getDataInnerText();
+        fathersString = InfoboxTextScanner.clearBrackets(fathersString).toString();
+        fathersString = fathersString.replace("Adottivo:", "").replace(",", ";").replace(";", "\n");
+        String[] fathersPossibleNames = fathersString.split("\n");
 
-        for (String data : possibleDates) {
+        for (String fatherName : fathersPossibleNames) {
             /*
-             * Each element of the possibleDates String array may be:
-             * - a number;
-             * - something else (like a.C., d.C., ->, [...]).
-             *
-             * We check if it's a number by trying the parse as integer,
-             * if it raises a NumberFormatException then we manage it
-             * as something else.
+             * Check if it's a valid name, so if it starts with an UpperCase
              */
+            fatherName = fatherName.trim();
+            if (!fatherName.isEmpty() && fatherName.substring(0, 1).equals(fatherName.substring(0, 1).toUpperCase())){
+                fathersNames.add(fatherName);
+                fatherNamesPosition.add(fatherName);
+            }
+        }
 
-            try {
-                Integer.parseInt(data);
-                cleanedDate.append(data).append(" ");
-            } catch (NumberFormatException e) {
-                if (months.contains(data) || data.equals("a.C.") || data.equals("d.C.") || data.equals("->")) {
-                    if (data.equals("->") && datesCount < 1) {
-                        /*
-                         * -> means than we are at the end of the
-                         * information about the current date, so
-                         * if neither a d.C. nor an a.C. was found
-                         * we append a d.C. before the -> symbol
-                         */
-
-                        cleanedDate.append("d.C. ");
-                        datesCount = 1;
-                    }
-
-                    if (data.equals("a.C.") || data.equals("d.C.")) {
-                        datesCount += 1;
-                    }
+        /*
+         * [1] The adoptive father is usually (from our researches)
+         * in the second line of the fathersString, like:
+         * "<blood_father_name> \n <adoptive_father_name>"
+         */
 
-                    cleanedDate.append(data).append(" ");
+        ArrayList<PersonNameUrl> fathersPersonNameUrls = getPersonNameUrls(fathersNames, line.getDataAnchors());
 
-                } else if (data.contains("/")) {
-                    cleanedDate.append(data).append(" ");
+        for (PersonNameUrl fatherPersonNameUrl : fathersPersonNameUrls){
+            /*
+             * [1]
+             */
 
-                } else if (data.equals("o")){
-                    cleanedDate.append("o ");
-                }
+            if (this.fatherNameUrl == null && fatherNamesPosition.get(0).equals(fatherPersonNameUrl.getFullName())){
+                this.fatherNameUrl = fatherPersonNameUrl;
+            } else {
+                this.adoptiveFatherNameUrl = fatherPersonNameUrl;
             }
+
+            fatherNamesPosition.remove(fatherPersonNameUrl.getFullName());
         }
 
-        /*
-         * If neither a d.C. nor an a.C. was found
-         * we append a d.C. to the end of the string
-         */
+        for (String father : fatherNamesPosition) {
+            /*
+             * [1]
+             */
 
-        if (datesCount == 0 && cleanedDate.length() != 0) {
-            cleanedDate.append("d.C");
+            if(this.fatherNameUrl == null) {
+                this.fatherNameUrl = PersonNameUrl.of(father, null);
+            } else {
+                this.adoptiveFatherNameUrl = PersonNameUrl.of(father, null);
+            }
         }
-
-        return cleanedDate;
     }
 
+
     /**
-     * Clean a given information string by
-     * removing brackets and characters inside
+     * Extract a date from a "nascita" or "morte" summary table line
      *
-     * @param information the given information string
-     * @return the cleaned result as a StringBuilder instance
+     * @param line the summary table line
+     * @return the extracted RomanDate
      */
-    private static StringBuilder clearBrackets(String information) {
-        StringBuilder cleanedInformation = new StringBuilder();
-
-        int bracketsOpen = 0;
-
+    private static RomanDate extractDate(InfoboxSnapshot.Row line) {
         /*
-         * Ignore characters when they're inside brackets,
-         * add them to the cleaned string otherwise
+         * We split the text in words on spaces, non-breaking spaces
+         * and new lines (which can be a separator between number and
+         * words, which can represent a month)
+         *
+         * We also skip the brackets and their content because they
+         * contain superficial or useless information for our goal,
+         * and the "°" characters because there can be numbers
+         * presented like [1°]
          */
 
-        for (int i = 0; i < information.length(); i++) {
-            String currentChar = information.substring(i, i + 1);
+        StringBuilder date = InfoboxTextScanner.extractDate(line.getDataInnerText());
+        return RomanDate.parse(date.toString().trim());
+    }
 
-            if (bracketsOpen == 0) {
-                if (currentChar.equals("(") || currentChar.equals("[")) {
-                    bracketsOpen++;
-                } else {
-                    cleanedInformation.append(currentChar);
-                }
-            } else {
-                if (currentChar.equals(")") || currentChar.equals("]")) {
-                    bracketsOpen--;
-                } else if (currentChar.equals("(") || currentChar.equals("[")) {
-                    bracketsOpen++;
-                }
-            }
-        }
+    /**
+     * Check if a given line of text contains something which
+     * implies the emperor role
+     *
+     * @param textLine the line of text to check
+     * @return true if the line implies the emperor role, false otherwise
+     */
+    public static boolean textImpliesEmperorRole(String textLine) {
+        return (RoleKeywordMatcher.classify(textLine) & RoleKeywordMatcher.EMPEROR_ROLE) != 0;
+    }
 
-        return cleanedInformation;
+    /**
+     * Check if a given line of text contains something which
+     * implies the dictator role
+     *
+     * @param textLine the line of text to check
+     *
+     * @return true if the line implies the dictator role, false otherwise
+     */
+    public static boolean textImpliesDictatorRole(String textLine) {
+        return (RoleKeywordMatcher.classify(textLine) & RoleKeywordMatcher.DICTATOR_ROLE) != 0;
     }
 
     /**
-     * For each link contained in the informationDataElement we check if its
+     * For each link contained in the information data cell we check if its
      * text is also contained in the peopleNames ArrayList of strings and
      * eventually add it to an output ArrayList if that's true
      *
      * @param peopleNames an ArrayList containing the people names
-     * @param informationDataElement a WebElement containing the people anchor
-     *                               elements with their text and pointed page URL
+     * @param informationDataAnchors the anchors of the information data cell,
+     *                               with their text and pointed page URL
      * @return an ArrayList containing the PersonNameUrl(s) of all the people
      * with a Wikipedia page URL
      */
-    private static ArrayList<PersonNameUrl> getPersonNameUrls(ArrayList<String> peopleNames, WebElement informationDataElement) {
+    private static ArrayList<PersonNameUrl> getPersonNameUrls(ArrayList<String> peopleNames, List<PageAnchor> informationDataAnchors) {
         ArrayList<PersonNameUrl> personNameUrls = new ArrayList<>();
-        List<WebElement> peopleElements = informationDataElement.findElements(By.tagName("a"));
 
-        for (WebElement personElement : peopleElements) {
+        for (PageAnchor personElement : informationDataAnchors) {
             String personName = personElement.getText();
-            String personUrl  = personElement.getAttribute("href");
+            String personUrl  = personElement.getHref();
 
             if (peopleNames.contains(personName)){
                 /*
@@ -1001,7 +699,7 @@ public class PersonPageData {
                 }
 
                 PersonNameUrl
-                        personNameUrl = new PersonNameUrl(personName, personUrl);
+                        personNameUrl = PersonNameUrl.of(personName, personUrl);
                 personNameUrls.add(personNameUrl);
                 peopleNames.remove(personName);
             }
@@ -1010,6 +708,21 @@ public class PersonPageData {
         return personNameUrls;
     }
 
+    /**
+     * @return the registry of the summary table fields' extractors, with their statistics
+     */
+    public static InfoboxFieldRegistry getFieldExtractors() {
+        return FIELD_EXTRACTORS;
+    }
+
+    /**
+     * @return true if the person's summary table (as a whole) says that he/she
+     * is an emperor or a dictator, false otherwise
+     */
+    public boolean summaryTableImpliesEmperorOrDictatorRole() {
+        return summaryTableImpliesRole;
+    }
+
     /**
      * @return true if the person's role is Emperor or Dictator, false otherwise
      */
@@ -1089,7 +802,7 @@ public class PersonPageData {
      * @return the person's birthdate
      */
     public String getBirthDate() {
-        return birthDate;
+        return RomanDate.getText(birthDate);
     }
 
 
@@ -1097,7 +810,7 @@ public class PersonPageData {
      * @return the person's death date
      */
     public String getDeathDate() {
-        return deathDate;
+        return RomanDate.getText(deathDate);
     }
 
 
@@ -1106,7 +819,7 @@ public class PersonPageData {
      * isn't an emperor or a dictator.
      */
     public String getReignBeginningDate() {
-        return reignBeginningDate;
+        return RomanDate.getText(reignBeginningDate);
     }
 
 
@@ -1115,6 +828,40 @@ public class PersonPageData {
      * isn't an emperor or a dictator.
      */
     public String getReignEndDate() {
+        return RomanDate.getText(reignEndDate);
+    }
+
+
+    /**
+     * @return the person's birthdate as a RomanDate
+     */
+    public RomanDate getBirthRomanDate() {
+        return birthDate;
+    }
+
+
+    /**
+     * @return the person's death date as a RomanDate
+     */
+    public RomanDate getDeathRomanDate() {
+        return deathDate;
+    }
+
+
+    /**
+     * @return the person's reign beginning date as a RomanDate. It may
+     * be null if it isn't an emperor or a dictator.
+     */
+    public RomanDate getReignBeginningRomanDate() {
+        return reignBeginningDate;
+    }
+
+
+    /**
+     * @return the person's reign end date as a RomanDate. It may be
+     * null if it isn't an emperor or a dictator.
+     */
+    public RomanDate getReignEndRomanDate() {
         return reignEndDate;
     }
 
@@ -1141,12 +888,4 @@ public class PersonPageData {
         return imageUrl;
     }
 
-    /**
-     * @return an HashMap having as key the dynasties' Wikipedia page URLs and as
-     * value another HashMap containing the dynasty people with the name-birthdate
-     * as key and the Wikipedia page URL as value
-     */
-    public static HashMap<String, HashMap<String, String>> getDynastiesPeopleList() {
-        return dynastiesPeopleList;
-    }
 }
\ No newline at end of file
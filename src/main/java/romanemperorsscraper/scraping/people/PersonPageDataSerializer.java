@@ -2,10 +2,15 @@ package romanemperorsscraper.scraping.people;
 
 import org.json.simple.JSONObject;
 import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.JsonStreamWriter;
+import romanemperorsscraper.scraping.SnapshotReader;
+import romanemperorsscraper.scraping.SnapshotWriter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Utility class providing methods for dynasties
@@ -18,6 +23,15 @@ import java.util.Map;
  * @author Radu Ionut Barbalata
  */
 public final class PersonPageDataSerializer {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* How a relative's URL is referred to in a snapshot (see writePersonNameUrl) */
+    private static final int NO_URL               = 0;
+    private static final int FOLLOWING_URL        = 1;
+    private static final int RECORD_NUMBER_OFFSET = 2;
+
     /*
      * PREVENT INSTANTIATION WITH A PRIVATE CONSTRUCTOR
      */
@@ -27,56 +41,104 @@ public final class PersonPageDataSerializer {
     }
 
     /**
-     * Create and return a serialized form of a given PersonPageData object
+     * Write the serialized form of a given PersonPageData object
      *
      * @param personPageData the PersonPageData object to be serialized
+     * @param jsonStreamWriter the JsonStreamWriter the PersonPageData object is written into, as a JSON object
      *
-     * @return the PersonPageData object serialized as a JSONObject
+     * @throws IOException if the serialized form could not be written
      */
-    public static JSONObject serializePersonPageData(PersonPageData personPageData) {
-        JSONObject values = new JSONObject();
+    public static void writePersonPageData(PersonPageData personPageData, JsonStreamWriter jsonStreamWriter) throws IOException {
+        jsonStreamWriter.beginObject();
 
         /*
          * Personal information
          */
 
-        values.put("fullName", personPageData.getPersonNameUrl().getFullName());
+        jsonStreamWriter.name("fullName").value(personPageData.getPersonNameUrl().getFullName());
+
+        jsonStreamWriter.name("dynastyPageUrl").value(personPageData.getPersonDynastyPageUrl());
 
-        values.put("dynastyPageUrl", personPageData.getPersonDynastyPageUrl());
+        writeRomanDate("birthDate", personPageData.getBirthRomanDate(), jsonStreamWriter);
+        writeRomanDate("deathDate", personPageData.getDeathRomanDate(), jsonStreamWriter);
 
-        values.put("birthDate", personPageData.getBirthDate());
-        values.put("deathDate", personPageData.getDeathDate());
+        writeRomanDate("reignBeginningDate", personPageData.getReignBeginningRomanDate(), jsonStreamWriter);
+        writeRomanDate("reignEndDate", personPageData.getReignEndRomanDate(), jsonStreamWriter);
 
-        values.put("reignBeginningDate", personPageData.getReignBeginningDate());
-        values.put("reignEndDate", personPageData.getReignEndDate());
+        jsonStreamWriter.name("role").value(personPageData.getRole());
 
-        values.put("role", personPageData.getRole());
+        jsonStreamWriter.name("imageUrl").value(personPageData.getImageUrl());
 
-        values.put("imageUrl", personPageData.getImageUrl());
+        jsonStreamWriter.name("summaryTableImpliesRole").value(personPageData.summaryTableImpliesEmperorOrDictatorRole());
 
         /*
          * Kinship degrees which admit only one person (like biological mother and father)
          */
 
-        values.put("mother", serializePersonNameUrl(personPageData.getMotherNameUrl()));
+        jsonStreamWriter.name("mother");
+        writePersonNameUrl(personPageData.getMotherNameUrl(), jsonStreamWriter);
 
-        values.put("father", serializePersonNameUrl(personPageData.getFatherNameUrl()));
+        jsonStreamWriter.name("father");
+        writePersonNameUrl(personPageData.getFatherNameUrl(), jsonStreamWriter);
 
-        values.put("adoptiveFather", serializePersonNameUrl(personPageData.getAdoptiveFatherNameUrl()));
+        jsonStreamWriter.name("adoptiveFather");
+        writePersonNameUrl(personPageData.getAdoptiveFatherNameUrl(), jsonStreamWriter);
 
         /*
          * Kinship degrees which admit more than one person (like successors, spouses and children)
          */
 
-        values.put("successors", serializeArrayOfPersonNameUrl(personPageData.getSuccessors()));
+        jsonStreamWriter.name("successors");
+        writeArrayOfPersonNameUrl(personPageData.getSuccessors(), jsonStreamWriter);
+
+        jsonStreamWriter.name("spouses");
+        writeArrayOfPersonNameUrl(personPageData.getSpouses(), jsonStreamWriter);
+
+        jsonStreamWriter.name("children");
+        writeArrayOfPersonNameUrl(personPageData.getChildren(), jsonStreamWriter);
+
+        jsonStreamWriter.name("adoptedChildren");
+        writeArrayOfPersonNameUrl(personPageData.getAdoptedChildren(), jsonStreamWriter);
+
+        jsonStreamWriter.endObject();
+    }
+
+    /**
+     * Write the binary form of a given PersonPageData object, in the same
+     * order as its serialized form's fields (see writePersonPageData)
+     *
+     * @param personPageData the PersonPageData object to be serialized
+     * @param recordNumbers the (person Wikipedia page URL : record number) entries
+     *                      of the people written in the snapshot's people section
+     * @param snapshotWriter the SnapshotWriter the PersonPageData object is written into
+     *
+     * @throws IOException if the binary form could not be written
+     */
+    public static void writePersonPageData(PersonPageData personPageData, Map<String, Integer> recordNumbers, SnapshotWriter snapshotWriter) throws IOException {
+        snapshotWriter.writeString(personPageData.getPersonNameUrl().getFullName());
+
+        snapshotWriter.writeString(personPageData.getPersonDynastyPageUrl());
 
-        values.put("spouses", serializeArrayOfPersonNameUrl(personPageData.getSpouses()));
+        writeRomanDate(personPageData.getBirthRomanDate(), snapshotWriter);
+        writeRomanDate(personPageData.getDeathRomanDate(), snapshotWriter);
 
-        values.put("children", serializeArrayOfPersonNameUrl(personPageData.getChildren()));
+        writeRomanDate(personPageData.getReignBeginningRomanDate(), snapshotWriter);
+        writeRomanDate(personPageData.getReignEndRomanDate(), snapshotWriter);
 
-        values.put("adoptedChildren", serializeArrayOfPersonNameUrl(personPageData.getAdoptedChildren()));
+        snapshotWriter.writeString(personPageData.getRole());
 
-        return values;
+        snapshotWriter.writeString(personPageData.getImageUrl());
+
+        snapshotWriter.writeVarint(personPageData.summaryTableImpliesEmperorOrDictatorRole() ? 1 : 0);
+
+        writePersonNameUrl(personPageData.getMotherNameUrl(), recordNumbers, snapshotWriter);
+        writePersonNameUrl(personPageData.getFatherNameUrl(), recordNumbers, snapshotWriter);
+        writePersonNameUrl(personPageData.getAdoptiveFatherNameUrl(), recordNumbers, snapshotWriter);
+
+        writeArrayOfPersonNameUrl(personPageData.getSuccessors(), recordNumbers, snapshotWriter);
+        writeArrayOfPersonNameUrl(personPageData.getSpouses(), recordNumbers, snapshotWriter);
+        writeArrayOfPersonNameUrl(personPageData.getChildren(), recordNumbers, snapshotWriter);
+        writeArrayOfPersonNameUrl(personPageData.getAdoptedChildren(), recordNumbers, snapshotWriter);
     }
 
     /**
@@ -96,30 +158,95 @@ public final class PersonPageDataSerializer {
 
 
     /**
-     * Create and return a serialized form of a given PersonNameUrl object
+     * Write the serialized form of a given RomanDate object: its text, as it
+     * has been scraped, and its key (see RomanDate.getKey) in the field named
+     * after the text's one followed by "Key" (e.g. "birthDate" and "birthDateKey"),
+     * so that the date isn't parsed again (and possibly differently) on import
      *
-     * @param personNameUrl the PersonNameUrl object to be serialized
+     * @param name the name of the date's field
+     * @param romanDate the RomanDate object to be serialized (may be null)
+     * @param jsonStreamWriter the JsonStreamWriter the RomanDate object is written into
      *
-     * @return the PersonNameUrl object serialized as a JSONObject
+     * @throws IOException if the serialized form could not be written
      */
-    private static JSONObject serializePersonNameUrl(PersonNameUrl personNameUrl) {
-        JSONObject serializedObject = new JSONObject();
+    public static void writeRomanDate(String name, RomanDate romanDate, JsonStreamWriter jsonStreamWriter) throws IOException {
+        jsonStreamWriter.name(name).value(RomanDate.getText(romanDate));
 
-        if (personNameUrl == null) {
-            return null;
+        if (romanDate != null) {
+            jsonStreamWriter.name(name + "Key").value(romanDate.getKey());
         }
+    }
 
-        String fullName = personNameUrl.getFullName();
-        String url      = personNameUrl.getUrl();
+    /**
+     * Restore a RomanDate from the fields of a JSONObject written by writeRomanDate
+     * (the date's text is parsed again if there's no key, as in older export files)
+     *
+     * @param serializedObject the JSONObject holding the date's fields
+     * @param name the name of the date's field
+     *
+     * @return null if the date's text is null, the deserialized RomanDate instance otherwise
+     */
+    public static RomanDate deserializeRomanDate(JSONObject serializedObject, String name) {
+        String text = parseJsonString(serializedObject.get(name));
+        Object key  = serializedObject.get(name + "Key");
 
-        if(url == null && fullName == null) {
-            return null;
-        } else {
-            serializedObject.put("fullName", fullName);
-            serializedObject.put("url", url);
+        if (text == null || !(key instanceof Number)) {
+            return RomanDate.parse(text);
+        }
+
+        return RomanDate.fromKey(text, ((Number) key).intValue());
+    }
+
+    /**
+     * Write the binary form of a given RomanDate object: its text (null if
+     * there's no RomanDate object) followed, if not null, by its key
+     *
+     * @param romanDate the RomanDate object to be written (may be null)
+     * @param snapshotWriter the SnapshotWriter the RomanDate object is written into
+     *
+     * @throws IOException if the binary form could not be written
+     */
+    public static void writeRomanDate(RomanDate romanDate, SnapshotWriter snapshotWriter) throws IOException {
+        snapshotWriter.writeString(RomanDate.getText(romanDate));
+
+        if (romanDate != null) {
+            snapshotWriter.writeSignedVarint(romanDate.getKey());
+        }
+    }
+
+    /**
+     * Restore a RomanDate from its binary form
+     *
+     * @param snapshotReader the SnapshotReader positioned at the RomanDate's binary form
+     *
+     * @return null if there's no RomanDate, the restored RomanDate instance otherwise
+     */
+    public static RomanDate readRomanDate(SnapshotReader snapshotReader) {
+        String text = snapshotReader.readString();
+
+        return text == null ? null : RomanDate.fromKey(text, snapshotReader.readSignedVarint());
+    }
+
+    /**
+     * Write the serialized form of a given PersonNameUrl object
+     *
+     * @param personNameUrl the PersonNameUrl object to be serialized
+     * @param jsonStreamWriter the JsonStreamWriter the PersonNameUrl object is written into,
+     *                         as a JSON object (null if it has neither a name nor a URL)
+     *
+     * @throws IOException if the serialized form could not be written
+     */
+    private static void writePersonNameUrl(PersonNameUrl personNameUrl, JsonStreamWriter jsonStreamWriter) throws IOException {
+        if (personNameUrl == null || (personNameUrl.getUrl() == null && personNameUrl.getFullName() == null)) {
+            jsonStreamWriter.nullValue();
+
+            return;
         }
 
-        return serializedObject;
+        jsonStreamWriter.beginObject()
+                .name("fullName").value(personNameUrl.getFullName())
+                .name("url").value(personNameUrl.getUrl())
+                .endObject();
     }
 
     /**
@@ -135,10 +262,11 @@ public final class PersonPageDataSerializer {
             return null;
         }
 
-        PersonNameUrl personNameUrl = new PersonNameUrl(serializedPersonNameUrl);
+        String fullName = parseJsonString(serializedPersonNameUrl.get("fullName"));
+        String url      = parseJsonString(serializedPersonNameUrl.get("url"));
 
-        if(personNameUrl.getFullName() != null || personNameUrl.getUrl() != null) {
-            return personNameUrl;
+        if(fullName != null || url != null) {
+            return PersonNameUrl.of(fullName, url);
         } else {
             return null;
         }
@@ -146,22 +274,155 @@ public final class PersonPageDataSerializer {
 
 
     /**
-     * Create and return a serialized form of a given ArrayList of PersonNameUrl objects
+     * Write the binary form of a given PersonNameUrl object: its full name
+     * (null if there's no PersonNameUrl object) followed by a reference to
+     * its URL, which is one of:
+     * - NO_URL, if it has no URL;
+     * - FOLLOWING_URL followed by the URL, if the person has no record;
+     * - the number of the person's record plus RECORD_NUMBER_OFFSET.
+     */
+    private static void writePersonNameUrl(PersonNameUrl personNameUrl, Map<String, Integer> recordNumbers, SnapshotWriter snapshotWriter) throws IOException {
+        if (personNameUrl == null) {
+            snapshotWriter.writeString(null);
+            snapshotWriter.writeVarint(NO_URL);
+
+            return;
+        }
+
+        snapshotWriter.writeString(personNameUrl.getFullName());
+
+        String url = personNameUrl.getUrl();
+
+        if (url == null) {
+            snapshotWriter.writeVarint(NO_URL);
+
+            return;
+        }
+
+        Integer recordNumber = recordNumbers.get(url);
+
+        if (recordNumber != null) {
+            snapshotWriter.writeVarint(recordNumber + RECORD_NUMBER_OFFSET);
+        } else {
+            snapshotWriter.writeVarint(FOLLOWING_URL);
+            snapshotWriter.writeString(url);
+        }
+    }
+
+    /**
+     * Restore a PersonNameUrl from its binary form
+     *
+     * @param snapshotReader the SnapshotReader positioned at the PersonNameUrl's binary form
+     * @param recordUrls the Wikipedia page URLs of the people in the snapshot's people section, by record number
+     *
+     * @return null if the PersonNameUrl has neither a full name nor an URL,
+     *         the restored PersonNameUrl instance otherwise
+     */
+    static PersonNameUrl readPersonNameUrl(SnapshotReader snapshotReader, String[] recordUrls) {
+        String fullName = snapshotReader.readString();
+
+        int urlReference = snapshotReader.readVarint();
+
+        String url;
+
+        if (urlReference == NO_URL) {
+            url = null;
+        } else if (urlReference == FOLLOWING_URL) {
+            url = snapshotReader.readString();
+        } else {
+            url = recordUrls[urlReference - RECORD_NUMBER_OFFSET];
+        }
+
+        if(fullName != null || url != null) {
+            return PersonNameUrl.of(fullName, url);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Write the serialized form of a given ArrayList of PersonNameUrl objects
      *
      * @param arrayOfPersonNameUrls an ArrayList of PersonNameUrl objects to be serialized
+     * @param jsonStreamWriter the JsonStreamWriter the ArrayList is written into, as
+     *                         a JSON object of (full name : URL) entries
      *
-     * @return the ArrayList of PersonNameUrl(s) serialized as a JSONObject
+     * @throws IOException if the serialized form could not be written
      */
-    private static JSONObject serializeArrayOfPersonNameUrl(ArrayList<PersonNameUrl> arrayOfPersonNameUrls) {
-        JSONObject serializedArrayOfPersonNameUrls = new JSONObject();
+    private static void writeArrayOfPersonNameUrl(ArrayList<PersonNameUrl> arrayOfPersonNameUrls, JsonStreamWriter jsonStreamWriter) throws IOException {
+        jsonStreamWriter.beginObject();
 
         if(arrayOfPersonNameUrls != null) {
-            for (PersonNameUrl personNameUrl : arrayOfPersonNameUrls) {
-                serializedArrayOfPersonNameUrls.put(personNameUrl.getFullName(), personNameUrl.getUrl());
+            for (int i = 0; i < arrayOfPersonNameUrls.size(); i++) {
+                PersonNameUrl personNameUrl = arrayOfPersonNameUrls.get(i);
+
+                /*
+                 * People are keyed by full name, so only the last
+                 * of the people with the same full name is written
+                 */
+
+                if (!hasFullNameAfter(arrayOfPersonNameUrls, i)) {
+                    jsonStreamWriter.name(personNameUrl.getFullName()).value(personNameUrl.getUrl());
+                }
+            }
+        }
+
+        jsonStreamWriter.endObject();
+    }
+
+    private static boolean hasFullNameAfter(ArrayList<PersonNameUrl> arrayOfPersonNameUrls, int index) {
+        String fullName = arrayOfPersonNameUrls.get(index).getFullName();
+
+        for (int i = index + 1; i < arrayOfPersonNameUrls.size(); i++) {
+            if (Objects.equals(arrayOfPersonNameUrls.get(i).getFullName(), fullName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Write the binary form of a given ArrayList of PersonNameUrl objects:
+     * its size followed by each of them (people with the same full name
+     * are all kept, differently than in the serialized form)
+     */
+    private static void writeArrayOfPersonNameUrl(ArrayList<PersonNameUrl> arrayOfPersonNameUrls, Map<String, Integer> recordNumbers, SnapshotWriter snapshotWriter) throws IOException {
+        if(arrayOfPersonNameUrls == null) {
+            snapshotWriter.writeVarint(0);
+
+            return;
+        }
+
+        snapshotWriter.writeVarint(arrayOfPersonNameUrls.size());
+
+        for (PersonNameUrl personNameUrl : arrayOfPersonNameUrls) {
+            writePersonNameUrl(personNameUrl, recordNumbers, snapshotWriter);
+        }
+    }
+
+    /**
+     * Restore an ArrayList of PersonNameUrl(s) from its binary form
+     *
+     * @param snapshotReader the SnapshotReader positioned at the ArrayList's binary form
+     * @param recordUrls the Wikipedia page URLs of the people in the snapshot's people section, by record number
+     *
+     * @return the restored ArrayList of PersonNameUrl instances (empty if there are none)
+     */
+    static ArrayList<PersonNameUrl> readArrayOfPersonNameUrl(SnapshotReader snapshotReader, String[] recordUrls) {
+        int size = snapshotReader.readVarint();
+
+        ArrayList<PersonNameUrl> restoredArrayOfPersonNameUrls = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            PersonNameUrl personNameUrl = readPersonNameUrl(snapshotReader, recordUrls);
+
+            if (personNameUrl != null) {
+                restoredArrayOfPersonNameUrls.add(personNameUrl);
             }
         }
 
-        return serializedArrayOfPersonNameUrls;
+        return restoredArrayOfPersonNameUrls;
     }
 
     /**
@@ -185,28 +446,28 @@ public final class PersonPageDataSerializer {
             personName    = (String) personNameObject;
             personPageUrl = PersonPageDataSerializer.parseJsonString(serializedArrayOfPersonNameUrls.get(personName));
 
-            deserializedArrayOfPersonNameUrls.add(new PersonNameUrl(personName, personPageUrl));
+            deserializedArrayOfPersonNameUrls.add(PersonNameUrl.of(personName, personPageUrl));
         }
 
         return deserializedArrayOfPersonNameUrls;
     }
 
     /**
-     * Given an HashMap containing PersonPageData instances by URL,
-     * serialize it in a single JSONObject and then return it
+     * Given an HashMap containing PersonPageData instances by URL, write
+     * them one at a time in a single JSON object, where the key for each
+     * PersonPageData is its Wikipedia page URL
      *
      * @param urlPersonPageDataMatches the HashMap of PersonPageData
      *                                 instances to be serialized
+     * @param jsonStreamWriter the JsonStreamWriter the PersonPageData instances are written into
      *
-     * @return a JSONObject containing the serialized PersonPageData instances,
-     *         where the key for each PersonPageData is its Wikipedia page URL
+     * @throws IOException if the serialized PersonPageData instances could not be written
      */
-    public static JSONObject serializePersonPageDataHashMap(HashMap<String, PersonPageData> urlPersonPageDataMatches) {
-        JSONObject serializedHashMap = new JSONObject();
+    public static void writePersonPageDataHashMap(Map<String, PersonPageData> urlPersonPageDataMatches, JsonStreamWriter jsonStreamWriter) throws IOException {
+        jsonStreamWriter.beginObject();
 
         PersonPageData personPageData;
         String personDynastyPageUrl;
-        JSONObject serializedPersonPageData;
 
         for (Map.Entry<String, PersonPageData> set : urlPersonPageDataMatches.entrySet()) {
             personPageData = set.getValue();
@@ -223,13 +484,52 @@ public final class PersonPageDataSerializer {
                     System.out.println("Serialization in progress for " + set.getKey());
                 }
 
-                serializedPersonPageData = PersonPageDataSerializer.serializePersonPageData(personPageData);
+                jsonStreamWriter.name(set.getKey());
+
+                PersonPageDataSerializer.writePersonPageData(personPageData, jsonStreamWriter);
+            }
+        }
+
+        jsonStreamWriter.endObject();
+    }
+
+    /**
+     * Given an HashMap containing PersonPageData instances by URL, write
+     * them as the records of a snapshot's people section, each of them
+     * beginning with the person's Wikipedia page URL: the records are
+     * numbered first, so that relatives having a record are referred
+     * to by its number instead of by their URL
+     *
+     * @param urlPersonPageDataMatches the HashMap of PersonPageData
+     *                                 instances to be written
+     * @param snapshotWriter the SnapshotWriter the PersonPageData instances are written into
+     *
+     * @throws IOException if the PersonPageData instances could not be written
+     */
+    public static void writePersonPageDataHashMap(Map<String, PersonPageData> urlPersonPageDataMatches, SnapshotWriter snapshotWriter) throws IOException {
+        ArrayList<Map.Entry<String, PersonPageData>> writtenPeople = new ArrayList<>(urlPersonPageDataMatches.size());
+        HashMap<String, Integer> recordNumbers = new HashMap<>(urlPersonPageDataMatches.size() * 4 / 3 + 1);
 
-                serializedHashMap.put(set.getKey(), serializedPersonPageData);
+        for (Map.Entry<String, PersonPageData> set : urlPersonPageDataMatches.entrySet()) {
+            String personDynastyPageUrl = set.getValue().getPersonDynastyPageUrl();
+
+            /* The graph legend dynasty's people are skipped, as in the JSON export */
+
+            if(personDynastyPageUrl == null || !personDynastyPageUrl.startsWith("fakeurl://")) {
+                recordNumbers.put(set.getKey(), writtenPeople.size());
+                writtenPeople.add(set);
             }
         }
 
-        return serializedHashMap;
+        snapshotWriter.beginSection(SnapshotWriter.PEOPLE_SECTION);
+
+        for (Map.Entry<String, PersonPageData> set : writtenPeople) {
+            snapshotWriter.beginRecord();
+
+            snapshotWriter.writeString(set.getKey());
+
+            PersonPageDataSerializer.writePersonPageData(set.getValue(), recordNumbers, snapshotWriter);
+        }
     }
 
     /**
@@ -0,0 +1,227 @@
+package romanemperorsscraper.scraping.people;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class used to give each person's Wikipedia page URL a dense integer ID
+ * (0, 1, 2 [...] in order of appearance) and to share a single PersonNameUrl
+ * object for each (full name, URL) pair.
+ *
+ * The same relatives are linked from a lot of pages (e.g. an emperor is
+ * the successor, father, son and spouse of someone else), so keeping just
+ * one copy of each URL and PersonNameUrl saves memory on large crawls, and
+ * structures holding people (like a DynastyTree's visited people) can be
+ * indexed by ID instead of hashing URL strings.
+ *
+ * IDs never change once assigned, so the table is shared by every
+ * ScrapeSession: PersonNameUrl objects can be created anywhere (while
+ * scraping, importing [...]) and still be compared by ID. It's accessed
+ * by more threads at once, so new URLs are registered under a lock while
+ * lookups of known ones never block.
+ *
+ * The table only grows, so it's reset (replaced by an empty one) when
+ * the application's data are replaced by imported ones: the objects
+ * created before keep the IDs they've been given, and each GenealogyGraph
+ * keeps the table its IDs belong to, so they can't be mixed with the new
+ * IDs as long as the old data are dropped along with the old table.
+ *
+ * @see PersonNameUrl
+ *
+ * @author Matteo Collica
+ */
+public final class PersonTable {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* The ID of people without a Wikipedia page URL */
+    public static final int NO_ID = -1;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static volatile PersonTable sharedTable = new PersonTable();
+
+    /*
+     * ATTRIBUTES
+     */
+
+    /* (person Wikipedia page URL : Entry) entries */
+    private final ConcurrentHashMap<String, Entry> entriesByUrl = new ConcurrentHashMap<>();
+
+    /* PersonNameUrl objects of people without a Wikipedia page, by full name */
+    private final ConcurrentHashMap<String, PersonNameUrl> pagelessPeopleByName = new ConcurrentHashMap<>();
+
+    /* entries[id] is the Entry of the URL having that ID, replaced by a larger copy when full */
+    private volatile Entry[] entries = new Entry[INITIAL_CAPACITY];
+
+    private volatile int peopleCount = 0;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    private PersonTable() {}
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * @return the table shared by all the PersonNameUrl objects
+     */
+    public static PersonTable getSharedTable() {
+        return sharedTable;
+    }
+
+    /**
+     * Replace the shared table with an empty one, to be done before loading
+     * data which replace all the application's ones, so that the IDs given
+     * to the people replaced don't pile up with the new ones
+     *
+     * @return the replaced table, to be restored (see restoreSharedTable)
+     *         should the new data be discarded instead
+     */
+    public static PersonTable resetSharedTable() {
+        PersonTable replacedTable = sharedTable;
+
+        sharedTable = new PersonTable();
+
+        return replacedTable;
+    }
+
+    /**
+     * Restore the shared table replaced by resetSharedTable, once the data
+     * loaded in the meantime have been discarded
+     *
+     * @param replacedTable the table returned by resetSharedTable
+     */
+    public static void restoreSharedTable(PersonTable replacedTable) {
+        sharedTable = replacedTable;
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Return the ID of a Wikipedia page URL, assigning the next free one if it's new
+     *
+     * @param url the person's Wikipedia page URL (may be null)
+     *
+     * @return the URL's ID, NO_ID if the URL is null
+     */
+    public int getId(String url) {
+        if (url == null) {
+            return NO_ID;
+        }
+
+        return getEntry(url).id;
+    }
+
+    /**
+     * @param id a Wikipedia page URL's ID
+     *
+     * @return the Wikipedia page URL having the given ID, null if it's NO_ID
+     *
+     * @throws IndexOutOfBoundsException if no URL has the given ID
+     */
+    public String getUrl(int id) {
+        if (id == NO_ID) {
+            return null;
+        }
+
+        if (id < 0 || id >= peopleCount) {
+            throw new IndexOutOfBoundsException("No URL has the ID " + id);
+        }
+
+        return entries[id].url;
+    }
+
+    /**
+     * @return how many URLs have been given an ID so far (IDs go from 0 to this count - 1)
+     */
+    public int size() {
+        return peopleCount;
+    }
+
+    /**
+     * Return the shared PersonNameUrl object of a (full name, URL) pair,
+     * creating it if it's requested for the first time
+     *
+     * @param fullName the person's full name
+     * @param url the person's Wikipedia page URL (may be null)
+     *
+     * @return the shared PersonNameUrl object
+     */
+    PersonNameUrl getPersonNameUrl(String fullName, String url) {
+        /* A null name can't be a map key, such objects just aren't shared */
+
+        if (fullName == null) {
+            return new PersonNameUrl(null, url);
+        }
+
+        if (url == null) {
+            return pagelessPeopleByName.computeIfAbsent(fullName,
+                    name -> new PersonNameUrl(name, null, NO_ID));
+        }
+
+        Entry entry = getEntry(url);
+
+        return entry.personNameUrls.computeIfAbsent(fullName,
+                name -> new PersonNameUrl(name, entry.url, entry.id));
+    }
+
+    /**
+     * @param url a person's Wikipedia page URL
+     *
+     * @return the URL's Entry, registered with the next free ID if it's new
+     */
+    private Entry getEntry(String url) {
+        Entry entry = entriesByUrl.get(url);
+
+        if (entry != null) {
+            return entry;
+        }
+
+        synchronized (this) {
+            entry = entriesByUrl.get(url);
+
+            if (entry == null) {
+                int id = peopleCount;
+
+                if (id == entries.length) {
+                    entries = Arrays.copyOf(entries, id * 2);
+                }
+
+                entry = new Entry(id, url);
+
+                entries[id] = entry;
+                entriesByUrl.put(url, entry);
+
+                /* Written last, so that getUrl never sees an ID whose entry isn't stored yet */
+                peopleCount = id + 1;
+            }
+
+            return entry;
+        }
+    }
+
+    /**
+     * Class used to represent a registered URL with its ID
+     * and the shared PersonNameUrl objects pointing to it
+     */
+    private static class Entry {
+        private final int id;
+
+        private final String url;
+
+        /* (full name : PersonNameUrl) entries, a URL is usually linked with one or two names */
+        private final ConcurrentHashMap<String, PersonNameUrl> personNameUrls = new ConcurrentHashMap<>(2);
+
+        private Entry(int id, String url) {
+            this.id  = id;
+            this.url = url;
+        }
+    }
+}
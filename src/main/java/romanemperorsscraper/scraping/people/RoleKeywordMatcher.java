@@ -0,0 +1,279 @@
+package romanemperorsscraper.scraping.people;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class used to detect the role (Emperor or Dictator) implied by a line
+ * of a "sinottico" summary table, matching all the role keywords at once
+ * with an Aho-Corasick automaton built when the class is loaded.
+ *
+ * A line is read just once, char by char and without building lower
+ * case or bracket-free copies of it: the automaton is run on both the
+ * whole line (where the dictator keywords are searched) and the line
+ * without brackets and their content (where the emperor keywords are
+ * searched, see InfoboxTextScanner.clearBrackets), and lines containing
+ * "consorte del" imply no role at all.
+ *
+ * @see PersonPageData
+ *
+ * @author Matteo Collica
+ */
+public final class RoleKeywordMatcher {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    /* Flags returned by classify */
+    public static final int EMPEROR_ROLE  = 1;
+    public static final int DICTATOR_ROLE = 2;
+
+    /* Flag of the keywords excluding any role (e.g. "consorte dell'imperatore romano") */
+    private static final int CONSORT = 4;
+
+    private static final String[] EMPEROR_KEYWORDS = {
+        "imperatore romano",
+        "augusto d'occidente dell'impero romano",
+        "cesare d'occidente dell'impero romano",
+        "cesare e poi augusto dell'impero romano",
+        "augusto d'oriente dell'impero romano",
+        "augusto dell'impero romano"
+    };
+
+    private static final String[] DICTATOR_KEYWORDS = { "dittatore" };
+
+    private static final String[] CONSORT_KEYWORDS = { "consorte del" };
+
+    /*
+     * Chars not appearing in any keyword all share the class 0,
+     * so that the transition table only has a column per keyword char
+     */
+
+    private static final byte[] charClasses = new byte[128];
+
+    /*
+     * transitions[state + charClass] is the state reached from state reading
+     * a char of charClass, where states are stored as their row's offset in
+     * the table (i.e. already multiplied by classesCount)
+     */
+
+    private static final int[] transitions;
+
+    /*
+     * The flags of the keywords ending in each state (including the ones
+     * reached through fail links), indexed by the state's offset too
+     */
+
+    private static final int[] outputs;
+
+    private static final int classesCount;
+
+    static {
+        ArrayList<String> keywords = new ArrayList<>();
+        ArrayList<Integer> keywordsFlags = new ArrayList<>();
+
+        addKeywords(keywords, keywordsFlags, EMPEROR_KEYWORDS, EMPEROR_ROLE);
+        addKeywords(keywords, keywordsFlags, DICTATOR_KEYWORDS, DICTATOR_ROLE);
+        addKeywords(keywords, keywordsFlags, CONSORT_KEYWORDS, CONSORT);
+
+        int lastClass = 0;
+
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char character = keyword.charAt(i);
+
+                if (charClasses[character] == 0) {
+                    charClasses[character] = (byte) ++lastClass;
+                }
+            }
+        }
+
+        classesCount = lastClass + 1;
+
+        /* Build the keywords' trie */
+
+        int maxStates = 1;
+
+        for (String keyword : keywords) {
+            maxStates += keyword.length();
+        }
+
+        int[] trie = new int[maxStates * classesCount];
+        int[] trieOutputs = new int[maxStates];
+
+        Arrays.fill(trie, -1);
+
+        int statesCount = 1;
+
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+
+            int state = 0;
+
+            for (int i = 0; i < keyword.length(); i++) {
+                int cell = state * classesCount + charClasses[keyword.charAt(i)];
+
+                if (trie[cell] == -1) {
+                    trie[cell] = statesCount++;
+                }
+
+                state = trie[cell];
+            }
+
+            trieOutputs[state] |= keywordsFlags.get(k);
+        }
+
+        /*
+         * Turn the trie into a complete transition table, visiting states
+         * breadth-first so that each state's fail state is already complete
+         */
+
+        transitions = Arrays.copyOf(trie, statesCount * classesCount);
+        outputs = Arrays.copyOf(trieOutputs, statesCount * classesCount);
+
+        int[] failStates = new int[statesCount];
+
+        ArrayDeque<Integer> statesQueue = new ArrayDeque<>();
+
+        for (int charClass = 0; charClass < classesCount; charClass++) {
+            int nextState = transitions[charClass];
+
+            if (nextState == -1) {
+                transitions[charClass] = 0;
+            } else {
+                failStates[nextState] = 0;
+                statesQueue.add(nextState);
+            }
+        }
+
+        while (!statesQueue.isEmpty()) {
+            int state = statesQueue.poll();
+
+            outputs[state] |= outputs[failStates[state]];
+
+            for (int charClass = 0; charClass < classesCount; charClass++) {
+                int cell = state * classesCount + charClass;
+                int failTransition = transitions[failStates[state] * classesCount + charClass];
+
+                if (transitions[cell] == -1) {
+                    transitions[cell] = failTransition;
+                } else {
+                    failStates[transitions[cell]] = failTransition;
+                    statesQueue.add(transitions[cell]);
+                }
+            }
+        }
+
+        /* Replace states with their row's offset, so that no multiplication is needed while matching */
+
+        int[] statesOutputs = outputs.clone();
+
+        Arrays.fill(outputs, 0);
+
+        for (int state = 0; state < statesCount; state++) {
+            outputs[state * classesCount] = statesOutputs[state];
+        }
+
+        for (int cell = 0; cell < transitions.length; cell++) {
+            transitions[cell] *= classesCount;
+        }
+    }
+
+    /*
+     * PREVENT INSTANTIATION WITH A PRIVATE CONSTRUCTOR
+     */
+
+    private RoleKeywordMatcher() {}
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Find the roles implied by a given line of text
+     *
+     * @param textLine the line of text to check
+     *
+     * @return EMPEROR_ROLE and/or DICTATOR_ROLE flags, 0 if the line implies no role
+     */
+    public static int classify(CharSequence textLine) {
+        int lineState = 0;
+        int clearedLineState = 0;
+
+        int lineFlags = 0;
+        int clearedLineFlags = 0;
+
+        int bracketsOpen = 0;
+
+        for (int i = 0, length = textLine.length(); i < length; i++) {
+            char currentChar = textLine.charAt(i);
+
+            int charClass;
+
+            if (currentChar < 128) {
+                charClass = charClasses[currentChar | (currentChar >= 'A' && currentChar <= 'Z' ? 0x20 : 0)];
+            } else if (currentChar == '\u0130') {
+                /*
+                 * String.toLowerCase turns a capital dotted I into an 'i' followed
+                 * by a combining dot, while Character.toLowerCase gives a plain 'i':
+                 * we feed the 'i' here and read the combining dot as a char of class 0
+                 */
+
+                int iClass = charClasses['i'];
+
+                lineState = transitions[lineState + iClass];
+                lineFlags |= outputs[lineState];
+
+                if (bracketsOpen == 0) {
+                    clearedLineState = transitions[clearedLineState + iClass];
+                    clearedLineFlags |= outputs[clearedLineState];
+                }
+
+                charClass = 0;
+            } else {
+                char lowerCaseChar = Character.toLowerCase(currentChar);
+
+                charClass = lowerCaseChar < 128 ? charClasses[lowerCaseChar] : 0;
+            }
+
+            lineState = transitions[lineState + charClass];
+            lineFlags |= outputs[lineState];
+
+            /* Brackets and their content are skipped like InfoboxTextScanner.clearBrackets does */
+
+            if (bracketsOpen == 0) {
+                if (currentChar == '(' || currentChar == '[') {
+                    bracketsOpen++;
+                } else {
+                    clearedLineState = transitions[clearedLineState + charClass];
+                    clearedLineFlags |= outputs[clearedLineState];
+                }
+            } else if (currentChar == ')' || currentChar == ']') {
+                bracketsOpen--;
+            } else if (currentChar == '(' || currentChar == '[') {
+                bracketsOpen++;
+            }
+        }
+
+        int roles = 0;
+
+        if ((clearedLineFlags & (EMPEROR_ROLE | CONSORT)) == EMPEROR_ROLE) {
+            roles |= EMPEROR_ROLE;
+        }
+
+        if ((lineFlags & (DICTATOR_ROLE | CONSORT)) == DICTATOR_ROLE) {
+            roles |= DICTATOR_ROLE;
+        }
+
+        return roles;
+    }
+
+    private static void addKeywords(ArrayList<String> keywords, ArrayList<Integer> keywordsFlags,
+                                    String[] newKeywords, int flag) {
+        for (String keyword : newKeywords) {
+            keywords.add(keyword);
+            keywordsFlags.add(flag);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package romanemperorsscraper.scraping.people;
+
+/**
+ * Class used to represent a date of the Roman age, as it has been
+ * scraped from the "sinottico" summary table (e.g. "16 gennaio 27 a.C.",
+ * "10 maggio 213 o 214 d.C", "luglio/agosto 270 d.C").
+ *
+ * The date is parsed just once (at scrape or import time) into a signed
+ * year (negative before Christ, 0 if unknown), an optional month and day
+ * and an uncertainty flag (set if the date lists alternatives, like
+ * "18 o 19 marzo" or "289/290"), all packed in a single int key which
+ * orders dates chronologically: sorting and range queries only need to
+ * compare keys, without parsing strings again. Dates whose year is
+ * unknown come before all the others (see UNKNOWN_YEAR_KEY).
+ *
+ * The scraped text is kept as it is to be shown to the user.
+ *
+ * @see PersonPageData
+ *
+ * @author Matteo Collica
+ */
+public final class RomanDate implements Comparable<RomanDate> {
+    /*
+     * CLASS ATTRIBUTES
+     */
+
+    private static final String[] MONTHS = {
+        "gennaio", "febbraio", "marzo", "aprile", "maggio", "giugno",
+        "luglio", "agosto", "settembre", "ottobre", "novembre", "dicembre"
+    };
+
+    /* The key is built as ((year * MONTHS_RADIX + month) * DAYS_RADIX + day) * 2 + uncertain */
+    private static final int MONTHS_RADIX = 13;
+    private static final int DAYS_RADIX   = 32;
+
+    /*
+     * The keys of the dates whose year is unknown are offset from this one
+     * (which is far below the key of any year), so that they don't end up
+     * between 1 a.C. and 1 d.C.
+     */
+    private static final int UNKNOWN_YEAR_KEY = Integer.MIN_VALUE;
+
+    /* The keys of a year's dates span this many values */
+    private static final int YEAR_KEYS = 2 * DAYS_RADIX * MONTHS_RADIX;
+
+    /* Years (and days) out of these bounds are not packable in the key */
+    private static final int MAX_YEAR = 100000;
+    private static final int MAX_DAY  = 31;
+
+    /*
+     * ATTRIBUTES
+     */
+
+    private final String text;
+
+    private final int key;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    private RomanDate(String text, int key) {
+        this.text = text;
+        this.key  = key;
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * Parse a date in the format produced by InfoboxTextScanner
+     * (e.g. "16 gennaio 27 a.C.", "24 gennaio 41 d.C", "289/290 d.C"),
+     * assuming it's after Christ if neither "a.C." nor "d.C." is found
+     *
+     * @param text the date's text
+     *
+     * @return the parsed RomanDate (whose year is 0 if no year is found
+     * in the text), null if the given text is null
+     */
+    public static RomanDate parse(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        String[] words = text.trim().split("[ \\u00A0]+");
+
+        int year = 0;
+        int month = 0;
+        int day = 0;
+
+        boolean uncertain = false;
+        boolean beforeChrist = false;
+        boolean eraFound = false;
+
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            /*
+             * "->" means that the information about the current date
+             * is over, any other era symbol belongs to another date
+             */
+
+            if (word.equals("->")) {
+                break;
+            }
+
+            if (isEra(word)) {
+                if (!eraFound) {
+                    beforeChrist = word.startsWith("a");
+                    eraFound = true;
+                }
+
+                continue;
+            }
+
+            /*
+             * Alternatives like "18/19", "agosto/inizi" or "o" make the date
+             * uncertain, and only the first one of them is considered
+             */
+
+            int slashIndex = word.indexOf('/');
+
+            if (slashIndex != -1) {
+                uncertain = true;
+                word = word.substring(0, slashIndex);
+            }
+
+            if (word.equals("o")) {
+                uncertain = true;
+                continue;
+            }
+
+            int wordMonth = getMonth(word);
+
+            if (wordMonth != 0) {
+                if (month == 0 && year == 0) {
+                    month = wordMonth;
+                } else {
+                    uncertain = true;
+                }
+
+                continue;
+            }
+
+            int number = parseNumber(word);
+
+            if (number <= 0) {
+                continue;
+            }
+
+            /*
+             * A number is a day if a month comes after it (as in
+             * "16 gennaio 27"), otherwise it is the year
+             */
+
+            if (month == 0 && year == 0 && isMonthAfter(words, i + 1)) {
+                if (day == 0 && number <= MAX_DAY) {
+                    day = number;
+                } else {
+                    uncertain = true;
+                }
+            } else if (year == 0 && number < MAX_YEAR) {
+                year = number;
+            } else {
+                uncertain = true;
+            }
+        }
+
+        if (beforeChrist) {
+            year = -year;
+        }
+
+        return new RomanDate(text, pack(year, month, day, uncertain));
+    }
+
+    /**
+     * Parse a period in the format used in dynasties' pages (e.g. "27 a.C.-14 d.C.",
+     * "54-68 d.C."), whose beginning date takes the era of the ending one if it
+     * doesn't have one itself (so "44-27 a.C." begins in 44 a.C.)
+     *
+     * @param period the period's text, whose dates are separated by "-" or "–"
+     *
+     * @return an array containing the beginning and the ending date (null
+     * if the period has no separator)
+     */
+    public static RomanDate[] parsePeriod(String period) {
+        int separatorIndex = period.indexOf('-');
+
+        if (separatorIndex == -1) {
+            separatorIndex = period.indexOf('–');
+        }
+
+        String beginningText = period.substring(0, separatorIndex == -1 ? period.length() : separatorIndex);
+
+        RomanDate beginning = parse(beginningText);
+        RomanDate ending = separatorIndex == -1 ? null : parse(period.substring(separatorIndex + 1));
+
+        if (ending != null && ending.isBeforeChrist() && !beginning.isBeforeChrist() && !hasEra(beginningText)) {
+            beginning = new RomanDate(beginningText,
+                    pack(-beginning.getYear(), beginning.getMonth(), beginning.getDay(), beginning.isUncertain()));
+        }
+
+        return new RomanDate[] { beginning, ending };
+    }
+
+    /**
+     * Restore a RomanDate from its compact form
+     *
+     * @param text the date's text
+     * @param key the date's key, as returned by getKey
+     *
+     * @return the restored RomanDate
+     */
+    public static RomanDate fromKey(String text, int key) {
+        /* Exports used to give the dates whose year is unknown the year 0's keys */
+
+        if (key >= 0 && key < YEAR_KEYS) {
+            key += UNKNOWN_YEAR_KEY;
+        }
+
+        return new RomanDate(text, key);
+    }
+
+    /**
+     * @param date a RomanDate, or null
+     *
+     * @return the date's text, null if the given date is null
+     */
+    public static String getText(RomanDate date) {
+        return date == null ? null : date.getText();
+    }
+
+    private static int pack(int year, int month, int day, boolean uncertain) {
+        int key = ((year * MONTHS_RADIX + month) * DAYS_RADIX + day) * 2 + (uncertain ? 1 : 0);
+
+        return year == 0 ? UNKNOWN_YEAR_KEY + key : key;
+    }
+
+    private static boolean isEra(String word) {
+        return word.equals("a.C.") || word.equals("a.C") || word.equals("d.C.") || word.equals("d.C");
+    }
+
+    private static boolean hasEra(String text) {
+        return text.contains("a.C") || text.contains("d.C");
+    }
+
+    private static boolean isMonthAfter(String[] words, int fromIndex) {
+        for (int i = fromIndex; i < words.length; i++) {
+            String word = words[i];
+            int slashIndex = word.indexOf('/');
+
+            if (getMonth(slashIndex == -1 ? word : word.substring(0, slashIndex)) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the month's number (from 1 to 12), 0 if the word isn't a month
+     */
+    private static int getMonth(String word) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (MONTHS[i].equals(word)) {
+                return i + 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * @return the word's value if it's made of decimal digits only (and
+     * fits in an int), -1 otherwise
+     */
+    private static int parseNumber(String word) {
+        if (word.isEmpty() || word.length() > 9) {
+            return -1;
+        }
+
+        int number = 0;
+
+        for (int i = 0; i < word.length(); i++) {
+            char character = word.charAt(i);
+
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+
+            number = number * 10 + (character - '0');
+        }
+
+        return number;
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * @return the date's text, as it has been scraped
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the date's key: comparing keys is the same as comparing dates
+     * chronologically (by year, month, day and then certain before uncertain),
+     * the ones whose year is unknown coming first
+     */
+    public int getKey() {
+        return key;
+    }
+
+    /**
+     * @return the date's year, negative if it's before Christ and 0 if unknown
+     */
+    public int getYear() {
+        return key < UNKNOWN_YEAR_KEY + YEAR_KEYS ? 0 : Math.floorDiv(key, YEAR_KEYS);
+    }
+
+    /**
+     * @return the date's month (from 1 to 12), 0 if unknown
+     */
+    public int getMonth() {
+        return Math.floorMod(Math.floorDiv(getYearlessKey(), 2 * DAYS_RADIX), MONTHS_RADIX);
+    }
+
+    /**
+     * @return the date's day of the month, 0 if unknown
+     */
+    public int getDay() {
+        return Math.floorMod(Math.floorDiv(getYearlessKey(), 2), DAYS_RADIX);
+    }
+
+    /**
+     * @return true if the date lists alternatives (only the first of them is represented)
+     */
+    public boolean isUncertain() {
+        return (key & 1) != 0;
+    }
+
+    /**
+     * @return true if the date's year is known, false otherwise
+     */
+    public boolean hasYear() {
+        return key >= UNKNOWN_YEAR_KEY + YEAR_KEYS;
+    }
+
+    /**
+     * @return true if the date is before Christ, false otherwise
+     */
+    public boolean isBeforeChrist() {
+        return getYear() < 0;
+    }
+
+    /**
+     * @return the key without the unknown year's offset (see UNKNOWN_YEAR_KEY)
+     */
+    private int getYearlessKey() {
+        return hasYear() ? key : key - UNKNOWN_YEAR_KEY;
+    }
+
+    @Override
+    public int compareTo(RomanDate otherDate) {
+        return Integer.compare(key, otherDate.key);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+
+        if (!(object instanceof RomanDate)) {
+            return false;
+        }
+
+        RomanDate otherDate = (RomanDate) object;
+
+        return key == otherDate.key && text.equals(otherDate.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * key + text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
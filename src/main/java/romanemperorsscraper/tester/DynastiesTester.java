@@ -1,9 +1,9 @@
 package romanemperorsscraper.tester;
 
-import org.openqa.selenium.WebDriver;
 import romanemperorsscraper.run.NoSupportedBrowsersException;
 import romanemperorsscraper.run.OsUtils;
 import romanemperorsscraper.run.UnsupportedOsException;
+import romanemperorsscraper.scraping.PageSource;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
 
 import java.util.HashMap;
@@ -20,13 +20,13 @@ import java.util.HashMap;
  */
 
 public class DynastiesTester {
-    private static WebDriver webDriver;
+    private static PageSource pageSource;
 
     private static HashMap<String, String> expectedDynasties;
     private static HashMap<String, String> scrapedDynasties;
 
     /**
-     * Initialize the WebDriver needed to scrape data from the Wikipedia page
+     * Initialize the PageSource needed to scrape data from the Wikipedia page
      * of Roman Emperors and obtain the dynasties names and Wikipedia page URLs
      * to be compared with the expected ones
      *
@@ -36,20 +36,20 @@ public class DynastiesTester {
     public static void initialize() throws NoSupportedBrowsersException, UnsupportedOsException {
         OsUtils.initializeOs();
 
-        webDriver = OsUtils.getWebDriver();
+        pageSource = OsUtils.getPageSource();
 
-        scrapedDynasties = Dynasty.getDynasties(webDriver);
+        scrapedDynasties = Dynasty.getDynasties(pageSource);
     }
 
     /**
      * Obtain the dynasties names and Wikipedia page URLs to be compared with the expected ones
      *
-     * @param webDriver the WebDriver needed to scrape data from the Wikipedia page
+     * @param pageSource the PageSource needed to scrape data from the Wikipedia page
      */
-    public static void initialize(WebDriver webDriver) {
-        DynastiesTester.webDriver = webDriver;
+    public static void initialize(PageSource pageSource) {
+        DynastiesTester.pageSource = pageSource;
 
-        scrapedDynasties = Dynasty.getDynasties(webDriver);
+        scrapedDynasties = Dynasty.getDynasties(pageSource);
     }
 
     /**
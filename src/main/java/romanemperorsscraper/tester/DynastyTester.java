@@ -1,9 +1,10 @@
 package romanemperorsscraper.tester;
 
-import org.openqa.selenium.WebDriver;
 import romanemperorsscraper.run.NoSupportedBrowsersException;
 import romanemperorsscraper.run.OsUtils;
 import romanemperorsscraper.run.UnsupportedOsException;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.ScrapeSession;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
 
 import java.util.ArrayList;
@@ -25,7 +26,7 @@ import java.util.LinkedHashMap;
  */
 
 public class DynastyTester {
-    private static WebDriver webDriver;
+    private static PageSource pageSource;
 
     private static int numberOfTests = 0;
     private static int numberOfPassedTests = 0;
@@ -47,7 +48,7 @@ public class DynastyTester {
     }
 
     /**
-     * Initialize the WebDriver needed to scrape data from the Wikipedia page
+     * Initialize the PageSource needed to scrape data from the Wikipedia page
      * of the Julio-Claudian Dynasty and get its information through the Dynasty
      * object constructor
      *
@@ -57,20 +58,20 @@ public class DynastyTester {
     public static void initialize() throws NoSupportedBrowsersException, UnsupportedOsException {
         OsUtils.initializeOs();
 
-        webDriver = OsUtils.getWebDriver();
+        pageSource = OsUtils.getPageSource();
 
-        dynasty = new Dynasty(DYNASTYURL, DYNASTYNAME, webDriver, false);
+        dynasty = new Dynasty(ScrapeSession.getApplicationSession(), DYNASTYURL, DYNASTYNAME, pageSource, false);
     }
 
     /**
      * Get information of the Julio-Claudian Dynasty through the Dynasty object constructor
      *
-     * @param webDriver the WebDriver needed to scrape data from the Wikipedia page
+     * @param pageSource the PageSource needed to scrape data from the Wikipedia page
      */
-    public static void initialize(WebDriver webDriver) {
-        DynastyTester.webDriver = webDriver;
+    public static void initialize(PageSource pageSource) {
+        DynastyTester.pageSource = pageSource;
 
-        dynasty = new Dynasty(DYNASTYURL, DYNASTYNAME, webDriver, false);
+        dynasty = new Dynasty(ScrapeSession.getApplicationSession(), DYNASTYURL, DYNASTYNAME, pageSource, false);
     }
 
     /**
@@ -0,0 +1,192 @@
+package romanemperorsscraper.tester;
+
+import romanemperorsscraper.scraping.dynasties.DynastyTree;
+import romanemperorsscraper.scraping.dynasties.GenealogyGraph;
+import romanemperorsscraper.scraping.dynasties.GenealogyLayout;
+import romanemperorsscraper.scraping.people.PersonTable;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Class used to benchmark GenealogyLayout on generated genealogical trees
+ * of thousands of people: each generation's people get a spouse and some
+ * children most of the times, and some of them succeed each other.
+ *
+ * For each size it checks that the layout keeps people apart, parents
+ * above their children and spouses side by side, then prints the
+ * average layout time after a warm-up.
+ *
+ * @see GenealogyLayout
+ *
+ * @author Matteo Collica
+ */
+public class GenealogyLayoutBenchmark {
+    private static final int[] TREE_SIZES = { 1_000, 5_000, 20_000 };
+
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 10;
+
+    /**
+     * @param args currently there is no support for any command-line argument
+     */
+    public static void main(String[] args) {
+        System.out.println("*----------------------------------------------------------------------------");
+        System.out.println("GenealogyLayout benchmark on generated genealogical trees");
+        System.out.println();
+
+        boolean valid = true;
+
+        for (int treeSize : TREE_SIZES) {
+            GenealogyGraph genealogyGraph = generateTree(treeSize, new Random(treeSize));
+
+            GenealogyLayout genealogyLayout = null;
+
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                genealogyLayout = GenealogyLayout.compute(genealogyGraph);
+            }
+
+            long startNanos = System.nanoTime();
+
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                genealogyLayout = GenealogyLayout.compute(genealogyGraph);
+            }
+
+            long layoutMillis = (System.nanoTime() - startNanos) / MEASURED_ROUNDS / 1_000_000;
+
+            genealogyGraph.setPositions(genealogyLayout);
+
+            String problems = check(genealogyGraph);
+
+            System.out.println(String.format("- %6d people, %6d edges  layout: %5d ms  %s",
+                    treeSize, genealogyGraph.getEdgesCount(), layoutMillis, problems.isEmpty() ? "valid" : problems));
+
+            valid &= problems.isEmpty();
+        }
+
+        System.out.println("*----------------------------------------------------------------------------");
+
+        if (!valid) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generate a genealogical tree, one generation at a time starting from a single founder
+     */
+    private static GenealogyGraph generateTree(int treeSize, Random random) {
+        GenealogyGraph genealogyGraph = new GenealogyGraph();
+
+        ArrayList<Integer> generation = new ArrayList<>();
+        generation.add(addPerson(genealogyGraph, treeSize));
+
+        while (genealogyGraph.getNodesCount() < treeSize) {
+            ArrayList<Integer> nextGeneration = new ArrayList<>();
+
+            for (int parent : generation) {
+                if (genealogyGraph.getNodesCount() >= treeSize) {
+                    break;
+                }
+
+                int spouse = GenealogyGraph.NO_NODE;
+
+                if (random.nextInt(4) != 0) {
+                    spouse = addPerson(genealogyGraph, treeSize);
+
+                    genealogyGraph.addEdge(parent, spouse, DynastyTree.KinshipDegree.SPOUSE);
+                }
+
+                int childrenCount = random.nextInt(4);
+
+                for (int i = 0; i < childrenCount && genealogyGraph.getNodesCount() < treeSize; i++) {
+                    int child = addPerson(genealogyGraph, treeSize);
+
+                    genealogyGraph.addEdge(child, parent, DynastyTree.KinshipDegree.FATHER);
+
+                    if (spouse != GenealogyGraph.NO_NODE) {
+                        genealogyGraph.addEdge(child, spouse, DynastyTree.KinshipDegree.MOTHER);
+                    }
+
+                    nextGeneration.add(child);
+                }
+            }
+
+            /* A childless generation has its people get children in the next round */
+
+            if (nextGeneration.isEmpty()) {
+                nextGeneration.addAll(generation);
+            }
+
+            for (int i = 0; i + 1 < nextGeneration.size(); i += 5) {
+                genealogyGraph.addEdge(nextGeneration.get(i), nextGeneration.get(i + 1), DynastyTree.KinshipDegree.SUCCESSOR);
+            }
+
+            generation = nextGeneration;
+        }
+
+        return genealogyGraph;
+    }
+
+    private static int addPerson(GenealogyGraph genealogyGraph, int treeSize) {
+        int personNumber = genealogyGraph.getNodesCount();
+
+        int personId = PersonTable.getSharedTable().getId("https://example.org/tree-" + treeSize + "/person-" + personNumber);
+
+        return genealogyGraph.addNode(personId, "Person " + personNumber);
+    }
+
+    /**
+     * @return a description of the layout's problems, an empty string if there are none
+     */
+    private static String check(GenealogyGraph genealogyGraph) {
+        TreeMap<Integer, TreeSet<Integer>> xsByY = new TreeMap<>();
+
+        int overlaps = 0;
+
+        for (int node = 0; node < genealogyGraph.getNodesCount(); node++) {
+            TreeSet<Integer> rowXs = xsByY.computeIfAbsent(genealogyGraph.getY(node), y -> new TreeSet<>());
+
+            int x = genealogyGraph.getX(node);
+
+            Integer lowerX = rowXs.floor(x);
+            Integer higherX = rowXs.ceiling(x);
+
+            /* People side by side are 2 graph units apart */
+
+            if ((lowerX != null && x - lowerX < 2) || (higherX != null && higherX - x < 2)) {
+                overlaps++;
+            }
+
+            rowXs.add(x);
+        }
+
+        int misplacedEdges = 0;
+
+        for (int edge = 0; edge < genealogyGraph.getEdgesCount(); edge++) {
+            int sourceY = genealogyGraph.getY(genealogyGraph.getEdgeSource(edge));
+            int targetY = genealogyGraph.getY(genealogyGraph.getEdgeTarget(edge));
+
+            switch (genealogyGraph.getEdgeKinshipDegree(edge)) {
+                case MOTHER:
+                case FATHER:
+                    misplacedEdges += targetY > sourceY ? 0 : 1;
+                    break;
+
+                case SPOUSE:
+                    misplacedEdges += targetY == sourceY ? 0 : 1;
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        if (overlaps == 0 && misplacedEdges == 0) {
+            return "";
+        }
+
+        return overlaps + " OVERLAPPING PEOPLE, " + misplacedEdges + " MISPLACED RELATIVES";
+    }
+}
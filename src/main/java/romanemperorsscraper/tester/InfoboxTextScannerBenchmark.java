@@ -0,0 +1,387 @@
+package romanemperorsscraper.tester;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import romanemperorsscraper.scraping.people.InfoboxTextScanner;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Class used to benchmark InfoboxTextScanner against the replace/split
+ * based parsing PersonPageData used before, on "sinottico" summary table
+ * cells rebuilt from the people of the bundled export file.
+ *
+ * For each kind of cell (birth/death dates, reign periods, spouses and
+ * children) it first checks that both parsers produce the same output,
+ * then times them after a warm-up, printing the average time per cell.
+ *
+ * Run it with a fixed heap and no other load (e.g. java -Xms512m -Xmx512m)
+ * to get stable figures.
+ *
+ * @see InfoboxTextScanner
+ *
+ * @author Matteo Collica
+ */
+public class InfoboxTextScannerBenchmark {
+    private static final String EXPORT_RESOURCE = "/resources/export_2022-07-11_09-21-44.json";
+
+    private static final int WARMUP_ROUNDS = 2000;
+    private static final int MEASURED_ROUNDS = 5000;
+
+    private static final HashSet<String> months = new HashSet<>(Arrays.asList(
+        "gennaio", "febbraio", "marzo", "aprile", "maggio", "giugno",
+        "luglio", "agosto", "settembre", "ottobre", "novembre", "dicembre"
+    ));
+
+    /* Consumes the parsers' output so that the JIT can't skip them */
+    private static int sink;
+
+    /**
+     * @param args currently there is no support for any command-line argument
+     */
+    public static void main(String[] args) throws IOException, ParseException {
+        JSONObject people;
+
+        try (Reader reader = new InputStreamReader(
+                InfoboxTextScannerBenchmark.class.getResourceAsStream(EXPORT_RESOURCE), StandardCharsets.UTF_8)) {
+            people = (JSONObject) ((JSONObject) new JSONParser().parse(reader)).get("people");
+        }
+
+        ArrayList<String> dateCells = new ArrayList<>();
+        ArrayList<String> reignCells = new ArrayList<>();
+        ArrayList<String> spousesCells = new ArrayList<>();
+        ArrayList<String> childrenCells = new ArrayList<>();
+
+        for (Object person : people.values()) {
+            addCells((JSONObject) person, dateCells, reignCells, spousesCells, childrenCells);
+        }
+
+        System.out.println("*----------------------------------------------------------------------------");
+        System.out.println("InfoboxTextScanner benchmark on " + people.size() + " people of the bundled export");
+        System.out.println();
+
+        boolean identical = true;
+
+        identical &= benchmark("Birth/death dates", dateCells,
+                cell -> legacyExtractDate(cell), cell -> InfoboxTextScanner.extractDate(cell).toString());
+        identical &= benchmark("Reign periods", reignCells,
+                InfoboxTextScannerBenchmark::legacyExtractReignDates, InfoboxTextScanner::extractReignDates);
+        identical &= benchmark("Spouses", spousesCells,
+                InfoboxTextScannerBenchmark::legacyExtractNames, InfoboxTextScanner::extractNames);
+        identical &= benchmark("Children", childrenCells,
+                InfoboxTextScannerBenchmark::legacyExtractChildrenNames, InfoboxTextScannerBenchmark::extractChildrenNames);
+
+        System.out.println();
+        System.out.println(identical ? "Identical output on every cell" : "DIFFERENT OUTPUT ON SOME CELLS");
+        System.out.println("*----------------------------------------------------------------------------");
+
+        if (sink == 42) {
+            System.out.println();
+        }
+
+        if (!identical) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Rebuild the summary table cells of a person as Wikipedia shows them,
+     * with notes, non-breaking spaces and bracketed details
+     */
+    private static void addCells(JSONObject person, List<String> dateCells, List<String> reignCells,
+                                 List<String> spousesCells, List<String> childrenCells) {
+        String birthDate = (String) person.get("birthDate");
+        String deathDate = (String) person.get("deathDate");
+
+        if (birthDate != null) {
+            dateCells.add("Roma, " + birthDate.replaceFirst(" ", " ") + "[1]\n(figlio di)");
+        }
+
+        if (deathDate != null) {
+            dateCells.add("Nola, " + deathDate + " (75 anni)[2°]");
+        }
+
+        String reignBeginningDate = (String) person.get("reignBeginningDate");
+
+        if (reignBeginningDate != null) {
+            reignCells.add(reignBeginningDate + "[3] – " + person.get("reignEndDate") + " (co-imperatore)\n");
+        }
+
+        JSONObject spouses = (JSONObject) person.get("spouses");
+
+        if (spouses != null && !spouses.isEmpty()) {
+            StringBuilder cell = new StringBuilder();
+
+            for (Object spouse : spouses.keySet()) {
+                cell.append(spouse).append(cell.length() % 2 == 0 ? " (m. 20 a.C.)\n" : ", ");
+            }
+
+            spousesCells.add(cell + "altri?");
+        }
+
+        JSONObject children = (JSONObject) person.get("children");
+        JSONObject adoptedChildren = (JSONObject) person.get("adoptedChildren");
+
+        if ((children != null && !children.isEmpty()) || (adoptedChildren != null && !adoptedChildren.isEmpty())) {
+            StringBuilder cell = new StringBuilder();
+
+            if (children != null) {
+                for (Object child : children.keySet()) {
+                    cell.append(child).append(" (10 a.C.-5 d.C.)\n");
+                }
+            }
+
+            if (adoptedChildren != null && !adoptedChildren.isEmpty()) {
+                cell.append("Adottivi:\n");
+
+                for (Object adoptedChild : adoptedChildren.keySet()) {
+                    cell.append(adoptedChild).append(", nipote\n");
+                }
+            }
+
+            childrenCells.add(cell.toString());
+        }
+    }
+
+    /**
+     * Check that both parsers produce the same output on every cell, then time them
+     *
+     * @return true if the output is the same on every cell, false otherwise
+     */
+    private static boolean benchmark(String name, List<String> cells, Function<String, Object> legacyParser,
+                                     Function<String, Object> scannerParser) {
+        boolean identical = true;
+
+        for (String cell : cells) {
+            if (!Objects.equals(legacyParser.apply(cell), scannerParser.apply(cell))) {
+                System.out.println("  Different output on " + name + " cell '" + cell + "'");
+
+                identical = false;
+            }
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(cells, legacyParser);
+            run(cells, scannerParser);
+        }
+
+        long legacyNanos = time(cells, legacyParser);
+        long scannerNanos = time(cells, scannerParser);
+
+        long cellsCount = (long) cells.size() * MEASURED_ROUNDS;
+
+        System.out.println(String.format("- %-18s %4d cells  replace/split: %6d ns/cell  scanner: %6d ns/cell  (%.1fx)",
+                name, cells.size(), legacyNanos / cellsCount, scannerNanos / cellsCount,
+                (double) legacyNanos / Math.max(1, scannerNanos)));
+
+        return identical;
+    }
+
+    private static long time(List<String> cells, Function<String, Object> parser) {
+        long startNanos = System.nanoTime();
+
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            run(cells, parser);
+        }
+
+        return System.nanoTime() - startNanos;
+    }
+
+    private static void run(List<String> cells, Function<String, Object> parser) {
+        for (String cell : cells) {
+            sink += parser.apply(cell).hashCode();
+        }
+    }
+
+    private static List<List<String>> extractChildrenNames(String childrenText) {
+        InfoboxTextScanner.ChildrenNames childrenNames = InfoboxTextScanner.extractChildrenNames(childrenText);
+
+        if (childrenNames == null) {
+            return null;
+        }
+
+        return Arrays.asList(childrenNames.getChildren(), childrenNames.getAdoptedChildren(), childrenNames.getAllChildren());
+    }
+
+    /*
+     * THE REPLACE/SPLIT BASED PARSING USED BY PERSONPAGEDATA BEFORE INFOBOXTEXTSCANNER
+     */
+
+    private static String legacyExtractDate(String informationText) {
+        informationText = informationText.replace("\n", " ");
+        informationText = informationText.replace("°", "");
+
+        StringBuilder clearedInformations = legacyClearBrackets(informationText);
+        StringBuilder currentInformation = new StringBuilder();
+
+        for (int indx = 0; indx < clearedInformations.length(); indx += 1) {
+            Character character = clearedInformations.charAt(indx);
+
+            int asciiValue = character;
+
+            if (asciiValue == 32 || asciiValue == 160) {
+                currentInformation.append(" ");
+            } else {
+                currentInformation.append(character);
+            }
+        }
+
+        String[] singleInformation = String.valueOf(currentInformation).split(" ");
+
+        return legacyExtractDates(singleInformation).toString();
+    }
+
+    private static ArrayList<String> legacyExtractReignDates(String reignData) {
+        ArrayList<String> datesOfReign = new ArrayList<>();
+
+        reignData = legacyClearBrackets(reignData).toString();
+        reignData = reignData.replace("º", "");
+
+        reignData = reignData.replace("–", "\n");
+        reignData = reignData.replace("-", "\n");
+
+        String[] listDates = reignData.split("\n");
+
+        for (String reignDate : listDates) {
+            datesOfReign.add((legacyExtractDates(reignDate.split(" "))).toString());
+        }
+
+        return datesOfReign;
+    }
+
+    private static ArrayList<String> legacyExtractNames(String peopleText) {
+        ArrayList<String> names = new ArrayList<>();
+
+        String[] cleanedLines = legacyClearBrackets(peopleText).toString().replace(";", "\n").replace(",", "\n").split("\n");
+        for (String cleanedLine : cleanedLines) {
+            if (!cleanedLine.isEmpty() && cleanedLine.substring(0, 1).equals(cleanedLine.substring(0, 1).toUpperCase()) && !cleanedLine.startsWith(" ")  && !cleanedLine.endsWith("?") ){
+                names.add(cleanedLine.trim());
+            }
+        }
+
+        return names;
+    }
+
+    private static List<List<String>> legacyExtractChildrenNames(String childrenString) {
+        ArrayList<String> children             = new ArrayList<>();
+        ArrayList<String> adoptedChildrenNames = new ArrayList<>();
+        ArrayList<String> allChildrenNames     = new ArrayList<>();
+
+        boolean adoptiveChildrenState = false;
+
+        try {
+            String[] childrenNames = childrenString.split("\n");
+            for (String childData : childrenNames) {
+                if (childData.substring(0, 1).equals(childData.substring(0, 1).toLowerCase())){
+                    continue;
+                }
+
+                StringBuilder name = new StringBuilder();
+                for (int i = 0; i < childData.length(); i++) {
+
+                    if (childData.charAt(i) == '(' | (childData.charAt(i) == '[') | (childData.charAt(i) ==';') | (childData.charAt(i) ==',')) {
+                        break;
+                    }
+
+                    name.append(childData.charAt(i));
+                }
+
+                if (name.toString().toLowerCase().contains("adott")){
+                    adoptiveChildrenState = true;
+                    continue;
+                }
+
+                if (!adoptiveChildrenState) {
+                    if (childData.contains("adott")) {
+                        adoptedChildrenNames.add(name.toString().trim());
+                    } else {
+                        for (String child : name.toString().split(" e ")) {
+                            children.add(child.trim());
+                        }
+                    }
+                } else {
+                    adoptedChildrenNames.add(name.toString().trim());
+                }
+
+                allChildrenNames.add(name.toString().trim());
+            }
+        } catch (StringIndexOutOfBoundsException ex) {
+            return null;
+        }
+
+        return Arrays.asList(children, adoptedChildrenNames, allChildrenNames);
+    }
+
+    private static StringBuilder legacyExtractDates(String[] possibleDates) {
+        StringBuilder cleanedDate = new StringBuilder();
+        int datesCount = 0;
+
+        for (String data : possibleDates) {
+            try {
+                Integer.parseInt(data);
+                cleanedDate.append(data).append(" ");
+            } catch (NumberFormatException e) {
+                if (months.contains(data) || data.equals("a.C.") || data.equals("d.C.") || data.equals("->")) {
+                    if (data.equals("->") && datesCount < 1) {
+                        cleanedDate.append("d.C. ");
+                        datesCount = 1;
+                    }
+
+                    if (data.equals("a.C.") || data.equals("d.C.")) {
+                        datesCount += 1;
+                    }
+
+                    cleanedDate.append(data).append(" ");
+
+                } else if (data.contains("/")) {
+                    cleanedDate.append(data).append(" ");
+
+                } else if (data.equals("o")){
+                    cleanedDate.append("o ");
+                }
+            }
+        }
+
+        if (datesCount == 0 && cleanedDate.length() != 0) {
+            cleanedDate.append("d.C");
+        }
+
+        return cleanedDate;
+    }
+
+    private static StringBuilder legacyClearBrackets(String information) {
+        StringBuilder cleanedInformation = new StringBuilder();
+
+        int bracketsOpen = 0;
+
+        for (int i = 0; i < information.length(); i++) {
+            String currentChar = information.substring(i, i + 1);
+
+            if (bracketsOpen == 0) {
+                if (currentChar.equals("(") || currentChar.equals("[")) {
+                    bracketsOpen++;
+                } else {
+                    cleanedInformation.append(currentChar);
+                }
+            } else {
+                if (currentChar.equals(")") || currentChar.equals("]")) {
+                    bracketsOpen--;
+                } else if (currentChar.equals("(") || currentChar.equals("[")) {
+                    bracketsOpen++;
+                }
+            }
+        }
+
+        return cleanedInformation;
+    }
+}
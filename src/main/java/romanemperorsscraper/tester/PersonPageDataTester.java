@@ -1,9 +1,9 @@
 package romanemperorsscraper.tester;
 
-import org.openqa.selenium.WebDriver;
 import romanemperorsscraper.run.NoSupportedBrowsersException;
 import romanemperorsscraper.run.OsUtils;
 import romanemperorsscraper.run.UnsupportedOsException;
+import romanemperorsscraper.scraping.PageSource;
 import romanemperorsscraper.scraping.people.PersonNameUrl;
 import romanemperorsscraper.scraping.people.PersonPageData;
 
@@ -26,7 +26,7 @@ import java.util.LinkedHashMap;
  * @author Radu Ionut Barbalata
  */
 public class PersonPageDataTester {
-    private static WebDriver webDriver;
+    private static PageSource pageSource;
 
     private static PersonPageData personPageData;
     private static PersonNameUrl personNameUrl;
@@ -53,7 +53,7 @@ public class PersonPageDataTester {
     }
 
     /**
-     * Initialize the WebDriver needed to scrape data from the Wikipedia page of
+     * Initialize the PageSource needed to scrape data from the Wikipedia page of
      * Augusto and get its information through the PersonPageData object constructor
      *
      * @throws NoSupportedBrowsersException if there are no supported browsers installed in user's Operating System
@@ -62,12 +62,12 @@ public class PersonPageDataTester {
     public static void initialize() throws NoSupportedBrowsersException, UnsupportedOsException {
         OsUtils.initializeOs();
 
-        webDriver = OsUtils.getWebDriver();
+        pageSource = OsUtils.getPageSource();
 
         personNameUrl = new PersonNameUrl("Augusto", "https://it.wikipedia.org/wiki/Augusto");
 
         personPageData = new PersonPageData(
-                webDriver,
+                pageSource,
                 personNameUrl,
                 "https://it.wikipedia.org/wiki/Dinastia_giulio-claudia"
         );
@@ -76,15 +76,15 @@ public class PersonPageDataTester {
     /**
      * Get information of Augusto through the PersonPageData object constructor
      *
-     * @param webDriver the WebDriver needed to scrape data from the Wikipedia page
+     * @param pageSource the PageSource needed to scrape data from the Wikipedia page
      */
-    public static void initialize(WebDriver webDriver) {
-        PersonPageDataTester.webDriver = webDriver;
+    public static void initialize(PageSource pageSource) {
+        PersonPageDataTester.pageSource = pageSource;
 
         personNameUrl = new PersonNameUrl("Augusto", "https://it.wikipedia.org/wiki/Augusto");
 
         personPageData = new PersonPageData(
-                webDriver,
+                pageSource,
                 personNameUrl,
                 "https://it.wikipedia.org/wiki/Dinastia_giulio-claudia"
         );
@@ -0,0 +1,222 @@
+package romanemperorsscraper.tester;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import romanemperorsscraper.scraping.people.InfoboxTextScanner;
+import romanemperorsscraper.scraping.people.RoleKeywordMatcher;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Class used to benchmark RoleKeywordMatcher against the per-keyword
+ * substring checks PersonPageData used before, on "sinottico" summary
+ * table lines (and whole tables) rebuilt from the people of the bundled
+ * export file.
+ *
+ * It first checks that both detect the same roles on every text, then
+ * times them after a warm-up, printing the average time per text.
+ *
+ * Run it with a fixed heap and no other load (e.g. java -Xms512m -Xmx512m)
+ * to get stable figures.
+ *
+ * @see RoleKeywordMatcher
+ *
+ * @author Matteo Collica
+ */
+public class RoleKeywordMatcherBenchmark {
+    private static final String EXPORT_RESOURCE = "/resources/export_2022-07-11_09-21-44.json";
+
+    private static final int WARMUP_ROUNDS = 2000;
+    private static final int MEASURED_ROUNDS = 5000;
+
+    /* Role lines as they're written in the summary tables of the Italian Wikipedia */
+    private static final String[] EMPEROR_LINES = {
+        "Imperatore romano",
+        "Augusto dell'Impero romano",
+        "Augusto d'Occidente dell'Impero romano",
+        "Augusto d'Oriente dell'Impero romano",
+        "Cesare d'Occidente dell'Impero romano",
+        "Cesare e poi Augusto dell'Impero romano",
+        "Usurpatore (imperatore romano)[1]"
+    };
+
+    /* Consumes the matchers' output so that the JIT can't skip them */
+    private static int sink;
+
+    /**
+     * @param args currently there is no support for any command-line argument
+     */
+    public static void main(String[] args) throws IOException, ParseException {
+        JSONObject people;
+
+        try (Reader reader = new InputStreamReader(
+                RoleKeywordMatcherBenchmark.class.getResourceAsStream(EXPORT_RESOURCE), StandardCharsets.UTF_8)) {
+            people = (JSONObject) ((JSONObject) new JSONParser().parse(reader)).get("people");
+        }
+
+        ArrayList<String> lines = new ArrayList<>();
+        ArrayList<String> tables = new ArrayList<>();
+
+        int personIndex = 0;
+
+        for (Object person : people.values()) {
+            addTexts((JSONObject) person, personIndex++, lines, tables);
+        }
+
+        System.out.println("*----------------------------------------------------------------------------");
+        System.out.println("RoleKeywordMatcher benchmark on " + people.size() + " people of the bundled export");
+        System.out.println();
+
+        boolean identical = true;
+
+        identical &= benchmark("Summary table lines", lines);
+        identical &= benchmark("Whole summary tables", tables);
+
+        System.out.println();
+        System.out.println(identical ? "Identical roles on every text" : "DIFFERENT ROLES ON SOME TEXTS");
+        System.out.println("*----------------------------------------------------------------------------");
+
+        if (sink == 42) {
+            System.out.println();
+        }
+
+        if (!identical) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Rebuild the summary table lines of a person as Wikipedia shows them,
+     * with their role line (if any), notes and bracketed details
+     */
+    private static void addTexts(JSONObject person, int personIndex, List<String> lines, List<String> tables) {
+        ArrayList<String> personLines = new ArrayList<>();
+
+        String role = (String) person.get("role");
+
+        if ("Emperor".equals(role)) {
+            personLines.add(EMPEROR_LINES[personIndex % EMPEROR_LINES.length]);
+        } else if ("Dictator".equals(role)) {
+            personLines.add("Dittatore romano[1]");
+        } else if (person.get("spouses") != null && !((JSONObject) person.get("spouses")).isEmpty()) {
+            personLines.add(personIndex % 2 == 0 ? "Consorte dell'imperatore romano" : "Augusta (consorte del dittatore)");
+        }
+
+        personLines.add("Nome completo\n" + person.get("fullName") + " (in latino)");
+
+        if (person.get("birthDate") != null) {
+            personLines.add("Nascita\nRoma, " + person.get("birthDate") + "[2]");
+        }
+
+        if (person.get("deathDate") != null) {
+            personLines.add("Morte\nNola, " + person.get("deathDate") + " (Imperatore romano deposto)");
+        }
+
+        if (person.get("reignBeginningDate") != null) {
+            personLines.add("Regno\n" + person.get("reignBeginningDate") + " – " + person.get("reignEndDate"));
+        }
+
+        JSONObject children = (JSONObject) person.get("children");
+
+        if (children != null && !children.isEmpty()) {
+            ArrayList<String> childrenNames = new ArrayList<>(children.size());
+
+            for (Object childName : children.keySet()) {
+                childrenNames.add((String) childName);
+            }
+
+            personLines.add("Figli\n" + String.join("\n", childrenNames));
+        }
+
+        lines.addAll(personLines);
+        tables.add(String.join("\n", personLines));
+    }
+
+    /**
+     * Check that both matchers detect the same roles on every text, then time them
+     *
+     * @return true if the roles are the same on every text, false otherwise
+     */
+    private static boolean benchmark(String name, List<String> texts) {
+        Function<String, Integer> legacyMatcher = RoleKeywordMatcherBenchmark::legacyClassify;
+        Function<String, Integer> automatonMatcher = RoleKeywordMatcher::classify;
+
+        boolean identical = true;
+
+        for (String text : texts) {
+            if (!legacyMatcher.apply(text).equals(automatonMatcher.apply(text))) {
+                System.out.println("  Different roles on " + name + " text '" + text + "'");
+
+                identical = false;
+            }
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(texts, legacyMatcher);
+            run(texts, automatonMatcher);
+        }
+
+        long legacyNanos = time(texts, legacyMatcher);
+        long automatonNanos = time(texts, automatonMatcher);
+
+        long textsCount = (long) texts.size() * MEASURED_ROUNDS;
+
+        System.out.println(String.format("- %-20s %4d texts  substring checks: %6d ns/text  automaton: %6d ns/text  (%.1fx)",
+                name, texts.size(), legacyNanos / textsCount, automatonNanos / textsCount,
+                (double) legacyNanos / Math.max(1, automatonNanos)));
+
+        return identical;
+    }
+
+    private static long time(List<String> texts, Function<String, Integer> matcher) {
+        long startNanos = System.nanoTime();
+
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            run(texts, matcher);
+        }
+
+        return System.nanoTime() - startNanos;
+    }
+
+    private static void run(List<String> texts, Function<String, Integer> matcher) {
+        for (String text : texts) {
+            sink += matcher.apply(text);
+        }
+    }
+
+    /*
+     * THE PER-KEYWORD SUBSTRING CHECKS USED BY PERSONPAGEDATA BEFORE ROLEKEYWORDMATCHER
+     */
+
+    private static int legacyClassify(String textLine) {
+        return (legacyTextImpliesEmperorRole(textLine) ? RoleKeywordMatcher.EMPEROR_ROLE : 0) |
+                (legacyTextImpliesDictatorRole(textLine) ? RoleKeywordMatcher.DICTATOR_ROLE : 0);
+    }
+
+    private static boolean legacyTextImpliesEmperorRole(String textLine) {
+        String lowerCaseTextLine = textLine.toLowerCase();
+        lowerCaseTextLine = InfoboxTextScanner.clearBrackets(lowerCaseTextLine).toString();
+
+        return !lowerCaseTextLine.contains("consorte del") &&
+                (lowerCaseTextLine.contains("imperatore romano") ||
+                lowerCaseTextLine.contains("augusto d'occidente dell'impero romano") ||
+                lowerCaseTextLine.contains("cesare d'occidente dell'impero romano") ||
+                lowerCaseTextLine.contains("cesare e poi augusto dell'impero romano") ||
+                lowerCaseTextLine.contains("augusto d'oriente dell'impero romano") ||
+                lowerCaseTextLine.contains("augusto dell'impero romano"));
+    }
+
+    private static boolean legacyTextImpliesDictatorRole(String textLine) {
+        String lowerCaseTextLine = textLine.toLowerCase();
+
+        return !lowerCaseTextLine.contains("consorte del") &&
+                lowerCaseTextLine.contains("dittatore");
+    }
+}
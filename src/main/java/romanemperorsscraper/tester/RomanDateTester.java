@@ -0,0 +1,129 @@
+package romanemperorsscraper.tester;
+
+import romanemperorsscraper.scraping.people.RomanDate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class tests RomanDate's natural order, by sorting a shuffled list
+ * of dates before and after Christ and dates whose year is unknown, which
+ * have to come before all the others instead of between 1 a.C. and 1 d.C.
+ *
+ * It also checks that the dates keep their order once restored from their
+ * keys, including the keys exports used to give to dates without a year.
+ *
+ * @see RomanDate
+ *
+ * @author Matteo Collica
+ */
+public class RomanDateTester {
+    /* The dates in chronological order */
+    private static final String[] SORTED_DATES = {
+        "marzo",
+        "18 o 19 marzo",
+        "23 settembre 63 a.C.",
+        "16 gennaio 27 a.C.",
+        "1 a.C.",
+        "1 d.C.",
+        "24 gennaio 41 d.C",
+        "10 maggio 213 o 214 d.C",
+        "289/290 d.C"
+    };
+
+    /**
+     * @param args currently there is no support for any command-line argument
+     */
+    public static void main(String[] args) {
+        ArrayList<RomanDate> expectedDates = new ArrayList<>();
+
+        for (String date : SORTED_DATES) {
+            expectedDates.add(RomanDate.parse(date));
+        }
+
+        int numberOfTests = 0;
+        int numberOfPassedTests = 0;
+
+        System.out.println("*----------------------------------------------------------------------------");
+        System.out.println("Test of RomanDate's natural order with dates before and after Christ and without a year");
+        System.out.println();
+
+        /*
+         * Sort the parsed dates
+         */
+
+        ArrayList<RomanDate> sortedDates = new ArrayList<>(expectedDates);
+
+        Collections.shuffle(sortedDates, new Random(42));
+        Collections.sort(sortedDates);
+
+        numberOfPassedTests += printResult("Parsed dates", expectedDates, sortedDates);
+        numberOfTests++;
+
+        /*
+         * Sort the dates restored from their keys, the year-less
+         * ones from the keys exports used to give them
+         */
+
+        ArrayList<RomanDate> restoredDates = new ArrayList<>();
+
+        for (RomanDate date : expectedDates) {
+            int key = date.getKey();
+
+            if (!date.hasYear()) {
+                key -= Integer.MIN_VALUE;
+            }
+
+            restoredDates.add(RomanDate.fromKey(date.getText(), key));
+        }
+
+        Collections.reverse(restoredDates);
+        Collections.sort(restoredDates);
+
+        numberOfPassedTests += printResult("Restored dates", expectedDates, restoredDates);
+        numberOfTests++;
+
+        /*
+         * Year-less dates keep their month and day
+         */
+
+        RomanDate yearlessDate = RomanDate.parse("18 o 19 marzo");
+
+        boolean yearlessDateParsed = !yearlessDate.hasYear() && yearlessDate.getYear() == 0
+                && yearlessDate.getMonth() == 3 && yearlessDate.getDay() == 18 && yearlessDate.isUncertain();
+
+        System.out.println("- Year-less date's fields: " + (yearlessDateParsed ? "passed" : "failed"));
+
+        numberOfPassedTests += yearlessDateParsed ? 1 : 0;
+        numberOfTests++;
+
+        System.out.println();
+        System.out.println(numberOfPassedTests + " single test(s) of " + numberOfTests + " completed succesfully");
+        System.out.println("-----------------------------------------------------------------------------*");
+
+        if (numberOfPassedTests != numberOfTests) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Print whether a list of dates has been sorted as expected
+     *
+     * @return 1 if it has, 0 otherwise
+     */
+    private static int printResult(String name, List<RomanDate> expectedDates, List<RomanDate> sortedDates) {
+        boolean passed = expectedDates.equals(sortedDates);
+
+        System.out.println("- " + name + ": " + (passed ? "passed" : "failed"));
+
+        if (!passed) {
+            System.out.println("  Expected: " + Arrays.toString(expectedDates.toArray()));
+            System.out.println("  Sorted:   " + Arrays.toString(sortedDates.toArray()));
+        }
+
+        return passed ? 1 : 0;
+    }
+}
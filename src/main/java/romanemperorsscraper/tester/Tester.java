@@ -1,9 +1,9 @@
 package romanemperorsscraper.tester;
 
-import org.openqa.selenium.WebDriver;
 import romanemperorsscraper.run.NoSupportedBrowsersException;
 import romanemperorsscraper.run.OsUtils;
 import romanemperorsscraper.run.UnsupportedOsException;
+import romanemperorsscraper.scraping.PageSource;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -13,11 +13,11 @@ import java.util.Map;
  * This class tests the following methods:
  *
  * - PersonPageData's constructor by scraping
- *   public PersonPageData(WebDriver webDriver, PersonNameUrl personNameUrl, String dynastyPageUrl) {[...]}
+ *   public PersonPageData(PageSource pageSource, PersonNameUrl personNameUrl, String dynastyPageUrl) {[...]}
  *   (through PersonPageDataTester)
  *
  * - Dynasty's constructor by scraping
- *   public Dynasty(String dynastyPageUrl, String dynastyName, WebDriver webDriver, boolean makeDynastyTree) {[...]}
+ *   public Dynasty(String dynastyPageUrl, String dynastyName, PageSource pageSource, boolean makeDynastyTree) {[...]}
  *   (through DynastyTester)
  *
  * - Dynasty's getDynasties method
@@ -43,13 +43,13 @@ public class Tester {
         int numberOfSinglePassedTests = 0;
 
         OsUtils.initializeOs();
-        WebDriver webDriver = OsUtils.getWebDriver();
+        PageSource pageSource = OsUtils.getPageSource();
 
         /*
          * Test of Dynasty's getDynasties method (through DynastiesTester)
          */
 
-        DynastiesTester.initialize(webDriver);
+        DynastiesTester.initialize(pageSource);
 
         System.out.println("*----------------------------------------------------------------------------");
         System.out.println(
@@ -86,7 +86,7 @@ public class Tester {
          * Test of Dynasty's constructor (through DynastyTester)
          */
 
-        DynastyTester.initialize(webDriver);
+        DynastyTester.initialize(pageSource);
 
         System.out.println("\n*----------------------------------------------------------------------------");
         System.out.println(
@@ -114,7 +114,7 @@ public class Tester {
 
         System.out.println("");
 
-        PersonPageDataTester.initialize(webDriver);
+        PersonPageDataTester.initialize(pageSource);
 
         System.out.println("*----------------------------------------------------------------------------");
         System.out.println(
@@ -143,7 +143,7 @@ public class Tester {
         System.out.println(numberOfPassedTests + " test group(s) of " + numberOfTests + " completed succesfully");
         System.out.println(numberOfSinglePassedTests + " single test(s) of " + numberOfSingleTests + " completed succesfully");
 
-        webDriver.quit();
+        pageSource.close();
     }
 
     /**
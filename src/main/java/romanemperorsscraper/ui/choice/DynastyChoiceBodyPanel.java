@@ -1,8 +1,8 @@
 package romanemperorsscraper.ui.choice;
 
-import org.openqa.selenium.WebDriver;
 import romanemperorsscraper.run.NoSupportedBrowsersException;
 import romanemperorsscraper.run.OsUtils;
+import romanemperorsscraper.scraping.PageSource;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
 import romanemperorsscraper.ui.CustomTextArea;
 
@@ -51,11 +51,11 @@ public class DynastyChoiceBodyPanel extends JPanel {
         setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
         setOpaque(false);
 
-        /* Get a WebDriver from a supported browser */
+        /* Get a PageSource (backed by a supported browser if Selenium was chosen) */
 
-        WebDriver webDriver;
+        PageSource pageSource;
         try {
-            webDriver = OsUtils.getWebDriver();
+            pageSource = OsUtils.getPageSource();
         } catch (NoSupportedBrowsersException e) {
             e.printStackTrace();
 
@@ -70,9 +70,9 @@ public class DynastyChoiceBodyPanel extends JPanel {
          *      value: Dinastia giulio-claudia
          */
 
-        HashMap<String, String> dynasties = Dynasty.getDynasties(webDriver);
+        HashMap<String, String> dynasties = Dynasty.getDynasties(pageSource);
 
-        webDriver.quit();
+        pageSource.close();
 
         /*
          * COMPONENTS
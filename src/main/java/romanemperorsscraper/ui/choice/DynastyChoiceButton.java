@@ -5,6 +5,8 @@ import romanemperorsscraper.ui.tree.DynastyTreeFrame;
 
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.IOException;
@@ -79,6 +81,32 @@ public class DynastyChoiceButton extends ButtonProperties implements ActionListe
 
     @Override
     public void actionPerformed(ActionEvent actionEvent) {
+        /* Imported data are still being stored while a file is imported in the background */
+
+        if(ImportWorker.isImportInProgress()) {
+            JOptionPane.showMessageDialog(
+                SwingUtilities.getWindowAncestor(this),
+                "A file is still being imported, please wait for it to finish before opening a dynasty",
+                "Import in progress",
+                JOptionPane.WARNING_MESSAGE
+            );
+
+            return;
+        }
+
+        /* The stored data are still being read while they're exported in the background */
+
+        if(ExportWorker.isExportInProgress()) {
+            JOptionPane.showMessageDialog(
+                SwingUtilities.getWindowAncestor(this),
+                "A file is still being exported, please wait for it to finish before opening a dynasty",
+                "Export in progress",
+                JOptionPane.WARNING_MESSAGE
+            );
+
+            return;
+        }
+
         /* When the button is clicked, the scraping starts
            and the button gets disabled until its done */
 
@@ -1,12 +1,11 @@
 package romanemperorsscraper.ui.choice;
 
-import org.json.simple.JSONObject;
-import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.ExportSerializer;
+import romanemperorsscraper.scraping.ScrapeSession;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
-import romanemperorsscraper.scraping.dynasties.DynastySerializer;
 import romanemperorsscraper.scraping.people.PersonPageData;
-import romanemperorsscraper.scraping.people.PersonPageDataSerializer;
 import romanemperorsscraper.ui.ButtonProperties;
+import romanemperorsscraper.ui.tree.DynastyScrapingWorker;
 
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
@@ -16,13 +15,8 @@ import javax.swing.filechooser.FileSystemView;
 import java.awt.Window;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Class representing the button placed on DynastyChoiceFrame
@@ -57,10 +51,37 @@ public class ExportButton extends ButtonProperties implements ActionListener {
 
     @Override
     public void actionPerformed(ActionEvent actionEvent) {
+        /*
+         * Scraped data are still being written while a dynasty is
+         * scraped in the background, so we wait for it to be over
+         */
+
+        if(DynastyScrapingWorker.isScrapingInProgress()) {
+            JOptionPane.showMessageDialog(
+                SwingUtilities.getWindowAncestor(dynastyChoiceTitlePanel),
+                "A dynasty is still being scraped, please wait for it to finish (or cancel it) before exporting data",
+                "Scraping in progress",
+                JOptionPane.WARNING_MESSAGE
+            );
+
+            return;
+        }
+
+        if(ImportWorker.isImportInProgress()) {
+            JOptionPane.showMessageDialog(
+                SwingUtilities.getWindowAncestor(dynastyChoiceTitlePanel),
+                "A file is still being imported, please wait for it to finish before exporting data",
+                "Import in progress",
+                JOptionPane.WARNING_MESSAGE
+            );
+
+            return;
+        }
+
         Window rootWindow = SwingUtilities.getWindowAncestor(dynastyChoiceTitlePanel);
 
-        HashMap<String, PersonPageData> unserializedPeople = PersonPageData.getUrlPersonPageDataMatches();
-        HashMap<String, Dynasty> unserializedDynasties     = Dynasty.getStoredDynasties();
+        Map<String, PersonPageData> unserializedPeople = ScrapeSession.getApplicationSession().getUrlPersonPageDataMatches();
+        Map<String, Dynasty> unserializedDynasties     = ScrapeSession.getApplicationSession().getStoredDynasties();
 
         /*
          * Prevent the user from exporting data if there aren't at
@@ -88,6 +109,22 @@ public class ExportButton extends ButtonProperties implements ActionListener {
 
         FileNameExtensionFilter jsonExtensionFilter = new FileNameExtensionFilter(".json", "json");
         jFileChooser.addChoosableFileFilter(jsonExtensionFilter);
+
+        /*
+         * Large exports can also be compressed with gzip while they're written
+         */
+
+        FileNameExtensionFilter gzipExtensionFilter = new FileNameExtensionFilter(".json.gz (compressed)", "gz");
+        jFileChooser.addChoosableFileFilter(gzipExtensionFilter);
+
+        /*
+         * or as binary snapshots, which are smaller and much faster to import
+         */
+
+        FileNameExtensionFilter snapshotExtensionFilter = new FileNameExtensionFilter(".snapshot (binary)", "snapshot");
+        jFileChooser.addChoosableFileFilter(snapshotExtensionFilter);
+
+        jFileChooser.setFileFilter(jsonExtensionFilter);
         jFileChooser.setAcceptAllFileFilterUsed(false);
 
         jFileChooser.setDialogTitle("Choose the export file's name and location");
@@ -98,9 +135,7 @@ public class ExportButton extends ButtonProperties implements ActionListener {
          * current date and time, e.g. 'export_2022-05-22_21-15-17.json'
          */
 
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
-        Date date = new Date();
-        jFileChooser.setSelectedFile(new File("export_" + formatter.format(date) + ".json"));
+        jFileChooser.setSelectedFile(new File(ExportSerializer.getDefaultExportFileName()));
 
         /*
          * Once the JFileChooser is finally set up, we show the save dialog
@@ -114,64 +149,24 @@ public class ExportButton extends ButtonProperties implements ActionListener {
 
             String selectedFileAbsolutePath = selectedFile.getAbsolutePath();
 
-            JSONObject serializedData = new JSONObject();
-
-            /*
-             * We serialize the dynasties and the people' PersonPageData objects
-             * inside two different children JSON Objects (which keys are "dynasties"
-             * and "people")
-             */
-
-            JSONObject serializedDynasties = DynastySerializer.serializeDynastiesHashMap(unserializedDynasties);
-
-            serializedData.put("dynasties", serializedDynasties);
-
-            JSONObject serializedPeople = PersonPageDataSerializer.serializePersonPageDataHashMap(unserializedPeople);
-
-            serializedData.put("people", serializedPeople);
+            if(jFileChooser.getFileFilter() == gzipExtensionFilter && !selectedFileAbsolutePath.endsWith(ExportSerializer.GZIP_EXTENSION)) {
+                selectedFileAbsolutePath += ExportSerializer.GZIP_EXTENSION;
+            } else if(jFileChooser.getFileFilter() == snapshotExtensionFilter && !selectedFileAbsolutePath.endsWith(ExportSerializer.SNAPSHOT_EXTENSION)) {
+                selectedFileAbsolutePath += ExportSerializer.SNAPSHOT_EXTENSION;
+            }
 
             /*
-             * Once serialization is completed, we write the serialized
-             * data into the export file chosen by the user
+             * The export file is written in the background, so that the GUI keeps
+             * responding, and the user is shown the outcome once it's been written
              */
 
-            try {
-                BufferedWriter bufferedFileWriter = new BufferedWriter(
-                    new FileWriter(selectedFileAbsolutePath)
-                );
-                bufferedFileWriter.write(serializedData.toJSONString());
-
-                bufferedFileWriter.flush();
-                bufferedFileWriter.close();
-
-                /*
-                 * For every possible outcome of the export process we'll
-                 * show the user an explanatory Message Dialog
-                 */
-
+            if(!new ExportWorker(rootWindow, selectedFileAbsolutePath, unserializedDynasties, unserializedPeople).start()) {
                 JOptionPane.showMessageDialog(
                         rootWindow,
-                        "Data of " + unserializedPeople.size()
-                                + " people from " + unserializedDynasties.size()
-                                + " dynasties:\n" + Dynasty.getStoredDynastiesNames()
-                                + "\nSuccesfully exported to:\n'" + selectedFileAbsolutePath + "'",
-                        "Successful export",
-                        JOptionPane.INFORMATION_MESSAGE
+                        "A file is still being exported, please wait for it to finish before exporting data again",
+                        "Export in progress",
+                        JOptionPane.WARNING_MESSAGE
                 );
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(
-                        rootWindow,
-                        "There was an I/O error while trying to write the export file, " +
-                                "run this jar in console with '--debug' parameter to read the " +
-                                "debug messages and please report it to the developer should " +
-                                "the problem persist:\n\n" + e.getMessage(),
-                        "I/O error while writing export file",
-                        JOptionPane.ERROR_MESSAGE
-                );
-
-                if(RomanEmperorsScraper.isDebugEnabled()) {
-                    e.printStackTrace();
-                }
             }
         }
     }
@@ -0,0 +1,145 @@
+package romanemperorsscraper.ui.choice;
+
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.ExportSerializer;
+import romanemperorsscraper.scraping.ScrapeSession;
+import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.people.PersonPageData;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+import java.awt.Window;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Class used to write an export file in the background, off the Swing
+ * event dispatch thread, so that the GUI keeps responding while large
+ * exports are serialized (and compressed) and written.
+ *
+ * Once the export is over, the user is shown the outcome in a Message Dialog.
+ *
+ * @see ExportButton
+ * @see ExportSerializer
+ *
+ * @author Matteo Collica
+ */
+public class ExportWorker extends SwingWorker<Void, Void> {
+    /*
+     * ATTRIBUTES
+     */
+
+    private static final AtomicBoolean exportInProgress = new AtomicBoolean();
+
+    private final Window rootWindow;
+
+    private final String exportFilePath;
+
+    private final Map<String, Dynasty> unserializedDynasties;
+
+    private final Map<String, PersonPageData> unserializedPeople;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct an ExportWorker writing the given dynasties and people into an export file
+     *
+     * @param rootWindow the window the Message Dialogs are shown over
+     * @param exportFilePath the path of the export file to be written
+     * @param unserializedDynasties the dynasties to be exported
+     * @param unserializedPeople the people to be exported
+     */
+    public ExportWorker(Window rootWindow, String exportFilePath, Map<String, Dynasty> unserializedDynasties, Map<String, PersonPageData> unserializedPeople) {
+        this.rootWindow = rootWindow;
+        this.exportFilePath = exportFilePath;
+        this.unserializedDynasties = unserializedDynasties;
+        this.unserializedPeople = unserializedPeople;
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * @return true if an export file is being written, false otherwise
+     */
+    public static boolean isExportInProgress() {
+        return exportInProgress.get();
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Start writing the export file, unless another one is already being written
+     *
+     * @return true if the export has been started, false otherwise
+     */
+    public boolean start() {
+        if(!exportInProgress.compareAndSet(false, true)) {
+            return false;
+        }
+
+        execute();
+
+        return true;
+    }
+
+    @Override
+    protected Void doInBackground() throws Exception {
+        /*
+         * We serialize the dynasties and the people' PersonPageData objects
+         * and write them into the export file chosen by the user
+         */
+
+        ExportSerializer.writeExportFile(exportFilePath, unserializedDynasties, unserializedPeople);
+
+        return null;
+    }
+
+    @Override
+    protected void done() {
+        exportInProgress.set(false);
+
+        try {
+            get();
+
+            /*
+             * For every possible outcome of the export process we'll
+             * show the user an explanatory Message Dialog
+             */
+
+            JOptionPane.showMessageDialog(
+                    rootWindow,
+                    "Data of " + unserializedPeople.size()
+                            + " people from " + unserializedDynasties.size()
+                            + " dynasties:\n" + ScrapeSession.getApplicationSession().getStoredDynastiesNames()
+                            + "\nSuccesfully exported to:\n'" + exportFilePath + "'",
+                    "Successful export",
+                    JOptionPane.INFORMATION_MESSAGE
+            );
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            JOptionPane.showMessageDialog(
+                    rootWindow,
+                    "There was an I/O error while trying to write the export file, " +
+                            "run this jar in console with '--debug' parameter to read the " +
+                            "debug messages and please report it to the developer should " +
+                            "the problem persist:\n\n" + cause.getMessage(),
+                    "I/O error while writing export file",
+                    JOptionPane.ERROR_MESSAGE
+            );
+
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                cause.printStackTrace();
+            }
+        }
+    }
+}
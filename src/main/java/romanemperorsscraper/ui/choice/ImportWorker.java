@@ -0,0 +1,261 @@
+package romanemperorsscraper.ui.choice;
+
+import org.json.simple.parser.ParseException;
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.ExportDeserializer;
+import romanemperorsscraper.scraping.ScrapeSession;
+import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.people.PersonPageData;
+import romanemperorsscraper.scraping.people.PersonTable;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+import java.awt.Window;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Class used to import an export file in the background, off the Swing
+ * event dispatch thread, while a ProgressMonitor shows how much of the
+ * file has been read (people are decoded in parallel while it's being
+ * read, see ExportDeserializer).
+ *
+ * Once the import is over, the imported dynasties' buttons are marked as
+ * scraped and the user is shown the outcome in a Message Dialog. Cancelling
+ * the ProgressMonitor stops the reading and leaves the application session
+ * untouched, unless it's already being updated.
+ *
+ * @see ImportButton
+ * @see ExportDeserializer
+ *
+ * @author Matteo Collica
+ */
+public class ImportWorker extends SwingWorker<Map<String, Dynasty>, Void> {
+    /*
+     * ATTRIBUTES
+     */
+
+    private static final AtomicBoolean importInProgress = new AtomicBoolean();
+
+    private final Window rootWindow;
+
+    private final File selectedFile;
+
+    private final ProgressMonitor progressMonitor;
+
+    /* Set in the background: whether the file is an export file and how many people it holds */
+    private volatile boolean exportFile = true;
+
+    private volatile int importedPeopleCount = 0;
+
+    /* Cleared once the application session starts being updated, after which the import can't be cancelled */
+    private final AtomicBoolean cancellable = new AtomicBoolean(true);
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct an ImportWorker reading the given export file
+     *
+     * @param rootWindow the window the Message Dialogs and the progress are shown over
+     * @param selectedFile the export file to be imported
+     */
+    public ImportWorker(Window rootWindow, File selectedFile) {
+        this.rootWindow = rootWindow;
+        this.selectedFile = selectedFile;
+
+        this.progressMonitor = new ProgressMonitor(rootWindow, "Importing data from '" + selectedFile.getName() + "'", null, 0, 100);
+
+        addPropertyChangeListener(event -> {
+            if("progress".equals(event.getPropertyName())) {
+                progressMonitor.setProgress((Integer) event.getNewValue());
+
+                if(progressMonitor.isCanceled() && cancellable.compareAndSet(true, false)) {
+                    cancel(true);
+                }
+            }
+        });
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * @return true if an export file is being imported, false otherwise
+     */
+    public static boolean isImportInProgress() {
+        return importInProgress.get();
+    }
+
+    /*
+     * METHODS
+     */
+
+    /**
+     * Start importing the file, unless another one is already being imported
+     *
+     * @return true if the import has been started, false otherwise
+     */
+    public boolean start() {
+        if(!importInProgress.compareAndSet(false, true)) {
+            return false;
+        }
+
+        execute();
+
+        return true;
+    }
+
+    @Override
+    protected Map<String, Dynasty> doInBackground() throws IOException, ParseException {
+        /*
+         * The imported data replace all the session's ones, so their people
+         * are given IDs by a new PersonTable, unless they end up discarded
+         */
+
+        PersonTable replacedTable = PersonTable.resetSharedTable();
+        boolean sessionUpdated = false;
+
+        try (ExportDeserializer.ImportedData importedData = ExportDeserializer.readExportFile(
+                selectedFile.getAbsolutePath(),
+                (readBytes, fileSize) -> setProgress(fileSize > 0 ? (int) Math.min(99, readBytes * 100 / fileSize) : 0)
+        )) {
+            Map<String, PersonPageData> unserializedPeople = importedData.getPeople();
+
+            if(unserializedPeople == null || !importedData.hasDynasties()) {
+                exportFile = false;
+
+                return null;
+            }
+
+            importedPeopleCount = unserializedPeople.size();
+
+            /*
+             * If there were no serialized people data in the selected file
+             * it is also useless to search for dynasties data there, and we
+             * wish to overwrite current stored PersonPageData objects only
+             * if there are deserialized ones to overwrite with
+             */
+
+            if(unserializedPeople.isEmpty()) {
+                return null;
+            }
+
+            /*
+             * The session is either updated whole or left untouched, so
+             * the import can't be cancelled past this point
+             */
+
+            if(!cancellable.compareAndSet(true, false)) {
+                return null;
+            }
+
+            sessionUpdated = true;
+
+            ScrapeSession.getApplicationSession().setUrlPersonPageDataMatches(unserializedPeople);
+
+            /*
+             * After having deserialized and successfully imported the
+             * people' PersonPageData objects we can now deserialize
+             * and import the dynasties' Dynasty objects
+             */
+
+            HashMap<String, Dynasty> deserializedDynasties = importedData.restoreDynasties(ScrapeSession.getApplicationSession());
+
+            ScrapeSession.getApplicationSession().setStoredDynasties(deserializedDynasties);
+
+            return deserializedDynasties;
+        } finally {
+            if(!sessionUpdated) {
+                PersonTable.restoreSharedTable(replacedTable);
+            }
+        }
+    }
+
+    @Override
+    protected void done() {
+        importInProgress.set(false);
+
+        progressMonitor.close();
+
+        if(isCancelled()) {
+            return;
+        }
+
+        try {
+            Map<String, Dynasty> deserializedDynasties = get();
+
+            /*
+             * For every possible outcome of the import process we'll
+             * show the user an explanatory Message Dialog
+             */
+
+            if(!exportFile) {
+                JOptionPane.showMessageDialog(
+                        rootWindow,
+                        "The selected file does not contain any data or isn't a RomanEmperorsScraper valid export file",
+                        "Wrong file selected",
+                        JOptionPane.WARNING_MESSAGE
+                );
+            } else if(deserializedDynasties == null) {
+                JOptionPane.showMessageDialog(
+                        rootWindow,
+                        "The selected file does not contain any people",
+                        "Empty file selected",
+                        JOptionPane.WARNING_MESSAGE
+                );
+            } else {
+                for(String dynastyPageUrl : deserializedDynasties.keySet()) {
+                    DynastyChoiceButton.getButton(dynastyPageUrl).setIcon(new ImageIcon(ImageIO.read(ImportWorker.class.getResourceAsStream("/resources/images/icons/choice/DynastyChoiceButton_scraped.png"))));
+                    DynastyChoiceButton.getButton(dynastyPageUrl).setRolloverIcon(new ImageIcon(ImageIO.read(ImportWorker.class.getResourceAsStream("/resources/images/icons/choice/DynastyChoiceButton_scraped_roll.png"))));
+                }
+
+                JOptionPane.showMessageDialog(
+                        rootWindow,
+                        "Data of " + importedPeopleCount
+                                + " people from " + deserializedDynasties.size()
+                                + " dynasties:\n" + ScrapeSession.getApplicationSession().getStoredDynastiesNames()
+                                + "\nSuccesfully imported from:\n'" + selectedFile.getName() + "'",
+                        "Successful import",
+                        JOptionPane.INFORMATION_MESSAGE
+                );
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException | IOException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+
+            if(cause instanceof ParseException) {
+                JOptionPane.showMessageDialog(
+                        rootWindow,
+                        "The selected file is not a valid JSON file",
+                        "Wrong file selected",
+                        JOptionPane.ERROR_MESSAGE
+                );
+            } else {
+                JOptionPane.showMessageDialog(
+                        rootWindow,
+                        "There was an I/O error while trying to read the import file, " +
+                                "run this jar in console with '--debug' parameter to read the " +
+                                "debug messages and please report it to the developer should " +
+                                "the problem persist:\n\n" + cause.getMessage(),
+                        "I/O error while reading import file",
+                        JOptionPane.ERROR_MESSAGE
+                );
+            }
+
+            if(RomanEmperorsScraper.isDebugEnabled()) {
+                cause.printStackTrace();
+            }
+        }
+    }
+}
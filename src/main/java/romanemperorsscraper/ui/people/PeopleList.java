@@ -1,6 +1,7 @@
 package romanemperorsscraper.ui.people;
 
 import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.ScrapeSession;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
 import romanemperorsscraper.scraping.people.Person;
 import romanemperorsscraper.scraping.people.PersonPageData;
@@ -58,7 +59,7 @@ public class PeopleList extends JFrame {
      * @param dynastyPageUrl the dynasty's Wikipedia page URL
      */
     public PeopleList(String dynastyPageUrl) {
-        super(Dynasty.getStoredDynastyByUrl(dynastyPageUrl).getName() + " - People List");
+        super(ScrapeSession.getApplicationSession().getStoredDynastyByUrl(dynastyPageUrl).getName() + " - People List");
 
         /*
          * OPTIONS
@@ -222,11 +223,11 @@ public class PeopleList extends JFrame {
      * entry for each dynasty member
      */
     public HashMap<String, Person> getDynastyPeopleList(String dynastyPageUrl) {
-        HashMap<String, HashMap<String, String>> dynastiesPeopleList = PersonPageData.getDynastiesPeopleList();
+        Map<String, Map<String, String>> dynastiesPeopleList = ScrapeSession.getApplicationSession().getDynastiesPeopleList();
 
         HashMap<String, Person> dynastyPeopleList = new HashMap<>();
 
-        for (Map.Entry<String, HashMap<String, String>> dynasty : dynastiesPeopleList.entrySet()) {
+        for (Map.Entry<String, Map<String, String>> dynasty : dynastiesPeopleList.entrySet()) {
             /*
              * Iterate over all the dynasties' Wikipedia page URLs and pick those
              * that are relative to the one with the given Wikipedia page URL
@@ -243,7 +244,7 @@ public class PeopleList extends JFrame {
                  */
 
                 for(Map.Entry<String, String> set : dynasty.getValue().entrySet()) {
-                    Person person = Person.getStoredPersonObjects().get(set.getValue());
+                    Person person = ScrapeSession.getApplicationSession().getStoredPersonObjects().get(set.getValue());
 
                     if(person != null) {
                         dynastyPeopleList.put(set.getKey(), person);
@@ -1,10 +1,12 @@
 package romanemperorsscraper.ui.people;
 
 import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.ScrapeSession;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
 import romanemperorsscraper.scraping.people.Person;
 import romanemperorsscraper.scraping.people.PersonNameUrl;
 import romanemperorsscraper.scraping.people.PersonPageData;
+import romanemperorsscraper.scraping.people.RomanDate;
 import romanemperorsscraper.ui.choice.DynastyChoiceFrame;
 
 import javax.imageio.ImageIO;
@@ -98,7 +100,7 @@ public class PersonCard extends JFrame {
      */
     public PersonCard(String dynastyPageUrl, Person person, PeopleList peopleList) {
         /* Set the frame title to "<dynasty_name> - <person_name>" */
-        super(Dynasty.getStoredDynastyByUrl(dynastyPageUrl).getName() + " - " + person.getPersonPageData().getPersonNameUrl().getFullName());
+        super(ScrapeSession.getApplicationSession().getStoredDynastyByUrl(dynastyPageUrl).getName() + " - " + person.getPersonPageData().getPersonNameUrl().getFullName());
 
         this.dynastyPageUrl = dynastyPageUrl;
 
@@ -407,10 +409,10 @@ public class PersonCard extends JFrame {
          * Each of the following instructions appends single information if it is not null
          */
 
-        information = appendStringToInformation(information, "Birth Date", personPageData.getBirthDate());
-        information = appendStringToInformation(information, "Death Date", personPageData.getDeathDate());
-        information = appendStringToInformation(information, "Reign Start", personPageData.getReignBeginningDate());
-        information = appendStringToInformation(information, "Reign End", personPageData.getReignEndDate());
+        information = appendStringToInformation(information, "Birth Date", personPageData.getBirthRomanDate());
+        information = appendStringToInformation(information, "Death Date", personPageData.getDeathRomanDate());
+        information = appendStringToInformation(information, "Reign Start", personPageData.getReignBeginningRomanDate());
+        information = appendStringToInformation(information, "Reign End", personPageData.getReignEndRomanDate());
 
         information.append("\n").append("\n");
         information.append("Role").append("\t\t").append(personPageData.getRole());
@@ -454,6 +456,19 @@ public class PersonCard extends JFrame {
         return information;
     }
 
+    /**
+     * Append a date if it is not null, as it has been scraped
+     *
+     * @param information the string of personal information
+     * @param fieldName the field name (e.g. 'Birth Date')
+     * @param fieldValue the field value
+     *
+     * @return the updated information
+     */
+    private static StringBuilder appendStringToInformation(StringBuilder information, String fieldName, RomanDate fieldValue) {
+        return appendStringToInformation(information, fieldName, RomanDate.getText(fieldValue));
+    }
+
     /**
      * Append a single relative's information if his/her PersonNameUrl exists
      *
@@ -627,7 +642,7 @@ public class PersonCard extends JFrame {
 
         String successorDynastyPageUrl = successor.getPersonPageData().getPersonDynastyPageUrl();
         String successorFullName = successor.getPersonPageData().getPersonNameUrl().getFullName();
-        personCard.setTitle(Dynasty.getStoredDynastyByUrl(successorDynastyPageUrl).getName() + " - " + successorFullName);
+        personCard.setTitle(ScrapeSession.getApplicationSession().getStoredDynastyByUrl(successorDynastyPageUrl).getName() + " - " + successorFullName);
 
         PersonPageData successorPersonPageData = successor.getPersonPageData();
         StringBuilder newInformation = personCard.createInformation(successorPersonPageData);
@@ -1,6 +1,7 @@
 package romanemperorsscraper.ui.people;
 
 import romanemperorsscraper.scraping.people.Person;
+import romanemperorsscraper.scraping.people.RomanDate;
 import romanemperorsscraper.ui.FontUtils;
 
 import javax.swing.JButton;
@@ -69,7 +70,13 @@ public class SuccessorListDialog extends JDialog {
 
         for(Person successor : successors) {
             /* Obtain the current successor's name */
-            String successorName = successor.getPersonPageData().getPersonNameUrl().getFullName()+" "+successor.getPersonPageData().getBirthDate();
+            String successorName = successor.getPersonPageData().getPersonNameUrl().getFullName();
+
+            RomanDate successorBirthDate = successor.getPersonPageData().getBirthRomanDate();
+
+            if(successorBirthDate != null) {
+                successorName += " " + successorBirthDate.getText();
+            }
 
             /* Update the longest successor's name if the current one is longer */
             if(successorName.length() > maxElementNameLength) {
@@ -0,0 +1,201 @@
+package romanemperorsscraper.ui.tree;
+
+import romanemperorsscraper.run.NoSupportedBrowsersException;
+import romanemperorsscraper.run.OsUtils;
+import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.PageSource;
+import romanemperorsscraper.scraping.ScrapeSession;
+import romanemperorsscraper.scraping.dynasties.Dynasty;
+import romanemperorsscraper.scraping.dynasties.DynastyTree;
+import romanemperorsscraper.scraping.people.PersonPageData;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class used to scrape a dynasty in the background, off the
+ * Swing event dispatch thread, while its DynastyTreeFrame
+ * shows the scraping progress and the genealogical tree
+ * graph being filled in as people are discovered.
+ *
+ * More dynasties can be scraped at the same time, each one
+ * by its own worker: people shared by them are only scraped
+ * once, by whichever crawl reaches them first.
+ *
+ * The scraping is cancelled (by interrupting the worker's
+ * thread) when the DynastyTreeFrame gets closed.
+ *
+ * @see DynastyTreeFrame
+ * @see DynastyTreeProgressPanel
+ * @see romanemperorsscraper.scraping.people.PersonCrawler
+ *
+ * @author Matteo Collica
+ */
+public class DynastyScrapingWorker extends SwingWorker<Dynasty, String> {
+    /*
+     * ATTRIBUTES
+     */
+
+    private static final AtomicInteger runningWorkersCount = new AtomicInteger();
+
+    private final DynastyTreeFrame dynastyTreeFrame;
+
+    private final String dynastyPageUrl;
+
+    private final String dynastyName;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Construct a DynastyScrapingWorker for the dynasty of a DynastyTreeFrame
+     *
+     * @param dynastyTreeFrame the DynastyTreeFrame showing the dynasty being scraped
+     */
+    public DynastyScrapingWorker(DynastyTreeFrame dynastyTreeFrame) {
+        this.dynastyTreeFrame = dynastyTreeFrame;
+        this.dynastyPageUrl = dynastyTreeFrame.getDynastyPageUrl();
+        this.dynastyName = dynastyTreeFrame.getDynastyName();
+    }
+
+    /*
+     * CLASS UTILITY METHODS
+     */
+
+    /**
+     * @return true if any dynasty is being scraped, false otherwise
+     */
+    public static boolean isScrapingInProgress() {
+        return runningWorkersCount.get() > 0;
+    }
+
+    /*
+     * METHODS
+     */
+
+    @Override
+    protected Dynasty doInBackground() throws Exception {
+        runningWorkersCount.incrementAndGet();
+
+        try {
+            /*
+             * Get a new PageSource (it only fails if the Selenium backend
+             * was chosen and there are no supported browsers installed)
+             */
+
+            PageSource pageSource = OsUtils.getPageSource();
+
+            try {
+                publish("Scraping the dynasty's Wikipedia page");
+
+                Dynasty dynasty = new Dynasty(ScrapeSession.getApplicationSession(), dynastyPageUrl, dynastyName, pageSource, false);
+
+                DynastyTree dynastyTree = new DynastyTree(dynasty);
+
+                if(isCancelled()) {
+                    throw new CancellationException();
+                }
+
+                /*
+                 * The graph's view is attached while the graph isn't being modified
+                 * yet: from now on, the view gets nodes and edges from this thread
+                 */
+
+                SwingUtilities.invokeAndWait(() -> dynastyTreeFrame.showDynastyTree(dynasty, dynastyTree.getGraph()));
+
+                publish("Scraping " + dynasty.getFounderPageData().getPersonNameUrl().getFullName() + "'s relatives");
+
+                dynasty.createDynastyTree(pageSource, dynastyTree, this::publishProgress);
+
+                return dynasty;
+            } finally {
+                pageSource.close();
+            }
+        } finally {
+            runningWorkersCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Publish the crawl's progress, called on the worker's thread each time a person is scraped
+     *
+     * @param personPageData the scraped person's PersonPageData object
+     * @param scrapedPeople the number of people scraped so far
+     * @param queuedPages the number of pages still to be fetched
+     */
+    private void publishProgress(PersonPageData personPageData, int scrapedPeople, int queuedPages) {
+        String progress = "Scraped " + scrapedPeople + (scrapedPeople == 1 ? " person" : " people");
+
+        if(queuedPages > 0) {
+            progress += ", " + queuedPages + (queuedPages == 1 ? " page" : " pages") + " queued";
+        }
+
+        publish(progress + " (last: " + personPageData.getPersonNameUrl().getFullName() + ")");
+    }
+
+    @Override
+    protected void process(List<String> chunks) {
+        if(!isCancelled()) {
+            dynastyTreeFrame.setScrapingStatus(chunks.get(chunks.size() - 1));
+        }
+    }
+
+    @Override
+    protected void done() {
+        /*
+         * A cancelled scraping's frame has already been closed
+         */
+
+        if(isCancelled()) {
+            return;
+        }
+
+        try {
+            Dynasty dynasty = get();
+
+            ScrapeSession.getApplicationSession().storeDynasty(dynastyPageUrl, dynasty);
+
+            dynastyTreeFrame.onScrapingCompleted();
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException ex) {
+            Throwable cause = ex.getCause();
+
+            if(cause instanceof NoSupportedBrowsersException) {
+                JOptionPane.showMessageDialog(
+                        null,
+                        "There are no supported browsers" +
+                                " (Firefox / Chrome / Safari / Edge /" +
+                                " Internet Explorer) in your Operating" +
+                                " System, please try installing one first" +
+                                " or importing data instead of scraping" +
+                                " them in place",
+                        "No Supported Browsers found",
+                        JOptionPane.ERROR_MESSAGE
+                );
+            } else {
+                JOptionPane.showMessageDialog(
+                        null,
+                        "There was an error while scraping the " + dynastyName + ", " +
+                                "run this jar in console with '--debug' parameter to read the " +
+                                "debug messages and please report it to the developer should " +
+                                "the problem persist:\n\n" + cause.getMessage(),
+                        "Error while scraping",
+                        JOptionPane.ERROR_MESSAGE
+                );
+
+                if(RomanEmperorsScraper.isDebugEnabled()) {
+                    cause.printStackTrace();
+                }
+            }
+
+            dynastyTreeFrame.closeDynastyTreeFrame();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.graphstream.ui.swing_viewer.DefaultView;
 import org.graphstream.ui.swing_viewer.SwingViewer;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
+import romanemperorsscraper.scraping.ScrapeSession;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
 import romanemperorsscraper.scraping.dynasties.DynastySerializer;
 import romanemperorsscraper.scraping.people.PersonPageData;
@@ -81,7 +82,7 @@ public class DynastyTreeBodyPanel extends JPanel {
         /* If the DynastyTreeFrame isn't the Graph Legend Dynasty's one,
            create a label which can be clicked to show the graph legend frame */
 
-        if(!dynastyTreeFrame.getDynasty().getWikipediaPageUrl().startsWith("fakeurl://")) {
+        if(!dynastyTreeFrame.getDynastyPageUrl().startsWith("fakeurl://")) {
             CustomTextArea legendTextArea = new CustomTextArea("Legend", Color.BLACK, "RomanFont7.ttf", Font.BOLD, 15f);
 
             legendTextArea.setBackground(Color.WHITE);
@@ -117,7 +118,7 @@ public class DynastyTreeBodyPanel extends JPanel {
                     InputStreamReader reader;
 
                     try {
-                        Dynasty graphLegendDynasty = Dynasty.getStoredDynastyByUrl("fakeurl://graphLegendDynasty");
+                        Dynasty graphLegendDynasty = ScrapeSession.getApplicationSession().getStoredDynastyByUrl("fakeurl://graphLegendDynasty");
 
                         if (graphLegendDynasty == null) {
                             reader = new InputStreamReader(DynastyTreeFrame.class.getResourceAsStream("/resources/graphstream/graphLegendDynasty.json"));
@@ -128,13 +129,13 @@ public class DynastyTreeBodyPanel extends JPanel {
 
                             JSONObject serializedPeople = (JSONObject) jsonFileObject.get("people");
                             HashMap<String, PersonPageData> unserializedPeople = PersonPageDataSerializer.deserializePersonPageDataHashMap(serializedPeople);
-                            PersonPageData.getUrlPersonPageDataMatches().putAll(unserializedPeople);
+                            ScrapeSession.getApplicationSession().getUrlPersonPageDataMatches().putAll(unserializedPeople);
 
                             /* Deserialize the dynasties */
 
                             JSONObject serializedDynasties = (JSONObject) jsonFileObject.get("dynasties");
-                            HashMap<String, Dynasty> deserializedDynasties = DynastySerializer.deserializeDynastiesHashMap(serializedDynasties);
-                            Dynasty.getStoredDynasties().putAll(deserializedDynasties);
+                            HashMap<String, Dynasty> deserializedDynasties = DynastySerializer.deserializeDynastiesHashMap(ScrapeSession.getApplicationSession(), serializedDynasties);
+                            ScrapeSession.getApplicationSession().getStoredDynasties().putAll(deserializedDynasties);
 
                             /* Create the DynastyTreeFrame object of the graph legend dynasty */
 
@@ -1,10 +1,8 @@
 package romanemperorsscraper.ui.tree;
 
 import org.graphstream.graph.Graph;
-import org.openqa.selenium.WebDriver;
-import romanemperorsscraper.run.NoSupportedBrowsersException;
-import romanemperorsscraper.run.OsUtils;
 import romanemperorsscraper.run.RomanEmperorsScraper;
+import romanemperorsscraper.scraping.ScrapeSession;
 import romanemperorsscraper.scraping.dynasties.Dynasty;
 import romanemperorsscraper.ui.choice.DynastyChoiceButton;
 import romanemperorsscraper.ui.choice.DynastyChoiceFrame;
@@ -13,7 +11,6 @@ import romanemperorsscraper.ui.people.PeopleListOpenButton;
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JFrame;
-import javax.swing.JOptionPane;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.event.WindowAdapter;
@@ -27,17 +24,31 @@ import java.io.IOException;
  * of a specific Dynasty (the one the DynastyTree
  * of the DynastyTreeFrame itself is related to)
  *
+ * If the dynasty has still to be scraped, the frame
+ * is shown straight away and the graph is filled in
+ * by a DynastyScrapingWorker as people are scraped.
+ *
  * @see romanemperorsscraper.scraping.dynasties.DynastyTree
  * @see Dynasty
+ * @see DynastyScrapingWorker
  *
  * @author Matteo Collica
  * @author Sara Lazzaroni
  */
 public class DynastyTreeFrame extends JFrame {
+    private final String dynastyPageUrl;
+
+    private final String dynastyName;
+
+    /* null until the dynasty's page has been scraped */
     private Dynasty dynasty;
 
     private DynastyTreeTitlePanel titlePanel;
     private DynastyTreeBodyPanel bodyPanel;
+    private DynastyTreeProgressPanel progressPanel;
+
+    /* null if the dynasty isn't being scraped */
+    private DynastyScrapingWorker scrapingWorker;
 
     private static DynastyTreeFrame legendFrameInstance;
 
@@ -82,9 +93,23 @@ public class DynastyTreeFrame extends JFrame {
      * @param dynasty the dynasty's Dynasty object
      */
     public DynastyTreeFrame(Graph graph, Dynasty dynasty) {
-        super("Roman Emperors Scraper - " + dynasty.getName());
+        this(dynasty.getWikipediaPageUrl(), dynasty.getName());
 
-        this.dynasty = dynasty;
+        showDynastyTree(dynasty, graph);
+    }
+
+    /**
+     * Given a dynasty's Wikipedia page URL and name, create
+     * a frame which will contain its genealogical tree graph
+     *
+     * @param dynastyPageUrl the dynasty's Wikipedia page URL
+     * @param dynastyName the dynasty's name
+     */
+    public DynastyTreeFrame(String dynastyPageUrl, String dynastyName) {
+        super("Roman Emperors Scraper - " + dynastyName);
+
+        this.dynastyPageUrl = dynastyPageUrl;
+        this.dynastyName = dynastyName;
 
         /*
          * FRAME OPTIONS
@@ -96,47 +121,22 @@ public class DynastyTreeFrame extends JFrame {
         setBounds(100, 100, 1174, 658);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-        /*
-         * When the graph frame is closed, we remove it from the list of
-         * already opened DynastyTreeFrame(s) and enable the corresponding
-         * DynastyChoiceButton on the DynastyChoiceFrame so that a new
-         * instance can therefore be opened.
-         */
-
-        final DynastyTreeFrame thisDynastyTreeFrame = this;
-
         WindowListener exitListener = new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                try {
-                    if(legendFrameInstance == null || !legendFrameInstance.equals(thisDynastyTreeFrame)) {
-                        String dynastyPageUrl = dynasty.getWikipediaPageUrl();
-
-                        DynastyChoiceFrame.getInstance().getBodyPanel().enableButton(dynastyPageUrl);
-
-                        DynastyChoiceButton.getButton(dynastyPageUrl).setIcon(new ImageIcon(ImageIO.read(DynastyTreeFrame.class.getResourceAsStream("/resources/images/icons/choice/DynastyChoiceButton_scraped.png"))));
-                        DynastyChoiceButton.getButton(dynastyPageUrl).setRolloverIcon(new ImageIcon(ImageIO.read(DynastyTreeFrame.class.getResourceAsStream("/resources/images/icons/choice/DynastyChoiceButton_scraped_roll.png"))));
-                    } else {
-                        legendFrameInstance = null;
-                    }
-                } catch (IOException ignored) {}
-
-                PeopleListOpenButton.removeFromOpenedList(getDynasty().getWikipediaPageUrl());
+                handleClosing();
             }
         };
         this.addWindowListener(exitListener);
 
         /*
-         * Create DynastyTreeTitlePanel, the DynastyTreeBodyPanel
-         * and add them to the DynastyTreeFrame
+         * Create the DynastyTreeTitlePanel and add it to the DynastyTreeFrame,
+         * the DynastyTreeBodyPanel is added once the dynasty's graph exists
          */
 
         titlePanel = new DynastyTreeTitlePanel(this);
         this.getContentPane().add(titlePanel, BorderLayout.NORTH);
 
-        bodyPanel = new DynastyTreeBodyPanel(this, graph);
-        this.getContentPane().add(bodyPanel, BorderLayout.CENTER);
-
         /* Once the frame has been created we finally set it to be visible */
 
         setVisible(true);
@@ -150,43 +150,24 @@ public class DynastyTreeFrame extends JFrame {
      * @param dynastyPageUrl the dynasty's Wikipedia page URL
      */
     public static void showDynastyTreeFrameByUrl(String dynastyPageUrl, String dynastyName) {
-        Dynasty dynasty = Dynasty.getStoredDynastyByUrl(dynastyPageUrl);
+        Dynasty dynasty = ScrapeSession.getApplicationSession().getStoredDynastyByUrl(dynastyPageUrl);
 
         if(dynasty == null) {
             /*
-             * Start a new WebDriver session (it only fails
-             * if there are no supported browsers installed)
+             * Scrape the dynasty in the background, so that the UI
+             * doesn't freeze, while its frame shows the progress
              */
 
-            WebDriver webDriver;
-
-            try {
-                webDriver = OsUtils.getWebDriver();
-            } catch (NoSupportedBrowsersException ex) {
-                JOptionPane.showMessageDialog(
-                        null,
-                        "There are no supported browsers" +
-                                " (Firefox / Chrome / Safari / Edge /" +
-                                " Internet Explorer) in your Operating" +
-                                " System, please try installing one first" +
-                                " or importing data instead of scraping" +
-                                " them in place",
-                        "No Supported Browsers found",
-                        JOptionPane.ERROR_MESSAGE
-                );
-
-                return;
-            }
+            new DynastyTreeFrame(dynastyPageUrl, dynastyName).startScraping();
 
-            dynasty = new Dynasty(dynastyPageUrl, dynastyName, webDriver, true);
-
-            /*
-             * Close the WebDriver session because it is no longer required
-             */
-
-            webDriver.close();
+            return;
         }
 
+        /*
+         * Imported dynasties come with their tree, unless their export
+         * didn't hold its snapshot: it's then rebuilt from the imported people
+         */
+
         if(dynasty.getDynastyTree() == null) {
             dynasty.createDynastyTree(null);
         }
@@ -195,9 +176,135 @@ public class DynastyTreeFrame extends JFrame {
     }
 
     /**
-     * @return the Dynasty object corresponding to this DynastyTreeFrame instance
+     * Start scraping the dynasty in the background, showing the progress
+     */
+    private void startScraping() {
+        progressPanel = new DynastyTreeProgressPanel(this);
+        this.getContentPane().add(progressPanel, BorderLayout.SOUTH);
+
+        /* The people list is only complete once the scraping is over */
+
+        titlePanel.setPeopleListEnabled(false);
+
+        revalidate();
+
+        scrapingWorker = new DynastyScrapingWorker(this);
+        scrapingWorker.execute();
+    }
+
+    /**
+     * Given a Dynasty object and its (possibly still being built)
+     * genealogical tree graph, add the graph to the frame
+     *
+     * @param dynasty the dynasty's Dynasty object
+     * @param graph the dynasty's Graph object
+     */
+    public void showDynastyTree(Dynasty dynasty, Graph graph) {
+        this.dynasty = dynasty;
+
+        bodyPanel = new DynastyTreeBodyPanel(this, graph);
+        this.getContentPane().add(bodyPanel, BorderLayout.CENTER);
+
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @param status the scraping's status to be shown
+     */
+    public void setScrapingStatus(String status) {
+        if(progressPanel != null) {
+            progressPanel.setStatus(status);
+        }
+    }
+
+    /**
+     * Remove the scraping progress once the dynasty has been completely scraped
+     */
+    public void onScrapingCompleted() {
+        scrapingWorker = null;
+
+        if(progressPanel != null) {
+            this.getContentPane().remove(progressPanel);
+
+            progressPanel = null;
+        }
+
+        titlePanel.setPeopleListEnabled(true);
+
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Close the frame, cancelling the dynasty's scraping if it's still in progress
+     */
+    public void closeDynastyTreeFrame() {
+        handleClosing();
+
+        dispose();
+    }
+
+    /**
+     * When the graph frame is closed, we remove it from the list of
+     * already opened DynastyTreeFrame(s) and enable the corresponding
+     * DynastyChoiceButton on the DynastyChoiceFrame so that a new
+     * instance can therefore be opened.
+     */
+    private void handleClosing() {
+        if(scrapingWorker != null) {
+            scrapingWorker.cancel(true);
+
+            scrapingWorker = null;
+        }
+
+        try {
+            if(legendFrameInstance == null || !legendFrameInstance.equals(this)) {
+                DynastyChoiceFrame.getInstance().getBodyPanel().enableButton(dynastyPageUrl);
+
+                /*
+                 * Change the DynastyChoiceButton with the icon variant for when
+                 * the corresponding dynasty has already been scraped (unless the
+                 * scraping was cancelled) but its DynastyTreeFrame is not opened
+                 */
+
+                if(ScrapeSession.getApplicationSession().getStoredDynastyByUrl(dynastyPageUrl) != null) {
+                    DynastyChoiceButton.getButton(dynastyPageUrl).setIcon(new ImageIcon(ImageIO.read(DynastyTreeFrame.class.getResourceAsStream("/resources/images/icons/choice/DynastyChoiceButton_scraped.png"))));
+                    DynastyChoiceButton.getButton(dynastyPageUrl).setRolloverIcon(new ImageIcon(ImageIO.read(DynastyTreeFrame.class.getResourceAsStream("/resources/images/icons/choice/DynastyChoiceButton_scraped_roll.png"))));
+                }
+            } else {
+                legendFrameInstance = null;
+            }
+        } catch (IOException ignored) {}
+
+        /*
+         * Since we're getting rid of the DynastyTreeFrame
+         * an eventual PeopleList opened related to the same
+         * Dynasty and DynastyTreeFrame gets closed too
+         */
+
+        PeopleListOpenButton.removeFromOpenedList(dynastyPageUrl);
+    }
+
+    /**
+     * @return the Dynasty object corresponding to this DynastyTreeFrame
+     *         instance, null if its page is still being scraped
      */
     public Dynasty getDynasty() {
         return dynasty;
     }
+
+    /**
+     * @return the Wikipedia page URL of the dynasty this DynastyTreeFrame instance is related to
+     */
+    public String getDynastyPageUrl() {
+        return dynastyPageUrl;
+    }
+
+    /**
+     * @return the name of the dynasty this DynastyTreeFrame instance is related to
+     */
+    public String getDynastyName() {
+        return dynastyName;
+    }
 }
@@ -0,0 +1,63 @@
+package romanemperorsscraper.ui.tree;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import java.awt.BorderLayout;
+import java.awt.Color;
+
+/**
+ * Class extending JPanel to represent a panel
+ * placed into the DynastyTreeFrame while its
+ * dynasty is being scraped, containing the
+ * scraping progress and the button used to
+ * cancel it.
+ *
+ * @see DynastyTreeFrame
+ * @see DynastyScrapingWorker
+ *
+ * @author Matteo Collica
+ */
+public class DynastyTreeProgressPanel extends JPanel {
+    private final JProgressBar progressBar;
+
+    /**
+     * Create a panel showing a dynasty's scraping progress
+     *
+     * @param dynastyTreeFrame the DynastyTreeFrame instance the panel is placed in
+     */
+    public DynastyTreeProgressPanel(DynastyTreeFrame dynastyTreeFrame) {
+        super();
+
+        setLayout(new BorderLayout(10, 0));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        setBackground(Color.WHITE);
+
+        /*
+         * The total number of people of a dynasty is unknown
+         * until it's scraped, so the bar is indeterminate and
+         * only its text tells how far the scraping has got
+         */
+
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Starting the scraping");
+
+        /* Cancelling the scraping also closes the DynastyTreeFrame */
+
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> dynastyTreeFrame.closeDynastyTreeFrame());
+
+        add(progressBar, BorderLayout.CENTER);
+        add(cancelButton, BorderLayout.EAST);
+    }
+
+    /**
+     * @param status the scraping's status to be shown
+     */
+    public void setStatus(String status) {
+        progressBar.setString(status);
+    }
+}
@@ -62,7 +62,7 @@ public class DynastyTreeTitlePanel extends JPanel {
          * TITLE (THE DYNASTY NAME)
          */
 
-        JLabel titleLabel = new JLabel(dynastyTreeFrame.getDynasty().getName());
+        JLabel titleLabel = new JLabel(dynastyTreeFrame.getDynastyName());
         titleLabel.setBorder(BorderFactory.createEmptyBorder(20, 0, 0, 0));
         titleLabel.setFont(FontUtils.getFont("RomanFont7.ttf", Font.BOLD, 55f));
         titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
@@ -131,7 +131,7 @@ public class DynastyTreeTitlePanel extends JPanel {
 
         String buttonIconPath = "/resources/images/icons/tree/PeopleListOpenButton.png";
         String buttonRolloverIconPath = "/resources/images/icons/tree/PeopleListOpenButton_roll.png";
-        peopleListOpenButton = new PeopleListOpenButton(dynastyTreeFrame.getDynasty().getWikipediaPageUrl(), buttonIconPath, buttonRolloverIconPath);
+        peopleListOpenButton = new PeopleListOpenButton(dynastyTreeFrame.getDynastyPageUrl(), buttonIconPath, buttonRolloverIconPath);
 
         /*
          * DESCRIPTIVE TEXT AREA
@@ -150,4 +150,12 @@ public class DynastyTreeTitlePanel extends JPanel {
         peopleListButtonContainer.add(peopleListOpenButtonTextArea);
         peopleListButtonContainer.add(peopleListOpenButton);
     }
+
+    /**
+     * @param enabled true if the button to open the list of dynasty
+     *                people should be enabled, false otherwise
+     */
+    public void setPeopleListEnabled(boolean enabled) {
+        peopleListOpenButton.setEnabled(enabled);
+    }
 }